@@ -1,22 +1,65 @@
 package com.shablii.timetable;
 
+import com.shablii.timetable.service.*;
 import com.shablii.timetable.service.model.generator.DataGenerator;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.stereotype.Component;
 
+import java.io.*;
+
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class TimetableAppRefreshListener implements ApplicationListener<ContextRefreshedEvent> {
 
     private final DataGenerator dataGenerator;
+    private final SnapshotService snapshotService;
+    private final SemesterArchiver semesterArchiver;
+    private final SemesterMaterializer semesterMaterializer;
+    @Value("${university.startup.regenerate:false}")
+    private boolean regenerate;
+    @Value("${university.snapshot.path:}")
+    private String snapshotPath;
 
+    /* Child contexts share the database of the root one, data is prepared once for the whole hierarchy */
     @Override
     public void onApplicationEvent(ContextRefreshedEvent event) {
 
-        dataGenerator.resetSequences();
+        if (event.getApplicationContext().getParent() != null) {
+            return;
+        }
+
+        semesterArchiver.preparePartitions();
+        if (!regenerate && !snapshotService.isEmpty()) {
+            log.info("Existing data found, skipping generation");
+            semesterMaterializer.materializeSemester();
+            return;
+        }
+
+        File snapshot = new File(snapshotPath);
+        if (!snapshotPath.isEmpty() && snapshot.isFile()) {
+            restore(snapshot);
+            return;
+        }
+        if (!snapshotPath.isEmpty()) {
+            log.warn("Snapshot {} could not be found, generating data instead", snapshotPath);
+        }
+        dataGenerator.resetAllData();
         dataGenerator.refreshAllData();
     }
 
+    private void restore(File snapshot) {
+
+        log.info("Restoring data from snapshot {}...", snapshot);
+        try (InputStream in = new FileInputStream(snapshot)) {
+            snapshotService.restoreFrom(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not restore snapshot " + snapshot, e);
+        }
+    }
+
 }
@@ -0,0 +1,53 @@
+package com.shablii.timetable.api;
+
+import com.shablii.timetable.exceptions.ApiException;
+import com.shablii.timetable.service.model.generator.GenerationJob;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.*;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RequestMapping("/api/v1/timetable/jobs")
+@Tag(name = "jobs", description = "Data generation jobs API")
+public interface JobsApi {
+
+    @PostMapping(path = "/rebuild-timetable", produces = { "application/json" })
+    @Operation(summary = "Rebuild timetable", tags = { "jobs" },
+               description = "Starts a job that erases timetable data and generates it afresh. University data is "
+                       + "not affected. The new timetable replaces the old one in a single transaction once the job "
+                       + "completes")
+    @ApiResponse(responseCode = "202", description = "job submitted",
+                 content = @Content(schema = @Schema(implementation = GenerationJob.Status.class)))
+    ResponseEntity<EntityModel<GenerationJob.Status>> rebuildTimetable();
+
+    @PostMapping(path = "/refresh-all-data", produces = { "application/json" })
+    @Operation(summary = "Refresh all data", tags = { "jobs" },
+               description = "Starts a job that erases all university and timetable data and generates it afresh. "
+                       + "New data replaces the old one in a single transaction once the job completes")
+    @ApiResponse(responseCode = "202", description = "job submitted",
+                 content = @Content(schema = @Schema(implementation = GenerationJob.Status.class)))
+    ResponseEntity<EntityModel<GenerationJob.Status>> refreshAllData();
+
+    @GetMapping(path = "/{id}", produces = { "application/json" })
+    @Operation(summary = "Get job status", tags = { "jobs" },
+               description = "Returns state, current phase, number of placed pairs and conflicts of the job")
+    @ApiResponse(responseCode = "200", description = "found",
+                 content = @Content(schema = @Schema(implementation = GenerationJob.Status.class)))
+    @ApiResponse(responseCode = "404", description = "job not found",
+                 content = @Content(schema = @Schema(implementation = ApiException.class)))
+    EntityModel<GenerationJob.Status> findById(@PathVariable String id);
+
+    @GetMapping(path = "/{id}/events", produces = { "text/event-stream" })
+    @Operation(summary = "Stream job progress", tags = { "jobs" },
+               description = "Sends current job status as 'progress' event right away and on every change. Stream "
+                       + "is closed after the event of completed or failed job")
+    @ApiResponse(responseCode = "200", description = "operation successful")
+    @ApiResponse(responseCode = "404", description = "job not found",
+                 content = @Content(schema = @Schema(implementation = ApiException.class)))
+    SseEmitter streamProgress(@PathVariable String id);
+
+}
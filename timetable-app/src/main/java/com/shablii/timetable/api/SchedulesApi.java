@@ -2,6 +2,7 @@ package com.shablii.timetable.api;
 
 import com.shablii.timetable.exceptions.ApiException;
 import com.shablii.timetable.model.*;
+import com.shablii.timetable.service.SlotFinder;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.*;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -10,10 +11,12 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.hateoas.*;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import javax.validation.Valid;
-import javax.validation.constraints.Min;
+import javax.validation.constraints.*;
 import java.time.LocalDate;
+import java.util.List;
 
 @RequestMapping("/api/v1/timetable/schedules")
 @Validated
@@ -25,10 +28,10 @@ public interface SchedulesApi {
                description = "Look up schedule items by semester date "
                        + "(optionally filter by either professor, group, " + "course, or auditorium")
     @ApiResponse(responseCode = "200", description = "operation successful",
-                 content = @Content(array = @ArraySchema(schema = @Schema(implementation = Schedule.class))))
+                 content = @Content(array = @ArraySchema(schema = @Schema(implementation = ScheduleRow.class))))
     @ApiResponse(responseCode = "400", description = "invalid data submitted",
                  content = @Content(schema = @Schema(implementation = ApiException.class)))
-    CollectionModel<EntityModel<Schedule>> findByDate(
+    CollectionModel<EntityModel<ScheduleRow>> findByDate(
             @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
             @RequestParam(name = "professorId", required = false) @Min(1) Long professorId,
             @RequestParam(name = "groupId", required = false) @Min(1) Long groupId,
@@ -40,10 +43,10 @@ public interface SchedulesApi {
                description = "Look up schedule items by semester week number "
                        + "(optionally filter by either professor, group, " + "course, or auditorium")
     @ApiResponse(responseCode = "200", description = "operation successful",
-                 content = @Content(array = @ArraySchema(schema = @Schema(implementation = Schedule.class))))
+                 content = @Content(array = @ArraySchema(schema = @Schema(implementation = ScheduleRow.class))))
     @ApiResponse(responseCode = "400", description = "invalid data submitted",
                  content = @Content(schema = @Schema(implementation = ApiException.class)))
-    CollectionModel<EntityModel<Schedule>> findByWeek(@RequestParam("week") @Min(1) int week,
+    CollectionModel<EntityModel<ScheduleRow>> findByWeek(@RequestParam("week") @Min(1) int week,
             @RequestParam(name = "professorId", required = false) @Min(1) Long professorId,
             @RequestParam(name = "groupId", required = false) @Min(1) Long groupId,
             @RequestParam(name = "courseId", required = false) @Min(1) Long courseId,
@@ -54,10 +57,10 @@ public interface SchedulesApi {
                description = "Look up schedule items by month " + "(optionally filter by either professor, group, "
                        + "course, or auditorium")
     @ApiResponse(responseCode = "200", description = "operation successful",
-                 content = @Content(array = @ArraySchema(schema = @Schema(implementation = Schedule.class))))
+                 content = @Content(array = @ArraySchema(schema = @Schema(implementation = ScheduleRow.class))))
     @ApiResponse(responseCode = "400", description = "invalid data submitted",
                  content = @Content(schema = @Schema(implementation = ApiException.class)))
-    CollectionModel<EntityModel<Schedule>> findByMonth(@RequestParam("month") @Min(1) int month,
+    CollectionModel<EntityModel<ScheduleRow>> findByMonth(@RequestParam("month") @Min(1) int month,
             @RequestParam(name = "professorId", required = false) @Min(1) Long professorId,
             @RequestParam(name = "groupId", required = false) @Min(1) Long groupId,
             @RequestParam(name = "courseId", required = false) @Min(1) Long courseId,
@@ -94,6 +97,22 @@ public interface SchedulesApi {
             @RequestBody @Valid Schedule rescheduled,
             @RequestParam(name = "recurring", defaultValue = "false") boolean recurring);
 
+    @PutMapping(path = "/batch", consumes = { "application/json" }, produces = { "application/json" })
+    @Operation(summary = "Reschedule batch", tags = { "schedules" },
+               description = "Use to move several schedule items at once (e.g. entire cancelled day). Moves are "
+                       + "validated together against existing timetable and each other, so slots vacated by one move "
+                       + "may be taken by another. Either all moves are saved in one transaction or none of them")
+    @ApiResponse(responseCode = "200", description = "operation successful",
+                 content = @Content(array = @ArraySchema(schema = @Schema(implementation = Schedule.class))))
+    @ApiResponse(responseCode = "400",
+                 description = "May be produced for multiple reasons:\n" + "1. Invalid or empty query data\n"
+                         + "2. Unknown or repeated schedule IDs\n"
+                         + "3. Schedule illegally changed group or course\n"
+                         + "4. Moves collide with existing timetable or each other",
+                 content = @Content(schema = @Schema(implementation = ApiException.class)))
+    CollectionModel<EntityModel<Schedule>> rescheduleAll(
+            @RequestBody @NotEmpty @Size(max = 1000) List<@NotNull @Valid Schedule> rescheduled);
+
     @GetMapping(path = "/{id}/available/auditoriums", produces = { "application/json" })
     @Operation(summary = "Find available auditoriums", tags = { "schedules", "auditoriums" },
                description = "Return result can be used to move class to a new "
@@ -136,4 +155,30 @@ public interface SchedulesApi {
                     iso = DateTimeFormat.ISO.DATE) LocalDate date,
             @RequestParam(name = "week", required = false) @Min(1) Integer week);
 
+    @GetMapping(path = "/{id}/options/best", produces = { "application/json" })
+    @Operation(summary = "Find best rescheduling slots in semester", tags = { "schedules" },
+               description = "Searches entire semester for collision-free slots and returns top ranked ones. "
+                       + "Lower score is better: slots closer to original date, without gaps in group's day "
+                       + "and in the same auditorium rank first.")
+    @ApiResponse(responseCode = "200", description = "operation successful", content = @Content(
+            array = @ArraySchema(schema = @Schema(implementation = SlotFinder.RankedSlot.class))))
+    @ApiResponse(responseCode = "400", description = "invalid data submitted",
+                 content = @Content(schema = @Schema(implementation = ApiException.class)))
+    @ApiResponse(responseCode = "404", description = "schedule not found",
+                 content = @Content(schema = @Schema(implementation = ApiException.class)))
+    CollectionModel<EntityModel<SlotFinder.RankedSlot>> findBestSlots(@PathVariable @Min(1) long id,
+            @RequestParam(name = "limit", defaultValue = "10") @Min(1) @Max(100) int limit);
+
+    @GetMapping(path = "/{id}/options/best", produces = { "text/event-stream" })
+    @Operation(summary = "Stream best rescheduling slots in semester", tags = { "schedules" },
+               description = "Same search as above, but every slot entering current top is sent as 'slot' event "
+                       + "once found, followed by final ranked list as 'result' event.")
+    @ApiResponse(responseCode = "200", description = "operation successful")
+    @ApiResponse(responseCode = "400", description = "invalid data submitted",
+                 content = @Content(schema = @Schema(implementation = ApiException.class)))
+    @ApiResponse(responseCode = "404", description = "schedule not found",
+                 content = @Content(schema = @Schema(implementation = ApiException.class)))
+    SseEmitter streamBestSlots(@PathVariable @Min(1) long id,
+            @RequestParam(name = "limit", defaultValue = "10") @Min(1) @Max(100) int limit);
+
 }
@@ -1,11 +1,12 @@
 package com.shablii.timetable.api;
 
-import com.shablii.timetable.service.utility.SemesterCalendar;
+import com.shablii.timetable.service.SemesterArchiver;
+import com.shablii.timetable.service.utility.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.*;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.*;
 import org.springframework.web.bind.annotation.*;
 
 @RequestMapping("/api/v1/timetable/semester")
@@ -20,4 +21,29 @@ public interface SemesterApi {
                  content = @Content(schema = @Schema(implementation = SemesterCalendar.Semester.class)))
     EntityModel<SemesterCalendar.Semester> getSemester();
 
+    @GetMapping(path = "/all", produces = { "application/json" })
+    @Operation(summary = "Get all served semesters", tags = { "semester" },
+               description = "Returns current semester together with every further semester whose dates are"
+                       + " served with their own week numbers and parity, ordered by start date")
+    @ApiResponse(responseCode = "200", description = "operation successful", content = @Content(
+            array = @ArraySchema(schema = @Schema(implementation = SemesterCalendar.Semester.class))))
+    CollectionModel<SemesterCalendar.Semester> getSemesters();
+
+    @GetMapping(path = "/materialization", produces = { "application/json" })
+    @Operation(summary = "Get semester materialization progress", tags = { "semester" },
+               description = "Returns number of semester weeks with schedule items already generated and whether"
+                       + " entire semester is ready to be served without on-demand generation")
+    @ApiResponse(responseCode = "200", description = "operation successful", content = @Content(
+            schema = @Schema(implementation = SemesterMaterializationStatus.Progress.class)))
+    EntityModel<SemesterMaterializationStatus.Progress> getMaterializationProgress();
+
+    @PostMapping(path = "/archive", produces = { "application/json" })
+    @Operation(summary = "Archive finished semesters", tags = { "semester" },
+               description = "Detaches monthly schedule partitions ending before current semester start and moves"
+                       + " them to archive schema, lookups of current semester no longer scan them. Does nothing"
+                       + " if schedules table is not partitioned")
+    @ApiResponse(responseCode = "200", description = "operation successful",
+                 content = @Content(schema = @Schema(implementation = SemesterArchiver.Archival.class)))
+    EntityModel<SemesterArchiver.Archival> archiveFinishedSemesters();
+
 }
@@ -0,0 +1,22 @@
+package com.shablii.timetable.api;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RequestMapping("/api/v1/timetable/snapshot")
+@Tag(name = "snapshot", description = "Data snapshot API")
+public interface SnapshotApi {
+
+    @GetMapping(produces = { "application/octet-stream" })
+    @Operation(summary = "Export data snapshot", tags = { "snapshot" },
+               description = "Streams all university and timetable data as a compact binary snapshot. A fresh "
+                       + "instance started with university.snapshot.path pointing to the file restores it instead of "
+                       + "generating data")
+    @ApiResponse(responseCode = "200", description = "operation successful")
+    ResponseEntity<StreamingResponseBody> exportSnapshot();
+
+}
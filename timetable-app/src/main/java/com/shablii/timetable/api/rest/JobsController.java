@@ -0,0 +1,88 @@
+package com.shablii.timetable.api.rest;
+
+import com.shablii.timetable.api.JobsApi;
+import com.shablii.timetable.exceptions.NotFoundException;
+import com.shablii.timetable.service.model.generator.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.http.*;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class JobsController implements JobsApi {
+
+    private final GenerationJobs generationJobs;
+
+    @Override
+    public ResponseEntity<EntityModel<GenerationJob.Status>> rebuildTimetable() {
+
+        return accepted(generationJobs.submit(GenerationJob.Kind.REBUILD_TIMETABLE));
+    }
+
+    @Override
+    public ResponseEntity<EntityModel<GenerationJob.Status>> refreshAllData() {
+
+        return accepted(generationJobs.submit(GenerationJob.Kind.REFRESH_ALL_DATA));
+    }
+
+    @Override
+    public EntityModel<GenerationJob.Status> findById(String id) {
+
+        return toModel(findJob(id).getStatus());
+    }
+
+    @Override
+    public SseEmitter streamProgress(String id) {
+
+        GenerationJob job = findJob(id);
+
+        SseEmitter emitter = new SseEmitter();
+        Consumer<GenerationJob.Status> listener = status -> {
+            send(emitter, status);
+            if (status.isFinished()) {
+                emitter.complete();
+            }
+        };
+        emitter.onCompletion(() -> job.unsubscribe(listener));
+        emitter.onError(e -> job.unsubscribe(listener));
+        job.subscribe(listener);
+        return emitter;
+    }
+
+    private GenerationJob findJob(String id) {
+
+        return generationJobs.find(id).orElseThrow(() -> new NotFoundException("Job " + id + " could not be found"));
+    }
+
+    private ResponseEntity<EntityModel<GenerationJob.Status>> accepted(GenerationJob job) {
+
+        EntityModel<GenerationJob.Status> model = toModel(job.getStatus());
+        return ResponseEntity.accepted().location(linkTo(methodOn(JobsApi.class).findById(job.getId())).toUri()).body(
+                model);
+    }
+
+    private EntityModel<GenerationJob.Status> toModel(GenerationJob.Status status) {
+
+        return new EntityModel<>(status, linkTo(methodOn(JobsApi.class).findById(status.getId())).withSelfRel(),
+                linkTo(methodOn(JobsApi.class).streamProgress(status.getId())).withRel("events"));
+    }
+
+    private void send(SseEmitter emitter, GenerationJob.Status status) {
+
+        try {
+            emitter.send(SseEmitter.event().name("progress").data(status, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Could not send progress event, client is gone: {}", e.getMessage());
+        }
+    }
+
+}
@@ -4,19 +4,24 @@ import com.shablii.timetable.api.SchedulesApi;
 import com.shablii.timetable.api.rest.assemblers.*;
 import com.shablii.timetable.exceptions.*;
 import com.shablii.timetable.model.*;
-import com.shablii.timetable.service.TimetableFacade;
+import com.shablii.timetable.service.*;
 import com.shablii.timetable.service.utility.SemesterCalendar;
 import com.shablii.timetable.service.utility.predicates.*;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.hateoas.*;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 
+@Slf4j
 @RestController
 @RequiredArgsConstructor
 public class SchedulesController implements SchedulesApi {
@@ -24,14 +29,15 @@ public class SchedulesController implements SchedulesApi {
     private final TimetableFacade timetableFacade;
     private final SemesterCalendar semesterCalendar;
     private final ScheduleModelAssembler scheduleAssembler;
+    private final ScheduleRowModelAssembler rowAssembler;
     private final ProfessorModelAssembler professorAssembler;
     private final AuditoriumModelAssembler auditoriumAssembler;
 
     @Override
-    public CollectionModel<EntityModel<Schedule>> findByDate(LocalDate date, Long professorId, Long groupId,
+    public CollectionModel<EntityModel<ScheduleRow>> findByDate(LocalDate date, Long professorId, Long groupId,
             Long courseId, Long auditoriumId) {
 
-        List<EntityModel<Schedule>> models = getEntityModels(getPredicate(professorId, groupId, courseId, auditoriumId),
+        List<EntityModel<ScheduleRow>> models = getRowModels(getPredicate(professorId, groupId, courseId, auditoriumId),
                 date, date);
         return new CollectionModel<>(models,
                 linkTo(methodOn(SchedulesApi.class).findByDate(date, professorId, groupId, courseId,
@@ -39,13 +45,13 @@ public class SchedulesController implements SchedulesApi {
     }
 
     @Override
-    public CollectionModel<EntityModel<Schedule>> findByWeek(int week, Long professorId, Long groupId, Long courseId,
+    public CollectionModel<EntityModel<ScheduleRow>> findByWeek(int week, Long professorId, Long groupId, Long courseId,
             Long auditoriumId) {
 
         LocalDate monday = semesterCalendar.getWeekMonday(week);
         LocalDate friday = semesterCalendar.getWeekFriday(week);
 
-        List<EntityModel<Schedule>> models = getEntityModels(getPredicate(professorId, groupId, courseId, auditoriumId),
+        List<EntityModel<ScheduleRow>> models = getRowModels(getPredicate(professorId, groupId, courseId, auditoriumId),
                 monday, friday);
         return new CollectionModel<>(models,
                 linkTo(methodOn(SchedulesApi.class).findByWeek(week, professorId, groupId, courseId,
@@ -53,25 +59,24 @@ public class SchedulesController implements SchedulesApi {
     }
 
     @Override
-    public CollectionModel<EntityModel<Schedule>> findByMonth(int month, Long professorId, Long groupId, Long courseId,
-            Long auditoriumId) {
+    public CollectionModel<EntityModel<ScheduleRow>> findByMonth(int month, Long professorId, Long groupId,
+            Long courseId, Long auditoriumId) {
 
         LocalDate firstOfMonth = semesterCalendar.getFirstSemesterDayOfMonth(month);
         LocalDate lastOfMonth = semesterCalendar.getLastSemesterDayOfMonth(month);
 
-        List<EntityModel<Schedule>> models = getEntityModels(getPredicate(professorId, groupId, courseId, auditoriumId),
+        List<EntityModel<ScheduleRow>> models = getRowModels(getPredicate(professorId, groupId, courseId, auditoriumId),
                 firstOfMonth, lastOfMonth);
         return new CollectionModel<>(models,
                 linkTo(methodOn(SchedulesApi.class).findByMonth(month, professorId, groupId, courseId,
                         auditoriumId)).withSelfRel());
     }
 
-    private List<EntityModel<Schedule>> getEntityModels(SchedulePredicate predicate, LocalDate start, LocalDate end) {
+    private List<EntityModel<ScheduleRow>> getRowModels(SchedulePredicate predicate, LocalDate start, LocalDate end) {
 
-        return timetableFacade.getScheduleFor(predicate, start, end)
+        return timetableFacade.getScheduleRowsFor(predicate, start, end)
                 .stream()
-                .sorted()
-                .map(scheduleAssembler::toModel)
+                .map(rowAssembler::toModel)
                 .collect(Collectors.toList());
     }
 
@@ -127,6 +132,18 @@ public class SchedulesController implements SchedulesApi {
                 linkTo(methodOn(SchedulesApi.class).findById(id)).withRel("schedule"));
     }
 
+    @Override
+    public CollectionModel<EntityModel<Schedule>> rescheduleAll(List<Schedule> rescheduled) {
+
+        List<EntityModel<Schedule>> models = timetableFacade.rescheduleAll(rescheduled)
+                .stream()
+                .sorted()
+                .map(scheduleAssembler::toModel)
+                .collect(Collectors.toList());
+        return new CollectionModel<>(models,
+                linkTo(methodOn(SchedulesApi.class).rescheduleAll(rescheduled)).withSelfRel());
+    }
+
     private void validateRescheduled(Schedule rescheduled, Schedule schedule) {
 
         Map<String, String> errors = new HashMap<>();
@@ -139,12 +156,8 @@ public class SchedulesController implements SchedulesApi {
         if (!rescheduled.getCourse().equals(schedule.getCourse())) {
             errors.put("Courses don't match", "Submitted schedule illegally modified course");
         }
-        if (!timetableFacade.isValidToReschedule(rescheduled)) {
-            errors.put("Not valid to reschedule",
-                    "Submitted schedule " + "is inconsistent with existing timetable, please make "
-                            + "sure to edit schedule only per available "
-                            + "professor/auditorium or data from rescheduling options");
-        }
+        semesterCalendar.findMoveError(rescheduled.getDate(), rescheduled.getDay())
+                .ifPresent(error -> errors.put("Invalid target date", error));
         if (!errors.isEmpty()) {
             throw new ApiException("Schedule item you sent failed validation", errors);
         }
@@ -198,4 +211,46 @@ public class SchedulesController implements SchedulesApi {
                 linkTo(methodOn(SchedulesApi.class).findOptions(id, date, week)).withSelfRel());
     }
 
+    @Override
+    public CollectionModel<EntityModel<SlotFinder.RankedSlot>> findBestSlots(long id, int limit) {
+
+        Schedule schedule = timetableFacade.getSchedule(id)
+                .orElseThrow(() -> new NotFoundException("Schedule with ID " + id + " could not be found"));
+
+        List<EntityModel<SlotFinder.RankedSlot>> slots = timetableFacade.getBestSlots(schedule, limit)
+                .stream()
+                .map(EntityModel<SlotFinder.RankedSlot>::new)
+                .collect(Collectors.toList());
+        return new CollectionModel<>(slots, linkTo(methodOn(SchedulesApi.class).findBestSlots(id, limit)).withSelfRel(),
+                linkTo(methodOn(SchedulesApi.class).findById(id)).withRel("schedule"));
+    }
+
+    @Override
+    public SseEmitter streamBestSlots(long id, int limit) {
+
+        Schedule schedule = timetableFacade.getSchedule(id)
+                .orElseThrow(() -> new NotFoundException("Schedule with ID " + id + " could not be found"));
+
+        SseEmitter emitter = new SseEmitter();
+        timetableFacade.getBestSlots(schedule, limit, slot -> send(emitter, "slot", slot))
+                .whenComplete((slots, error) -> {
+                    if (error != null) {
+                        emitter.completeWithError(error);
+                        return;
+                    }
+                    send(emitter, "result", slots);
+                    emitter.complete();
+                });
+        return emitter;
+    }
+
+    private void send(SseEmitter emitter, String event, Object data) {
+
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Could not send {} event, client is gone: {}", event, e.getMessage());
+        }
+    }
+
 }
@@ -1,9 +1,10 @@
 package com.shablii.timetable.api.rest;
 
 import com.shablii.timetable.api.SemesterApi;
-import com.shablii.timetable.service.utility.SemesterCalendar;
+import com.shablii.timetable.service.SemesterArchiver;
+import com.shablii.timetable.service.utility.*;
 import lombok.RequiredArgsConstructor;
-import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.*;
 import org.springframework.web.bind.annotation.RestController;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
@@ -13,6 +14,8 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 public class SemesterController implements SemesterApi {
 
     private final SemesterCalendar semesterCalendar;
+    private final SemesterMaterializationStatus materializationStatus;
+    private final SemesterArchiver semesterArchiver;
 
     @Override
     public EntityModel<SemesterCalendar.Semester> getSemester() {
@@ -21,4 +24,27 @@ public class SemesterController implements SemesterApi {
                 linkTo(methodOn(SemesterApi.class).getSemester()).withSelfRel());
     }
 
+    @Override
+    public CollectionModel<SemesterCalendar.Semester> getSemesters() {
+
+        return new CollectionModel<>(semesterCalendar.getSemesters(),
+                linkTo(methodOn(SemesterApi.class).getSemesters()).withSelfRel(),
+                linkTo(methodOn(SemesterApi.class).getSemester()).withRel("current"));
+    }
+
+    @Override
+    public EntityModel<SemesterMaterializationStatus.Progress> getMaterializationProgress() {
+
+        return new EntityModel<>(materializationStatus.getProgress(),
+                linkTo(methodOn(SemesterApi.class).getMaterializationProgress()).withSelfRel(),
+                linkTo(methodOn(SemesterApi.class).getSemester()).withRel("semester"));
+    }
+
+    @Override
+    public EntityModel<SemesterArchiver.Archival> archiveFinishedSemesters() {
+
+        return new EntityModel<>(semesterArchiver.archiveFinishedSemesters(),
+                linkTo(methodOn(SemesterApi.class).getSemester()).withRel("semester"));
+    }
+
 }
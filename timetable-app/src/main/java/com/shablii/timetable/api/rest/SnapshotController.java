@@ -0,0 +1,25 @@
+package com.shablii.timetable.api.rest;
+
+import com.shablii.timetable.api.SnapshotApi;
+import com.shablii.timetable.service.SnapshotService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.*;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequiredArgsConstructor
+public class SnapshotController implements SnapshotApi {
+
+    private final SnapshotService snapshotService;
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportSnapshot() {
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"timetable.snapshot\"")
+                .body(snapshotService::exportTo);
+    }
+
+}
@@ -3,7 +3,11 @@ package com.shablii.timetable.api.rest.advice;
 import com.shablii.timetable.exceptions.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.core.NestedRuntimeException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.*;
+import org.springframework.orm.jpa.JpaSystemException;
+import org.springframework.transaction.TransactionSystemException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
@@ -16,6 +20,18 @@ import java.util.stream.Collectors;
 @Slf4j
 public class GlobalRestExceptionsAdvice {
 
+    private static final Map<String, String> DOUBLE_BOOKINGS = new LinkedHashMap<>();
+
+    /* Partitions of schedules name their copies of a constraint after themselves, so only its suffix is matched */
+    static {
+        DOUBLE_BOOKINGS.put("_on_date_period_auditorium_id_key", "Auditorium");
+        DOUBLE_BOOKINGS.put("_on_date_period_group_id_key", "Group");
+        DOUBLE_BOOKINGS.put("_on_date_period_professor_id_key", "Professor");
+        DOUBLE_BOOKINGS.put("schedule_templates_week_parity_day_period_auditorium_id_key", "Auditorium");
+        DOUBLE_BOOKINGS.put("schedule_templates_week_parity_day_period_group_id_key", "Group");
+        DOUBLE_BOOKINGS.put("schedule_templates_week_parity_day_period_professor_id_key", "Professor");
+    }
+
     @ExceptionHandler(MethodNotImplementedException.class)
     public ResponseEntity<ApiException> handleNotImplemented(MethodNotImplementedException e) {
 
@@ -48,6 +64,41 @@ public class GlobalRestExceptionsAdvice {
         return ResponseEntity.badRequest().body(apiException);
     }
 
+    /* Double bookings are rejected by unique constraints, violated constraint tells which resource is taken */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ApiException> handleDataIntegrityViolation(DataIntegrityViolationException exception) {
+
+        log.warn(exception.getMessage());
+        return conflict(exception.getMostSpecificCause());
+    }
+
+    /* A violation flushed only by the commit comes wrapped in a transaction failure, it is still a conflict */
+    @ExceptionHandler({ TransactionSystemException.class, JpaSystemException.class })
+    public ResponseEntity<ApiException> handleCommitFailure(NestedRuntimeException exception) {
+
+        if (!exception.contains(org.hibernate.exception.ConstraintViolationException.class)) {
+            throw exception;
+        }
+        log.warn(exception.getMessage());
+        return conflict(exception.getMostSpecificCause());
+    }
+
+    private ResponseEntity<ApiException> conflict(Throwable cause) {
+
+        String violation = String.valueOf(cause.getMessage()).toLowerCase();
+        Map<String, String> errors = DOUBLE_BOOKINGS.entrySet()
+                .stream()
+                .filter(constraint -> violation.contains(constraint.getKey()))
+                .collect(Collectors.toMap(Map.Entry::getValue,
+                        constraint -> constraint.getValue() + " is already booked for this period"));
+        if (errors.isEmpty()) {
+            errors = Collections.singletonMap("data integrity", "Submitted data conflicts with existing records");
+        }
+        ApiException apiException = new ApiException(
+                "Submitted data could not be saved as it conflicts with existing timetable", errors);
+        return new ResponseEntity<>(apiException, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(ApiException.class)
     public ResponseEntity<ApiException> handleApiException(ApiException exception) {
 
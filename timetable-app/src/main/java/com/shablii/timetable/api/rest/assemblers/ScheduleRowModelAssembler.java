@@ -0,0 +1,27 @@
+package com.shablii.timetable.api.rest.assemblers;
+
+import com.shablii.timetable.api.SchedulesApi;
+import com.shablii.timetable.api.rest.SchedulesController;
+import com.shablii.timetable.model.ScheduleRow;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.server.RepresentationModelAssembler;
+import org.springframework.stereotype.Component;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+
+@Component
+public class ScheduleRowModelAssembler implements RepresentationModelAssembler<ScheduleRow, EntityModel<ScheduleRow>> {
+
+    @Override
+    public EntityModel<ScheduleRow> toModel(ScheduleRow row) {
+
+        SchedulesApi controller = methodOn(SchedulesController.class);
+
+        return new EntityModel<>(row, linkTo(controller.findById(row.getId())).withSelfRel(),
+                linkTo(controller.findAvailableAuditoriums(row.getId())).withRel("available auditoriums"),
+                linkTo(controller.findAvailableProfessors(row.getId())).withRel("available professors"),
+                linkTo(controller.findOptions(row.getId(), null, null)).withRel("rescheduling options"),
+                linkTo(controller.reschedule(row.getId(), null, false)).withRel("reschedule"));
+    }
+
+}
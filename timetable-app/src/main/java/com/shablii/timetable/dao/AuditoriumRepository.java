@@ -4,11 +4,16 @@ import com.shablii.timetable.model.*;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDate;
 import java.util.List;
 
 public interface AuditoriumRepository extends JpaRepository<Auditorium, Long> {
 
+    @Override
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    List<Auditorium> findAll();
+
     @Query("select a from Auditorium a where a not in " + "(select s.auditorium from Schedule s where"
                    + " s.date = :date and s.period = :period)")
     List<Auditorium> findAllAvailable(@Param("date") LocalDate date, @Param("period") Period period);
@@ -0,0 +1,19 @@
+package com.shablii.timetable.dao;
+
+import com.shablii.timetable.model.*;
+
+import java.util.List;
+
+public interface BulkInsertDao {
+
+    List<Student> insertStudents(List<Student> students);
+
+    List<ScheduleTemplate> insertTemplates(List<ScheduleTemplate> templates);
+
+    List<Schedule> insertSchedules(List<Schedule> schedules);
+
+    List<Schedule> insertSchedulesIfAbsent(List<Schedule> schedules);
+
+    void insertRows(String table, List<List<Object>> rows);
+
+}
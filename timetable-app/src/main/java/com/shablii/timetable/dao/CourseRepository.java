@@ -1,8 +1,15 @@
 package com.shablii.timetable.dao;
 
 import com.shablii.timetable.model.Course;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.*;
+
+import javax.persistence.QueryHint;
+import java.util.List;
 
 public interface CourseRepository extends JpaRepository<Course, Long> {
 
+    @Override
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    List<Course> findAll();
+
 }
@@ -0,0 +1,7 @@
+package com.shablii.timetable.dao;
+
+public interface DataResetDao {
+
+    void truncateAll(boolean restartSequences);
+
+}
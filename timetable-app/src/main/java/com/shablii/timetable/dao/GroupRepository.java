@@ -4,10 +4,15 @@ import com.shablii.timetable.model.Group;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
 public interface GroupRepository extends JpaRepository<Group, Long> {
 
+    @Override
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    List<Group> findAll();
+
     @Query("select t.group from ScheduleTemplate t " + "where t.professor.id = :professorId "
                    + "and t.course.id = :courseId")
     List<Group> findAllByProfessorAndCourse(@Param("professorId") long professorId, @Param("courseId") long courseId);
@@ -4,15 +4,21 @@ import com.shablii.timetable.model.*;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDate;
 import java.util.List;
 
 public interface ProfessorRepository extends JpaRepository<Professor, Long> {
 
+    @Override
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    List<Professor> findAll();
+
     @Query("select p from Professor p where p not in " + "(select s.professor from Schedule s where"
                    + " s.date = :date and s.period = :period)")
     List<Professor> findAllAvailable(@Param("date") LocalDate date, @Param("period") Period period);
 
+    @Query("select p from Professor p join p.courses c where c = :course")
     List<Professor> findAllByCourses(@Param("course") Course course);
 
 }
@@ -0,0 +1,26 @@
+package com.shablii.timetable.dao;
+
+import com.shablii.timetable.model.ScheduleOverride;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.*;
+
+public interface ScheduleOverrideRepository extends JpaRepository<ScheduleOverride, Long> {
+
+    @Query("select o from ScheduleOverride o where o.originDate between :startDate and :endDate"
+                   + " or o.date between :startDate and :endDate")
+    List<ScheduleOverride> findAllAffectingRange(@Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    List<ScheduleOverride> findAllByDateBetween(LocalDate startDate, LocalDate endDate);
+
+    @Query("select o from ScheduleOverride o where o.template.id = :templateId and o.originDate = :originDate")
+    Optional<ScheduleOverride> findByTemplateIdAndOriginDate(@Param("templateId") long templateId,
+            @Param("originDate") LocalDate originDate);
+
+    @Query("select o from ScheduleOverride o where o.template.id = :templateId")
+    List<ScheduleOverride> findAllByTemplateId(@Param("templateId") long templateId);
+
+}
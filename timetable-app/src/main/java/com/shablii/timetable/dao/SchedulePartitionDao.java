@@ -0,0 +1,14 @@
+package com.shablii.timetable.dao;
+
+import java.time.*;
+import java.util.*;
+
+public interface SchedulePartitionDao {
+
+    boolean isPartitioned();
+
+    boolean createMonthPartition(YearMonth month);
+
+    List<String> archiveMonthPartitionsBefore(LocalDate date, Collection<YearMonth> kept);
+
+}
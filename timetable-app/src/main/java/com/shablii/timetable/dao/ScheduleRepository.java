@@ -1,17 +1,65 @@
 package com.shablii.timetable.dao;
 
-import com.shablii.timetable.model.Schedule;
-import org.springframework.data.jpa.repository.JpaRepository;
+import com.shablii.timetable.model.*;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.jpa.repository.EntityGraph.EntityGraphType;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
-import java.util.List;
+import java.util.*;
 
+/* Auditorium, course, group and professor are joined into every schedule read instead of selected one by one */
 public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
 
+    @Override
+    @EntityGraph(value = "Schedule.resources", type = EntityGraphType.LOAD)
+    List<Schedule> findAll();
+
+    @EntityGraph(value = "Schedule.resources", type = EntityGraphType.LOAD)
     List<Schedule> findAllByDate(LocalDate date);
 
-    List<Schedule> findAllByTemplateId(long templateId);
+    @EntityGraph(value = "Schedule.resources", type = EntityGraphType.LOAD)
+    @Query("select s from Schedule s where s.template.id = :templateId")
+    List<Schedule> findAllByTemplateId(@Param("templateId") long templateId);
 
+    @EntityGraph(value = "Schedule.resources", type = EntityGraphType.LOAD)
     List<Schedule> findAllByDateBetween(LocalDate startDate, LocalDate endDate);
 
+    @EntityGraph(value = "Schedule.resources", type = EntityGraphType.LOAD)
+    List<Schedule> findAllByDateInAndPeriodIn(Collection<LocalDate> dates, Collection<Period> periods);
+
+    String ROWS = "select new com.shablii.timetable.model.ScheduleRow(s.id, s.date, s.day, s.period, a.id, a.name, "
+            + "c.id, c.name, g.id, g.name, p.id, concat(p.firstName, ' ', p.lastName)) from Schedule s "
+            + "join s.auditorium a join s.course c join s.group g join s.professor p "
+            + "where s.date between :startDate and :endDate";
+
+    @Query(ROWS)
+    List<ScheduleRow> findRowsByDateBetween(@Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    @Query(ROWS + " and a.id = :id")
+    List<ScheduleRow> findRowsOfAuditoriumByDateBetween(@Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate, @Param("id") long auditoriumId);
+
+    @Query(ROWS + " and c.id = :id")
+    List<ScheduleRow> findRowsOfCourseByDateBetween(@Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate, @Param("id") long courseId);
+
+    @Query(ROWS + " and g.id = :id")
+    List<ScheduleRow> findRowsOfGroupByDateBetween(@Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate, @Param("id") long groupId);
+
+    @Query(ROWS + " and p.id = :id")
+    List<ScheduleRow> findRowsOfProfessorByDateBetween(@Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate, @Param("id") long professorId);
+
+    @Query("select distinct s.date from Schedule s where s.date between :startDate and :endDate")
+    List<LocalDate> findMaterializedDatesBetween(@Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /* Periods are nulled by a bulk update, as validation rejects a schedule without one */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Schedule s set s.period = null where s.id in :ids")
+    int vacatePeriods(@Param("ids") Collection<Long> ids);
+
 }
@@ -1,15 +1,22 @@
 package com.shablii.timetable.dao;
 
 import com.shablii.timetable.model.ScheduleTemplate;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.jpa.repository.EntityGraph.EntityGraphType;
 
 import java.time.DayOfWeek;
 import java.util.List;
 
 public interface ScheduleTemplateRepository extends JpaRepository<ScheduleTemplate, Long> {
 
+    @Override
+    @EntityGraph(value = "ScheduleTemplate.resources", type = EntityGraphType.LOAD)
+    List<ScheduleTemplate> findAll();
+
+    @EntityGraph(value = "ScheduleTemplate.resources", type = EntityGraphType.LOAD)
     List<ScheduleTemplate> findAllByWeekParityAndDay(boolean weekParity, DayOfWeek day);
 
+    @EntityGraph(value = "ScheduleTemplate.resources", type = EntityGraphType.LOAD)
     List<ScheduleTemplate> findAllByWeekParity(boolean weekParity);
 
 }
@@ -0,0 +1,13 @@
+package com.shablii.timetable.dao;
+
+import java.io.*;
+
+public interface SnapshotDao {
+
+    void exportTo(OutputStream out) throws IOException;
+
+    void importFrom(InputStream in) throws IOException;
+
+    boolean isEmpty();
+
+}
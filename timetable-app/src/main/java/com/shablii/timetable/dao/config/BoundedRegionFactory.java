@@ -0,0 +1,259 @@
+package com.shablii.timetable.dao.config;
+
+import lombok.*;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.*;
+import org.hibernate.cache.spi.support.*;
+import org.hibernate.engine.spi.*;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.*;
+import java.util.function.Consumer;
+
+import static java.util.stream.Collectors.toList;
+
+/* Second-level cache regions are kept in bounded least recently used maps of this JVM, entries expire after TTL */
+@Slf4j
+public class BoundedRegionFactory extends RegionFactoryTemplate {
+
+    private final int maxEntries;
+    private final long timeToLive;
+    private final Map<String, BoundedStorage> regions = new ConcurrentHashMap<>();
+    private final Set<String> timestampRegions = ConcurrentHashMap.newKeySet();
+    private volatile Consumer<String> writeListener = space -> {
+    };
+
+    public BoundedRegionFactory(int maxEntries, long timeToLive) {
+
+        this.maxEntries = maxEntries;
+        this.timeToLive = timeToLive;
+    }
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, @SuppressWarnings("rawtypes") Map configValues) {
+
+        log.info("Caching up to {} entries per region for {} ms", maxEntries, timeToLive);
+    }
+
+    @Override
+    protected void releaseFromUse() {
+
+        regions.values().forEach(BoundedStorage::release);
+        regions.clear();
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+            DomainDataRegionBuildingContext buildingContext) {
+
+        return register(regionConfig.getRegionName(), maxEntries, timeToLive, key -> {
+        });
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+            SessionFactoryImplementor sessionFactory) {
+
+        return register(regionName, maxEntries, timeToLive, key -> {
+        });
+    }
+
+    /* Evicted or expired timestamps would let stale query results through, so they are never dropped */
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName,
+            SessionFactoryImplementor sessionFactory) {
+
+        timestampRegions.add(regionName);
+        return register(regionName, Integer.MAX_VALUE, 0, space -> writeListener.accept(String.valueOf(space)));
+    }
+
+    private BoundedStorage register(String regionName, int maxEntries, long timeToLive, Consumer<Object> written) {
+
+        return regions.computeIfAbsent(regionName, name -> new BoundedStorage(name, maxEntries, timeToLive, written));
+    }
+
+    /* Hibernate stamps a table in timestamps region whenever this node writes to it */
+    public void setWriteListener(Consumer<String> writeListener) {
+
+        this.writeListener = writeListener;
+    }
+
+    /* Entities and query results are dropped on writes of other nodes, timestamps still guard this node's own */
+    public void evictCachedData() {
+
+        regions.forEach((name, storage) -> {
+            if (!timestampRegions.contains(name)) {
+                storage.evictData();
+            }
+        });
+    }
+
+    public List<RegionStatistics> getStatistics() {
+
+        return regions.values()
+                .stream()
+                .map(BoundedStorage::getStatistics)
+                .sorted(Comparator.comparing(RegionStatistics::getRegion))
+                .collect(toList());
+    }
+
+    @Scheduled(initialDelayString = "${university.cache.report.delay:300000}",
+               fixedDelayString = "${university.cache.report.delay:300000}")
+    public void reportStatistics() {
+
+        getStatistics().forEach(statistics -> log.info("{}", statistics));
+    }
+
+    @Getter
+    @ToString
+    @RequiredArgsConstructor
+    public static class RegionStatistics {
+
+        private final String region;
+        private final int size;
+        private final long hits;
+        private final long misses;
+        private final long puts;
+        private final long evictions;
+
+        public double getHitRatio() {
+
+            return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+        }
+
+    }
+
+    /* Reads only stamp their entry and never wait for each other, overflow evicts least recently used in batches */
+    private static class BoundedStorage implements DomainDataStorageAccess {
+
+        private final String name;
+        private final int maxEntries;
+        private final long timeToLive;
+        private final Consumer<Object> written;
+        private final Map<Object, Entry> entries = new ConcurrentHashMap<>();
+        private final Lock eviction = new ReentrantLock();
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder puts = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+
+        BoundedStorage(String name, int maxEntries, long timeToLive, Consumer<Object> written) {
+
+            this.name = name;
+            this.maxEntries = maxEntries;
+            this.timeToLive = timeToLive;
+            this.written = written;
+        }
+
+        @Override
+        public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+
+            Entry entry = entries.get(key);
+            if (entry != null && entry.isExpired()) {
+                if (entries.remove(key, entry)) {
+                    evictions.increment();
+                }
+                entry = null;
+            }
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            entry.lastAccess = System.nanoTime();
+            hits.increment();
+            return entry.value;
+        }
+
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+
+            puts.increment();
+            entries.put(key, new Entry(value, timeToLive == 0 ? Long.MAX_VALUE
+                    : System.currentTimeMillis() + timeToLive));
+            written.accept(key);
+            if (entries.size() > maxEntries) {
+                evictLeastRecentlyUsed();
+            }
+        }
+
+        /* A tenth of the region is freed at once, so the sort is paid once per that many puts */
+        private void evictLeastRecentlyUsed() {
+
+            if (!eviction.tryLock()) {
+                return;
+            }
+            try {
+                int excess = entries.size() - maxEntries;
+                if (excess <= 0) {
+                    return;
+                }
+                entries.entrySet()
+                        .stream()
+                        .sorted(Comparator.comparingLong(entry -> entry.getValue().lastAccess))
+                        .limit(excess + maxEntries / 10)
+                        .forEach(entry -> {
+                            if (entries.remove(entry.getKey(), entry.getValue())) {
+                                evictions.increment();
+                            }
+                        });
+            } finally {
+                eviction.unlock();
+            }
+        }
+
+        @Override
+        public boolean contains(Object key) {
+
+            Entry entry = entries.get(key);
+            return entry != null && !entry.isExpired();
+        }
+
+        @Override
+        public void evictData() {
+
+            entries.clear();
+        }
+
+        @Override
+        public void evictData(Object key) {
+
+            entries.remove(key);
+        }
+
+        @Override
+        public void release() {
+
+            evictData();
+        }
+
+        RegionStatistics getStatistics() {
+
+            return new RegionStatistics(name, entries.size(), hits.sum(), misses.sum(), puts.sum(), evictions.sum());
+        }
+
+    }
+
+    private static class Entry {
+
+        private final Object value;
+        private final long expires;
+        private volatile long lastAccess = System.nanoTime();
+
+        Entry(Object value, long expires) {
+
+            this.value = value;
+            this.expires = expires;
+        }
+
+        boolean isExpired() {
+
+            return System.currentTimeMillis() > expires;
+        }
+
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.shablii.timetable.dao.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.*;
+
+import javax.sql.DataSource;
+
+/*
+ * Reference entities and their cacheable queries are kept by Hibernate second-level cache. Every node holds its own
+ * copy and drops it once it polls a write another node published, expiry only bounds what a lost publication costs
+ */
+@Configuration
+@ConditionalOnProperty(name = "university.cache.enabled", matchIfMissing = true)
+public class CacheConfig {
+
+    @Bean
+    public BoundedRegionFactory regionFactory(@Value("${university.cache.max.entries:10000}") int maxEntries,
+            @Value("${university.cache.ttl:300000}") long timeToLive) {
+
+        return new BoundedRegionFactory(maxEntries, timeToLive);
+    }
+
+    @Bean
+    public CacheInvalidations cacheInvalidations(BoundedRegionFactory regionFactory, DataSource dataSource) {
+
+        return new CacheInvalidations(regionFactory, dataSource);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(BoundedRegionFactory regionFactory) {
+
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, regionFactory);
+        };
+    }
+
+}
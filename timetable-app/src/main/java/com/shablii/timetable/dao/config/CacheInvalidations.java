@@ -0,0 +1,191 @@
+package com.shablii.timetable.dao.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.*;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/* Nodes share nothing but the database, so writes to cached tables are counted there and polled by every node */
+@Slf4j
+public class CacheInvalidations {
+
+    private final BoundedRegionFactory regionFactory;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final Executor publisher;
+    private final Map<String, Long> versions = new HashMap<>();
+    private final Set<String> unpublished = ConcurrentHashMap.newKeySet();
+    private volatile Set<String> cachedTables;
+
+    public CacheInvalidations(BoundedRegionFactory regionFactory, DataSource dataSource) {
+
+        this(regionFactory, dataSource,
+                Executors.newSingleThreadExecutor(new CustomizableThreadFactory("cache-invalidations-")));
+    }
+
+    public CacheInvalidations(BoundedRegionFactory regionFactory, DataSource dataSource, Executor publisher) {
+
+        this.regionFactory = regionFactory;
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.publisher = publisher;
+        regionFactory.setWriteListener(this::publish);
+    }
+
+    /*
+     * Hibernate stamps tables while the writing transaction still holds its connection, so
+     * writes are only collected here and counted by the publisher once the transaction commits
+     */
+    public void publish(String table) {
+
+        Set<String> tables = cachedTables;
+        if (tables != null && !tables.contains(table)) {
+            return;
+        }
+        Optional<Writes> writes = findWrites();
+        if (writes.isPresent()) {
+            writes.get().tables.add(table);
+        } else {
+            schedule(Collections.singleton(table));
+        }
+    }
+
+    private Optional<Writes> findWrites() {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return Optional.empty();
+        }
+        Optional<Writes> writes = TransactionSynchronizationManager.getSynchronizations()
+                .stream()
+                .filter(Writes.class::isInstance)
+                .map(Writes.class::cast)
+                .filter(registered -> registered.isOf(this))
+                .findFirst();
+        if (writes.isPresent()) {
+            return writes.filter(registered -> !registered.completed);
+        }
+        Writes registered = new Writes();
+        TransactionSynchronizationManager.registerSynchronization(registered);
+        return Optional.of(registered);
+    }
+
+    private void schedule(Collection<String> tables) {
+
+        unpublished.addAll(tables);
+        try {
+            publisher.execute(this::flush);
+        } catch (RejectedExecutionException e) {
+            log.debug("Publisher is shut down, leaving writes to {} unpublished", tables);
+        }
+    }
+
+    /*
+     * Runs on a connection of its own, a table is dequeued before it is counted, so a write
+     * committed meanwhile is counted again, a failed one is queued again for the next poll
+     */
+    private void flush() {
+
+        if (unpublished.isEmpty()) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            Set<String> tables = getCachedTables(connection);
+            for (String table : unpublished) {
+                unpublished.remove(table);
+                if (tables.contains(table) && !count(connection, table)) {
+                    unpublished.add(table);
+                    return;
+                }
+            }
+        } catch (SQLException e) {
+            log.warn("Could not publish writes to cached tables {}, retrying with next poll", unpublished, e);
+        }
+    }
+
+    private boolean count(Connection connection, String table) {
+
+        log.debug("Publishing write to cached table {}", table);
+        try (PreparedStatement statement = connection.prepareStatement(
+                "UPDATE cache_invalidations SET version = version + 1 WHERE cached_table = ?")) {
+            statement.setString(1, table);
+            statement.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            log.warn("Could not publish write to cached table {}, retrying with next poll", table, e);
+            return false;
+        }
+    }
+
+    /* Nothing tells what other nodes wrote before the first poll, so it evicts everything as well */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${university.cache.sync.delay:1000}")
+    public synchronized boolean poll() {
+
+        if (!unpublished.isEmpty()) {
+            schedule(Collections.emptySet());
+        }
+        boolean changed = versions.isEmpty();
+        for (Map<String, Object> row : jdbcTemplate.queryForList(
+                "SELECT cached_table, version FROM cache_invalidations")) {
+            long version = ((Number) row.get("version")).longValue();
+            Long previous = versions.put((String) row.get("cached_table"), version);
+            changed |= previous != null && previous != version;
+        }
+        if (changed) {
+            log.debug("Cached tables were written to, evicting cached data");
+            regionFactory.evictCachedData();
+        }
+        return changed;
+    }
+
+    private Set<String> getCachedTables(Connection connection) throws SQLException {
+
+        if (cachedTables == null) {
+            Set<String> tables = new HashSet<>();
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT cached_table FROM cache_invalidations")) {
+                while (resultSet.next()) {
+                    tables.add(resultSet.getString(1));
+                }
+            }
+            cachedTables = tables;
+        }
+        return cachedTables;
+    }
+
+    public void shutdown() {
+
+        if (publisher instanceof ExecutorService) {
+            ((ExecutorService) publisher).shutdown();
+        }
+    }
+
+    /* Tables written in one transaction, published together if it commits */
+    private class Writes implements TransactionSynchronization {
+
+        private final Set<String> tables = new HashSet<>();
+        private boolean completed;
+
+        boolean isOf(CacheInvalidations invalidations) {
+
+            return invalidations == CacheInvalidations.this;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+
+            completed = true;
+            if (status == STATUS_COMMITTED && !tables.isEmpty()) {
+                schedule(tables);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.shablii.timetable.dao.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.*;
+import org.springframework.context.annotation.*;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.*;
+
+/*
+ * Read-only transactions are served by the replica, everything else by the primary database. The pools are not
+ * beans of their own, so that the routing data source stays the only one Spring Boot initializes
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty("university.replica.datasource.jdbc-url")
+public class DataSourceConfig implements DisposableBean {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    /* Connections are fetched on first statement, by then the transaction has been marked read-only or not */
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties, Environment environment) {
+
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        HikariDataSource replica = new HikariDataSource();
+        binder.bind("university.replica.datasource", Bindable.ofInstance(replica));
+        pools.add(primary);
+        pools.add(replica);
+
+        log.info("Routing read-only transactions to replica {}", replica.getJdbcUrl());
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReadOnlyRoutingDataSource.PRIMARY, primary);
+        targets.put(ReadOnlyRoutingDataSource.REPLICA, replica);
+
+        ReadOnlyRoutingDataSource routingDataSource = new ReadOnlyRoutingDataSource();
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(primary);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Override
+    public void destroy() {
+
+        pools.forEach(HikariDataSource::close);
+    }
+
+}
@@ -0,0 +1,246 @@
+package com.shablii.timetable.dao.jpa;
+
+import com.shablii.timetable.dao.BulkInsertDao;
+import com.shablii.timetable.model.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.joining;
+
+@Slf4j
+@Repository
+@Transactional
+@RequiredArgsConstructor
+public class BulkInsertDaoImpl implements BulkInsertDao {
+
+    private static final String STUDENTS = "students (id, first_name, last_name, group_id)";
+    private static final String TEMPLATES = "schedule_templates (id, week_parity, day, period, auditorium_id,"
+            + " course_id, group_id, professor_id)";
+    private static final String SCHEDULES = "schedules (id, template_id, on_date, day, period, auditorium_id,"
+            + " course_id, group_id, professor_id)";
+
+    private final EntityManager entityManager;
+    @Value("${university.batch.size:1000}")
+    private int batchSize;
+
+    @Override
+    public List<Student> insertStudents(List<Student> students) {
+
+        return insert(STUDENTS, students,
+                student -> Arrays.asList(student.getId(), student.getFirstName(), student.getLastName(),
+                        student.getGroup() == null ? null : student.getGroup().getId()));
+    }
+
+    @Override
+    public List<ScheduleTemplate> insertTemplates(List<ScheduleTemplate> templates) {
+
+        return insert(TEMPLATES, templates,
+                template -> Arrays.asList(template.getId(), template.getWeekParity(), template.getDay(),
+                        template.getPeriod(), template.getAuditorium().getId(), template.getCourse().getId(),
+                        template.getGroup().getId(), template.getProfessor().getId()));
+    }
+
+    @Override
+    public List<Schedule> insertSchedules(List<Schedule> schedules) {
+
+        return insert(SCHEDULES, schedules, BulkInsertDaoImpl::columnsOf);
+    }
+
+    /*
+     * Schedules a concurrent request or another node has already generated for their template and date are skipped
+     * instead of failing the whole batch, only rows actually inserted are returned
+     */
+    @Override
+    public List<Schedule> insertSchedulesIfAbsent(List<Schedule> schedules) {
+
+        if (schedules.isEmpty()) {
+            return schedules;
+        }
+
+        SessionImplementor session = prepare(schedules);
+        List<Schedule> inserted = session.doReturningWork(connection -> {
+            if (connection.isWrapperFor(PGConnection.class)) {
+                return batchIfAbsent(connection, "INSERT INTO " + SCHEDULES + " VALUES (" + parameters(9)
+                        + ") ON CONFLICT (template_id, on_date) DO NOTHING", schedules, BulkInsertDaoImpl::columnsOf);
+            }
+            return batchIfAbsent(connection, "INSERT INTO " + SCHEDULES + " SELECT " + parameters(9)
+                    + " FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM schedules WHERE template_id = ? AND on_date = ?)",
+                    schedules, schedule -> {
+                        List<Object> values = new ArrayList<>(columnsOf(schedule));
+                        values.add(schedule.getTemplate().getId());
+                        values.add(schedule.getDate());
+                        return values;
+                    });
+        });
+        log.debug("Inserted {} of {} schedules, the rest existed already", inserted.size(), schedules.size());
+        return inserted;
+    }
+
+    private static List<Object> columnsOf(Schedule schedule) {
+
+        return Arrays.asList(schedule.getId(), schedule.getTemplate().getId(), schedule.getDate(), schedule.getDay(),
+                schedule.getPeriod(), schedule.getAuditorium().getId(), schedule.getCourse().getId(),
+                schedule.getGroup().getId(), schedule.getProfessor().getId());
+    }
+
+    /*
+     * Ids come from the entities' own generators, so they never collide with ids Hibernate hands out. Pending
+     * inserts are flushed first, as the rows may reference entities saved earlier in the transaction
+     */
+    private <T> List<T> insert(String table, List<T> entities, Function<T, List<Object>> columns) {
+
+        if (entities.isEmpty()) {
+            return entities;
+        }
+
+        write(prepare(entities), table, entities, columns);
+        return entities;
+    }
+
+    private <T> SessionImplementor prepare(List<T> entities) {
+
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        session.flush();
+        EntityPersister persister = session.getEntityPersister(null, entities.get(0));
+        for (T entity : entities) {
+            persister.setIdentifier(entity, persister.getIdentifierGenerator().generate(session, entity), session);
+        }
+        return session;
+    }
+
+    /* Rows keep the ids they were given, the caller is responsible for sequences to continue past them */
+    @Override
+    public void insertRows(String table, List<List<Object>> rows) {
+
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        session.flush();
+        write(session, table, rows, Function.identity());
+    }
+
+    private <T> void write(SessionImplementor session, String table, List<T> entities,
+            Function<T, List<Object>> columns) {
+
+        session.doWork(connection -> {
+            if (connection.isWrapperFor(PGConnection.class)) {
+                copy(connection.unwrap(PGConnection.class), table, entities, columns);
+            } else {
+                batch(connection, table, entities, columns);
+            }
+        });
+        log.debug("Inserted {} rows into {}", entities.size(), table);
+    }
+
+    /* Rows are streamed as CSV through the COPY protocol, the driver buffers them into protocol messages */
+    private <T> void copy(PGConnection connection, String table, List<T> entities,
+            Function<T, List<Object>> columns) throws SQLException {
+
+        String sql = "COPY " + table + " FROM STDIN WITH (FORMAT csv)";
+        try (Writer writer = new OutputStreamWriter(new PGCopyOutputStream(connection, sql),
+                StandardCharsets.UTF_8)) {
+            for (T entity : entities) {
+                writer.write(columns.apply(entity)
+                        .stream()
+                        .map(BulkInsertDaoImpl::toCsv)
+                        .collect(joining(",", "", "\n")));
+            }
+        } catch (IOException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new SQLException("Could not copy rows into " + table, e);
+        }
+    }
+
+    private <T> void batch(Connection connection, String table, List<T> entities,
+            Function<T, List<Object>> columns) throws SQLException {
+
+        String sql = "INSERT INTO " + table + " VALUES (" + parameters(columns.apply(entities.get(0)).size()) + ")";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int batched = 0;
+            for (T entity : entities) {
+                List<Object> values = columns.apply(entity);
+                for (int i = 0; i < values.size(); i++) {
+                    statement.setObject(i + 1, toJdbc(values.get(i)));
+                }
+                statement.addBatch();
+                if (++batched % batchSize == 0) {
+                    statement.executeBatch();
+                }
+            }
+            statement.executeBatch();
+        }
+    }
+
+    /* Statements report no row for a skipped insert, drivers unable to count them are taken as having inserted it */
+    private <T> List<T> batchIfAbsent(Connection connection, String sql, List<T> entities,
+            Function<T, List<Object>> parameters) throws SQLException {
+
+        List<T> inserted = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int from = 0; from < entities.size(); from += batchSize) {
+                List<T> chunk = entities.subList(from, Math.min(from + batchSize, entities.size()));
+                for (T entity : chunk) {
+                    List<Object> values = parameters.apply(entity);
+                    for (int i = 0; i < values.size(); i++) {
+                        statement.setObject(i + 1, toJdbc(values.get(i)));
+                    }
+                    statement.addBatch();
+                }
+                int[] counts = statement.executeBatch();
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] != 0) {
+                        inserted.add(chunk.get(i));
+                    }
+                }
+            }
+        }
+        return inserted;
+    }
+
+    private static String parameters(int count) {
+
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static String toCsv(Object value) {
+
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof String) {
+            return '"' + ((String) value).replace("\"", "\"\"") + '"';
+        }
+        return String.valueOf(toJdbc(value));
+    }
+
+    private static Object toJdbc(Object value) {
+
+        if (value instanceof Enum) {
+            return ((Enum<?>) value).name();
+        }
+        if (value instanceof LocalDate) {
+            return java.sql.Date.valueOf((LocalDate) value);
+        }
+        return value;
+    }
+
+}
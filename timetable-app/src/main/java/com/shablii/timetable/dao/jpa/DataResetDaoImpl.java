@@ -0,0 +1,54 @@
+package com.shablii.timetable.dao.jpa;
+
+import com.shablii.timetable.dao.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class DataResetDaoImpl implements DataResetDao {
+
+    /* Dependency order, every table is listed before the tables it references */
+    private static final List<String> TABLES = Arrays.asList("rescheduling_options", "schedule_overrides",
+            "schedules", "schedule_templates", "students", "professors_courses", "professors", "groups", "courses",
+            "auditoriums");
+
+    private final EntityManager entityManager;
+    private final ResetSequencesDao resetSequencesDao;
+
+    /* PostgreSQL truncates every table in one statement; H2 truncation is not transactional, so it deletes instead */
+    @Override
+    public void truncateAll(boolean restartSequences) {
+
+        String database = entityManager.unwrap(Session.class)
+                .doReturningWork(connection -> connection.getMetaData().getDatabaseProductName());
+        if ("PostgreSQL".equals(database)) {
+            log.debug("Truncating {} tables, restarting sequences: {}", TABLES.size(), restartSequences);
+            entityManager.createNativeQuery("TRUNCATE TABLE " + String.join(", ", TABLES) + (restartSequences
+                    ? " RESTART IDENTITY" : " CONTINUE IDENTITY") + " CASCADE").executeUpdate();
+            return;
+        }
+
+        deleteAll();
+        if (restartSequences) {
+            resetSequencesDao.resetSequences();
+        }
+    }
+
+    private void deleteAll() {
+
+        log.debug("Deleting all rows of {} tables in one batch", TABLES.size());
+        entityManager.createNativeQuery(TABLES.stream()
+                .map(table -> "DELETE FROM " + table + ";")
+                .collect(Collectors.joining()))
+                .executeUpdate();
+    }
+
+}
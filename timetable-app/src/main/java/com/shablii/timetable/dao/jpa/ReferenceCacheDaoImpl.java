@@ -0,0 +1,45 @@
+package com.shablii.timetable.dao.jpa;
+
+import com.shablii.timetable.dao.ReferenceCacheDao;
+import com.shablii.timetable.model.Professor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.*;
+
+import javax.persistence.EntityManagerFactory;
+
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class ReferenceCacheDaoImpl implements ReferenceCacheDao {
+
+    private static final String PROFESSOR_COURSES = Professor.class.getName() + ".courses";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /* Database cascades remove course links behind Hibernate, sets cached meanwhile are evicted once more on commit */
+    @Override
+    public void evictProfessorCourses() {
+
+        evict();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCompletion(int status) {
+
+                    evict();
+                }
+            });
+        }
+    }
+
+    private void evict() {
+
+        log.debug("Evicting cached professor courses");
+        entityManagerFactory.getCache().unwrap(Cache.class).evictCollectionData(PROFESSOR_COURSES);
+    }
+
+}
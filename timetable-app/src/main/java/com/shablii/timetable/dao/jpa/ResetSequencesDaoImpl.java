@@ -20,7 +20,8 @@ public class ResetSequencesDaoImpl implements ResetSequencesDao {
                 + "alter sequence student_id_seq restart with 1;"
                 + "alter sequence schedule_template_id_seq restart with 1;"
                 + "alter sequence schedule_id_seq restart with 1;"
-                + "alter sequence rescheduling_option_id_seq restart with 1;";
+                + "alter sequence rescheduling_option_id_seq restart with 1;"
+                + "alter sequence schedule_override_id_seq restart with 1;";
         entityManager.createNativeQuery(sql).executeUpdate();
     }
 
@@ -0,0 +1,141 @@
+package com.shablii.timetable.dao.jpa;
+
+import com.shablii.timetable.dao.SchedulePartitionDao;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.sql.*;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+import static java.util.stream.Collectors.toList;
+
+@Slf4j
+@Repository
+@Transactional
+@RequiredArgsConstructor
+public class SchedulePartitionDaoImpl implements SchedulePartitionDao {
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'schedules_'yyyy_MM");
+    private static final String ARCHIVE_SCHEMA = "schedules_archive";
+
+    private final EntityManager entityManager;
+    @Value("${university.archive.tablespace:}")
+    private String archiveTablespace;
+
+    /* Only PostgreSQL schema partitions schedules, elsewhere every other method is a no-op */
+    @Override
+    public boolean isPartitioned() {
+
+        String database = entityManager.unwrap(Session.class)
+                .doReturningWork(connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            return false;
+        }
+        return !entityManager.createNativeQuery("SELECT 1 FROM pg_partitioned_table p JOIN pg_class c"
+                + " ON c.oid = p.partrelid WHERE c.relname = 'schedules' AND pg_table_is_visible(c.oid)")
+                .getResultList()
+                .isEmpty();
+    }
+
+    /* Rows of the month already kept in default partition are moved over before it is attached */
+    @Override
+    public boolean createMonthPartition(YearMonth month) {
+
+        String partition = month.format(PARTITION_NAME);
+        if (!isPartitioned() || exists(partition)) {
+            return false;
+        }
+        LocalDate from = month.atDay(1);
+        LocalDate until = month.plusMonths(1).atDay(1);
+        log.info("Creating schedules partition {}", partition);
+        entityManager.createNativeQuery("CREATE TABLE " + partition + " (LIKE schedules INCLUDING DEFAULTS)")
+                .executeUpdate();
+        int moved = entityManager.createNativeQuery("WITH moved AS (DELETE FROM schedules_default"
+                + " WHERE on_date >= :from AND on_date < :until RETURNING *) INSERT INTO " + partition
+                + " SELECT * FROM moved")
+                .setParameter("from", from)
+                .setParameter("until", until)
+                .executeUpdate();
+        entityManager.createNativeQuery("ALTER TABLE schedules ATTACH PARTITION " + partition + " FOR VALUES FROM ('"
+                + from + "') TO ('" + until + "')")
+                .executeUpdate();
+        log.debug("Moved {} schedules from default partition to {}", moved, partition);
+        return true;
+    }
+
+    /* Detached partitions leave every query plan and keep their rows in archive schema */
+    @Override
+    public List<String> archiveMonthPartitionsBefore(LocalDate date, Collection<YearMonth> kept) {
+
+        List<String> archived = !isPartitioned() ? Collections.emptyList() : partitions().stream()
+                .filter(partition -> !YearMonth.parse(partition, PARTITION_NAME).plusMonths(1).atDay(1).isAfter(date))
+                .filter(partition -> !kept.contains(YearMonth.parse(partition, PARTITION_NAME)))
+                .collect(toList());
+        for (String partition : archived) {
+            log.info("Archiving schedules partition {}", partition);
+            entityManager.createNativeQuery("ALTER TABLE schedules DETACH PARTITION " + partition).executeUpdate();
+            entityManager.createNativeQuery("ALTER TABLE " + partition + " SET SCHEMA " + ARCHIVE_SCHEMA)
+                    .executeUpdate();
+            if (!archiveTablespace.isEmpty()) {
+                entityManager.createNativeQuery(
+                        "ALTER TABLE " + ARCHIVE_SCHEMA + "." + partition + " SET TABLESPACE " + archiveTablespace)
+                        .executeUpdate();
+            }
+        }
+        dropArchiveForeignKeys();
+        return archived;
+    }
+
+    /* Detached partitions keep cascading keys of schedules, so deleting or truncating a resource would empty them */
+    private void dropArchiveForeignKeys() {
+
+        List<String> drops = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String schema = metaData.storesUpperCaseIdentifiers() ? ARCHIVE_SCHEMA.toUpperCase() : ARCHIVE_SCHEMA;
+            Set<String> statements = new LinkedHashSet<>();
+            try (ResultSet tables = metaData.getTables(null, schema, "%", new String[] { "TABLE" })) {
+                while (tables.next()) {
+                    String table = tables.getString("TABLE_NAME");
+                    try (ResultSet keys = metaData.getImportedKeys(null, schema, table)) {
+                        while (keys.next()) {
+                            statements.add(String.format("ALTER TABLE \"%s\".\"%s\" DROP CONSTRAINT \"%s\"", schema,
+                                    table, keys.getString("FK_NAME")));
+                        }
+                    }
+                }
+            }
+            return new ArrayList<>(statements);
+        });
+        drops.forEach(drop -> entityManager.createNativeQuery(drop).executeUpdate());
+        log.debug("Dropped {} foreign keys of archived schedules", drops.size());
+    }
+
+    private boolean exists(String table) {
+
+        return entityManager.createNativeQuery("SELECT to_regclass(:table) IS NOT NULL")
+                .setParameter("table", table)
+                .getSingleResult()
+                .equals(Boolean.TRUE);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> partitions() {
+
+        List<Object> names = entityManager.createNativeQuery("SELECT c.relname FROM pg_inherits i"
+                + " JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent"
+                + " WHERE p.relname = 'schedules' AND pg_table_is_visible(p.oid) AND c.relname <> 'schedules_default'"
+                + " ORDER BY c.relname")
+                .getResultList();
+        return names.stream()
+                .map(String::valueOf)
+                .collect(toList());
+    }
+
+}
@@ -0,0 +1,341 @@
+package com.shablii.timetable.dao.jpa;
+
+import com.shablii.timetable.dao.*;
+import com.shablii.timetable.model.Period;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import java.io.*;
+import java.sql.*;
+import java.time.*;
+import java.util.*;
+import java.util.zip.*;
+
+import static java.util.stream.Collectors.joining;
+
+/*
+ * Snapshot is a gzipped stream of typed column values: a header, then every table by name with its rows, each row
+ * preceded by a marker and each value by a presence flag. Dates are stored as epoch days and enums as ordinals
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class SnapshotDaoImpl implements SnapshotDao {
+
+    private static final int MAGIC = 0x54545350;
+    private static final int VERSION = 1;
+    private static final int SEQUENCE_INCREMENT = 50;
+
+    /* Load order, every table is listed after the tables it references */
+    private static final List<Table> TABLES = Arrays.asList(
+            new Table("auditoriums", "auditorium_id_seq", new Column("id", Type.ID),
+                    new Column("name", Type.TEXT)),
+            new Table("courses", "course_id_seq", new Column("id", Type.ID), new Column("name", Type.TEXT)),
+            new Table("groups", "group_id_seq", new Column("id", Type.ID), new Column("name", Type.TEXT)),
+            new Table("professors", "professor_id_seq", new Column("id", Type.ID),
+                    new Column("first_name", Type.TEXT), new Column("last_name", Type.TEXT)),
+            new Table("professors_courses", null, new Column("professor_id", Type.ID),
+                    new Column("courses_id", Type.ID)),
+            new Table("students", "student_id_seq", new Column("id", Type.ID), new Column("first_name", Type.TEXT),
+                    new Column("last_name", Type.TEXT), new Column("group_id", Type.ID)),
+            new Table("schedule_templates", "schedule_template_id_seq", new Column("id", Type.ID),
+                    new Column("week_parity", Type.FLAG), new Column("day", Type.DAY),
+                    new Column("period", Type.PERIOD), new Column("auditorium_id", Type.ID),
+                    new Column("course_id", Type.ID), new Column("group_id", Type.ID),
+                    new Column("professor_id", Type.ID)),
+            new Table("schedules", "schedule_id_seq", new Column("id", Type.ID), new Column("template_id", Type.ID),
+                    new Column("on_date", Type.DATE), new Column("day", Type.DAY), new Column("period", Type.PERIOD),
+                    new Column("auditorium_id", Type.ID), new Column("course_id", Type.ID),
+                    new Column("group_id", Type.ID), new Column("professor_id", Type.ID)),
+            new Table("schedule_overrides", "schedule_override_id_seq", new Column("id", Type.ID),
+                    new Column("template_id", Type.ID), new Column("origin_date", Type.DATE),
+                    new Column("on_date", Type.DATE), new Column("day", Type.DAY), new Column("period", Type.PERIOD),
+                    new Column("auditorium_id", Type.ID), new Column("professor_id", Type.ID)),
+            new Table("rescheduling_options", "rescheduling_option_id_seq", new Column("id", Type.ID),
+                    new Column("day", Type.DAY), new Column("period", Type.PERIOD),
+                    new Column("auditorium_id", Type.ID)));
+
+    private final EntityManager entityManager;
+    private final BulkInsertDao bulkInsertDao;
+    @Value("${university.batch.size:1000}")
+    private int batchSize;
+
+    @Override
+    public void exportTo(OutputStream out) throws IOException {
+
+        GZIPOutputStream gzip = new GZIPOutputStream(out);
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(gzip));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        for (Table table : TABLES) {
+            data.writeUTF(table.name);
+            log.debug("Exported {} rows of {}", exportRows(table, data), table.name);
+            data.writeBoolean(false);
+        }
+        data.flush();
+        gzip.finish();
+    }
+
+    /* Rows are streamed with a bounded fetch size, so a table is never held in memory at once */
+    private long exportRows(Table table, DataOutput data) throws IOException {
+
+        try {
+            return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+                long count = 0;
+                try (Statement statement = connection.createStatement()) {
+                    statement.setFetchSize(batchSize);
+                    try (ResultSet rows = statement.executeQuery("SELECT " + table.columnNames() + " FROM "
+                            + table.name)) {
+                        while (rows.next()) {
+                            data.writeBoolean(true);
+                            for (int i = 0; i < table.columns.size(); i++) {
+                                table.columns.get(i).type.write(data, table.columns.get(i).type.read(rows, i + 1));
+                            }
+                            count++;
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return count;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /* Tables are expected to be empty, rows keep their ids and are inserted in chunks of the batch size */
+    @Override
+    public void importFrom(InputStream in) throws IOException {
+
+        DataInputStream data = new DataInputStream(new BufferedInputStream(new GZIPInputStream(in)));
+        if (data.readInt() != MAGIC || data.readInt() != VERSION) {
+            throw new IOException("Stream is not a timetable snapshot of version " + VERSION);
+        }
+        for (Table table : TABLES) {
+            String name = data.readUTF();
+            if (!table.name.equals(name)) {
+                throw new IOException("Snapshot has table " + name + " where " + table.name + " was expected");
+            }
+            log.debug("Imported {} rows of {}", importRows(table, data), table.name);
+            continueSequence(table);
+        }
+    }
+
+    private long importRows(Table table, DataInput data) throws IOException {
+
+        long count = 0;
+        List<List<Object>> chunk = new ArrayList<>(batchSize);
+        while (data.readBoolean()) {
+            List<Object> row = new ArrayList<>(table.columns.size());
+            for (Column column : table.columns) {
+                row.add(data.readBoolean() ? column.type.read(data) : null);
+            }
+            chunk.add(row);
+            if (chunk.size() == batchSize) {
+                bulkInsertDao.insertRows(table.target(), chunk);
+                count += chunk.size();
+                chunk = new ArrayList<>(batchSize);
+            }
+        }
+        bulkInsertDao.insertRows(table.target(), chunk);
+        return count + chunk.size();
+    }
+
+    /* Pooled generators take a fetched value as the top of their block, so the sequence restarts a block past max id */
+    private void continueSequence(Table table) {
+
+        if (table.sequence == null) {
+            return;
+        }
+        Number maxId = (Number) entityManager.createNativeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table.name)
+                .getSingleResult();
+        entityManager.createNativeQuery("ALTER SEQUENCE " + table.sequence + " RESTART WITH " + (maxId.longValue()
+                + SEQUENCE_INCREMENT)).executeUpdate();
+    }
+
+    @Override
+    public boolean isEmpty() {
+
+        return TABLES.stream()
+                .allMatch(table -> entityManager.createNativeQuery("SELECT 1 FROM " + table.name)
+                        .setMaxResults(1)
+                        .getResultList()
+                        .isEmpty());
+    }
+
+    @RequiredArgsConstructor
+    private static class Table {
+
+        private final String name;
+        private final String sequence;
+        private final List<Column> columns;
+
+        Table(String name, String sequence, Column... columns) {
+
+            this(name, sequence, Arrays.asList(columns));
+        }
+
+        String columnNames() {
+
+            return columns.stream().map(column -> column.name).collect(joining(", "));
+        }
+
+        String target() {
+
+            return name + " (" + columnNames() + ")";
+        }
+
+    }
+
+    @RequiredArgsConstructor
+    private static class Column {
+
+        private final String name;
+        private final Type type;
+
+    }
+
+    private enum Type {
+
+        ID {
+            @Override
+            Object read(ResultSet rows, int column) throws SQLException {
+
+                long value = rows.getLong(column);
+                return rows.wasNull() ? null : value;
+            }
+
+            @Override
+            void writeValue(DataOutput data, Object value) throws IOException {
+
+                data.writeLong((Long) value);
+            }
+
+            @Override
+            Object read(DataInput data) throws IOException {
+
+                return data.readLong();
+            }
+        },
+        TEXT {
+            @Override
+            Object read(ResultSet rows, int column) throws SQLException {
+
+                return rows.getString(column);
+            }
+
+            @Override
+            void writeValue(DataOutput data, Object value) throws IOException {
+
+                data.writeUTF((String) value);
+            }
+
+            @Override
+            Object read(DataInput data) throws IOException {
+
+                return data.readUTF();
+            }
+        },
+        FLAG {
+            @Override
+            Object read(ResultSet rows, int column) throws SQLException {
+
+                boolean value = rows.getBoolean(column);
+                return rows.wasNull() ? null : value;
+            }
+
+            @Override
+            void writeValue(DataOutput data, Object value) throws IOException {
+
+                data.writeBoolean((Boolean) value);
+            }
+
+            @Override
+            Object read(DataInput data) throws IOException {
+
+                return data.readBoolean();
+            }
+        },
+        DATE {
+            @Override
+            Object read(ResultSet rows, int column) throws SQLException {
+
+                java.sql.Date value = rows.getDate(column);
+                return value == null ? null : value.toLocalDate();
+            }
+
+            @Override
+            void writeValue(DataOutput data, Object value) throws IOException {
+
+                data.writeInt(Math.toIntExact(((LocalDate) value).toEpochDay()));
+            }
+
+            @Override
+            Object read(DataInput data) throws IOException {
+
+                return LocalDate.ofEpochDay(data.readInt());
+            }
+        },
+        DAY {
+            @Override
+            Object read(ResultSet rows, int column) throws SQLException {
+
+                String value = rows.getString(column);
+                return value == null ? null : DayOfWeek.valueOf(value);
+            }
+
+            @Override
+            void writeValue(DataOutput data, Object value) throws IOException {
+
+                data.writeByte(((DayOfWeek) value).ordinal());
+            }
+
+            @Override
+            Object read(DataInput data) throws IOException {
+
+                return DayOfWeek.values()[data.readUnsignedByte()];
+            }
+        },
+        PERIOD {
+            @Override
+            Object read(ResultSet rows, int column) throws SQLException {
+
+                String value = rows.getString(column);
+                return value == null ? null : Period.valueOf(value);
+            }
+
+            @Override
+            void writeValue(DataOutput data, Object value) throws IOException {
+
+                data.writeByte(((Period) value).ordinal());
+            }
+
+            @Override
+            Object read(DataInput data) throws IOException {
+
+                return Period.values()[data.readUnsignedByte()];
+            }
+        };
+
+        abstract Object read(ResultSet rows, int column) throws SQLException;
+
+        abstract void writeValue(DataOutput data, Object value) throws IOException;
+
+        abstract Object read(DataInput data) throws IOException;
+
+        void write(DataOutput data, Object value) throws IOException {
+
+            data.writeBoolean(value != null);
+            if (value != null) {
+                writeValue(data, value);
+            }
+        }
+
+    }
+
+}
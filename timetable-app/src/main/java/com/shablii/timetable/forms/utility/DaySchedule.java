@@ -8,7 +8,7 @@ import java.util.*;
 @Data
 public class DaySchedule {
 
-    private final Map<Period, List<Schedule>> periodSchedules;
+    private final Map<Period, List<ScheduleRow>> periodSchedules;
     private final String dayDescription;
     private final String[] dayShortDescription;
 
@@ -25,13 +25,13 @@ public class ScheduleFormatter {
         String dayDescription = semesterCalendar.getDayDescription(date);
         String[] dayShortDescription = semesterCalendar.getDayShortDescription(date);
 
-        List<Schedule> schedule;
+        List<ScheduleRow> schedule;
         if (filtered) {
-            schedule = timetableFacade.getScheduleFor(predicate, date, date);
+            schedule = timetableFacade.getScheduleRowsFor(predicate, date, date);
         } else {
-            schedule = timetableFacade.getScheduleInRange(date, date);
+            schedule = timetableFacade.getScheduleRowsInRange(date, date);
         }
-        Map<Period, List<Schedule>> periodDaySchedule = convertToPeriodDaySchedule(schedule);
+        Map<Period, List<ScheduleRow>> periodDaySchedule = convertToPeriodDaySchedule(schedule);
 
         return new DaySchedule(periodDaySchedule, dayDescription, dayShortDescription);
     }
@@ -54,6 +54,7 @@ public class ScheduleFormatter {
         return new WeekSchedule(daySchedules, weekDescription, weekNumber);
     }
 
+    /* Weeks are walked by date, as week numbers alone do not tell which semester they belong to */
     public MonthSchedule prepareMonthSchedule(SchedulePredicate predicate, LocalDate anyMonthDate, boolean filtered) {
 
         String monthDescription = semesterCalendar.getMonthDescription(anyMonthDate);
@@ -61,11 +62,10 @@ public class ScheduleFormatter {
         LocalDate firstOfMonth = semesterCalendar.getFirstSemesterDayOfMonth(anyMonthDate);
         LocalDate lastOfMonth = semesterCalendar.getLastSemesterDayOfMonth(anyMonthDate);
         List<WeekSchedule> weekSchedules = new ArrayList<>();
-        int weekNumber = semesterCalendar.getSemesterWeekNumber(firstOfMonth);
-        int lastMonthWeek = semesterCalendar.getSemesterWeekNumber(lastOfMonth);
-        for (; weekNumber <= lastMonthWeek; weekNumber++) {
+        LocalDate lastMonday = semesterCalendar.getWeekMonday(lastOfMonth);
+        for (LocalDate monday = semesterCalendar.getWeekMonday(firstOfMonth); !monday.isAfter(lastMonday);
+             monday = monday.plusWeeks(1L)) {
 
-            LocalDate monday = semesterCalendar.getWeekMonday(weekNumber);
             WeekSchedule weekSchedule = prepareWeekSchedule(predicate, monday, filtered);
             weekSchedules.add(weekSchedule);
         }
@@ -82,11 +82,11 @@ public class ScheduleFormatter {
         return new TwoWeekSchedule(oddWeek, evenWeek);
     }
 
-    private Map<Period, List<Schedule>> convertToPeriodDaySchedule(List<Schedule> schedule) {
+    private Map<Period, List<ScheduleRow>> convertToPeriodDaySchedule(List<ScheduleRow> schedule) {
 
         return schedule.stream()
                 .sorted()
-                .collect(Collectors.groupingBy(Schedule::getPeriod, LinkedHashMap::new, Collectors.toList()));
+                .collect(Collectors.groupingBy(ScheduleRow::getPeriod, LinkedHashMap::new, Collectors.toList()));
     }
 
     private Map<Period, List<ScheduleTemplate>> formatTemplatesIntoWeek(List<ScheduleTemplate> templates,
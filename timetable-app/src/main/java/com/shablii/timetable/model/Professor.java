@@ -2,6 +2,9 @@ package com.shablii.timetable.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import javax.validation.Valid;
@@ -11,6 +14,8 @@ import java.util.*;
 
 @Entity
 @Table(name = "professors")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -29,6 +34,8 @@ public class Professor implements Comparable<Professor>, Serializable {
     private String lastName;
 
     @ManyToMany(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @BatchSize(size = 100)
     @JoinTable(name = "professors_courses")
     private Set<@Valid Course> courses = new HashSet<>();
 
@@ -12,7 +12,15 @@ import javax.validation.constraints.*;
 import java.time.*;
 
 @Entity
-@Table(name = "schedules")
+@NamedEntityGraph(name = "Schedule.resources", attributeNodes = { @NamedAttributeNode("auditorium"),
+        @NamedAttributeNode("course"), @NamedAttributeNode("group"), @NamedAttributeNode("professor") })
+@Table(name = "schedules", uniqueConstraints = { @UniqueConstraint(columnNames = { "template_id", "on_date" }),
+        @UniqueConstraint(name = "schedules_on_date_period_auditorium_id_key",
+                          columnNames = { "on_date", "period", "auditorium_id" }),
+        @UniqueConstraint(name = "schedules_on_date_period_group_id_key",
+                          columnNames = { "on_date", "period", "group_id" }),
+        @UniqueConstraint(name = "schedules_on_date_period_professor_id_key",
+                          columnNames = { "on_date", "period", "professor_id" }) })
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -0,0 +1,78 @@
+package com.shablii.timetable.model;
+
+import lombok.*;
+
+import javax.persistence.*;
+import javax.validation.Valid;
+import javax.validation.constraints.*;
+import java.time.*;
+
+@Entity
+@Table(name = "schedule_overrides",
+       uniqueConstraints = @UniqueConstraint(columnNames = { "template_id", "origin_date" }))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ScheduleOverride {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "s_o_seq")
+    @SequenceGenerator(name = "s_o_seq", sequenceName = "schedule_override_id_seq")
+    @Min(1)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn
+    @NotNull
+    private ScheduleTemplate template;
+
+    @Column(name = "origin_date")
+    @NotNull
+    private LocalDate originDate;
+
+    @Column(name = "on_date")
+    @NotNull
+    private LocalDate date;
+
+    @Enumerated(EnumType.STRING)
+    @NotNull
+    private DayOfWeek day;
+
+    @Enumerated(EnumType.STRING)
+    @NotNull
+    private Period period;
+
+    @ManyToOne
+    @JoinColumn
+    @Valid
+    @NotNull
+    private Auditorium auditorium;
+
+    @ManyToOne
+    @JoinColumn
+    @Valid
+    @NotNull
+    private Professor professor;
+
+    public ScheduleOverride(ScheduleTemplate template, LocalDate originDate) {
+
+        this(null, template, originDate, originDate, template.getDay(), template.getPeriod(),
+                template.getAuditorium(), template.getProfessor());
+    }
+
+    public void apply(Schedule schedule) {
+
+        this.date = schedule.getDate();
+        this.day = schedule.getDay();
+        this.period = schedule.getPeriod();
+        this.auditorium = schedule.getAuditorium();
+        this.professor = schedule.getProfessor();
+    }
+
+    public boolean isSameAsTemplate() {
+
+        return date.equals(originDate) && day == template.getDay() && period == template.getPeriod()
+                && auditorium.equals(template.getAuditorium()) && professor.equals(template.getProfessor());
+    }
+
+}
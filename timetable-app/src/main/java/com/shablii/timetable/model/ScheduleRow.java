@@ -0,0 +1,56 @@
+package com.shablii.timetable.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
+import lombok.*;
+import org.springframework.hateoas.server.core.Relation;
+
+import java.time.*;
+import java.util.Comparator;
+
+/* Flat read model of a schedule item: list views need names of its resources, not the managed entities */
+@Value
+@AllArgsConstructor
+@Relation(collectionRelation = "scheduleList")
+public class ScheduleRow implements Comparable<ScheduleRow> {
+
+    private static final Comparator<ScheduleRow> ORDER = Comparator.comparing(ScheduleRow::getDate)
+            .thenComparing(ScheduleRow::getPeriod)
+            .thenComparing(ScheduleRow::getAuditoriumName)
+            .thenComparing(ScheduleRow::getGroupId)
+            .thenComparing(ScheduleRow::getCourseName)
+            .thenComparing(ScheduleRow::getProfessorName);
+
+    private Long id;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    @JsonSerialize(using = LocalDateSerializer.class)
+    private LocalDate date;
+
+    private DayOfWeek day;
+    private Period period;
+    private Long auditoriumId;
+    private String auditoriumName;
+    private Long courseId;
+    private String courseName;
+    private Long groupId;
+    private String groupName;
+    private Long professorId;
+    private String professorName;
+
+    public ScheduleRow(Schedule schedule) {
+
+        this(schedule.getId(), schedule.getDate(), schedule.getDay(), schedule.getPeriod(),
+                schedule.getAuditorium().getId(), schedule.getAuditorium().getName(), schedule.getCourse().getId(),
+                schedule.getCourse().getName(), schedule.getGroup().getId(), schedule.getGroup().getName(),
+                schedule.getProfessor().getId(), schedule.getProfessor().getFullName());
+    }
+
+    @Override
+    public int compareTo(ScheduleRow other) {
+
+        return ORDER.compare(this, other);
+    }
+
+}
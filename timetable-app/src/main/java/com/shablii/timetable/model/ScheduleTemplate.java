@@ -8,7 +8,15 @@ import javax.validation.constraints.*;
 import java.time.DayOfWeek;
 
 @Entity
-@Table(name = "schedule_templates")
+@NamedEntityGraph(name = "ScheduleTemplate.resources", attributeNodes = { @NamedAttributeNode("auditorium"),
+        @NamedAttributeNode("course"), @NamedAttributeNode("group"), @NamedAttributeNode("professor") })
+@Table(name = "schedule_templates", uniqueConstraints = {
+        @UniqueConstraint(name = "schedule_templates_week_parity_day_period_auditorium_id_key",
+                          columnNames = { "weekParity", "day", "period", "auditorium_id" }),
+        @UniqueConstraint(name = "schedule_templates_week_parity_day_period_group_id_key",
+                          columnNames = { "weekParity", "day", "period", "group_id" }),
+        @UniqueConstraint(name = "schedule_templates_week_parity_day_period_professor_id_key",
+                          columnNames = { "weekParity", "day", "period", "professor_id" }) })
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -6,7 +6,7 @@ import com.shablii.timetable.forms.utility.*;
 import com.shablii.timetable.forms.utility.formatter.*;
 import com.shablii.timetable.model.*;
 import com.shablii.timetable.service.TimetableFacade;
-import com.shablii.timetable.service.model.generator.DataGenerator;
+import com.shablii.timetable.service.model.generator.*;
 import com.shablii.timetable.service.utility.SemesterCalendar;
 import com.shablii.timetable.service.utility.predicates.SchedulePredicateNoFilter;
 import lombok.RequiredArgsConstructor;
@@ -34,7 +34,7 @@ public class ManagementController {
 
     private final ScheduleFormatter scheduleFormatter;
     private final OptionsFormatter optionsFormatter;
-    private final DataGenerator dataGenerator;
+    private final GenerationJobs generationJobs;
     private final TimetableFacade timetableFacade;
     private final SemesterCalendar semesterCalendar;
 
@@ -272,8 +272,11 @@ public class ManagementController {
     @PostMapping("/rebuild-timetable")
     public String rebuildTimetable(RedirectAttributes redirectAttributes) {
 
-        dataGenerator.refreshTimetableData();
-        redirectAttributes.addFlashAttribute("successAlert", "Timetable data has been erased and generated afresh");
+        GenerationJob job = generationJobs.submit(GenerationJob.Kind.REBUILD_TIMETABLE);
+        redirectAttributes.addFlashAttribute("successAlert",
+                "Timetable is being erased and generated afresh, current timetable stays in place until job "
+                        + job.getId() + " completes");
+        redirectAttributes.addFlashAttribute("jobId", job.getId());
 
         return "redirect:/timetable/management/home";
     }
@@ -281,9 +284,11 @@ public class ManagementController {
     @PostMapping("/refresh-all-data")
     public String refreshAllData(RedirectAttributes redirectAttributes) {
 
-        dataGenerator.refreshAllData();
+        GenerationJob job = generationJobs.submit(GenerationJob.Kind.REFRESH_ALL_DATA);
         redirectAttributes.addFlashAttribute("successAlert",
-                "All university and timetable data has been erased and " + "generated afresh");
+                "All university and timetable data is being erased and generated afresh, current data stays in "
+                        + "place until job " + job.getId() + " completes");
+        redirectAttributes.addFlashAttribute("jobId", job.getId());
 
         return "redirect:/timetable/management/home";
     }
@@ -233,8 +233,7 @@ public class ManagementUniversityFacultyController {
         }
         Course course = optionalCourse.get();
 
-        professor.removeCourse(course);
-        timetableFacade.saveProfessor(professor);
+        timetableFacade.dropCourse(professor, course);
         redirectAttributes.addFlashAttribute("successAlert", String.format("Course %s dropped", course.getName()));
 
         return "redirect:/timetable/management/university/faculty/courses" + "?professorId=" + professor.getId();
@@ -2,12 +2,14 @@ package com.shablii.timetable.service;
 
 import com.shablii.timetable.dao.AuditoriumRepository;
 import com.shablii.timetable.model.*;
+import com.shablii.timetable.service.utility.OccupancyStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -15,6 +17,7 @@ import java.util.*;
 public class AuditoriumService {
 
     private final AuditoriumRepository repository;
+    private final OccupancyStore occupancyStore;
 
     public long count() {
 
@@ -54,19 +57,31 @@ public class AuditoriumService {
     public List<Auditorium> findAvailableFor(LocalDate date, Period period) {
 
         log.debug("Fetching available auditoriums for {} on {}", period, date);
-        return repository.findAllAvailable(date, period);
+        if (!occupancyStore.isEnabled()) {
+            return repository.findAllAvailable(date, period);
+        }
+
+        BitSet busy = occupancyStore.findBusyAuditoriums(date, period);
+        return repository.findAll()
+                .stream()
+                .filter(auditorium -> !busy.get(Math.toIntExact(auditorium.getId())))
+                .collect(Collectors.toList());
     }
 
+    /* Lessons of the auditorium go with the flushed delete through a database cascade the occupancy store never sees */
     public void delete(Auditorium auditorium) {
 
         log.debug("Removing {}", auditorium);
         repository.delete(auditorium);
+        repository.flush();
+        occupancyStore.invalidate();
     }
 
     public void deleteAll() {
 
         log.debug("Removing all auditoriums");
         repository.deleteAllInBatch();
+        occupancyStore.invalidate();
     }
 
 }
@@ -1,7 +1,8 @@
 package com.shablii.timetable.service;
 
-import com.shablii.timetable.dao.CourseRepository;
+import com.shablii.timetable.dao.*;
 import com.shablii.timetable.model.Course;
+import com.shablii.timetable.service.utility.OccupancyStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -14,6 +15,8 @@ import java.util.*;
 public class CourseService {
 
     private final CourseRepository repository;
+    private final ReferenceCacheDao referenceCacheDao;
+    private final OccupancyStore occupancyStore;
 
     public long count() {
 
@@ -54,12 +57,16 @@ public class CourseService {
 
         log.debug("Removing {}", course);
         repository.delete(course);
+        occupancyStore.invalidate();
+        referenceCacheDao.evictProfessorCourses();
     }
 
     public void deleteAll() {
 
         log.debug("Removing all courses");
         repository.deleteAllInBatch();
+        occupancyStore.invalidate();
+        referenceCacheDao.evictProfessorCourses();
     }
 
 }
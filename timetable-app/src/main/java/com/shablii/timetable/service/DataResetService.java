@@ -0,0 +1,33 @@
+package com.shablii.timetable.service;
+
+import com.shablii.timetable.dao.DataResetDao;
+import com.shablii.timetable.service.utility.OccupancyStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DataResetService {
+
+    private final DataResetDao dataResetDao;
+    private final OccupancyStore occupancyStore;
+
+    /* Committed before background regeneration starts, readers see empty tables until the new data commits */
+    public void deleteAll() {
+
+        log.debug("Removing all university and timetable data");
+        dataResetDao.truncateAll(false);
+        occupancyStore.invalidate();
+    }
+
+    /* Truncated tables stay locked until commit, so it only serves startup and snapshot restore, before any reader */
+    public void resetAll() {
+
+        log.debug("Removing all data and restarting id sequences");
+        dataResetDao.truncateAll(true);
+        occupancyStore.invalidate();
+    }
+
+}
@@ -2,6 +2,7 @@ package com.shablii.timetable.service;
 
 import com.shablii.timetable.dao.GroupRepository;
 import com.shablii.timetable.model.*;
+import com.shablii.timetable.service.utility.OccupancyStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -14,6 +15,7 @@ import java.util.*;
 public class GroupService {
 
     private final GroupRepository repository;
+    private final OccupancyStore occupancyStore;
 
     public long count() {
 
@@ -61,12 +63,14 @@ public class GroupService {
 
         log.debug("Removing {}", group);
         repository.delete(group);
+        occupancyStore.invalidate();
     }
 
     public void deleteAll() {
 
         log.debug("Removing all groups");
         repository.deleteAllInBatch();
+        occupancyStore.invalidate();
     }
 
 }
@@ -2,12 +2,14 @@ package com.shablii.timetable.service;
 
 import com.shablii.timetable.dao.ProfessorRepository;
 import com.shablii.timetable.model.*;
+import com.shablii.timetable.service.utility.OccupancyStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -15,6 +17,7 @@ import java.util.*;
 public class ProfessorService {
 
     private final ProfessorRepository repository;
+    private final OccupancyStore occupancyStore;
 
     public long count() {
 
@@ -59,20 +62,31 @@ public class ProfessorService {
 
     public List<Professor> findAvailableFor(LocalDate date, Period period) {
 
-        log.debug("Fetching available professors from repository");
-        return repository.findAllAvailable(date, period);
+        log.debug("Fetching available professors for {} on {}", period, date);
+        if (!occupancyStore.isEnabled()) {
+            return repository.findAllAvailable(date, period);
+        }
+
+        BitSet busy = occupancyStore.findBusyProfessors(date, period);
+        return repository.findAll()
+                .stream()
+                .filter(professor -> !busy.get(Math.toIntExact(professor.getId())))
+                .collect(Collectors.toList());
     }
 
     public void delete(Professor professor) {
 
         log.debug("Removing {}", professor);
         repository.delete(professor);
+        repository.flush();
+        occupancyStore.invalidate();
     }
 
     public void deleteAll() {
 
         log.debug("Removing all professors");
         repository.deleteAllInBatch();
+        occupancyStore.invalidate();
     }
 
 }
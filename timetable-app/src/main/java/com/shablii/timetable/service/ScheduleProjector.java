@@ -0,0 +1,178 @@
+package com.shablii.timetable.service;
+
+import com.shablii.timetable.dao.*;
+import com.shablii.timetable.exceptions.NotFoundException;
+import com.shablii.timetable.model.*;
+import com.shablii.timetable.service.utility.SemesterCalendar;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.*;
+import java.util.*;
+
+import static java.util.stream.Collectors.*;
+
+/*
+ * Computes schedules from templates for requested dates and merges them with
+ * persisted overrides, so only rescheduled or substituted occurrences are stored.
+ * Projected schedule ID encodes template ID and date of occurrence
+ */
+@Slf4j
+@Component
+public class ScheduleProjector {
+
+    private static final long DAYS_PER_TEMPLATE = 100_000L;
+
+    private final SemesterCalendar semesterCalendar;
+    private final ScheduleTemplateRepository templateRepository;
+    private final ScheduleOverrideRepository overrideRepository;
+    private final boolean enabled;
+
+    public ScheduleProjector(SemesterCalendar semesterCalendar, ScheduleTemplateRepository templateRepository,
+            ScheduleOverrideRepository overrideRepository,
+            @Value("${university.timetable.projection:false}") boolean enabled) {
+
+        this.semesterCalendar = semesterCalendar;
+        this.templateRepository = templateRepository;
+        this.overrideRepository = overrideRepository;
+        this.enabled = enabled;
+    }
+
+    public static long idOf(long templateId, LocalDate originDate) {
+
+        return templateId * DAYS_PER_TEMPLATE + originDate.toEpochDay();
+    }
+
+    public boolean isEnabled() {
+
+        return enabled;
+    }
+
+    public List<Schedule> project(LocalDate startDate, LocalDate endDate) {
+
+        log.debug("Projecting schedules in range {}-{}", startDate, endDate);
+        Map<Boolean, Map<DayOfWeek, List<ScheduleTemplate>>> templates = templateRepository.findAll()
+                .stream()
+                .collect(groupingBy(ScheduleTemplate::getWeekParity, groupingBy(ScheduleTemplate::getDay)));
+        List<ScheduleOverride> overrides = overrideRepository.findAllAffectingRange(startDate, endDate);
+        Set<Long> overriddenIds = overrides.stream()
+                .map(override -> idOf(override.getTemplate().getId(), override.getOriginDate()))
+                .collect(toSet());
+
+        List<Schedule> schedules = new ArrayList<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            if (!semesterCalendar.isSemesterDate(date)) {
+                continue;
+            }
+            for (ScheduleTemplate template : templates.getOrDefault(semesterCalendar.getWeekParityOf(date),
+                    Collections.emptyMap()).getOrDefault(date.getDayOfWeek(), Collections.emptyList())) {
+                if (!overriddenIds.contains(idOf(template.getId(), date))) {
+                    schedules.add(toSchedule(template, date));
+                }
+            }
+        }
+
+        overrides.stream()
+                .filter(override -> !override.getDate().isBefore(startDate) && !override.getDate().isAfter(endDate))
+                .map(this::toSchedule)
+                .forEach(schedules::add);
+
+        return schedules;
+    }
+
+    public List<Schedule> findOverriddenInRange(LocalDate startDate, LocalDate endDate) {
+
+        return overrideRepository.findAllByDateBetween(startDate, endDate)
+                .stream()
+                .map(this::toSchedule)
+                .collect(toList());
+    }
+
+    public Optional<Schedule> findById(long id) {
+
+        long templateId = id / DAYS_PER_TEMPLATE;
+        LocalDate originDate = LocalDate.ofEpochDay(id % DAYS_PER_TEMPLATE);
+
+        Optional<ScheduleOverride> override = overrideRepository.findByTemplateIdAndOriginDate(templateId,
+                originDate);
+        if (override.isPresent()) {
+            return override.map(this::toSchedule);
+        }
+        return templateRepository.findById(templateId)
+                .filter(template -> occursOn(template, originDate))
+                .map(template -> toSchedule(template, originDate));
+    }
+
+    public Schedule save(Schedule schedule) {
+
+        if (schedule.getId() == null) {
+            throw new IllegalArgumentException("Only projected schedules can be saved in projection mode");
+        }
+
+        long templateId = schedule.getId() / DAYS_PER_TEMPLATE;
+        LocalDate originDate = LocalDate.ofEpochDay(schedule.getId() % DAYS_PER_TEMPLATE);
+        ScheduleOverride override = overrideRepository.findByTemplateIdAndOriginDate(templateId, originDate)
+                .orElseGet(() -> new ScheduleOverride(templateRepository.findById(templateId)
+                        .orElseThrow(() -> new NotFoundException(
+                                "Template with ID(" + templateId + ") could not be found")), originDate));
+        override.apply(schedule);
+
+        if (override.isSameAsTemplate()) {
+            log.debug("Schedule ID({}) matches its template, removing override", schedule.getId());
+            if (override.getId() != null) {
+                overrideRepository.delete(override);
+            }
+            return toSchedule(override.getTemplate(), originDate);
+        }
+
+        log.debug("Saving override for schedule ID({})", schedule.getId());
+        return toSchedule(overrideRepository.save(override));
+    }
+
+    public List<Schedule> shiftOverrides(Schedule candidate, long deltaDays) {
+
+        ScheduleTemplate template = candidate.getTemplate();
+        List<ScheduleOverride> overrides = overrideRepository.findAllByTemplateId(template.getId());
+        for (ScheduleOverride override : overrides) {
+            override.setOriginDate(override.getOriginDate().plusDays(deltaDays));
+            override.setDate(override.getDate().plusDays(deltaDays));
+            override.setDay(candidate.getDay());
+            override.setPeriod(candidate.getPeriod());
+            override.setAuditorium(candidate.getAuditorium());
+        }
+        overrideRepository.saveAll(overrides);
+
+        return project(semesterCalendar.getStartDate(), semesterCalendar.getEndDate()).stream()
+                .filter(schedule -> schedule.getTemplate().getId().equals(template.getId()))
+                .collect(toList());
+    }
+
+    public void deleteAll() {
+
+        log.debug("Removing all schedule overrides");
+        overrideRepository.deleteAllInBatch();
+    }
+
+    private boolean occursOn(ScheduleTemplate template, LocalDate date) {
+
+        return semesterCalendar.isSemesterDate(date) && template.getDay() == date.getDayOfWeek()
+                && template.getWeekParity() == semesterCalendar.getWeekParityOf(date);
+    }
+
+    private Schedule toSchedule(ScheduleTemplate template, LocalDate date) {
+
+        Schedule schedule = new Schedule(template, date);
+        schedule.setId(idOf(template.getId(), date));
+        return schedule;
+    }
+
+    private Schedule toSchedule(ScheduleOverride override) {
+
+        ScheduleTemplate template = override.getTemplate();
+        return new Schedule(idOf(template.getId(), override.getOriginDate()), template, override.getDate(),
+                override.getDay(), override.getPeriod(), override.getAuditorium(), template.getCourse(),
+                template.getGroup(), override.getProfessor());
+    }
+
+}
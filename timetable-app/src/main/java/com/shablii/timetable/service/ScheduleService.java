@@ -1,18 +1,23 @@
 package com.shablii.timetable.service;
 
 import com.shablii.timetable.dao.*;
+import com.shablii.timetable.model.Period;
 import com.shablii.timetable.model.*;
-import com.shablii.timetable.service.utility.SemesterCalendar;
+import com.shablii.timetable.service.utility.*;
 import com.shablii.timetable.service.utility.predicates.SchedulePredicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.*;
+import org.springframework.transaction.support.*;
 
 import java.time.*;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Supplier;
 
-import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.*;
 
 @Slf4j
 @Service
@@ -20,13 +25,23 @@ import static java.util.stream.Collectors.toList;
 public class ScheduleService {
 
     private final SemesterCalendar semesterCalendar;
+    private final SemesterMaterializationStatus materializationStatus;
     private final ScheduleTemplateRepository templateRepository;
     private final ScheduleRepository repository;
+    private final BulkInsertDao bulkInsertDao;
+    private final PlatformTransactionManager transactionManager;
+    private final ScheduleProjector projector;
+    private final OccupancyStore occupancyStore;
+    private final SingleFlight<LocalDate> inFlightDates = new SingleFlight<>();
 
+    /* Updates are flushed at once, so a double booking fails the call that made it rather than the commit */
     public Schedule save(Schedule schedule) {
 
         log.debug("Saving schedule {}", schedule);
-        return repository.save(schedule);
+        if (projector.isEnabled()) {
+            return projector.save(schedule);
+        }
+        return repository.saveAndFlush(schedule);
     }
 
     public List<Schedule> saveAll(List<Schedule> schedules) {
@@ -37,22 +52,49 @@ public class ScheduleService {
         }
 
         log.debug("Saving schedules to repository");
-        return repository.saveAll(schedules);
+        if (projector.isEnabled()) {
+            return schedules.stream().map(projector::save).collect(toList());
+        }
+        if (schedules.stream().allMatch(schedule -> schedule.getId() == null)) {
+            return insertAll(schedules);
+        }
+        List<Schedule> saved = repository.saveAll(schedules);
+        repository.flush();
+        return saved;
+    }
+
+    /* Schedules about to move leave their periods first, so a batch may swap slots under immediately checked keys */
+    public void vacatePeriods(Collection<Schedule> schedules) {
+
+        if (!projector.isEnabled() && !schedules.isEmpty()) {
+            log.debug("Vacating periods of {} schedules", schedules.size());
+            repository.vacatePeriods(schedules.stream().map(Schedule::getId).collect(toList()));
+        }
     }
 
     public List<Schedule> updateAllWithSameTemplateId(Schedule candidate, LocalDate targetDate) {
 
         long templateId = candidate.getTemplate().getId();
+        long deltaDays = ChronoUnit.DAYS.between(candidate.getDate(), targetDate);
+        if (projector.isEnabled()) {
+            log.debug("Shifting all overrides linked to template ID({})", templateId);
+            return projector.shiftOverrides(candidate, deltaDays);
+        }
 
         log.debug("Fetching all schedules linked to template ID({})", templateId);
         List<Schedule> allByTemplateId = repository.findAllByTemplateId(templateId);
-        long deltaDays = ChronoUnit.DAYS.between(candidate.getDate(), targetDate);
 
-        for (Schedule schedule : allByTemplateId) {
+        /* Unique keys are checked row by row, so each schedule moves only after the one on its target date did */
+        Comparator<Schedule> byDate = Comparator.comparing(Schedule::getDate);
+        List<Schedule> inShiftOrder = allByTemplateId.stream()
+                .sorted(deltaDays > 0 ? byDate.reversed() : byDate)
+                .collect(toList());
+        for (Schedule schedule : inShiftOrder) {
             schedule.setDate(schedule.getDate().plusDays(deltaDays));
             schedule.setDay(candidate.getDay());
             schedule.setPeriod(candidate.getPeriod());
             schedule.setAuditorium(candidate.getAuditorium());
+            repository.saveAndFlush(schedule);
         }
 
         return allByTemplateId;
@@ -61,20 +103,47 @@ public class ScheduleService {
     public Optional<Schedule> findById(long id) {
 
         log.debug("Fetching schedule ID({}) from repository", id);
+        if (projector.isEnabled()) {
+            return projector.findById(id);
+        }
         return repository.findById(id);
     }
 
+    public List<Schedule> findAllById(Collection<Long> ids) {
+
+        log.debug("Fetching schedules with IDs {} from repository", ids);
+        if (projector.isEnabled()) {
+            return ids.stream()
+                    .map(projector::findById)
+                    .filter(Optional::isPresent)
+                    .map(Optional::get)
+                    .collect(toList());
+        }
+        return repository.findAllById(ids);
+    }
+
     public List<Schedule> findAll() {
 
         log.debug("Fetching schedules from repository");
+        if (projector.isEnabled()) {
+            return projector.project(semesterCalendar.getStartDate(), semesterCalendar.getEndDate());
+        }
         return repository.findAll();
     }
 
     public List<Schedule> findGeneratedInRange(LocalDate startDate, LocalDate endDate) {
 
+        if (projector.isEnabled()) {
+            return projector.findOverriddenInRange(startDate, endDate);
+        }
         return repository.findAllByDateBetween(startDate, endDate);
     }
 
+    public boolean isProjected() {
+
+        return projector.isEnabled();
+    }
+
     public List<Schedule> findAllFor(SchedulePredicate predicate, LocalDate startDate, LocalDate endDate) {
 
         log.debug("Filtering schedules in range {}-{} by {}", startDate, endDate, predicate.getCriteria());
@@ -82,48 +151,206 @@ public class ScheduleService {
         return findAllInRange(startDate, endDate).stream().filter(predicate).sorted().collect(toList());
     }
 
+    /* Rows are selected straight into the read model, no schedule or resource entity gets loaded for them */
+    public List<ScheduleRow> findRowsFor(SchedulePredicate predicate, LocalDate startDate, LocalDate endDate) {
+
+        log.debug("Filtering schedule rows in range {}-{} by {}", startDate, endDate, predicate.getCriteria());
+        if (projector.isEnabled()) {
+            return findAllFor(predicate, startDate, endDate).stream().map(ScheduleRow::new).collect(toList());
+        }
+
+        boolean generated = !materialization(startDate, endDate).isEmpty();
+        return read(generated, () -> predicate.findRows(repository, startDate, endDate)).stream()
+                .sorted()
+                .collect(toList());
+    }
+
     public List<Schedule> findAllInRange(LocalDate startDate, LocalDate endDate) {
 
+        if (projector.isEnabled()) {
+            return projector.project(startDate, endDate);
+        }
+
+        boolean generated = !materialization(startDate, endDate).isEmpty();
         log.debug("Fetching schedules in range {}-{} from repository", startDate, endDate);
+        return read(generated, () -> repository.findAllByDateBetween(startDate, endDate));
+    }
+
+    public int materializeRange(LocalDate startDate, LocalDate endDate) {
+
+        if (projector.isEnabled()) {
+            return 0;
+        }
+
+        log.debug("Materializing schedules in range {}-{}", startDate, endDate);
+        return materializeMissing(startDate, endDate).size();
+    }
+
+    private List<LocalDate> materialization(LocalDate startDate, LocalDate endDate) {
+
+        if (materializationStatus.isReady()) {
+            return Collections.emptyList();
+        }
+        return materializeMissing(startDate, endDate);
+    }
+
+    /*
+     * Requests outside of a transaction hold no connection while waiting for dates generated by another one,
+     * a request in a read-write transaction already holds one, so it generates in that transaction instead
+     * of waiting for a second, inserts of dates generated concurrently are skipped
+     */
+    private List<LocalDate> materializeMissing(LocalDate startDate, LocalDate endDate) {
+
+        Set<LocalDate> materializedDates = read(false,
+                () -> new HashSet<>(repository.findMaterializedDatesBetween(startDate, endDate)));
+        List<LocalDate> missingDates = findMissingDates(materializedDates, startDate, endDate);
+        if (missingDates.isEmpty()) {
+            return missingDates;
+        }
+        log.debug("Nothing found for {} date(s) in range, generating schedules", missingDates.size());
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            generateAndSave(missingDates);
+        } else {
+            inFlightDates.execute(missingDates, this::generateAndSaveInNewTransaction);
+        }
+        return missingDates;
+    }
+
+    /* A replica serving read-only transactions may not have just generated schedules yet, the primary does */
+    private <T> T read(boolean generated, Supplier<T> query) {
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        if (generated && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        } else {
+            transactionTemplate.setReadOnly(!generated);
+        }
+        return transactionTemplate.execute(transaction -> query.get());
+    }
+
+    private List<LocalDate> findMissingDates(Set<LocalDate> materializedDates, LocalDate startDate,
+            LocalDate endDate) {
+
+        List<LocalDate> missingDates = new ArrayList<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            if (semesterCalendar.isSemesterDate(date) && !materializedDates.contains(date)) {
+                missingDates.add(date);
+            }
+        }
+        return missingDates;
+    }
+
+    /*
+     * Generated schedules are committed before waiting requests are released, so
+     * they can read them from their own transactions
+     */
+    private void generateAndSaveInNewTransaction(List<LocalDate> dates) {
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            transactionTemplate.executeWithoutResult(transaction -> generateAndSave(dates));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Schedules for {} have already been generated concurrently", dates);
+        }
+    }
+
+    private void generateAndSave(List<LocalDate> dates) {
+
+        Set<LocalDate> materializedDates = new HashSet<>(
+                repository.findMaterializedDatesBetween(dates.get(0), dates.get(dates.size() - 1)));
+
+        Map<Boolean, Map<DayOfWeek, List<ScheduleTemplate>>> templates = templateRepository.findAll()
+                .stream()
+                .collect(groupingBy(ScheduleTemplate::getWeekParity, groupingBy(ScheduleTemplate::getDay)));
+
         List<Schedule> schedules = new ArrayList<>();
-        long daysBetweenDates = ChronoUnit.DAYS.between(startDate, endDate) + 1;
-        for (long i = 0; i < daysBetweenDates; i++) {
-            LocalDate date = startDate.plusDays(i);
-            if (semesterCalendar.isSemesterDate(date)) {
-                schedules.addAll(lookupSchedule(date));
+        for (LocalDate date : dates) {
+            if (materializedDates.contains(date)) {
+                continue;
             }
+            templates.getOrDefault(semesterCalendar.getWeekParityOf(date), Collections.emptyMap())
+                    .getOrDefault(date.getDayOfWeek(), Collections.emptyList())
+                    .forEach(template -> schedules.add(new Schedule(template, date)));
+        }
+
+        if (!schedules.isEmpty()) {
+            log.debug("Bulk inserting {} generated schedules", schedules.size());
+            occupancyStore.occupySchedulesAfterCommit(bulkInsertDao.insertSchedulesIfAbsent(schedules));
         }
-        return schedules;
     }
 
-    private List<Schedule> lookupSchedule(LocalDate date) {
+    /* Templates added after their dates were materialized get schedules there, unless their slot was taken since */
+    public List<Schedule> materializeTemplates(Collection<ScheduleTemplate> templates) {
 
-        log.debug("Fetching schedules for {} from repository", date);
-        List<Schedule> dateSchedules = repository.findAllByDate(date);
+        if (projector.isEnabled() || templates.isEmpty()) {
+            return Collections.emptyList();
+        }
 
-        if (dateSchedules.isEmpty()) {
-            log.debug("Nothing found, generating schedules for {}", date);
-            dateSchedules = generateAndSave(date);
+        Map<LocalDate, List<ScheduleTemplate>> byDate = new TreeMap<>();
+        for (LocalDate date : repository.findMaterializedDatesBetween(semesterCalendar.getStartDate(),
+                semesterCalendar.getEndDate())) {
+            boolean weekParity = semesterCalendar.getWeekParityOf(date);
+            List<ScheduleTemplate> dateTemplates = templates.stream()
+                    .filter(template -> template.getWeekParity() == weekParity)
+                    .filter(template -> template.getDay() == date.getDayOfWeek())
+                    .collect(toList());
+            if (!dateTemplates.isEmpty()) {
+                byDate.put(date, dateTemplates);
+            }
         }
-        return dateSchedules;
+        if (byDate.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<Period> periods = templates.stream()
+                .map(ScheduleTemplate::getPeriod)
+                .collect(toSet());
+        Set<List<Object>> taken = new HashSet<>();
+        repository.findAllByDateInAndPeriodIn(byDate.keySet(), periods)
+                .forEach(schedule -> taken.addAll(claimsOf(schedule)));
+
+        List<Schedule> schedules = new ArrayList<>();
+        byDate.forEach((date, dateTemplates) -> {
+            for (ScheduleTemplate template : dateTemplates) {
+                Schedule schedule = new Schedule(template, date);
+                List<List<Object>> claims = claimsOf(schedule);
+                if (claims.stream().anyMatch(taken::contains)) {
+                    log.warn("Slot of {} on {} has been taken since, leaving it out", template, date);
+                    continue;
+                }
+                taken.addAll(claims);
+                schedules.add(schedule);
+            }
+        });
+
+        log.debug("Materializing {} schedules of {} templates", schedules.size(), templates.size());
+        return insertAll(schedules);
     }
 
-    private List<Schedule> generateAndSave(LocalDate date) {
+    /* New schedules skip the persistence context, they are streamed to the database in bulk */
+    private List<Schedule> insertAll(List<Schedule> schedules) {
 
-        boolean weekParity = semesterCalendar.getWeekParityOf(date);
-        DayOfWeek day = date.getDayOfWeek();
-        List<ScheduleTemplate> dateTemplates = templateRepository.findAllByWeekParityAndDay(weekParity, day);
-        List<Schedule> dateSchedules = dateTemplates.stream()
-                .map(template -> new Schedule(template, date))
-                .collect(toList());
+        log.debug("Bulk inserting {} schedules", schedules.size());
+        List<Schedule> inserted = bulkInsertDao.insertSchedules(schedules);
+        occupancyStore.occupySchedulesAfterCommit(inserted);
+        return inserted;
+    }
+
+    private static List<List<Object>> claimsOf(Schedule schedule) {
 
-        return repository.saveAll(dateSchedules);
+        return Arrays.asList(Arrays.asList(schedule.getDate(), schedule.getPeriod(), schedule.getAuditorium()),
+                Arrays.asList(schedule.getDate(), schedule.getPeriod(), schedule.getGroup()),
+                Arrays.asList(schedule.getDate(), schedule.getPeriod(), schedule.getProfessor()));
     }
 
     public void deleteAll() {
 
         log.debug("Removing all schedules");
+        projector.deleteAll();
         repository.deleteAllInBatch();
+        occupancyStore.invalidate();
     }
 
 }
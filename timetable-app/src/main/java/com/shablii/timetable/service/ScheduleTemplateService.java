@@ -1,7 +1,8 @@
 package com.shablii.timetable.service;
 
-import com.shablii.timetable.dao.ScheduleTemplateRepository;
+import com.shablii.timetable.dao.*;
 import com.shablii.timetable.model.ScheduleTemplate;
+import com.shablii.timetable.service.utility.OccupancyStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -15,6 +16,8 @@ import java.util.*;
 public class ScheduleTemplateService {
 
     private final ScheduleTemplateRepository repository;
+    private final BulkInsertDao bulkInsertDao;
+    private final OccupancyStore occupancyStore;
 
     public long count() {
 
@@ -35,6 +38,13 @@ public class ScheduleTemplateService {
             return templates;
         }
 
+        if (templates.stream().allMatch(template -> template.getId() == null)) {
+            log.debug("Bulk inserting {} templates", templates.size());
+            List<ScheduleTemplate> inserted = bulkInsertDao.insertTemplates(templates);
+            occupancyStore.occupyTemplatesAfterCommit(inserted);
+            return inserted;
+        }
+
         log.debug("Saving templates to repository");
         return repository.saveAll(templates);
     }
@@ -63,10 +73,20 @@ public class ScheduleTemplateService {
         return repository.findById(id);
     }
 
+    /* Linked schedules are removed by database cascade, which entity events do not see */
+    public void deleteAll(Collection<ScheduleTemplate> templates) {
+
+        log.debug("Removing {} templates", templates.size());
+        repository.deleteAll(templates);
+        repository.flush();
+        occupancyStore.invalidate();
+    }
+
     public void deleteAll() {
 
         log.debug("Removing all templates");
         repository.deleteAllInBatch();
+        occupancyStore.invalidate();
     }
 
 }
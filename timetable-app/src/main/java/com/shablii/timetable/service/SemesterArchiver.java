@@ -0,0 +1,71 @@
+package com.shablii.timetable.service;
+
+import com.shablii.timetable.dao.SchedulePartitionDao;
+import com.shablii.timetable.service.utility.*;
+import lombok.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.*;
+import java.util.*;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SemesterArchiver {
+
+    private final SemesterCalendar semesterCalendar;
+    private final SchedulePartitionDao partitionDao;
+    private final OccupancyStore occupancyStore;
+
+    /* Every month of a served semester gets own partition so that its lookups never touch other semesters */
+    public int preparePartitions() {
+
+        if (!partitionDao.isPartitioned()) {
+            return 0;
+        }
+        int created = 0;
+        for (YearMonth month : servedMonths()) {
+            if (partitionDao.createMonthPartition(month)) {
+                created++;
+            }
+        }
+        log.debug("Created {} schedules partitions for served semesters", created);
+        return created;
+    }
+
+    /* Months ending before current semester starts are archived unless another registered semester still serves them */
+    public Archival archiveFinishedSemesters() {
+
+        LocalDate before = semesterCalendar.getStartDate();
+        List<String> archived = partitionDao.archiveMonthPartitionsBefore(before, servedMonths());
+        if (!archived.isEmpty()) {
+            log.info("Archived {} schedules partitions before {}", archived.size(), before);
+            occupancyStore.invalidate();
+        }
+        return new Archival(before, archived);
+    }
+
+    private Set<YearMonth> servedMonths() {
+
+        Set<YearMonth> months = new LinkedHashSet<>();
+        for (SemesterCalendar.Semester semester : semesterCalendar.getSemesters()) {
+            YearMonth last = YearMonth.from(semester.getEndDate());
+            for (YearMonth month = YearMonth.from(semester.getStartDate()); !month.isAfter(last);
+                 month = month.plusMonths(1)) {
+                months.add(month);
+            }
+        }
+        return months;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Archival {
+
+        private final LocalDate before;
+        private final List<String> partitions;
+
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.shablii.timetable.service;
+
+import com.shablii.timetable.service.utility.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.*;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+
+@Slf4j
+@Service
+public class SemesterMaterializer {
+
+    private final SemesterCalendar semesterCalendar;
+    private final ScheduleService scheduleService;
+    private final SemesterMaterializationStatus status;
+    private final ExecutorService executor;
+    private final boolean enabled;
+    private final int batchWeeks;
+
+    public SemesterMaterializer(SemesterCalendar semesterCalendar, ScheduleService scheduleService,
+            SemesterMaterializationStatus status, @Value("${university.materializer.enabled:true}") boolean enabled,
+            @Value("${university.materializer.threads:4}") int threads,
+            @Value("${university.materializer.batch.weeks:2}") int batchWeeks) {
+
+        this.semesterCalendar = semesterCalendar;
+        this.scheduleService = scheduleService;
+        this.status = status;
+        this.executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("semester-materializer-"));
+        this.enabled = enabled;
+        this.batchWeeks = Math.max(1, batchWeeks);
+    }
+
+    public void invalidate() {
+
+        log.debug("Invalidating materialized semester");
+        status.invalidate();
+    }
+
+    public void materializeSemesterAfterCommit() {
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCommit() {
+
+                    materializeSemester();
+                }
+            });
+        } else {
+            materializeSemester();
+        }
+    }
+
+    public CompletableFuture<Void> materializeSemester() {
+
+        if (!enabled) {
+            log.debug("Semester materialization disabled, schedules will be generated on demand");
+            return CompletableFuture.completedFuture(null);
+        }
+        if (scheduleService.isProjected()) {
+            log.debug("Schedules are projected from templates, nothing to materialize");
+            return CompletableFuture.completedFuture(null);
+        }
+
+        int totalWeeks = semesterCalendar.getLengthInWeeks();
+        long generation = status.start(totalWeeks);
+        log.info("Materializing {} semester weeks in batches of {}...", totalWeeks, batchWeeks);
+
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        for (int week = 1; week <= totalWeeks; week += batchWeeks) {
+            int firstWeek = week;
+            int lastWeek = Math.min(week + batchWeeks - 1, totalWeeks);
+            batches.add(CompletableFuture.runAsync(() -> materializeBatch(generation, firstWeek, lastWeek), executor));
+        }
+
+        return CompletableFuture.allOf(batches.toArray(new CompletableFuture[0])).whenComplete((result, e) -> {
+            if (e != null) {
+                log.error("Semester materialization failed, schedules will be generated on demand", e);
+            } else if (status.isCurrent(generation)) {
+                status.complete(generation);
+                log.info("Semester materialized");
+            }
+        });
+    }
+
+    private void materializeBatch(long generation, int firstWeek, int lastWeek) {
+
+        if (!status.isCurrent(generation)) {
+            log.debug("Skipping weeks {}-{}, materialization superseded", firstWeek, lastWeek);
+            return;
+        }
+
+        LocalDate from = semesterCalendar.getWeekMonday(firstWeek);
+        LocalDate until = semesterCalendar.getWeekFriday(lastWeek);
+        scheduleService.materializeRange(from, until);
+        status.weeksMaterialized(generation, lastWeek - firstWeek + 1);
+        log.debug("Weeks {}-{} materialized", firstWeek, lastWeek);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+
+        executor.shutdownNow();
+    }
+
+}
@@ -0,0 +1,213 @@
+package com.shablii.timetable.service;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.shablii.timetable.model.Period;
+import com.shablii.timetable.model.*;
+import com.shablii.timetable.service.model.generator.TimetableWeights;
+import com.shablii.timetable.service.utility.*;
+import lombok.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class SlotFinder {
+
+    private static final int DAY_DISTANCE_WEIGHT = 1;
+    private static final int NEW_GROUP_DAY_PENALTY = 5;
+    private static final int AUDITORIUM_CHANGE_PENALTY = 2;
+
+    private static final Comparator<RankedSlot> BEST_FIRST = Comparator.comparingInt(RankedSlot::getScore)
+            .thenComparing(RankedSlot::getDate)
+            .thenComparing(RankedSlot::getOption);
+
+    private final SemesterCalendar semesterCalendar;
+    private final ScheduleService scheduleService;
+    private final ScheduleTemplateService templateService;
+    private final ReschedulingOptionService optionService;
+    private final TimetableWeights weights;
+    private final ExecutorService executor;
+
+    public SlotFinder(SemesterCalendar semesterCalendar, ScheduleService scheduleService,
+            ScheduleTemplateService templateService, ReschedulingOptionService optionService, TimetableWeights weights,
+            @Value("${university.slot.search.threads:4}") int threads) {
+
+        this.semesterCalendar = semesterCalendar;
+        this.scheduleService = scheduleService;
+        this.templateService = templateService;
+        this.optionService = optionService;
+        this.weights = weights;
+        this.executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("slot-finder-"));
+    }
+
+    /* Data is loaded in calling thread, weeks are ranked in parallel and reported to listener as they enter top */
+    public CompletableFuture<List<RankedSlot>> findBestSlots(Schedule candidate, int limit,
+            Consumer<RankedSlot> onFound) {
+
+        log.debug("Searching {} best slots in semester for {}", limit, candidate);
+        Map<Boolean, List<ScheduleTemplate>> templatesByParity = templateService.findAll()
+                .stream()
+                .collect(Collectors.partitioningBy(ScheduleTemplate::getWeekParity));
+        Map<Integer, List<Schedule>> schedulesByWeek = scheduleService.findGeneratedInRange(
+                semesterCalendar.getStartDate(), semesterCalendar.getEndDate())
+                .stream()
+                .collect(Collectors.groupingBy(schedule -> semesterCalendar.getSemesterWeekNumber(schedule.getDate())));
+        List<ReschedulingOption> options = optionService.findAll();
+        TopSlots top = new TopSlots(limit, onFound);
+
+        List<CompletableFuture<Void>> weeks = new ArrayList<>();
+        for (int week = 1; week <= semesterCalendar.getLengthInWeeks(); week++) {
+            LocalDate monday = semesterCalendar.getWeekMonday(week);
+            List<ScheduleTemplate> templates = templatesByParity.get(week % 2 == 0);
+            List<Schedule> schedules = schedulesByWeek.getOrDefault(week, Collections.emptyList());
+            weeks.add(CompletableFuture.runAsync(
+                    () -> top.offerAll(rankWeek(candidate, monday, templates, schedules, options, limit)), executor));
+        }
+
+        return CompletableFuture.allOf(weeks.toArray(new CompletableFuture[0])).thenApply(done -> top.toList());
+    }
+
+    private List<RankedSlot> rankWeek(Schedule candidate, LocalDate monday, List<ScheduleTemplate> templates,
+            List<Schedule> schedules, List<ReschedulingOption> options, int limit) {
+
+        Predicate<ReschedulingOption> available = OccupancyIndex.of(templates, schedules).availableFor(candidate);
+        Map<DayOfWeek, BitSet> groupPeriods = getGroupPeriods(candidate, templates, schedules);
+
+        PriorityQueue<RankedSlot> best = new PriorityQueue<>(limit, BEST_FIRST.reversed());
+        for (ReschedulingOption option : options) {
+            LocalDate date = monday.with(option.getDay());
+            if (!semesterCalendar.isSemesterDate(date) || !available.test(option)) {
+                continue;
+            }
+            offer(best, new RankedSlot(date, option, score(candidate, date, option, groupPeriods)), limit);
+        }
+        return new ArrayList<>(best);
+    }
+
+    /* Candidate's own occurrence is left out since its slot is vacated by rescheduling */
+    private Map<DayOfWeek, BitSet> getGroupPeriods(Schedule candidate, List<ScheduleTemplate> templates,
+            List<Schedule> schedules) {
+
+        Long templateId = candidate.getTemplate() == null ? null : candidate.getTemplate().getId();
+        Map<DayOfWeek, BitSet> groupPeriods = new EnumMap<>(DayOfWeek.class);
+        BiConsumer<DayOfWeek, Period> occupy = (day, period) -> groupPeriods.computeIfAbsent(day, any -> new BitSet())
+                .set(period.ordinal());
+        templates.stream()
+                .filter(template -> template.getGroup().equals(candidate.getGroup()))
+                .filter(template -> !Objects.equals(template.getId(), templateId))
+                .forEach(template -> occupy.accept(template.getDay(), template.getPeriod()));
+        schedules.stream()
+                .filter(schedule -> schedule.getGroup().equals(candidate.getGroup()))
+                .filter(schedule -> !Objects.equals(schedule.getId(), candidate.getId()))
+                .filter(schedule -> !isSameTemplate(schedule, templateId))
+                .forEach(schedule -> occupy.accept(schedule.getDay(), schedule.getPeriod()));
+        return groupPeriods;
+    }
+
+    private boolean isSameTemplate(Schedule schedule, Long templateId) {
+
+        return templateId != null && schedule.getTemplate() != null && templateId.equals(
+                schedule.getTemplate().getId());
+    }
+
+    private int score(Schedule candidate, LocalDate date, ReschedulingOption option,
+            Map<DayOfWeek, BitSet> groupPeriods) {
+
+        int distance = (int) Math.abs(ChronoUnit.DAYS.between(candidate.getDate(), date));
+        int auditoriumChange = option.getAuditorium().equals(candidate.getAuditorium()) ? 0 : AUDITORIUM_CHANGE_PENALTY;
+        return distance * DAY_DISTANCE_WEIGHT + getGapPenalty(groupPeriods.get(date.getDayOfWeek()),
+                option.getPeriod()) + auditoriumChange;
+    }
+
+    private int getGapPenalty(BitSet periods, Period period) {
+
+        if (periods == null || periods.isEmpty()) {
+            return NEW_GROUP_DAY_PENALTY;
+        }
+
+        int slot = period.ordinal();
+        int gap = Integer.MAX_VALUE;
+        int previous = periods.previousSetBit(slot);
+        int next = periods.nextSetBit(slot);
+        if (previous >= 0) {
+            gap = slot - previous - 1;
+        }
+        if (next >= 0) {
+            gap = Math.min(gap, next - slot - 1);
+        }
+        return Math.max(gap, 0) * weights.getGap();
+    }
+
+    private static boolean offer(PriorityQueue<RankedSlot> worstFirst, RankedSlot slot, int limit) {
+
+        if (worstFirst.size() < limit) {
+            worstFirst.add(slot);
+            return true;
+        }
+        if (BEST_FIRST.compare(slot, worstFirst.peek()) < 0) {
+            worstFirst.poll();
+            worstFirst.add(slot);
+            return true;
+        }
+        return false;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+
+        executor.shutdownNow();
+    }
+
+    @RequiredArgsConstructor
+    private static class TopSlots {
+
+        private final int limit;
+        private final Consumer<RankedSlot> onFound;
+        private final PriorityQueue<RankedSlot> worstFirst = new PriorityQueue<>(BEST_FIRST.reversed());
+
+        void offerAll(List<RankedSlot> slots) {
+
+            List<RankedSlot> found = new ArrayList<>();
+            synchronized (this) {
+                for (RankedSlot slot : slots) {
+                    if (offer(worstFirst, slot, limit)) {
+                        found.add(slot);
+                    }
+                }
+            }
+            found.forEach(onFound);
+        }
+
+        synchronized List<RankedSlot> toList() {
+
+            List<RankedSlot> slots = new ArrayList<>(worstFirst);
+            slots.sort(BEST_FIRST);
+            return slots;
+        }
+
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    @ToString
+    @RequiredArgsConstructor
+    public static class RankedSlot {
+
+        @JsonFormat(pattern = "yyyy-MM-dd")
+        private final LocalDate date;
+        private final ReschedulingOption option;
+        private final int score;
+
+    }
+
+}
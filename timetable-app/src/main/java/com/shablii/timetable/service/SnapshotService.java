@@ -0,0 +1,50 @@
+package com.shablii.timetable.service;
+
+import com.shablii.timetable.dao.SnapshotDao;
+import com.shablii.timetable.service.utility.OccupancyStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.*;
+
+import java.io.*;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SnapshotService {
+
+    private final SnapshotDao snapshotDao;
+    private final DataResetService dataResetService;
+    private final OccupancyStore occupancyStore;
+    private final SemesterMaterializer semesterMaterializer;
+
+    /* Tables are read one after another, repeatable read keeps them consistent with each other */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void exportTo(OutputStream out) throws IOException {
+
+        long start = System.currentTimeMillis();
+        snapshotDao.exportTo(out);
+        log.info("Snapshot exported in {} ms", System.currentTimeMillis() - start);
+    }
+
+    /* Sequences restart past the restored ids, so like resetAll it runs before any id was handed out */
+    @Transactional(rollbackFor = IOException.class)
+    public void restoreFrom(InputStream in) throws IOException {
+
+        long start = System.currentTimeMillis();
+        semesterMaterializer.invalidate();
+        dataResetService.resetAll();
+        snapshotDao.importFrom(in);
+        occupancyStore.invalidate();
+        semesterMaterializer.materializeSemesterAfterCommit();
+        log.info("Snapshot restored in {} ms", System.currentTimeMillis() - start);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isEmpty() {
+
+        return snapshotDao.isEmpty();
+    }
+
+}
@@ -1,6 +1,6 @@
 package com.shablii.timetable.service;
 
-import com.shablii.timetable.dao.StudentRepository;
+import com.shablii.timetable.dao.*;
 import com.shablii.timetable.model.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,6 +14,7 @@ import java.util.*;
 public class StudentService {
 
     private final StudentRepository repository;
+    private final BulkInsertDao bulkInsertDao;
 
     public long count() {
 
@@ -41,6 +42,11 @@ public class StudentService {
             return students;
         }
 
+        if (students.stream().allMatch(student -> student.getId() == null)) {
+            log.debug("Bulk inserting {} students", students.size());
+            return bulkInsertDao.insertStudents(students);
+        }
+
         log.debug("Saving students to repository");
         return repository.saveAll(students);
     }
@@ -1,22 +1,25 @@
 package com.shablii.timetable.service;
 
 import com.shablii.timetable.constraints.IdValid;
-import com.shablii.timetable.exceptions.NotFoundException;
+import com.shablii.timetable.exceptions.*;
+import com.shablii.timetable.model.Period;
 import com.shablii.timetable.model.*;
-import com.shablii.timetable.service.utility.SemesterCalendar;
-import com.shablii.timetable.service.utility.predicates.SchedulePredicate;
+import com.shablii.timetable.service.model.generator.TimetableRepairer;
+import com.shablii.timetable.service.utility.*;
+import com.shablii.timetable.service.utility.predicates.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.*;
 import org.springframework.validation.annotation.Validated;
 
-import javax.transaction.Transactional;
 import javax.validation.Valid;
 import javax.validation.constraints.*;
-import java.time.LocalDate;
+import java.time.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.*;
-import java.util.stream.Collectors;
+import java.util.stream.*;
 
 @Service
 @Transactional
@@ -34,7 +37,11 @@ public class TimetableFacade {
     private final ScheduleService scheduleService;
     private final ScheduleTemplateService templateService;
     private final StudentService studentService;
+    private final DataResetService dataResetService;
+    private final SlotFinder slotFinder;
+    private final TimetableRepairer repairer;
 
+    @Transactional(readOnly = true)
     public long countAuditoriums() {
 
         return auditoriumService.count();
@@ -50,24 +57,45 @@ public class TimetableFacade {
         return auditoriumService.saveAll(auditoriums);
     }
 
+    @Transactional(readOnly = true)
     public Optional<Auditorium> getAuditorium(@IdValid("Auditorium") long id) {
 
         return auditoriumService.findById(id);
     }
 
+    @Transactional(readOnly = true)
     public List<Auditorium> getAuditoriums() {
 
         return auditoriumService.findAll();
     }
 
+    @Transactional(readOnly = true)
     public List<Auditorium> getAvailableAuditoriums(@NotNull LocalDate date, @NotNull Period period) {
 
+        if (scheduleService.isProjected()) {
+            Set<Auditorium> busy = getPeriodSchedules(date, period)
+                    .map(Schedule::getAuditorium)
+                    .collect(Collectors.toSet());
+            return auditoriumService.findAll()
+                    .stream()
+                    .filter(auditorium -> !busy.contains(auditorium))
+                    .collect(Collectors.toList());
+        }
         return auditoriumService.findAvailableFor(date, period);
     }
 
+    private Stream<Schedule> getPeriodSchedules(LocalDate date, Period period) {
+
+        return scheduleService.findAllInRange(date, date)
+                .stream()
+                .filter(schedule -> schedule.getPeriod() == period);
+    }
+
+    /* Lessons lost with the auditorium are placed again before the deletion commits */
     public void deleteAuditorium(@NotNull @Valid Auditorium auditorium) {
 
         auditoriumService.delete(auditorium);
+        repairer.repair();
     }
 
     public void deleteAllAuditoriums() {
@@ -75,6 +103,7 @@ public class TimetableFacade {
         auditoriumService.deleteAll();
     }
 
+    @Transactional(readOnly = true)
     public long countCourses() {
 
         return courseService.count();
@@ -90,11 +119,13 @@ public class TimetableFacade {
         return courseService.saveAll(courses);
     }
 
+    @Transactional(readOnly = true)
     public Optional<Course> getCourse(@IdValid("Course") long id) {
 
         return courseService.findById(id);
     }
 
+    @Transactional(readOnly = true)
     public List<Course> getCourses() {
 
         return courseService.findAll();
@@ -110,6 +141,7 @@ public class TimetableFacade {
         courseService.deleteAll();
     }
 
+    @Transactional(readOnly = true)
     public long countGroups() {
 
         return groupService.count();
@@ -125,16 +157,19 @@ public class TimetableFacade {
         return groupService.saveAll(groups);
     }
 
+    @Transactional(readOnly = true)
     public Optional<Group> getGroup(@IdValid("Group") long id) {
 
         return groupService.findById(id);
     }
 
+    @Transactional(readOnly = true)
     public List<Group> getGroups() {
 
         return groupService.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Map<Group, List<Student>> getGroupedStudents() {
 
         List<Student> students = studentService.findAll();
@@ -157,6 +192,7 @@ public class TimetableFacade {
         groupService.deleteAll();
     }
 
+    @Transactional(readOnly = true)
     public long countProfessors() {
 
         return professorService.count();
@@ -172,29 +208,50 @@ public class TimetableFacade {
         return professorService.saveAll(professors);
     }
 
+    @Transactional(readOnly = true)
     public Optional<Professor> getProfessor(@IdValid("Professor") long id) {
 
         return professorService.findById(id);
     }
 
+    @Transactional(readOnly = true)
     public List<Professor> getProfessors() {
 
         return professorService.findAll();
     }
 
+    @Transactional(readOnly = true)
     public List<Professor> getProfessorsTeaching(@Valid Course course) {
 
         return professorService.findAllByCourse(course);
     }
 
+    @Transactional(readOnly = true)
     public List<Professor> getAvailableProfessors(@NotNull LocalDate date, @NotNull Period period) {
 
+        if (scheduleService.isProjected()) {
+            Set<Professor> busy = getPeriodSchedules(date, period)
+                    .map(Schedule::getProfessor)
+                    .collect(Collectors.toSet());
+            return professorService.findAll()
+                    .stream()
+                    .filter(professor -> !busy.contains(professor))
+                    .collect(Collectors.toList());
+        }
         return professorService.findAvailableFor(date, period);
     }
 
     public void deleteProfessor(@NotNull @Valid Professor professor) {
 
         professorService.delete(professor);
+        repairer.repair();
+    }
+
+    public void dropCourse(@NotNull @Valid Professor professor, @NotNull @Valid Course course) {
+
+        professor.removeCourse(course);
+        professorService.save(professor);
+        repairer.repair();
     }
 
     public void deleteAllProfessors() {
@@ -202,6 +259,7 @@ public class TimetableFacade {
         professorService.deleteAll();
     }
 
+    @Transactional(readOnly = true)
     public long countOptions() {
 
         return optionService.count();
@@ -212,16 +270,19 @@ public class TimetableFacade {
         return optionService.saveAll(reschedulingOptions);
     }
 
+    @Transactional(readOnly = true)
     public Optional<ReschedulingOption> getOption(@IdValid("Option") long id) {
 
         return optionService.findById(id);
     }
 
+    @Transactional(readOnly = true)
     public List<ReschedulingOption> getOptions() {
 
         return optionService.findAll();
     }
 
+    @Transactional(readOnly = true)
     public List<ReschedulingOption> getOptionsForWeek(@NotNull @Valid Schedule candidate, @Min(1) int semesterWeek) {
 
         if (!semesterCalendar.isSemesterWeek(semesterWeek)) {
@@ -233,11 +294,12 @@ public class TimetableFacade {
                 semesterCalendar.getWeekFriday(semesterWeek));
         List<ReschedulingOption> options = optionService.findAll();
 
-        return options.parallelStream()
-                .filter(byAvailableAuditoriumAndProfessorGroupPerPeriod(candidate, templates, schedules))
+        return options.stream()
+                .filter(OccupancyIndex.of(templates, schedules).availableFor(candidate))
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<ReschedulingOption> getOptionsForDate(@NotNull @Valid Schedule candidate, @NotNull LocalDate date) {
 
         if (!semesterCalendar.isSemesterDate(date)) {
@@ -249,33 +311,22 @@ public class TimetableFacade {
         List<Schedule> schedules = scheduleService.findGeneratedInRange(date, date);
         List<ReschedulingOption> options = optionService.findAllForDay(date.getDayOfWeek());
 
-        return options.parallelStream()
-                .filter(byAvailableAuditoriumAndProfessorGroupPerPeriod(candidate, templates, schedules))
+        return options.stream()
+                .filter(OccupancyIndex.of(templates, schedules).availableFor(candidate))
                 .collect(Collectors.toList());
     }
 
-    private Predicate<ReschedulingOption> byAvailableAuditoriumAndProfessorGroupPerPeriod(Schedule candidate,
-            List<ScheduleTemplate> templates, List<Schedule> schedules) {
-
-        return option -> schedules.parallelStream()
-                .filter(schedule -> schedule.getDay().equals(option.getDay())
-                        && schedule.getPeriod() == option.getPeriod())
-                .noneMatch(scheduleBusy(candidate, option)) && templates.parallelStream()
-                .filter(template -> template.getDay().equals(option.getDay())
-                        && template.getPeriod() == option.getPeriod())
-                .noneMatch(templateBusy(candidate, option));
-    }
-
-    private Predicate<Schedule> scheduleBusy(Schedule candidate, ReschedulingOption option) {
+    @Transactional(readOnly = true)
+    public List<SlotFinder.RankedSlot> getBestSlots(@NotNull @Valid Schedule candidate, @Min(1) int limit) {
 
-        return schedule -> schedule.getAuditorium().equals(option.getAuditorium()) || schedule.getGroup()
-                .equals(candidate.getGroup()) || schedule.getProfessor().equals(candidate.getProfessor());
+        return slotFinder.findBestSlots(candidate, limit, slot -> log.trace("Found slot {}", slot)).join();
     }
 
-    private Predicate<ScheduleTemplate> templateBusy(Schedule candidate, ReschedulingOption option) {
+    @Transactional(readOnly = true)
+    public CompletableFuture<List<SlotFinder.RankedSlot>> getBestSlots(@NotNull @Valid Schedule candidate,
+            @Min(1) int limit, @NotNull Consumer<SlotFinder.RankedSlot> onFound) {
 
-        return template -> template.getAuditorium().equals(option.getAuditorium()) || template.getGroup()
-                .equals(candidate.getGroup()) || template.getProfessor().equals(candidate.getProfessor());
+        return slotFinder.findBestSlots(candidate, limit, onFound);
     }
 
     public void deleteAllOptions() {
@@ -293,32 +344,51 @@ public class TimetableFacade {
         return scheduleService.saveAll(schedules);
     }
 
+    @Transactional(readOnly = true)
     public Optional<Schedule> getSchedule(@IdValid("Schedule") long id) {
 
         return scheduleService.findById(id);
     }
 
+    @Transactional(readOnly = true)
     public List<Schedule> getSchedules() {
 
         return scheduleService.findAll();
     }
 
+    /* Schedule reads may wait for dates generated by another request, they do it holding no connection */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<Schedule> getScheduleFor(@NotNull SchedulePredicate predicate, @NotNull LocalDate startDate,
             @NotNull LocalDate endDate) {
 
         return scheduleService.findAllFor(predicate, startDate, endDate);
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<Schedule> getScheduleInRange(@NotNull LocalDate startDate, @NotNull LocalDate endDate) {
 
         return scheduleService.findAllInRange(startDate, endDate);
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ScheduleRow> getScheduleRowsFor(@NotNull SchedulePredicate predicate, @NotNull LocalDate startDate,
+            @NotNull LocalDate endDate) {
+
+        return scheduleService.findRowsFor(predicate, startDate, endDate);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ScheduleRow> getScheduleRowsInRange(@NotNull LocalDate startDate, @NotNull LocalDate endDate) {
+
+        return scheduleService.findRowsFor(new SchedulePredicateNoFilter(), startDate, endDate);
+    }
+
     public void deleteAllSchedules() {
 
         scheduleService.deleteAll();
     }
 
+    @Transactional(readOnly = true)
     public long countTemplates() {
 
         return templateService.count();
@@ -334,11 +404,13 @@ public class TimetableFacade {
         return templateService.saveAll(templates);
     }
 
+    @Transactional(readOnly = true)
     public Optional<ScheduleTemplate> getTemplate(@IdValid("Template") long id) {
 
         return templateService.findById(id);
     }
 
+    @Transactional(readOnly = true)
     public List<ScheduleTemplate> getTwoWeekSchedule() {
 
         return templateService.findAll();
@@ -349,6 +421,7 @@ public class TimetableFacade {
         templateService.deleteAll();
     }
 
+    @Transactional(readOnly = true)
     public long countStudents() {
 
         return studentService.count();
@@ -364,16 +437,19 @@ public class TimetableFacade {
         return studentService.saveAll(students);
     }
 
+    @Transactional(readOnly = true)
     public Optional<Student> getStudent(@IdValid("Student") long id) {
 
         return studentService.findById(id);
     }
 
+    @Transactional(readOnly = true)
     public List<Student> getStudents() {
 
         return studentService.findAll();
     }
 
+    @Transactional(readOnly = true)
     public List<Student> getCourseAttendees(@NotNull @Valid Course course, @NotNull @Valid Professor professor) {
 
         List<Group> professorGroups = groupService.findAllAttendingProfessorCourse(course, professor);
@@ -399,6 +475,7 @@ public class TimetableFacade {
     public Schedule rescheduleSingle(@NotNull @Valid Schedule candidate, @NotNull LocalDate targetDate,
             @NotNull @Valid ReschedulingOption targetOption) {
 
+        validateTarget(candidate, targetDate, targetOption.getDay());
         log.debug("Calling repository to reschedule once");
         candidate.setDate(targetDate);
         candidate.setDay(targetOption.getDay());
@@ -408,18 +485,80 @@ public class TimetableFacade {
         return scheduleService.save(candidate);
     }
 
-    public boolean isValidToReschedule(@NotNull @Valid Schedule candidate) {
+    /* All moves are validated together against timetable they leave behind and saved in one transaction */
+    public List<Schedule> rescheduleAll(@NotEmpty List<@NotNull @Valid Schedule> moves) {
 
-        return scheduleService.findAllInRange(candidate.getDate(), candidate.getDate())
+        log.debug("Validating batch of {} schedule moves", moves.size());
+        Map<Long, Schedule> originals = scheduleService.findAllById(moves.stream()
+                .map(Schedule::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()))
                 .stream()
-                .filter(schedule -> schedule.getPeriod() == candidate.getPeriod())
-                .noneMatch(schedule -> schedule.getAuditorium().equals(candidate.getAuditorium()) || schedule.getGroup()
-                        .equals(candidate.getGroup()) || schedule.getProfessor().equals(candidate.getProfessor()));
+                .collect(Collectors.toMap(Schedule::getId, Function.identity()));
+
+        Map<String, String> errors = new LinkedHashMap<>();
+        Set<Long> submittedIds = new HashSet<>();
+        for (Schedule move : moves) {
+            String key = "Schedule ID " + move.getId();
+            Schedule original = originals.get(move.getId());
+            if (move.getId() == null) {
+                errors.put("Missing ID", "Every submitted schedule must have an ID");
+            } else if (!submittedIds.add(move.getId())) {
+                errors.put(key, "Schedule was submitted more than once");
+            } else if (original == null) {
+                errors.put(key, "Schedule could not be found");
+            } else if (!move.getGroup().equals(original.getGroup()) || !move.getCourse()
+                    .equals(original.getCourse())) {
+                errors.put(key, "Submitted schedule illegally modified group or course");
+            } else {
+                semesterCalendar.findMoveError(move.getDate(), move.getDay())
+                        .ifPresent(error -> errors.put(key, error));
+            }
+        }
+        if (errors.isEmpty()) {
+            errors.putAll(findConflicts(moves));
+        }
+        if (!errors.isEmpty()) {
+            throw new ApiException("Rescheduled items failed validation, none of them were saved", errors);
+        }
+
+        log.debug("Applying {} schedule moves", moves.size());
+        scheduleService.vacatePeriods(originals.values());
+        List<Schedule> moved = new ArrayList<>();
+        for (Schedule move : moves) {
+            Schedule original = originals.get(move.getId());
+            original.setDate(move.getDate());
+            original.setDay(move.getDay());
+            original.setPeriod(move.getPeriod());
+            original.setAuditorium(move.getAuditorium());
+            original.setProfessor(move.getProfessor());
+            moved.add(original);
+        }
+        return scheduleService.saveAll(moved);
+    }
+
+    private void validateTarget(Schedule candidate, LocalDate targetDate, DayOfWeek targetDay) {
+
+        semesterCalendar.findMoveError(targetDate, targetDay).ifPresent(error -> {
+            throw new ApiException("Rescheduled item failed validation, it was not saved",
+                    Collections.singletonMap("Schedule ID " + candidate.getId(), error));
+        });
+    }
+
+    private Map<String, String> findConflicts(List<Schedule> moves) {
+
+        Set<LocalDate> dates = moves.stream().map(Schedule::getDate).collect(Collectors.toSet());
+        List<Schedule> existing = scheduleService.findAllInRange(Collections.min(dates), Collections.max(dates))
+                .stream()
+                .filter(schedule -> dates.contains(schedule.getDate()))
+                .collect(Collectors.toList());
+        return ScheduleConflicts.find(existing, moves);
     }
 
     public List<Schedule> rescheduleRecurring(@NotNull @Valid Schedule candidate, @NotNull LocalDate targetDate,
             @NotNull @Valid ReschedulingOption targetOption) {
 
+        validateTarget(candidate, targetDate, targetOption.getDay());
         log.debug("Getting underlying template to reschedule permanently");
         ScheduleTemplate template = templateService.findById(candidate.getTemplate().getId())
                 .orElseThrow(() -> new NotFoundException(
@@ -440,6 +579,12 @@ public class TimetableFacade {
         return scheduleService.updateAllWithSameTemplateId(candidate, targetDate);
     }
 
+    /* Re-places pairs orphaned by removed professors, auditoriums or dropped courses around the rest */
+    public TimetableRepairer.Result repairTimetable() {
+
+        return repairer.repair();
+    }
+
     public void deleteTimetableData() {
 
         optionService.deleteAll();
@@ -447,16 +592,11 @@ public class TimetableFacade {
         templateService.deleteAll();
     }
 
+    /* Commits on its own before regeneration starts, so the truncation lock is held only for the truncate itself */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void deleteAllData() {
 
-        optionService.deleteAll();
-        scheduleService.deleteAll();
-        templateService.deleteAll();
-        auditoriumService.deleteAll();
-        courseService.deleteAll();
-        groupService.deleteAll();
-        professorService.deleteAll();
-        studentService.deleteAll();
+        dataResetService.deleteAll();
     }
 
 }
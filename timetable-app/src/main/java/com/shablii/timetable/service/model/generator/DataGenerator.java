@@ -1,7 +1,6 @@
 package com.shablii.timetable.service.model.generator;
 
-import com.shablii.timetable.dao.ResetSequencesDao;
-import com.shablii.timetable.service.TimetableFacade;
+import com.shablii.timetable.service.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -15,29 +14,49 @@ import javax.transaction.Transactional;
 public class DataGenerator {
 
     private final TimetableFacade timetableFacade;
-    private final ResetSequencesDao resetSequencesDao;
+    private final DataResetService dataResetService;
     private final TimetableModelGenerator timetableModelGenerator;
     private final UniversityModelGenerator universityModelGenerator;
+    private final SemesterMaterializer semesterMaterializer;
 
     public void refreshAllData() {
 
+        refreshAllData(GenerationProgress.NONE);
+    }
+
+    public void refreshAllData(GenerationProgress progress) {
+
         log.info("Refreshing all data...");
+        semesterMaterializer.invalidate();
+        progress.phase("Erasing all data");
         timetableFacade.deleteAllData();
+        progress.phase("Generating university model");
         universityModelGenerator.generateAndSave();
-        timetableModelGenerator.generateAndSave();
+        timetableModelGenerator.generateAndSave(progress);
+        progress.phase("Committing");
+        semesterMaterializer.materializeSemesterAfterCommit();
     }
 
     public void refreshTimetableData() {
 
+        refreshTimetableData(GenerationProgress.NONE);
+    }
+
+    public void refreshTimetableData(GenerationProgress progress) {
+
         log.info("Refreshing timetable data...");
+        semesterMaterializer.invalidate();
+        progress.phase("Erasing timetable data");
         timetableFacade.deleteTimetableData();
-        timetableModelGenerator.generateAndSave();
+        timetableModelGenerator.generateAndSave(progress);
+        progress.phase("Committing");
+        semesterMaterializer.materializeSemesterAfterCommit();
     }
 
-    public void resetSequences() {
+    public void resetAllData() {
 
-        log.info("Resetting sequences...");
-        resetSequencesDao.resetSequences();
+        log.info("Erasing all data and resetting sequences...");
+        dataResetService.resetAll();
     }
 
 }
@@ -0,0 +1,219 @@
+package com.shablii.timetable.service.model.generator;
+
+import lombok.*;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+@Slf4j
+public class GenerationJob implements GenerationProgress {
+
+    @Getter
+    private final String id = UUID.randomUUID().toString();
+    @Getter
+    private final Kind kind;
+    private final Instant submitted = Instant.now();
+    private final Executor notifier;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private long sequence;
+    private State state = State.QUEUED;
+    private String phase = "Queued";
+    private int placed;
+    private int conflicts;
+    private String error;
+    private Instant finished;
+
+    public GenerationJob(Kind kind) {
+
+        this(kind, Runnable::run);
+    }
+
+    public GenerationJob(Kind kind, Executor notifier) {
+
+        this.kind = kind;
+        this.notifier = notifier;
+    }
+
+    /* New listener gets current status right away, so nothing published before subscribing is missed */
+    public void subscribe(Consumer<Status> listener) {
+
+        Subscriber subscriber = new Subscriber(listener);
+        Notice notice;
+        synchronized (this) {
+            subscribers.add(subscriber);
+            notice = new Notice(sequence, getStatus());
+        }
+        subscriber.offer(notice);
+    }
+
+    public void unsubscribe(Consumer<Status> listener) {
+
+        subscribers.removeIf(subscriber -> subscriber.listener == listener);
+    }
+
+    public synchronized Status getStatus() {
+
+        return new Status(id, kind, state, phase, placed, conflicts, error, submitted, finished);
+    }
+
+    public boolean isFinished() {
+
+        return getStatus().isFinished();
+    }
+
+    public void start() {
+
+        update(() -> {
+            state = State.RUNNING;
+            phase = "Started";
+        });
+    }
+
+    public void complete() {
+
+        update(() -> {
+            state = State.COMPLETED;
+            phase = "Completed";
+            finished = Instant.now();
+        });
+    }
+
+    public void fail(Throwable e) {
+
+        update(() -> {
+            state = State.FAILED;
+            error = String.valueOf(e.getMessage());
+            finished = Instant.now();
+        });
+    }
+
+    @Override
+    public void phase(String phase) {
+
+        update(() -> this.phase = phase);
+    }
+
+    @Override
+    public void placed(int placed) {
+
+        update(() -> this.placed = placed);
+    }
+
+    @Override
+    public void conflicts(int conflicts) {
+
+        update(() -> this.conflicts = conflicts);
+    }
+
+    /* Status is taken under the lock and handed to listeners outside of it, so a slow one holds up nobody */
+    private void update(Runnable change) {
+
+        Notice notice;
+        synchronized (this) {
+            change.run();
+            notice = new Notice(++sequence, getStatus());
+        }
+        subscribers.forEach(subscriber -> subscriber.offer(notice));
+    }
+
+    @RequiredArgsConstructor
+    private static class Notice {
+
+        private final long sequence;
+        private final Status status;
+
+    }
+
+    /*
+     * Every listener has a queue drained by one notifier task at a time, statuses
+     * older than the last delivered one were overtaken by another update and are skipped
+     */
+    @RequiredArgsConstructor
+    private class Subscriber {
+
+        private final Consumer<Status> listener;
+        private final Queue<Notice> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private long delivered = -1;
+
+        void offer(Notice notice) {
+
+            queue.add(notice);
+            schedule();
+        }
+
+        private void schedule() {
+
+            if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+                try {
+                    notifier.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    drop(e);
+                }
+            }
+        }
+
+        private void drain() {
+
+            try {
+                Notice notice;
+                while ((notice = queue.poll()) != null && subscribers.contains(this)) {
+                    if (notice.sequence > delivered) {
+                        delivered = notice.sequence;
+                        listener.accept(notice.status);
+                    }
+                }
+            } catch (RuntimeException e) {
+                drop(e);
+            } finally {
+                draining.set(false);
+            }
+            if (subscribers.contains(this)) {
+                schedule();
+            }
+        }
+
+        private void drop(RuntimeException e) {
+
+            log.debug("Dropping listener of job {}: {}", id, e.getMessage());
+            subscribers.remove(this);
+            queue.clear();
+        }
+
+    }
+
+    public enum Kind {
+        REBUILD_TIMETABLE, REFRESH_ALL_DATA
+    }
+
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    @Getter
+    @ToString
+    @RequiredArgsConstructor
+    public static class Status {
+
+        private final String id;
+        private final Kind kind;
+        private final State state;
+        private final String phase;
+        private final int placed;
+        private final int conflicts;
+        private final String error;
+        private final Instant submitted;
+        private final Instant finished;
+
+        public boolean isFinished() {
+
+            return state == State.COMPLETED || state == State.FAILED;
+        }
+
+    }
+
+}
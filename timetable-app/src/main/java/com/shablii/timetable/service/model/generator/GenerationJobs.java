@@ -0,0 +1,75 @@
+package com.shablii.timetable.service.model.generator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.*;
+
+@Slf4j
+@Service
+public class GenerationJobs {
+
+    private final DataGenerator dataGenerator;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            new CustomizableThreadFactory("generation-job-"));
+    private final ExecutorService notifier = Executors.newCachedThreadPool(
+            new CustomizableThreadFactory("generation-events-"));
+    private final Map<String, GenerationJob> jobs;
+
+    public GenerationJobs(DataGenerator dataGenerator, @Value("${university.jobs.history:20}") int history) {
+
+        this.dataGenerator = dataGenerator;
+        this.jobs = Collections.synchronizedMap(new LinkedHashMap<String, GenerationJob>() {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, GenerationJob> eldest) {
+
+                return size() > Math.max(history, 1) && eldest.getValue().isFinished();
+            }
+        });
+    }
+
+    /* Jobs run one at a time, each in a single transaction, so readers keep the old data until it commits */
+    public GenerationJob submit(GenerationJob.Kind kind) {
+
+        GenerationJob job = new GenerationJob(kind, notifier);
+        jobs.put(job.getId(), job);
+        log.info("Job {} to {} submitted", job.getId(), kind);
+        executor.execute(() -> run(job));
+        return job;
+    }
+
+    public Optional<GenerationJob> find(String id) {
+
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    private void run(GenerationJob job) {
+
+        job.start();
+        try {
+            if (job.getKind() == GenerationJob.Kind.REFRESH_ALL_DATA) {
+                dataGenerator.refreshAllData(job);
+            } else {
+                dataGenerator.refreshTimetableData(job);
+            }
+            job.complete();
+            log.info("Job {} completed", job.getId());
+        } catch (RuntimeException e) {
+            log.error("Job {} failed", job.getId(), e);
+            job.fail(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+
+        executor.shutdownNow();
+        notifier.shutdownNow();
+    }
+
+}
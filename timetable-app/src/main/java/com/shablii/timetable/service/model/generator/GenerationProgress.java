@@ -0,0 +1,29 @@
+package com.shablii.timetable.service.model.generator;
+
+public interface GenerationProgress {
+
+    GenerationProgress NONE = new GenerationProgress() {
+
+        @Override
+        public void phase(String phase) {
+
+        }
+
+        @Override
+        public void placed(int placed) {
+
+        }
+
+        @Override
+        public void conflicts(int conflicts) {
+
+        }
+    };
+
+    void phase(String phase);
+
+    void placed(int placed);
+
+    void conflicts(int conflicts);
+
+}
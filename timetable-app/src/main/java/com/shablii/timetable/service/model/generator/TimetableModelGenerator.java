@@ -2,12 +2,16 @@ package com.shablii.timetable.service.model.generator;
 
 import com.shablii.timetable.model.*;
 import com.shablii.timetable.service.TimetableFacade;
-import lombok.RequiredArgsConstructor;
+import lombok.*;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PreDestroy;
 import java.time.DayOfWeek;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.LongStream;
 
 import static java.util.stream.Collectors.toList;
 
@@ -17,15 +21,33 @@ import static java.util.stream.Collectors.toList;
 public class TimetableModelGenerator {
 
     private final TimetableFacade timetableFacade;
+    private final TimetableWeights weights;
     private final Random random = new Random();
+    private final ForkJoinPool pool = new ForkJoinPool();
+    @Value("${university.timetable.solver.backtracks:100000}")
+    private int maxBacktracks;
+    @Value("${university.timetable.generation.attempts:8}")
+    private int attempts;
+    @Value("${university.seed:#{null}}")
+    private Long seed;
+    @Value("${university.timetable.generation.budget:10000}")
+    private long budget;
+    @Value("${university.timetable.optimizer.budget:2000}")
+    private long optimizerBudget;
     private List<ScheduleTemplate> scheduleTemplates;
 
     public void generateAndSave() {
 
+        generateAndSave(GenerationProgress.NONE);
+    }
+
+    public void generateAndSave(GenerationProgress progress) {
+
         log.info("Generating timetable model...");
 
         this.scheduleTemplates = new ArrayList<>();
-        populateScheduleTemplates();
+        populateScheduleTemplates(progress);
+        progress.phase("Saving timetable");
         timetableFacade.saveTemplates(scheduleTemplates);
 
         log.info("Timetable model generated");
@@ -46,92 +68,77 @@ public class TimetableModelGenerator {
         return timetableFacade.saveOptions(options);
     }
 
-    private void populateScheduleTemplates() {
+    private void populateScheduleTemplates(GenerationProgress progress) {
 
         List<Group> groups = timetableFacade.getGroups();
         List<Course> courses = timetableFacade.getCourses();
         List<Professor> professors = timetableFacade.getProfessors();
-        List<ReschedulingOption> options = buildReschedulingOptions();
-
-        for (Group group : groups) {
-            for (Course course : courses) {
-
-                List<Professor> courseProfessors = getCourseProfessorsSortedByLeastWorkload(professors, course);
-                Optional<ScheduleTemplate> template = scheduleGroupForCourse(options, courseProfessors, group, course);
-
-                if (template.isPresent()) {
-                    scheduleTemplates.add(template.get());
-                } else {
-                    log.warn("Could not schedule group {} for course {}", group, course);
-                    System.out.println(
-                            String.format("Could not schedule group %s for course %s", group.getName(), course));
-                }
-            }
+        List<Auditorium> auditoriums = timetableFacade.getAuditoriums();
+        buildReschedulingOptions();
+
+        progress.phase("Solving timetable");
+        long deadline = System.currentTimeMillis() + budget;
+        List<CompletableFuture<Attempt>> futures = attemptSeeds()
+                .mapToObj(attemptSeed -> CompletableFuture.supplyAsync(() -> {
+                    TimetableSolver.Solution solution = new TimetableSolver(groups, courses, professors, auditoriums,
+                            new Random(attemptSeed), maxBacktracks).withDeadline(deadline).solve();
+                    return new Attempt(attemptSeed, solution, TimetableScore.of(solution, weights));
+                }, pool))
+                .collect(toList());
+        Attempt best = futures.stream()
+                .map(CompletableFuture::join)
+                .min(Comparator.comparing(Attempt::getScore))
+                .orElseThrow(IllegalStateException::new);
+
+        List<TimetableSolver.Unplaced> unplaced = best.getSolution().getUnplaced();
+        progress.placed(best.getSolution().getTemplates().size());
+        progress.conflicts(unplaced.size());
+        if (!unplaced.isEmpty()) {
+            log.warn("Could not schedule {} group-course pairs", unplaced.size());
+            unplaced.forEach(pair -> log.debug("Could not schedule group {} for course {}", pair.getGroup(),
+                    pair.getCourse()));
         }
-        log.debug("Schedule templates generated");
+        log.debug("Kept schedule templates of seed {} out of {} attempts, scored {}", best.getSeed(), futures.size(),
+                best.getScore());
+        progress.phase("Optimizing timetable");
+        scheduleTemplates.addAll(optimize(best.getSolution().getTemplates(), auditoriums, best.getSeed()));
     }
 
-    private List<Professor> getCourseProfessorsSortedByLeastWorkload(List<Professor> professors, Course course) {
+    /* Attempts of a seeded university are seeded from it, runs then differ only where a budget cuts a search short */
+    LongStream attemptSeeds() {
 
-        List<Professor> courseProfessors = professors.stream()
-                .filter(professor -> professor.getCourses().contains(course))
-                .collect(toList());
-
-        if (!scheduleTemplates.isEmpty() && courseProfessors.size() > 1) {
-            courseProfessors = courseProfessors.stream()
-                    .sorted(Comparator.comparing(professor -> scheduleTemplates.stream()
-                            .filter(template -> template.getProfessor().equals(professor) && template.getCourse()
-                                    .equals(course))
-                            .count()))
-                    .collect(toList());
-        }
-        return courseProfessors;
+        Random seeds = seed == null ? random : new Random(seed);
+        return seeds.longs(Math.max(attempts, 1));
     }
 
-    private Optional<ScheduleTemplate> scheduleGroupForCourse(List<ReschedulingOption> options,
-            List<Professor> professors, Group group, Course course) {
-
-        Optional<ScheduleTemplate> template = Optional.empty();
-        Optional<ReschedulingOption> scheduleSlot;
-
-        for (Professor professor : professors) {
-            boolean[][] weekParityOptions = new boolean[][] { new boolean[] { false, true },
-                    new boolean[] { true, false } };
-            int randomParity = random.nextInt(2);
-            for (boolean weekParity : weekParityOptions[randomParity]) {
-                Collections.shuffle(options);
-                scheduleSlot = options.stream()
-                        .filter(option -> isScheduled(option, weekParity))
-                        .filter(option -> isScheduledForProfessorAndGroup(option, weekParity, group, professor))
-                        .findAny();
-
-                if (scheduleSlot.isPresent()) {
-                    return Optional.of(new ScheduleTemplate(weekParity, scheduleSlot.get().getDay(),
-                            scheduleSlot.get().getPeriod(), scheduleSlot.get().getAuditorium(), course, group,
-                            professor));
-                }
-            }
+    private List<ScheduleTemplate> optimize(List<ScheduleTemplate> templates, List<Auditorium> auditoriums,
+            long seed) {
+
+        if (optimizerBudget <= 0) {
+            return templates;
         }
-        return template;
+        TimetableOptimizer.Result result = new TimetableOptimizer(auditoriums, weights, seed).optimize(templates,
+                optimizerBudget);
+        result.getTrajectory().forEach(point -> log.debug("Optimizer trajectory: {}", point));
+        log.info("Soft constraint penalty optimized from {} to {} in {} moves", result.getInitialScore(),
+                result.getBestScore(), result.getMoves());
+        return result.getTemplates();
     }
 
-    private boolean isScheduled(ReschedulingOption option, boolean weekParity) {
+    @PreDestroy
+    public void shutdown() {
 
-        return scheduleTemplates.isEmpty() || scheduleTemplates.stream()
-                .filter(template -> template.getWeekParity() == weekParity)
-                .noneMatch(
-                        template -> template.getDay() == option.getDay() && template.getPeriod() == option.getPeriod()
-                                && template.getAuditorium().equals(option.getAuditorium()));
+        pool.shutdownNow();
     }
 
-    private boolean isScheduledForProfessorAndGroup(ReschedulingOption option, boolean weekParity, Group group,
-            Professor professor) {
+    @Getter
+    @RequiredArgsConstructor
+    private static class Attempt {
+
+        private final long seed;
+        private final TimetableSolver.Solution solution;
+        private final TimetableScore score;
 
-        return scheduleTemplates.isEmpty() || scheduleTemplates.stream()
-                .filter(template -> template.getWeekParity() == weekParity)
-                .filter(template -> template.getGroup().equals(group) || template.getProfessor().equals(professor))
-                .noneMatch(
-                        template -> template.getDay() == option.getDay() && template.getPeriod() == option.getPeriod());
     }
 
 }
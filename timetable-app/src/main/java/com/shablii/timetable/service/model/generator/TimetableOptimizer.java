@@ -0,0 +1,320 @@
+package com.shablii.timetable.service.model.generator;
+
+import com.shablii.timetable.model.*;
+import lombok.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static com.shablii.timetable.service.model.generator.TimetableSolver.*;
+
+/* Simulated annealing over lesson positions, resources are kept as slot bitmasks so each move is scored by delta */
+public class TimetableOptimizer {
+
+    private static final int DAY_PERIODS = PERIODS.length;
+    private static final int DAY_MASK = (1 << DAY_PERIODS) - 1;
+    private static final int[] DAY_GAPS = new int[1 << DAY_PERIODS];
+    private static final int TRAJECTORY_POINTS = 20;
+    private static final int CLOCK_CHECK_MASK = 1023;
+    private static final double FINAL_TEMPERATURE = 0.05;
+
+    static {
+        for (int periods = 1; periods < DAY_GAPS.length; periods++) {
+            int span = Integer.SIZE - Integer.numberOfLeadingZeros(periods) - Integer.numberOfTrailingZeros(periods);
+            DAY_GAPS[periods] = span - Integer.bitCount(periods);
+        }
+    }
+
+    private final List<Auditorium> auditoriums;
+    private final int gapWeight;
+    private final int imbalanceWeight;
+    private final SplittableRandom random;
+
+    private int[] lessonGroup;
+    private int[] lessonProfessor;
+    private int[] lessonSlot;
+    private int[] lessonAuditorium;
+    private long[] groupSlots;
+    private long[] professorSlots;
+    private long[] auditoriumSlots;
+
+    public TimetableOptimizer(List<Auditorium> auditoriums, TimetableWeights weights, long seed) {
+
+        this.auditoriums = auditoriums;
+        this.gapWeight = weights.getGap();
+        this.imbalanceWeight = weights.getImbalance();
+        this.random = new SplittableRandom(seed);
+    }
+
+    /* Moves relocate a lesson to a free slot or swap positions of two lessons, best visited state is returned */
+    public Result optimize(List<ScheduleTemplate> templates, long budgetMillis) {
+
+        initialize(templates);
+        int lessons = templates.size();
+        long score = scoreOf();
+        long initialScore = score;
+        long bestScore = score;
+        int[] bestSlots = lessonSlot.clone();
+        int[] bestAuditoriums = lessonAuditorium.clone();
+        List<TrajectoryPoint> trajectory = new ArrayList<>();
+
+        long start = System.nanoTime();
+        long budget = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        double initialTemperature = Math.max(gapWeight, imbalanceWeight) * 2.0;
+        double temperature = initialTemperature;
+        long nextSample = 0;
+        long moves = 0;
+        while (lessons > 1 && bestScore > 0) {
+            if ((moves & CLOCK_CHECK_MASK) == 0) {
+                long elapsed = System.nanoTime() - start;
+                if (elapsed >= budget) {
+                    break;
+                }
+                double progress = (double) elapsed / budget;
+                temperature = initialTemperature * Math.pow(FINAL_TEMPERATURE / initialTemperature, progress);
+                if (elapsed >= nextSample) {
+                    trajectory.add(new TrajectoryPoint(TimeUnit.NANOSECONDS.toMillis(elapsed), moves, score,
+                            bestScore));
+                    nextSample += budget / TRAJECTORY_POINTS;
+                }
+            }
+            moves++;
+
+            int lesson = random.nextInt(lessons);
+            long delta = random.nextBoolean() ? tryRelocate(lesson, temperature) : trySwap(lesson,
+                    random.nextInt(lessons), temperature);
+            if (delta == Long.MAX_VALUE) {
+                continue;
+            }
+            score += delta;
+            if (score < bestScore) {
+                bestScore = score;
+                System.arraycopy(lessonSlot, 0, bestSlots, 0, lessons);
+                System.arraycopy(lessonAuditorium, 0, bestAuditoriums, 0, lessons);
+            }
+        }
+        trajectory.add(new TrajectoryPoint(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), moves, score,
+                bestScore));
+        return new Result(toTemplates(templates, bestSlots, bestAuditoriums), initialScore, bestScore, moves,
+                trajectory);
+    }
+
+    private void initialize(List<ScheduleTemplate> templates) {
+
+        Map<Group, Integer> groups = new HashMap<>();
+        Map<Professor, Integer> professors = new HashMap<>();
+        Map<Auditorium, Integer> auditoriumIndexes = new HashMap<>();
+        for (int auditorium = 0; auditorium < auditoriums.size(); auditorium++) {
+            auditoriumIndexes.put(auditoriums.get(auditorium), auditorium);
+        }
+
+        int lessons = templates.size();
+        lessonGroup = new int[lessons];
+        lessonProfessor = new int[lessons];
+        lessonSlot = new int[lessons];
+        lessonAuditorium = new int[lessons];
+        for (int lesson = 0; lesson < lessons; lesson++) {
+            ScheduleTemplate template = templates.get(lesson);
+            lessonGroup[lesson] = groups.computeIfAbsent(template.getGroup(), group -> groups.size());
+            lessonProfessor[lesson] = professors.computeIfAbsent(template.getProfessor(),
+                    professor -> professors.size());
+            lessonSlot[lesson] = TimetableScore.slotOf(template);
+            lessonAuditorium[lesson] = auditoriumIndexes.get(template.getAuditorium());
+        }
+
+        groupSlots = new long[groups.size()];
+        professorSlots = new long[professors.size()];
+        auditoriumSlots = new long[auditoriums.size()];
+        for (int lesson = 0; lesson < lessons; lesson++) {
+            long bit = 1L << lessonSlot[lesson];
+            groupSlots[lessonGroup[lesson]] |= bit;
+            professorSlots[lessonProfessor[lesson]] |= bit;
+            auditoriumSlots[lessonAuditorium[lesson]] |= bit;
+        }
+    }
+
+    private long scoreOf() {
+
+        long score = 0;
+        for (long slots : groupSlots) {
+            score += (long) gapWeight * TimetableScore.gapsOf(slots);
+        }
+        for (long slots : professorSlots) {
+            score += (long) imbalanceWeight * TimetableScore.imbalanceOf(slots);
+        }
+        return score;
+    }
+
+    /* Returns applied score delta, or Long.MAX_VALUE if move is infeasible or rejected */
+    private long tryRelocate(int lesson, double temperature) {
+
+        int from = lessonSlot[lesson];
+        int to = random.nextInt(SLOTS);
+        int group = lessonGroup[lesson];
+        int professor = lessonProfessor[lesson];
+        long target = 1L << to;
+        if (((groupSlots[group] | professorSlots[professor]) & target) != 0) {
+            return Long.MAX_VALUE;
+        }
+        int auditorium = lessonAuditorium[lesson];
+        if ((auditoriumSlots[auditorium] & target) != 0) {
+            auditorium = random.nextInt(auditoriums.size());
+            if ((auditoriumSlots[auditorium] & target) != 0) {
+                return Long.MAX_VALUE;
+            }
+        }
+
+        long move = (1L << from) | target;
+        long groupAfter = groupSlots[group] ^ move;
+        long professorAfter = professorSlots[professor] ^ move;
+        long delta = gapDelta(groupSlots[group], groupAfter, from, to) + imbalanceDelta(professorSlots[professor],
+                professorAfter, from, to);
+        if (!accept(delta, temperature)) {
+            return Long.MAX_VALUE;
+        }
+
+        groupSlots[group] = groupAfter;
+        professorSlots[professor] = professorAfter;
+        auditoriumSlots[lessonAuditorium[lesson]] &= ~(1L << from);
+        auditoriumSlots[auditorium] |= target;
+        lessonSlot[lesson] = to;
+        lessonAuditorium[lesson] = auditorium;
+        return delta;
+    }
+
+    /* Lessons trade slot and auditorium, so auditorium occupancy never changes */
+    private long trySwap(int first, int second, double temperature) {
+
+        int firstSlot = lessonSlot[first];
+        int secondSlot = lessonSlot[second];
+        if (firstSlot == secondSlot) {
+            return Long.MAX_VALUE;
+        }
+        long move = (1L << firstSlot) | (1L << secondSlot);
+        int firstGroup = lessonGroup[first];
+        int secondGroup = lessonGroup[second];
+        int firstProfessor = lessonProfessor[first];
+        int secondProfessor = lessonProfessor[second];
+
+        long delta = 0;
+        if (firstGroup != secondGroup) {
+            if ((groupSlots[firstGroup] & 1L << secondSlot) != 0 || (groupSlots[secondGroup] & 1L << firstSlot) != 0) {
+                return Long.MAX_VALUE;
+            }
+            delta += gapDelta(groupSlots[firstGroup], groupSlots[firstGroup] ^ move, firstSlot, secondSlot);
+            delta += gapDelta(groupSlots[secondGroup], groupSlots[secondGroup] ^ move, firstSlot, secondSlot);
+        }
+        if (firstProfessor != secondProfessor) {
+            if ((professorSlots[firstProfessor] & 1L << secondSlot) != 0
+                    || (professorSlots[secondProfessor] & 1L << firstSlot) != 0) {
+                return Long.MAX_VALUE;
+            }
+            delta += imbalanceDelta(professorSlots[firstProfessor], professorSlots[firstProfessor] ^ move,
+                    firstSlot, secondSlot);
+            delta += imbalanceDelta(professorSlots[secondProfessor], professorSlots[secondProfessor] ^ move,
+                    firstSlot, secondSlot);
+        }
+        if (!accept(delta, temperature)) {
+            return Long.MAX_VALUE;
+        }
+
+        if (firstGroup != secondGroup) {
+            groupSlots[firstGroup] ^= move;
+            groupSlots[secondGroup] ^= move;
+        }
+        if (firstProfessor != secondProfessor) {
+            professorSlots[firstProfessor] ^= move;
+            professorSlots[secondProfessor] ^= move;
+        }
+        int firstAuditorium = lessonAuditorium[first];
+        lessonSlot[first] = secondSlot;
+        lessonAuditorium[first] = lessonAuditorium[second];
+        lessonSlot[second] = firstSlot;
+        lessonAuditorium[second] = firstAuditorium;
+        return delta;
+    }
+
+    private boolean accept(long delta, double temperature) {
+
+        return delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature);
+    }
+
+    /* Only days touched by the move are rescored */
+    private long gapDelta(long before, long after, int from, int to) {
+
+        int fromDay = from / DAY_PERIODS;
+        int toDay = to / DAY_PERIODS;
+        int delta = dayGaps(after, fromDay) - dayGaps(before, fromDay);
+        if (toDay != fromDay) {
+            delta += dayGaps(after, toDay) - dayGaps(before, toDay);
+        }
+        return (long) gapWeight * delta;
+    }
+
+    private long imbalanceDelta(long before, long after, int from, int to) {
+
+        int fromWeek = from / WEEK_SLOTS;
+        int toWeek = to / WEEK_SLOTS;
+        int delta = weekImbalance(after, fromWeek) - weekImbalance(before, fromWeek);
+        if (toWeek != fromWeek) {
+            delta += weekImbalance(after, toWeek) - weekImbalance(before, toWeek);
+        }
+        return (long) imbalanceWeight * delta;
+    }
+
+    private static int dayGaps(long slots, int day) {
+
+        return DAY_GAPS[(int) (slots >>> day * DAY_PERIODS) & DAY_MASK];
+    }
+
+    private static int weekImbalance(long slots, int week) {
+
+        int busiest = 0;
+        int quietest = Integer.MAX_VALUE;
+        for (int day = week * DAYS.length; day < (week + 1) * DAYS.length; day++) {
+            int lessons = Integer.bitCount((int) (slots >>> day * DAY_PERIODS) & DAY_MASK);
+            busiest = Math.max(busiest, lessons);
+            quietest = Math.min(quietest, lessons);
+        }
+        return busiest - quietest;
+    }
+
+    private List<ScheduleTemplate> toTemplates(List<ScheduleTemplate> templates, int[] slots, int[] auditoriumIndexes) {
+
+        List<ScheduleTemplate> optimized = new ArrayList<>(templates.size());
+        for (int lesson = 0; lesson < templates.size(); lesson++) {
+            ScheduleTemplate template = templates.get(lesson);
+            int weekSlot = slots[lesson] % WEEK_SLOTS;
+            optimized.add(new ScheduleTemplate(template.getId(), slots[lesson] >= WEEK_SLOTS,
+                    DAYS[weekSlot / DAY_PERIODS], PERIODS[weekSlot % DAY_PERIODS],
+                    auditoriums.get(auditoriumIndexes[lesson]), template.getCourse(), template.getGroup(),
+                    template.getProfessor()));
+        }
+        return optimized;
+    }
+
+    @Getter
+    @ToString
+    @RequiredArgsConstructor
+    public static class TrajectoryPoint {
+
+        private final long elapsedMillis;
+        private final long moves;
+        private final long score;
+        private final long bestScore;
+
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Result {
+
+        private final List<ScheduleTemplate> templates;
+        private final long initialScore;
+        private final long bestScore;
+        private final long moves;
+        private final List<TrajectoryPoint> trajectory;
+
+    }
+
+}
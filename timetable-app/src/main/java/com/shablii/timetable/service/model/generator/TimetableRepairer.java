@@ -0,0 +1,75 @@
+package com.shablii.timetable.service.model.generator;
+
+import com.shablii.timetable.model.*;
+import com.shablii.timetable.service.*;
+import lombok.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+import static java.util.stream.Collectors.*;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TimetableRepairer {
+
+    private final AuditoriumService auditoriumService;
+    private final CourseService courseService;
+    private final GroupService groupService;
+    private final ProfessorService professorService;
+    private final ScheduleService scheduleService;
+    private final ScheduleTemplateService templateService;
+    private final Random random = new Random();
+    @Value("${university.timetable.solver.backtracks:100000}")
+    private int maxBacktracks;
+    @Value("${university.timetable.repair.budget:1000}")
+    private long budget;
+
+    /* Only pairs left without a valid template are placed again, every other template keeps its slot */
+    public Result repair() {
+
+        long start = System.currentTimeMillis();
+        List<ScheduleTemplate> templates = templateService.findAll();
+        Map<Boolean, List<ScheduleTemplate>> byValidity = templates.stream()
+                .collect(partitioningBy(TimetableRepairer::isTaught));
+        List<ScheduleTemplate> stale = byValidity.get(false);
+        if (!stale.isEmpty()) {
+            log.debug("Removing {} templates whose professor no longer teaches the course", stale.size());
+            templateService.deleteAll(stale);
+        }
+
+        TimetableSolver.Solution solution = new TimetableSolver(groupService.findAll(), courseService.findAll(),
+                professorService.findAll(), auditoriumService.findAll(), random, maxBacktracks).withFixed(
+                byValidity.get(true)).withDeadline(start + budget).solve();
+        solution.getUnplaced()
+                .forEach(pair -> log.warn("Could not reschedule group {} for course {}", pair.getGroup(),
+                        pair.getCourse()));
+
+        List<ScheduleTemplate> placed = templateService.saveAll(solution.getTemplates());
+        List<Schedule> materialized = scheduleService.materializeTemplates(placed);
+        log.info("Timetable repaired in {} ms: {} pairs placed, {} unplaced, {} stale templates removed",
+                System.currentTimeMillis() - start, placed.size(), solution.getUnplaced().size(), stale.size());
+        return new Result(placed, solution.getUnplaced(), stale.size(), materialized.size());
+    }
+
+    private static boolean isTaught(ScheduleTemplate template) {
+
+        return template.getProfessor().getCourses().contains(template.getCourse());
+    }
+
+    @Getter
+    @ToString
+    @RequiredArgsConstructor
+    public static class Result {
+
+        private final List<ScheduleTemplate> placed;
+        private final List<TimetableSolver.Unplaced> unplaced;
+        private final int removed;
+        private final int materialized;
+
+    }
+
+}
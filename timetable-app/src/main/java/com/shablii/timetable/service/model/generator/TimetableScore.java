@@ -0,0 +1,89 @@
+package com.shablii.timetable.service.model.generator;
+
+import com.shablii.timetable.model.*;
+import lombok.*;
+
+import java.util.*;
+
+import static com.shablii.timetable.service.model.generator.TimetableSolver.*;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class TimetableScore implements Comparable<TimetableScore> {
+
+    static final int UNPLACED_WEIGHT = 1000;
+    private static final long DAY_MASK = (1L << PERIODS.length) - 1;
+
+    private final int unplaced;
+    private final int groupGaps;
+    private final int professorImbalance;
+    private final TimetableWeights weights;
+
+    /* Lower is better, any unplaced pair outweighs all soft penalties of a regular university */
+    public static TimetableScore of(TimetableSolver.Solution solution, TimetableWeights weights) {
+
+        Map<Group, Long> groupSlots = new HashMap<>();
+        Map<Professor, Long> professorSlots = new HashMap<>();
+        for (ScheduleTemplate template : solution.getTemplates()) {
+            long bit = 1L << slotOf(template);
+            groupSlots.merge(template.getGroup(), bit, (first, second) -> first | second);
+            professorSlots.merge(template.getProfessor(), bit, (first, second) -> first | second);
+        }
+        int gaps = groupSlots.values().stream().mapToInt(TimetableScore::gapsOf).sum();
+        int imbalance = professorSlots.values().stream().mapToInt(TimetableScore::imbalanceOf).sum();
+        return new TimetableScore(solution.getUnplaced().size(), gaps, imbalance, weights);
+    }
+
+    public long getTotal() {
+
+        return (long) unplaced * UNPLACED_WEIGHT + (long) groupGaps * weights.getGap()
+                + (long) professorImbalance * weights.getImbalance();
+    }
+
+    static int slotOf(ScheduleTemplate template) {
+
+        return (template.getWeekParity() ? WEEK_SLOTS : 0) + template.getDay().ordinal() * PERIODS.length
+                + template.getPeriod().ordinal();
+    }
+
+    /* Empty periods between first and last lesson of each day */
+    static int gapsOf(long slots) {
+
+        int gaps = 0;
+        for (int day = 0; day < SLOTS / PERIODS.length; day++) {
+            long periods = slots >>> (day * PERIODS.length) & DAY_MASK;
+            if (periods != 0) {
+                int span = Long.SIZE - Long.numberOfLeadingZeros(periods) - Long.numberOfTrailingZeros(periods);
+                gaps += span - Long.bitCount(periods);
+            }
+        }
+        return gaps;
+    }
+
+    /* Difference between busiest and quietest day of each week */
+    static int imbalanceOf(long slots) {
+
+        int imbalance = 0;
+        for (int week = 0; week < 2; week++) {
+            int busiest = 0;
+            int quietest = Integer.MAX_VALUE;
+            for (int day = 0; day < DAYS.length; day++) {
+                int shift = week * WEEK_SLOTS + day * PERIODS.length;
+                int lessons = Long.bitCount(slots >>> shift & DAY_MASK);
+                busiest = Math.max(busiest, lessons);
+                quietest = Math.min(quietest, lessons);
+            }
+            imbalance += busiest - quietest;
+        }
+        return imbalance;
+    }
+
+    @Override
+    public int compareTo(TimetableScore other) {
+
+        return Long.compare(getTotal(), other.getTotal());
+    }
+
+}
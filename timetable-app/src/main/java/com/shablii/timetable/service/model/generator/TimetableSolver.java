@@ -0,0 +1,419 @@
+package com.shablii.timetable.service.model.generator;
+
+import com.shablii.timetable.model.Period;
+import com.shablii.timetable.model.*;
+import lombok.*;
+
+import java.time.DayOfWeek;
+import java.util.*;
+
+/* Places every (group, course) pair into a two-week cycle, slots of both weeks fit into a single long bitmask */
+public class TimetableSolver {
+
+    static final DayOfWeek[] DAYS = { DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY,
+            DayOfWeek.FRIDAY };
+    static final Period[] PERIODS = Period.values();
+    static final int WEEK_SLOTS = DAYS.length * PERIODS.length;
+    static final int SLOTS = 2 * WEEK_SLOTS;
+    private static final long ALL_SLOTS = (1L << SLOTS) - 1;
+    private static final int INITIAL_CUTOFF = 64;
+
+    private final List<Group> groups;
+    private final List<Course> courses;
+    private final List<Professor> professors;
+    private final List<Auditorium> auditoriums;
+    private final Random random;
+    private final int maxBacktracks;
+    private long deadline = Long.MAX_VALUE;
+    private Collection<ScheduleTemplate> fixed = Collections.emptyList();
+
+    private int[] pairGroup;
+    private int[] pairCourse;
+    private int[][] courseProfessors;
+    private int[] slotOf;
+    private int[] professorOf;
+    private int[] auditoriumOf;
+    private boolean[] skipped;
+    private long[] groupBusy;
+    private long[] professorBusy;
+    private int[] professorLoad;
+    private BitSet[] auditoriumBusy;
+    private int[] slotLoad;
+    private int[] slotDemand;
+    private int[] groupRemaining;
+    private long fullSlots;
+    private int backtracks;
+    private int cutoff;
+
+    public TimetableSolver(List<Group> groups, List<Course> courses, List<Professor> professors,
+            List<Auditorium> auditoriums, Random random, int maxBacktracks) {
+
+        this.groups = groups;
+        this.courses = courses;
+        this.professors = professors;
+        this.auditoriums = auditoriums;
+        this.random = random;
+        this.maxBacktracks = maxBacktracks;
+    }
+
+    /* Once wall-clock deadline passes, pairs not placed yet are reported unplaced */
+    public TimetableSolver withDeadline(long deadlineMillis) {
+
+        this.deadline = deadlineMillis;
+        return this;
+    }
+
+    /* Fixed templates keep their slots and cover their pairs, remaining pairs are placed around them */
+    public TimetableSolver withFixed(Collection<ScheduleTemplate> fixed) {
+
+        this.fixed = fixed;
+        return this;
+    }
+
+    /* Search restarts with reshuffled pairs and doubled cutoff while it is cut off before placing every pair */
+    public Solution solve() {
+
+        Solution best = null;
+        int spent = 0;
+        int cutoff = INITIAL_CUTOFF;
+        boolean cutOff = true;
+        while (cutOff && spent < maxBacktracks && !isPastDeadline() && !isComplete(best)) {
+            int attemptCutoff = Math.min(cutoff, maxBacktracks - spent);
+            Solution solution = search(attemptCutoff);
+            spent += solution.getBacktracks();
+            cutOff = solution.getBacktracks() >= attemptCutoff;
+            if (best == null || solution.getUnplaced().size() < best.getUnplaced().size()) {
+                best = solution;
+            }
+            cutoff *= 2;
+        }
+        return best == null ? search(0) : new Solution(best.getTemplates(), best.getUnplaced(), spent);
+    }
+
+    /* Most constrained pair is placed first, dead ends undo earlier decisions until cutoff is reached */
+    private Solution search(int cutoff) {
+
+        initialize(cutoff);
+        Deque<Decision> decisions = new ArrayDeque<>();
+        int pair;
+        while (!isPastDeadline() && (pair = selectMostConstrained()) >= 0) {
+            long domain = domainOf(pair);
+            if (domain != 0) {
+                Decision decision = new Decision(pair, domain);
+                decisions.push(decision);
+                assignNext(decision);
+            } else if (!backtrack(decisions)) {
+                skip(pair);
+            }
+        }
+        return toSolution();
+    }
+
+    private static boolean isComplete(Solution solution) {
+
+        return solution != null && solution.getUnplaced().isEmpty();
+    }
+
+    private boolean isPastDeadline() {
+
+        return System.currentTimeMillis() >= deadline;
+    }
+
+    private void initialize(int cutoff) {
+
+        Map<Course, Integer> courseIndexes = indexesOf(courses);
+        List<List<Integer>> teaching = new ArrayList<>();
+        courses.forEach(course -> teaching.add(new ArrayList<>()));
+        for (int professor = 0; professor < professors.size(); professor++) {
+            for (Course course : professors.get(professor).getCourses()) {
+                Integer index = courseIndexes.get(course);
+                if (index != null) {
+                    teaching.get(index).add(professor);
+                }
+            }
+        }
+        courseProfessors = teaching.stream()
+                .map(indexes -> indexes.stream().mapToInt(Integer::intValue).toArray())
+                .toArray(int[][]::new);
+
+        Map<Group, Integer> groupIndexes = indexesOf(groups);
+        boolean[][] covered = new boolean[groups.size()][courses.size()];
+        for (ScheduleTemplate template : fixed) {
+            Integer group = groupIndexes.get(template.getGroup());
+            Integer course = courseIndexes.get(template.getCourse());
+            if (group != null && course != null) {
+                covered[group][course] = true;
+            }
+        }
+        List<int[]> pairs = new ArrayList<>();
+        for (int group = 0; group < groups.size(); group++) {
+            for (int course = 0; course < courses.size(); course++) {
+                if (!covered[group][course]) {
+                    pairs.add(new int[] { group, course });
+                }
+            }
+        }
+        Collections.shuffle(pairs, random);
+        int size = pairs.size();
+        pairGroup = pairs.stream().mapToInt(pair -> pair[0]).toArray();
+        pairCourse = pairs.stream().mapToInt(pair -> pair[1]).toArray();
+
+        slotOf = new int[size];
+        Arrays.fill(slotOf, -1);
+        professorOf = new int[size];
+        auditoriumOf = new int[size];
+        skipped = new boolean[size];
+        for (int pair = 0; pair < size; pair++) {
+            skipped[pair] = courseProfessors[pairCourse[pair]].length == 0 || auditoriums.isEmpty();
+        }
+        groupBusy = new long[groups.size()];
+        professorBusy = new long[professors.size()];
+        professorLoad = new int[professors.size()];
+        auditoriumBusy = new BitSet[SLOTS];
+        for (int slot = 0; slot < SLOTS; slot++) {
+            auditoriumBusy[slot] = new BitSet(auditoriums.size());
+        }
+        slotLoad = new int[SLOTS];
+        fullSlots = 0;
+        occupyFixed(groupIndexes);
+
+        slotDemand = new int[SLOTS];
+        groupRemaining = new int[groups.size()];
+        for (int pair = 0; pair < size; pair++) {
+            if (!skipped[pair]) {
+                groupRemaining[pairGroup[pair]]++;
+            }
+        }
+        for (int group = 0; group < groups.size(); group++) {
+            changeDemand(group, 1);
+        }
+        backtracks = 0;
+        this.cutoff = cutoff;
+    }
+
+    private void occupyFixed(Map<Group, Integer> groupIndexes) {
+
+        Map<Professor, Integer> professorIndexes = indexesOf(professors);
+        Map<Auditorium, Integer> auditoriumIndexes = indexesOf(auditoriums);
+        for (ScheduleTemplate template : fixed) {
+            int slot = TimetableScore.slotOf(template);
+            long bit = 1L << slot;
+            Integer group = groupIndexes.get(template.getGroup());
+            if (group != null) {
+                groupBusy[group] |= bit;
+            }
+            Integer professor = professorIndexes.get(template.getProfessor());
+            if (professor != null) {
+                professorBusy[professor] |= bit;
+                professorLoad[professor]++;
+            }
+            Integer auditorium = auditoriumIndexes.get(template.getAuditorium());
+            if (auditorium != null && !auditoriumBusy[slot].get(auditorium)) {
+                auditoriumBusy[slot].set(auditorium);
+                if (++slotLoad[slot] == auditoriums.size()) {
+                    fullSlots |= bit;
+                }
+            }
+        }
+    }
+
+    private static <T> Map<T, Integer> indexesOf(List<T> items) {
+
+        Map<T, Integer> indexes = new HashMap<>();
+        for (int index = 0; index < items.size(); index++) {
+            indexes.put(items.get(index), index);
+        }
+        return indexes;
+    }
+
+    private int selectMostConstrained() {
+
+        int selected = -1;
+        int smallest = Integer.MAX_VALUE;
+        for (int pair = 0; pair < slotOf.length; pair++) {
+            if (slotOf[pair] >= 0 || skipped[pair]) {
+                continue;
+            }
+            int size = Long.bitCount(domainOf(pair));
+            if (size < smallest) {
+                selected = pair;
+                smallest = size;
+                if (size == 0) {
+                    break;
+                }
+            }
+        }
+        return selected;
+    }
+
+    private long domainOf(int pair) {
+
+        long teachable = 0;
+        for (int professor : courseProfessors[pairCourse[pair]]) {
+            teachable |= ~professorBusy[professor];
+        }
+        return teachable & ~groupBusy[pairGroup[pair]] & ~fullSlots & ALL_SLOTS;
+    }
+
+    private boolean backtrack(Deque<Decision> decisions) {
+
+        while (!decisions.isEmpty() && backtracks < cutoff) {
+            Decision decision = decisions.peek();
+            unassign(decision.pair);
+            backtracks++;
+            if (decision.untried != 0) {
+                assignNext(decision);
+                return true;
+            }
+            decisions.pop();
+        }
+        return false;
+    }
+
+    private void assignNext(Decision decision) {
+
+        int slot = pickScarcestSlot(decision.untried);
+        decision.untried &= ~(1L << slot);
+        assign(decision.pair, slot);
+    }
+
+    /* Slot wanted by fewest groups beyond its free auditoriums goes first, so its capacity is not wasted */
+    private int pickScarcestSlot(long candidates) {
+
+        int picked = -1;
+        int pickedSlack = Integer.MAX_VALUE;
+        int ties = 0;
+        for (long bits = candidates; bits != 0; bits &= bits - 1) {
+            int slot = Long.numberOfTrailingZeros(bits);
+            int slack = slotDemand[slot] - (auditoriums.size() - slotLoad[slot]);
+            if (slack < pickedSlack) {
+                picked = slot;
+                pickedSlack = slack;
+                ties = 1;
+            } else if (slack == pickedSlack && random.nextInt(++ties) == 0) {
+                picked = slot;
+            }
+        }
+        return picked;
+    }
+
+    /* Slots still free for a group with pairs left to place count towards their demand */
+    private void changeDemand(int group, int delta) {
+
+        if (groupRemaining[group] == 0) {
+            return;
+        }
+        for (long free = ~groupBusy[group] & ALL_SLOTS; free != 0; free &= free - 1) {
+            slotDemand[Long.numberOfTrailingZeros(free)] += delta;
+        }
+    }
+
+    private void skip(int pair) {
+
+        int group = pairGroup[pair];
+        changeDemand(group, -1);
+        groupRemaining[group]--;
+        changeDemand(group, 1);
+        skipped[pair] = true;
+    }
+
+    private void assign(int pair, int slot) {
+
+        long bit = 1L << slot;
+        int professor = -1;
+        for (int candidate : courseProfessors[pairCourse[pair]]) {
+            if ((professorBusy[candidate] & bit) == 0 && (professor < 0
+                    || professorLoad[candidate] < professorLoad[professor])) {
+                professor = candidate;
+            }
+        }
+        int auditorium = auditoriumBusy[slot].nextClearBit(0);
+        int group = pairGroup[pair];
+
+        changeDemand(group, -1);
+        slotOf[pair] = slot;
+        professorOf[pair] = professor;
+        auditoriumOf[pair] = auditorium;
+        groupBusy[group] |= bit;
+        groupRemaining[group]--;
+        professorBusy[professor] |= bit;
+        professorLoad[professor]++;
+        auditoriumBusy[slot].set(auditorium);
+        if (++slotLoad[slot] == auditoriums.size()) {
+            fullSlots |= bit;
+        }
+        changeDemand(group, 1);
+    }
+
+    private void unassign(int pair) {
+
+        int slot = slotOf[pair];
+        long bit = 1L << slot;
+        int group = pairGroup[pair];
+
+        changeDemand(group, -1);
+        groupBusy[group] &= ~bit;
+        groupRemaining[group]++;
+        professorBusy[professorOf[pair]] &= ~bit;
+        professorLoad[professorOf[pair]]--;
+        auditoriumBusy[slot].clear(auditoriumOf[pair]);
+        slotLoad[slot]--;
+        fullSlots &= ~bit;
+        slotOf[pair] = -1;
+        changeDemand(group, 1);
+    }
+
+    private Solution toSolution() {
+
+        List<ScheduleTemplate> templates = new ArrayList<>();
+        List<Unplaced> unplaced = new ArrayList<>();
+        for (int pair = 0; pair < slotOf.length; pair++) {
+            Group group = groups.get(pairGroup[pair]);
+            Course course = courses.get(pairCourse[pair]);
+            int slot = slotOf[pair];
+            if (slot < 0) {
+                unplaced.add(new Unplaced(group, course));
+                continue;
+            }
+            int weekSlot = slot % WEEK_SLOTS;
+            templates.add(new ScheduleTemplate(slot >= WEEK_SLOTS, DAYS[weekSlot / PERIODS.length],
+                    PERIODS[weekSlot % PERIODS.length], auditoriums.get(auditoriumOf[pair]), course, group,
+                    professors.get(professorOf[pair])));
+        }
+        return new Solution(templates, unplaced, backtracks);
+    }
+
+    private static class Decision {
+
+        private final int pair;
+        private long untried;
+
+        Decision(int pair, long domain) {
+
+            this.pair = pair;
+            this.untried = domain;
+        }
+
+    }
+
+    @Getter
+    @ToString
+    @RequiredArgsConstructor
+    public static class Unplaced {
+
+        private final Group group;
+        private final Course course;
+
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Solution {
+
+        private final List<ScheduleTemplate> templates;
+        private final List<Unplaced> unplaced;
+        private final int backtracks;
+
+    }
+
+}
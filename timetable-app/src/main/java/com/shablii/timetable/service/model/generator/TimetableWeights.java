@@ -0,0 +1,24 @@
+package com.shablii.timetable.service.model.generator;
+
+import lombok.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/* Soft constraint penalties, the same for scoring of generation attempts, their optimization and slot ranking */
+@Getter
+@ToString
+@EqualsAndHashCode
+@Component
+public class TimetableWeights {
+
+    private final int gap;
+    private final int imbalance;
+
+    public TimetableWeights(@Value("${university.timetable.optimizer.weight.gap:3}") int gap,
+            @Value("${university.timetable.optimizer.weight.imbalance:1}") int imbalance) {
+
+        this.gap = gap;
+        this.imbalance = imbalance;
+    }
+
+}
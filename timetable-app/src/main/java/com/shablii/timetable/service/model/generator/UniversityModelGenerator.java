@@ -26,8 +26,14 @@ public class UniversityModelGenerator {
     private int totalProfessors;
     @Value("${university.total.auditoriums}")
     private int totalAuditoriums;
+    @Value("${university.total.courses:0}")
+    private int totalCourses;
     @Value("${university.group.size}")
     private int groupSize;
+    @Value("${university.batch.size:1000}")
+    private int batchSize;
+    @Value("${university.seed:#{null}}")
+    private Long seed;
     @Value("${file.first.names}")
     private String firstNamesFilePath;
     @Value("${file.last.names}")
@@ -40,57 +46,93 @@ public class UniversityModelGenerator {
 
         log.info("Generating university model...");
 
+        long start = System.currentTimeMillis();
+        if (seed != null) {
+            random = new Random(seed);
+        }
         buildAuditoriums();
         List<Course> courses = buildCourses(coursesFilePath);
         List<Professor> professors = buildProfessors(firstNamesFilePath, lastNamesFilePath);
         assignCoursesToProfessors(courses, professors);
         List<Group> groups = buildGroups();
-        List<Student> students = buildStudents(firstNamesFilePath, lastNamesFilePath);
-        groupAndSaveStudents(students, groups);
+        buildGroupAndSaveStudents(firstNamesFilePath, lastNamesFilePath, groups);
 
-        log.info("University model generated");
+        log.info("University model generated in {} ms", System.currentTimeMillis() - start);
     }
 
     /*
-     * Randomly assign 1-4 courses per professor and 1-2 professors per course
+     * Randomly assign 1-4 courses per professor and 1-2 professors per course.
+     * Least loaded professors are kept in a heap, ties go to the earliest one
      */
     private void assignCoursesToProfessors(List<Course> courses, List<Professor> professors) {
 
         int maxCourses = 4;
         int maxProfessors = 2;
 
+        Map<Professor, Integer> order = new IdentityHashMap<>();
+        professors.forEach(professor -> order.put(professor, order.size()));
+        PriorityQueue<Professor> leastLoaded = new PriorityQueue<>(Math.max(professors.size(), 1),
+                Comparator.comparing((Professor professor) -> professor.getCourses().size())
+                        .thenComparing(order::get));
+        professors.stream().filter(professor -> professor.getCourses().size() < maxCourses).forEach(leastLoaded::add);
+
+        List<Professor> assigned = new ArrayList<>(maxProfessors);
         for (Course course : courses) {
             int professorsToAssign = random.nextInt(maxProfessors);
-            for (int i = 0; i <= professorsToAssign; i++) {
-                Optional<Professor> professor = professors.stream()
-                        .filter(p -> p.getCourses().size() < maxCourses && !p.getCourses().contains(course))
-                        .min(Comparator.comparing(prof -> prof.getCourses().size()));
-                professor.ifPresent(value -> value.addCourse(course));
+            for (int i = 0; i <= professorsToAssign && !leastLoaded.isEmpty(); i++) {
+                Professor professor = leastLoaded.poll();
+                professor.addCourse(course);
+                assigned.add(professor);
             }
+            assigned.stream().filter(professor -> professor.getCourses().size() < maxCourses).forEach(leastLoaded::add);
+            assigned.clear();
         }
         log.debug("Courses assigned to professors");
         timetableFacade.saveProfessors(professors);
     }
 
     /*
-     * 200 students. Take 20 first names and 20 last names and randomly combine
-     * them to generate students
+     * Take 20 first names and 20 last names and randomly combine them to
+     * generate students. Students are grouped by last name: last names are
+     * drawn up front and counted, so students come out already sorted and are
+     * saved batch by batch without ever holding all of them
      */
-    private List<Student> buildStudents(String firstNamesFilePath, String lastNamesFilePath) {
+    private void buildGroupAndSaveStudents(String firstNamesFilePath, String lastNamesFilePath, List<Group> groups) {
 
         List<String> firstNames = readFile(firstNamesFilePath);
         List<String> lastNames = readFile(lastNamesFilePath);
-        List<Student> students = new ArrayList<>(totalStudents);
-
+        int[] lastNameCounts = new int[lastNames.size()];
         for (int i = 0; i < totalStudents; i++) {
-            String firstName = firstNames.get(random.nextInt(firstNames.size()));
-            String lastName = lastNames.get(random.nextInt(lastNames.size()));
-
-            students.add(new Student(firstName, lastName));
+            lastNameCounts[random.nextInt(lastNames.size())]++;
+        }
+        Integer[] sortedLastNames = new Integer[lastNames.size()];
+        Arrays.setAll(sortedLastNames, index -> index);
+        Arrays.sort(sortedLastNames, Comparator.comparing(lastNames::get));
+
+        List<Student> batch = new ArrayList<>(batchSize);
+        int grouped = 0;
+        for (int lastName : sortedLastNames) {
+            for (int i = 0; i < lastNameCounts[lastName]; i++) {
+                String firstName = firstNames.get(random.nextInt(firstNames.size()));
+                Student student = new Student(firstName, lastNames.get(lastName));
+                student.setGroup(grouped / groupSize < groups.size() ? groups.get(grouped / groupSize) : null);
+                grouped++;
+                batch.add(student);
+                if (batch.size() == batchSize) {
+                    saveStudents(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
         }
+        saveStudents(batch);
+        log.debug("Students generated and grouped");
+    }
+
+    private void saveStudents(List<Student> students) {
 
-        log.debug("Students generated");
-        return students;
+        if (!students.isEmpty()) {
+            timetableFacade.saveStudents(students);
+        }
     }
 
     /*
@@ -115,23 +157,18 @@ public class UniversityModelGenerator {
     }
 
     /*
-     * Group students by last name
+     * Courses listed in the file, repeated with a running number when more are
+     * needed: 'Dark Magic', ..., 'Dark Magic 2', ...
      */
-    private void groupAndSaveStudents(List<Student> students, List<Group> groups) {
-
-        groups.forEach(group -> students.stream()
-                .sorted(Comparator.comparing(Student::getLastName))
-                .skip(groups.indexOf(group) * (long) groupSize)
-                .limit(groupSize)
-                .forEach(student -> student.setGroup(group)));
-        log.debug("Students grouped");
-
-        timetableFacade.saveStudents(students);
-    }
-
     private List<Course> buildCourses(String filePath) {
 
-        List<Course> courses = readFile(filePath).stream().map(Course::new).collect(Collectors.toList());
+        List<String> names = readFile(filePath);
+        int numberOfCourses = totalCourses > 0 ? totalCourses : names.size();
+        List<Course> courses = new ArrayList<>(numberOfCourses);
+        for (int i = 0; i < numberOfCourses; i++) {
+            String name = names.get(i % names.size());
+            courses.add(new Course(i < names.size() ? name : name + " " + (i / names.size() + 1)));
+        }
         log.debug("Courses generated");
         return timetableFacade.saveCourses(courses);
     }
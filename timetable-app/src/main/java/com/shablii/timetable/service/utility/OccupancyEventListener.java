@@ -0,0 +1,96 @@
+package com.shablii.timetable.service.utility;
+
+import com.shablii.timetable.model.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OccupancyEventListener
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final transient EntityManagerFactory entityManagerFactory;
+    private final transient OccupancyStore occupancyStore;
+
+    @PostConstruct
+    public void register() {
+
+        if (!occupancyStore.isEnabled()) {
+            return;
+        }
+
+        log.debug("Registering occupancy store post-commit listeners");
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+
+        occupy(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+
+        occupy(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+
+        if (event.getEntity() instanceof Schedule) {
+            occupancyStore.release((Schedule) event.getEntity());
+        } else if (event.getEntity() instanceof ScheduleTemplate) {
+            occupancyStore.release((ScheduleTemplate) event.getEntity());
+        }
+    }
+
+    private void occupy(Object entity) {
+
+        if (entity instanceof Schedule) {
+            occupancyStore.occupy((Schedule) entity);
+        } else if (entity instanceof ScheduleTemplate) {
+            occupancyStore.occupy((ScheduleTemplate) entity);
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+
+        log.debug("Insert of {} rolled back, occupancy unchanged", event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+
+        log.debug("Update of {} rolled back, occupancy unchanged", event.getEntity());
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+
+        log.debug("Removal of {} rolled back, occupancy unchanged", event.getEntity());
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+
+        Class<?> entityClass = persister.getMappedClass();
+        return entityClass == Schedule.class || entityClass == ScheduleTemplate.class;
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.shablii.timetable.service.utility;
+
+import com.shablii.timetable.model.Period;
+import com.shablii.timetable.model.*;
+
+import java.time.DayOfWeek;
+import java.util.*;
+import java.util.function.Predicate;
+
+public class OccupancyIndex {
+
+    private static final int PERIODS = Period.values().length;
+    private static final int SLOTS = DayOfWeek.values().length * PERIODS;
+
+    private final Occupancy<Auditorium> auditoriums = new Occupancy<>();
+    private final Occupancy<Group> groups = new Occupancy<>();
+    private final Occupancy<Professor> professors = new Occupancy<>();
+
+    public static OccupancyIndex of(Collection<ScheduleTemplate> templates, Collection<Schedule> schedules) {
+
+        OccupancyIndex index = new OccupancyIndex();
+        templates.forEach(template -> index.occupy(template.getDay(), template.getPeriod(), template.getAuditorium(),
+                template.getGroup(), template.getProfessor()));
+        schedules.forEach(schedule -> index.occupy(schedule.getDay(), schedule.getPeriod(), schedule.getAuditorium(),
+                schedule.getGroup(), schedule.getProfessor()));
+        return index;
+    }
+
+    public void occupy(DayOfWeek day, Period period, Auditorium auditorium, Group group, Professor professor) {
+
+        int slot = slotOf(day, period);
+        auditoriums.occupy(slot, auditorium);
+        groups.occupy(slot, group);
+        professors.occupy(slot, professor);
+    }
+
+    /* Slots where candidate's group or professor is busy are resolved once, leaving a single bit test per option */
+    public Predicate<ReschedulingOption> availableFor(Schedule candidate) {
+
+        BitSet blocked = groups.slotsOf(candidate.getGroup());
+        blocked.or(professors.slotsOf(candidate.getProfessor()));
+        return option -> {
+            int slot = slotOf(option.getDay(), option.getPeriod());
+            return !blocked.get(slot) && !auditoriums.isBusy(slot, option.getAuditorium());
+        };
+    }
+
+    private static int slotOf(DayOfWeek day, Period period) {
+
+        return day.ordinal() * PERIODS + period.ordinal();
+    }
+
+    private static class Occupancy<T> {
+
+        private final Map<T, Integer> bits = new HashMap<>();
+        private final BitSet[] busy = new BitSet[SLOTS];
+
+        void occupy(int slot, T resource) {
+
+            if (resource == null) {
+                return;
+            }
+            Integer bit = bits.get(resource);
+            if (bit == null) {
+                bit = bits.size();
+                bits.put(resource, bit);
+            }
+            if (busy[slot] == null) {
+                busy[slot] = new BitSet();
+            }
+            busy[slot].set(bit);
+        }
+
+        boolean isBusy(int slot, T resource) {
+
+            Integer bit = resource == null ? null : bits.get(resource);
+            return bit != null && busy[slot] != null && busy[slot].get(bit);
+        }
+
+        BitSet slotsOf(T resource) {
+
+            BitSet slots = new BitSet(SLOTS);
+            Integer bit = resource == null ? null : bits.get(resource);
+            if (bit == null) {
+                return slots;
+            }
+            for (int slot = 0; slot < SLOTS; slot++) {
+                if (busy[slot] != null && busy[slot].get(bit)) {
+                    slots.set(slot);
+                }
+            }
+            return slots;
+        }
+
+    }
+
+}
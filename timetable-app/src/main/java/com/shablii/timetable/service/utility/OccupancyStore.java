@@ -0,0 +1,504 @@
+package com.shablii.timetable.service.utility;
+
+import com.shablii.timetable.dao.*;
+import com.shablii.timetable.model.Period;
+import com.shablii.timetable.model.*;
+import lombok.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+@Slf4j
+@Component
+public class OccupancyStore {
+
+    private final SemesterCalendar semesterCalendar;
+    private final ScheduleRepository scheduleRepository;
+    private final ScheduleTemplateRepository templateRepository;
+    private final boolean enabled;
+    private final Object writeLock = new Object();
+    private volatile State state;
+    private CompletableFuture<State> loading;
+    private List<UnaryOperator<State>> journal;
+    private long writes;
+
+    public OccupancyStore(SemesterCalendar semesterCalendar, ScheduleRepository scheduleRepository,
+            ScheduleTemplateRepository templateRepository,
+            @Value("${university.occupancy.enabled:true}") boolean enabled) {
+
+        this.semesterCalendar = semesterCalendar;
+        this.scheduleRepository = scheduleRepository;
+        this.templateRepository = templateRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+
+        return enabled;
+    }
+
+    public BitSet findBusyAuditoriums(LocalDate date, Period period) {
+
+        return (BitSet) slotOf(date, period).auditoriums.clone();
+    }
+
+    public BitSet findBusyProfessors(LocalDate date, Period period) {
+
+        return (BitSet) slotOf(date, period).professors.clone();
+    }
+
+    public BitSet findBusyGroups(LocalDate date, Period period) {
+
+        return (BitSet) slotOf(date, period).groups.clone();
+    }
+
+    /* Dates without materialized schedules are occupied as their templates would generate them */
+    private Slot slotOf(LocalDate date, Period period) {
+
+        State current = state;
+        if (current == null) {
+            current = load();
+        }
+        Layer<DateSlot> dates = isServed(date)
+                ? current.schedules
+                : loadSchedules(scheduleRepository.findAllByDate(date));
+        boolean materialized = Arrays.stream(Period.values())
+                .anyMatch(any -> dates.contains(new DateSlot(date, any)));
+        if (materialized) {
+            return dates.get(new DateSlot(date, period));
+        }
+        return current.templates.get(
+                new TemplateSlot(semesterCalendar.getWeekParityOf(date), date.getDayOfWeek(), period));
+    }
+
+    /* Only the current semester is kept in memory, other dates are read when they are asked for */
+    private boolean isServed(LocalDate date) {
+
+        return !date.isBefore(semesterCalendar.getStartDate()) && !date.isAfter(semesterCalendar.getEndDate());
+    }
+
+    public void occupy(Schedule schedule) {
+
+        occupySchedules(Collections.singletonList(schedule));
+    }
+
+    public void occupy(ScheduleTemplate template) {
+
+        occupyTemplates(Collections.singletonList(template));
+    }
+
+    public void release(Schedule schedule) {
+
+        updateSchedules(layer -> layer.remove(schedule.getId()));
+    }
+
+    public void release(ScheduleTemplate template) {
+
+        updateTemplates(layer -> layer.remove(template.getId()));
+    }
+
+    private void occupySchedules(Collection<Schedule> occupied) {
+
+        updateSchedules(layer -> occupied.forEach(schedule -> {
+            if (isServed(schedule.getDate())) {
+                layer.put(schedule.getId(), occupantOf(schedule));
+            } else {
+                layer.remove(schedule.getId());
+            }
+        }));
+    }
+
+    private void occupyTemplates(Collection<ScheduleTemplate> occupied) {
+
+        updateTemplates(layer -> occupied.forEach(template -> layer.put(template.getId(), occupantOf(template))));
+    }
+
+    /* Bulk inserts bypass entity events, so their rows are occupied once they are committed */
+    public void occupySchedulesAfterCommit(Collection<Schedule> inserted) {
+
+        afterCommit(() -> occupySchedules(inserted));
+    }
+
+    public void occupyTemplatesAfterCommit(Collection<ScheduleTemplate> inserted) {
+
+        afterCommit(() -> occupyTemplates(inserted));
+    }
+
+    private void afterCommit(Runnable action) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+
+                action.run();
+            }
+        });
+    }
+
+    private void updateSchedules(Consumer<Layer<DateSlot>> change) {
+
+        update(current -> new State(current.schedules.copyWith(change), current.templates));
+    }
+
+    private void updateTemplates(Consumer<Layer<TemplateSlot>> change) {
+
+        update(current -> new State(current.schedules, current.templates.copyWith(change)));
+    }
+
+    /*
+     * Readers never lock, writers publish a changed copy, changes made while the store
+     * is being loaded are replayed on the loaded state before it is published
+     */
+    private void update(UnaryOperator<State> change) {
+
+        synchronized (writeLock) {
+            writes++;
+            if (journal != null) {
+                journal.add(change);
+            }
+            if (state != null) {
+                state = change.apply(state);
+            }
+        }
+    }
+
+    /* Bulk statements bypass entity events, so the store is rebuilt once they are committed */
+    public void invalidate() {
+
+        clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCompletion(int status) {
+
+                    clear();
+                }
+            });
+        }
+    }
+
+    private void clear() {
+
+        log.debug("Invalidating occupancy store");
+        synchronized (writeLock) {
+            writes++;
+            state = null;
+            loading = null;
+            journal = null;
+        }
+    }
+
+    public void rebuild() {
+
+        clear();
+        load();
+    }
+
+    /* One caller loads the store outside of the lock, concurrent callers wait for its result */
+    private State load() {
+
+        CompletableFuture<State> future = new CompletableFuture<>();
+        CompletableFuture<State> pending;
+        synchronized (writeLock) {
+            if (state != null) {
+                return state;
+            }
+            pending = loading;
+            if (pending == null) {
+                loading = future;
+                journal = new ArrayList<>();
+            }
+        }
+        if (pending != null) {
+            return await(pending);
+        }
+
+        log.debug("Rebuilding occupancy store from repositories");
+        try {
+            State loaded = new State(loadSchedules(), loadTemplates());
+            synchronized (writeLock) {
+                if (loading == future) {
+                    for (UnaryOperator<State> change : journal) {
+                        loaded = change.apply(loaded);
+                    }
+                    state = loaded;
+                    loading = null;
+                    journal = null;
+                }
+            }
+            future.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                if (loading == future) {
+                    loading = null;
+                    journal = null;
+                }
+            }
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static State await(CompletableFuture<State> pending) {
+
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    public boolean isBuilt() {
+
+        return state != null;
+    }
+
+    /* Rows are compared outside of the lock, a check overlapping with writes is left to the next one */
+    @Scheduled(initialDelayString = "${university.occupancy.check.delay:600000}",
+               fixedDelayString = "${university.occupancy.check.delay:600000}")
+    public boolean checkConsistency() {
+
+        State current;
+        long before;
+        synchronized (writeLock) {
+            current = state;
+            before = writes;
+        }
+        if (!enabled || current == null) {
+            return true;
+        }
+
+        State actual = new State(loadSchedules(), loadTemplates());
+        boolean consistent = current.schedules.hasSameOccupants(actual.schedules)
+                && current.templates.hasSameOccupants(actual.templates);
+        if (!consistent) {
+            synchronized (writeLock) {
+                if (writes != before) {
+                    log.debug("Occupancy store changed during consistency check, leaving it to the next one");
+                    return true;
+                }
+                log.warn("Occupancy store diverged from repositories, replacing it with rebuilt state");
+                state = actual;
+            }
+        }
+        return consistent;
+    }
+
+    private Layer<DateSlot> loadSchedules() {
+
+        return loadSchedules(scheduleRepository.findAllByDateBetween(semesterCalendar.getStartDate(),
+                semesterCalendar.getEndDate()));
+    }
+
+    private static Layer<DateSlot> loadSchedules(List<Schedule> loaded) {
+
+        Map<Long, Occupant<DateSlot>> occupants = new HashMap<>();
+        loaded.forEach(schedule -> occupants.put(schedule.getId(), occupantOf(schedule)));
+        return new Layer<>(occupants);
+    }
+
+    private Layer<TemplateSlot> loadTemplates() {
+
+        Map<Long, Occupant<TemplateSlot>> occupants = new HashMap<>();
+        templateRepository.findAll().forEach(template -> occupants.put(template.getId(), occupantOf(template)));
+        return new Layer<>(occupants);
+    }
+
+    private static Occupant<DateSlot> occupantOf(Schedule schedule) {
+
+        return new Occupant<>(new DateSlot(schedule.getDate(), schedule.getPeriod()), schedule.getAuditorium(),
+                schedule.getGroup(), schedule.getProfessor());
+    }
+
+    private static Occupant<TemplateSlot> occupantOf(ScheduleTemplate template) {
+
+        return new Occupant<>(new TemplateSlot(template.getWeekParity(), template.getDay(), template.getPeriod()),
+                template.getAuditorium(), template.getGroup(), template.getProfessor());
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class DateSlot {
+
+        private final LocalDate date;
+        private final Period period;
+
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class TemplateSlot {
+
+        private final boolean weekParity;
+        private final DayOfWeek day;
+        private final Period period;
+
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    private static class Occupant<K> {
+
+        private final K slot;
+        private final int auditoriumId;
+        private final int groupId;
+        private final int professorId;
+
+        Occupant(K slot, Auditorium auditorium, Group group, Professor professor) {
+
+            this.slot = slot;
+            this.auditoriumId = bitOf(auditorium == null ? null : auditorium.getId());
+            this.groupId = bitOf(group == null ? null : group.getId());
+            this.professorId = bitOf(professor == null ? null : professor.getId());
+        }
+
+        private static int bitOf(Long id) {
+
+            return id == null ? -1 : Math.toIntExact(id);
+        }
+
+    }
+
+    @RequiredArgsConstructor
+    private static class State {
+
+        private final Layer<DateSlot> schedules;
+        private final Layer<TemplateSlot> templates;
+
+    }
+
+    /* Published layers are never changed, writers change a copy sharing the untouched slots */
+    private static class Layer<K> {
+
+        private final Map<Long, Occupant<K>> occupants;
+        private final Map<K, Slot> slots;
+
+        Layer(Map<Long, Occupant<K>> occupants) {
+
+            this.occupants = occupants;
+            this.slots = new HashMap<>();
+            Map<K, Map<Long, Occupant<K>>> members = new HashMap<>();
+            occupants.forEach((id, occupant) -> members.computeIfAbsent(occupant.getSlot(), slot -> new HashMap<>())
+                    .put(id, occupant));
+            members.forEach((slot, slotMembers) -> slots.put(slot, new Slot(slotMembers)));
+        }
+
+        private Layer(Layer<K> other) {
+
+            this.occupants = new HashMap<>(other.occupants);
+            this.slots = new HashMap<>(other.slots);
+        }
+
+        Layer<K> copyWith(Consumer<Layer<K>> change) {
+
+            Layer<K> copy = new Layer<>(this);
+            change.accept(copy);
+            return copy;
+        }
+
+        void put(Long id, Occupant<K> occupant) {
+
+            remove(id);
+            occupants.put(id, occupant);
+            slots.put(occupant.getSlot(), get(occupant.getSlot()).with(id, occupant));
+        }
+
+        void remove(Long id) {
+
+            Occupant<K> occupant = occupants.remove(id);
+            if (occupant == null) {
+                return;
+            }
+            Slot slot = get(occupant.getSlot()).without(id);
+            if (slot.isEmpty()) {
+                slots.remove(occupant.getSlot());
+            } else {
+                slots.put(occupant.getSlot(), slot);
+            }
+        }
+
+        boolean contains(K key) {
+
+            return slots.containsKey(key);
+        }
+
+        Slot get(K key) {
+
+            return slots.getOrDefault(key, Slot.EMPTY);
+        }
+
+        boolean hasSameOccupants(Layer<K> other) {
+
+            return occupants.equals(other.occupants);
+        }
+
+    }
+
+    private static class Slot {
+
+        private static final Slot EMPTY = new Slot(Collections.emptyMap());
+
+        private final Map<Long, Occupant<?>> members;
+        private final BitSet auditoriums = new BitSet();
+        private final BitSet groups = new BitSet();
+        private final BitSet professors = new BitSet();
+
+        /* Several occupants may share a bit, so bits are always computed from all members */
+        Slot(Map<Long, ? extends Occupant<?>> members) {
+
+            this.members = new HashMap<>(members);
+            this.members.values().forEach(this::set);
+        }
+
+        Slot with(Long id, Occupant<?> occupant) {
+
+            Map<Long, Occupant<?>> changed = new HashMap<>(members);
+            changed.put(id, occupant);
+            return new Slot(changed);
+        }
+
+        Slot without(Long id) {
+
+            Map<Long, Occupant<?>> changed = new HashMap<>(members);
+            changed.remove(id);
+            return new Slot(changed);
+        }
+
+        boolean isEmpty() {
+
+            return members.isEmpty();
+        }
+
+        private void set(Occupant<?> occupant) {
+
+            if (occupant.getAuditoriumId() >= 0) {
+                auditoriums.set(occupant.getAuditoriumId());
+            }
+            if (occupant.getGroupId() >= 0) {
+                groups.set(occupant.getGroupId());
+            }
+            if (occupant.getProfessorId() >= 0) {
+                professors.set(occupant.getProfessorId());
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.shablii.timetable.service.utility;
+
+import com.shablii.timetable.model.Period;
+import com.shablii.timetable.model.Schedule;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.*;
+
+public class ScheduleConflicts {
+
+    /* Moves are checked against final state, so slots vacated by one move may be taken by another */
+    public static Map<String, String> find(Collection<Schedule> existing, Collection<Schedule> moved) {
+
+        Set<Long> movedIds = new HashSet<>();
+        moved.forEach(schedule -> movedIds.add(schedule.getId()));
+
+        Map<Claim, Schedule> owners = new HashMap<>();
+        existing.stream()
+                .filter(schedule -> !movedIds.contains(schedule.getId()))
+                .forEach(schedule -> claimsOf(schedule).forEach(claim -> owners.putIfAbsent(claim, schedule)));
+
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (Schedule schedule : moved) {
+            for (Claim claim : claimsOf(schedule)) {
+                Schedule owner = owners.putIfAbsent(claim, schedule);
+                if (owner != null) {
+                    errors.merge("Schedule ID " + schedule.getId(),
+                            claim.getResource() + " is already taken on " + claim.getDate() + " " + claim.getPeriod()
+                                    .name() + " by schedule ID " + owner.getId(), (first, next) -> first + "; " + next);
+                }
+            }
+        }
+        return errors;
+    }
+
+    private static List<Claim> claimsOf(Schedule schedule) {
+
+        LocalDate date = schedule.getDate();
+        Period period = schedule.getPeriod();
+        return Arrays.asList(new Claim(date, period, "Auditorium", schedule.getAuditorium()),
+                new Claim(date, period, "Group", schedule.getGroup()),
+                new Claim(date, period, "Professor", schedule.getProfessor()));
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class Claim {
+
+        private final LocalDate date;
+        private final Period period;
+        private final String resource;
+        private final Object owner;
+
+    }
+
+}
@@ -1,13 +1,15 @@
 package com.shablii.timetable.service.utility;
 
 import lombok.*;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.time.*;
 import java.time.format.*;
 import java.time.temporal.*;
-import java.util.Locale;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Getter
 @Component
@@ -17,26 +19,74 @@ public class SemesterCalendar {
     private final LocalDate endDate;
     private final Integer lengthInWeeks;
     private Semester semester;
+    @Getter(AccessLevel.NONE)
+    private final DateTable current;
+    @Getter(AccessLevel.NONE)
+    private final NavigableMap<LocalDate, DateTable> tables = new TreeMap<>();
 
+    public SemesterCalendar(String startDate, String endDate) {
+
+        this(startDate, endDate, "");
+    }
+
+    /* Further semesters are given as comma separated start/end pairs, e.g. 2021-02-01/2021-05-28 */
+    @Autowired
     public SemesterCalendar(@Value("${university.semester.start.date}") String startDate,
-            @Value("${university.semester.end.date}") String endDate) {
+            @Value("${university.semester.end.date}") String endDate,
+            @Value("${university.semesters:}") String semesters) {
 
         this.startDate = LocalDate.parse(startDate);
         this.endDate = LocalDate.parse(endDate);
         this.lengthInWeeks = (int) ChronoUnit.WEEKS.between(this.startDate, this.endDate) + 1;
+        this.current = register(this.startDate, this.endDate);
+        Arrays.stream(semesters.split(","))
+                .map(String::trim)
+                .filter(bounds -> !bounds.isEmpty())
+                .map(bounds -> bounds.split("/"))
+                .forEach(bounds -> register(LocalDate.parse(bounds[0].trim()), LocalDate.parse(bounds[1].trim())));
+    }
+
+    private DateTable register(LocalDate start, LocalDate end) {
+
+        DateTable table = new DateTable(start, end);
+        Map.Entry<LocalDate, DateTable> previous = tables.floorEntry(end);
+        if (end.isBefore(start) || previous != null && !previous.getValue().end.isBefore(start)) {
+            throw new IllegalArgumentException("Semester " + start + " - " + end + " is empty or overlaps another one");
+        }
+        tables.put(start, table);
+        return table;
+    }
+
+    /* Dates outside every registered semester are related to current one */
+    private DateTable tableOf(LocalDate date) {
+
+        Map.Entry<LocalDate, DateTable> entry = tables.floorEntry(date);
+        if (entry != null && entry.getValue().contains(date)) {
+            return entry.getValue();
+        }
+        return current;
     }
 
     public boolean getWeekParityOf(LocalDate date) {
 
-        int dateWeekInYear = date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
-        int weekInYearBeforeSemester = startDate.minusDays(1).get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
-        return (dateWeekInYear - weekInYearBeforeSemester) % 2 == 0;
+        return tableOf(date).getWeekParityOf(date);
     }
 
     public boolean isSemesterDate(LocalDate date) {
 
-        return !(date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY || date.isBefore(
-                startDate) || date.isAfter(endDate));
+        return tableOf(date).isTeachingDay(date);
+    }
+
+    /* A lesson may be moved only to a teaching day, and keeps the day of week of the date it is moved to */
+    public Optional<String> findMoveError(LocalDate date, DayOfWeek day) {
+
+        if (!isSemesterDate(date)) {
+            return Optional.of(date + " is not a teaching day of any semester");
+        }
+        if (date.getDayOfWeek() != day) {
+            return Optional.of("Day " + day + " does not match " + date + ", which is " + date.getDayOfWeek());
+        }
+        return Optional.empty();
     }
 
     public boolean isSemesterWeek(int week) {
@@ -44,6 +94,7 @@ public class SemesterCalendar {
         return week > 0 && week <= lengthInWeeks;
     }
 
+    /* Week numbers are counted in current semester, weeks of other ones are looked up by date */
     public LocalDate getWeekMonday(int weekNumber) {
 
         return startDate.plusWeeks(weekNumber - 1L);
@@ -51,8 +102,8 @@ public class SemesterCalendar {
 
     public LocalDate getWeekMonday(LocalDate anyWeekDate) {
 
-        int weekNumber = getSemesterWeekNumber(anyWeekDate);
-        return startDate.plusWeeks(weekNumber - 1L);
+        DateTable table = tableOf(anyWeekDate);
+        return table.start.plusWeeks(table.getWeekNumberOf(anyWeekDate) - 1L);
     }
 
     public LocalDate getWeekFriday(int weekNumber) {
@@ -62,13 +113,19 @@ public class SemesterCalendar {
 
     public LocalDate getWeekFriday(LocalDate anyWeekDate) {
 
-        int weekNumber = getSemesterWeekNumber(anyWeekDate);
-        return endDate.minusWeeks(lengthInWeeks - weekNumber);
+        DateTable table = tableOf(anyWeekDate);
+        return table.end.minusWeeks(table.lengthInWeeks - table.getWeekNumberOf(anyWeekDate));
     }
 
+    /* Months before the one semester starts in belong to the following year */
     public LocalDate getFirstSemesterDayOfMonth(int month) {
 
-        LocalDate firstOfMonth = LocalDate.of(startDate.getYear(), month, 1);
+        return getFirstSemesterDayOfMonth(yearMonthOf(month).atDay(1));
+    }
+
+    public LocalDate getFirstSemesterDayOfMonth(LocalDate anyMonthDate) {
+
+        LocalDate firstOfMonth = anyMonthDate.withDayOfMonth(1);
         while (!isSemesterDate(firstOfMonth)) {
             firstOfMonth = firstOfMonth.plusDays(1L);
         }
@@ -76,15 +133,14 @@ public class SemesterCalendar {
         return firstOfMonth;
     }
 
-    public LocalDate getFirstSemesterDayOfMonth(LocalDate anyMonthDate) {
+    public LocalDate getLastSemesterDayOfMonth(int month) {
 
-        return getFirstSemesterDayOfMonth(anyMonthDate.getMonthValue());
+        return getLastSemesterDayOfMonth(yearMonthOf(month).atDay(1));
     }
 
-    public LocalDate getLastSemesterDayOfMonth(int month) {
+    public LocalDate getLastSemesterDayOfMonth(LocalDate anyMonthDate) {
 
-        LocalDate lastOfMonth = LocalDate.of(startDate.getYear(), month,
-                Month.of(month).length(startDate.isLeapYear()));
+        LocalDate lastOfMonth = YearMonth.from(anyMonthDate).atEndOfMonth();
         while (!isSemesterDate(lastOfMonth)) {
             lastOfMonth = lastOfMonth.minusDays(1L);
         }
@@ -92,9 +148,10 @@ public class SemesterCalendar {
         return lastOfMonth;
     }
 
-    public LocalDate getLastSemesterDayOfMonth(LocalDate anyMonthDate) {
+    private YearMonth yearMonthOf(int month) {
 
-        return getLastSemesterDayOfMonth(anyMonthDate.getMonthValue());
+        int year = month < startDate.getMonthValue() ? startDate.getYear() + 1 : startDate.getYear();
+        return YearMonth.of(year, month);
     }
 
     public String getSemesterDescription() {
@@ -126,9 +183,7 @@ public class SemesterCalendar {
 
     public int getSemesterWeekNumber(LocalDate date) {
 
-        int dateWeekInYear = date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
-        int weekInYearBeforeSemester = startDate.minusDays(1).get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
-        return dateWeekInYear - weekInYearBeforeSemester;
+        return tableOf(date).getWeekNumberOf(date);
     }
 
     public String[] getDayShortDescription(LocalDate date) {
@@ -145,6 +200,14 @@ public class SemesterCalendar {
         return semester;
     }
 
+    public List<Semester> getSemesters() {
+
+        return tables.values()
+                .stream()
+                .map(table -> new Semester(table.start, table.end, table.lengthInWeeks))
+                .collect(Collectors.toList());
+    }
+
     @Getter
     @RequiredArgsConstructor
     public static class Semester {
@@ -155,4 +218,65 @@ public class SemesterCalendar {
 
     }
 
+    /* Week number, parity and teaching day flag of every semester date are computed once and looked up by index */
+    private static class DateTable {
+
+        private final LocalDate start;
+        private final LocalDate end;
+        private final int lengthInWeeks;
+        private final long firstDay;
+        private final long firstMonday;
+        private final int[] weekNumbers;
+        private final boolean[] teachingDays;
+
+        DateTable(LocalDate start, LocalDate end) {
+
+            this.start = start;
+            this.end = end;
+            this.lengthInWeeks = (int) ChronoUnit.WEEKS.between(start, end) + 1;
+            this.firstDay = start.toEpochDay();
+            this.firstMonday = start.minusDays(1).with(DayOfWeek.MONDAY).toEpochDay();
+            int days = (int) (end.toEpochDay() - firstDay) + 1;
+            this.weekNumbers = new int[Math.max(days, 0)];
+            this.teachingDays = new boolean[Math.max(days, 0)];
+            for (int day = 0; day < days; day++) {
+                LocalDate date = start.plusDays(day);
+                weekNumbers[day] = computeWeekNumber(date.toEpochDay());
+                teachingDays[day] = date.getDayOfWeek() != DayOfWeek.SATURDAY
+                        && date.getDayOfWeek() != DayOfWeek.SUNDAY;
+            }
+        }
+
+        boolean contains(LocalDate date) {
+
+            long index = date.toEpochDay() - firstDay;
+            return index >= 0 && index < weekNumbers.length;
+        }
+
+        boolean isTeachingDay(LocalDate date) {
+
+            return contains(date) && teachingDays[(int) (date.toEpochDay() - firstDay)];
+        }
+
+        /* Week of the day before semester start is week zero, dates outside the table are counted from it */
+        int getWeekNumberOf(LocalDate date) {
+
+            if (contains(date)) {
+                return weekNumbers[(int) (date.toEpochDay() - firstDay)];
+            }
+            return computeWeekNumber(date.toEpochDay());
+        }
+
+        boolean getWeekParityOf(LocalDate date) {
+
+            return getWeekNumberOf(date) % 2 == 0;
+        }
+
+        private int computeWeekNumber(long epochDay) {
+
+            return (int) Math.floorDiv(epochDay - firstMonday, 7);
+        }
+
+    }
+
 }
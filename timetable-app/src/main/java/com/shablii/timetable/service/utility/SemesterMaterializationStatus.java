@@ -0,0 +1,69 @@
+package com.shablii.timetable.service.utility;
+
+import lombok.*;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.*;
+
+@Component
+public class SemesterMaterializationStatus {
+
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicInteger materializedWeeks = new AtomicInteger();
+    private volatile int totalWeeks;
+    private volatile boolean ready;
+
+    public long start(int totalWeeks) {
+
+        this.ready = false;
+        this.totalWeeks = totalWeeks;
+        this.materializedWeeks.set(0);
+        return generation.incrementAndGet();
+    }
+
+    public void invalidate() {
+
+        generation.incrementAndGet();
+        this.ready = false;
+    }
+
+    public void weeksMaterialized(long generation, int weeks) {
+
+        if (isCurrent(generation)) {
+            materializedWeeks.addAndGet(weeks);
+        }
+    }
+
+    public void complete(long generation) {
+
+        if (isCurrent(generation)) {
+            this.ready = true;
+        }
+    }
+
+    public boolean isCurrent(long generation) {
+
+        return this.generation.get() == generation;
+    }
+
+    public boolean isReady() {
+
+        return ready;
+    }
+
+    public Progress getProgress() {
+
+        return new Progress(materializedWeeks.get(), totalWeeks, ready);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Progress {
+
+        private final Integer materializedWeeks;
+        private final Integer totalWeeks;
+        private final boolean ready;
+
+    }
+
+}
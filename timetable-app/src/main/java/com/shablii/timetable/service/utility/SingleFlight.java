@@ -0,0 +1,69 @@
+package com.shablii.timetable.service.utility;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/*
+ * Runs an action at most once at a time per key: keys claimed by another thread
+ * are not passed to the action, the caller waits for that thread to finish instead
+ * and fails with its exception if the action failed
+ */
+@Slf4j
+public class SingleFlight<K> {
+
+    private final ConcurrentMap<K, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    public void execute(Collection<K> keys, Consumer<List<K>> action) {
+
+        Map<K, CompletableFuture<Void>> claimed = new LinkedHashMap<>();
+        List<CompletableFuture<Void>> awaited = new ArrayList<>();
+        for (K key : keys) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            CompletableFuture<Void> existing = inFlight.putIfAbsent(key, future);
+            if (existing == null) {
+                claimed.put(key, future);
+            } else {
+                awaited.add(existing);
+            }
+        }
+
+        try {
+            if (!claimed.isEmpty()) {
+                action.accept(new ArrayList<>(claimed.keySet()));
+            }
+        } catch (RuntimeException | Error e) {
+            release(claimed, future -> future.completeExceptionally(e));
+            throw e;
+        }
+        release(claimed, future -> future.complete(null));
+
+        if (!awaited.isEmpty()) {
+            log.debug("Waiting for {} key(s) in flight", awaited.size());
+            try {
+                CompletableFuture.allOf(awaited.toArray(new CompletableFuture[0])).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+
+    private void release(Map<K, CompletableFuture<Void>> claimed, Consumer<CompletableFuture<Void>> completion) {
+
+        claimed.forEach((key, future) -> {
+            inFlight.remove(key, future);
+            completion.accept(future);
+        });
+    }
+
+    public int inFlightCount() {
+
+        return inFlight.size();
+    }
+
+}
@@ -1,11 +1,17 @@
 package com.shablii.timetable.service.utility.predicates;
 
-import com.shablii.timetable.model.Schedule;
+import com.shablii.timetable.dao.ScheduleRepository;
+import com.shablii.timetable.model.*;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.function.Predicate;
 
 public interface SchedulePredicate extends Predicate<Schedule> {
 
+    /* Rows are filtered by the query itself, each kind of predicate has one of its own */
+    List<ScheduleRow> findRows(ScheduleRepository repository, LocalDate startDate, LocalDate endDate);
+
     String getCriteria();
 
 }
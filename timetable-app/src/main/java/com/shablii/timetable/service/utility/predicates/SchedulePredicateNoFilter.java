@@ -1,8 +1,12 @@
 package com.shablii.timetable.service.utility.predicates;
 
-import com.shablii.timetable.model.Schedule;
+import com.shablii.timetable.dao.ScheduleRepository;
+import com.shablii.timetable.model.*;
 import lombok.EqualsAndHashCode;
 
+import java.time.LocalDate;
+import java.util.List;
+
 @EqualsAndHashCode
 public class SchedulePredicateNoFilter implements SchedulePredicate {
 
@@ -12,6 +16,12 @@ public class SchedulePredicateNoFilter implements SchedulePredicate {
         return true;
     }
 
+    @Override
+    public List<ScheduleRow> findRows(ScheduleRepository repository, LocalDate startDate, LocalDate endDate) {
+
+        return repository.findRowsByDateBetween(startDate, endDate);
+    }
+
     @Override
     public String getCriteria() {
 
@@ -1,9 +1,13 @@
 package com.shablii.timetable.service.utility.predicates;
 
 import com.shablii.timetable.constraints.IdValid;
-import com.shablii.timetable.model.Schedule;
+import com.shablii.timetable.dao.ScheduleRepository;
+import com.shablii.timetable.model.*;
 import lombok.*;
 
+import java.time.LocalDate;
+import java.util.List;
+
 @EqualsAndHashCode
 @RequiredArgsConstructor
 public class SchedulePredicateProfessorId implements SchedulePredicate {
@@ -17,6 +21,12 @@ public class SchedulePredicateProfessorId implements SchedulePredicate {
         return schedule.getProfessor().getId().equals(id);
     }
 
+    @Override
+    public List<ScheduleRow> findRows(ScheduleRepository repository, LocalDate startDate, LocalDate endDate) {
+
+        return repository.findRowsOfProfessorByDateBetween(startDate, endDate, id);
+    }
+
     @Override
     public String getCriteria() {
 
@@ -0,0 +1,13 @@
+-- every node polls these counters and drops its cached reference data once another node bumped one
+CREATE TABLE cache_invalidations
+(
+    cached_table VARCHAR(64) PRIMARY KEY,
+    version      BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO cache_invalidations (cached_table)
+VALUES ('auditoriums'),
+       ('courses'),
+       ('groups'),
+       ('professors'),
+       ('professors_courses');
@@ -0,0 +1,15 @@
+create sequence if not exists schedule_override_id_seq start with 1 increment
+    by 50 minvalue 1 maxvalue 9223372036854775807;
+
+CREATE TABLE schedule_overrides
+(
+    id            BIGINT PRIMARY KEY,
+    template_id   BIGINT REFERENCES schedule_templates (id) ON UPDATE CASCADE ON DELETE CASCADE,
+    origin_date   DATE,
+    on_date       DATE,
+    day           DAY_OF_WEEK,
+    period        PERIOD_ORDER,
+    auditorium_id BIGINT REFERENCES auditoriums (id) ON UPDATE CASCADE ON DELETE CASCADE,
+    professor_id  BIGINT REFERENCES professors (id) ON UPDATE CASCADE ON DELETE CASCADE,
+    CONSTRAINT schedule_overrides_template_id_origin_date_key UNIQUE (template_id, origin_date)
+);
@@ -0,0 +1,13 @@
+-- date, template and week parity lookups are served by the unique constraints of V1.3 and V1.5
+CREATE INDEX students_group_id_idx ON students (group_id);
+
+CREATE INDEX professors_courses_professor_id_courses_id_idx ON professors_courses (professor_id, courses_id);
+CREATE INDEX professors_courses_courses_id_professor_id_idx ON professors_courses (courses_id, professor_id);
+
+CREATE INDEX schedule_templates_professor_id_course_id_group_id_idx
+    ON schedule_templates (professor_id, course_id, group_id);
+
+CREATE INDEX rescheduling_options_day_period_idx ON rescheduling_options (day, period);
+
+CREATE INDEX schedule_overrides_on_date_idx ON schedule_overrides (on_date);
+CREATE INDEX schedule_overrides_origin_date_idx ON schedule_overrides (origin_date);
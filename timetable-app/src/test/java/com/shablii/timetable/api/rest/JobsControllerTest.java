@@ -0,0 +1,104 @@
+package com.shablii.timetable.api.rest;
+
+import com.shablii.timetable.config.ControllersTestConfig;
+import com.shablii.timetable.service.model.generator.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.*;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(JobsController.class)
+@Import(ControllersTestConfig.class)
+class JobsControllerTest {
+
+    private final String baseUrl = "/api/v1/timetable/jobs/";
+    private final GenerationJob job = new GenerationJob(GenerationJob.Kind.REBUILD_TIMETABLE);
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    private GenerationJobs generationJobs;
+
+    @Test
+    void rebuildTimetableShouldSubmitJobAndAcceptRequest() throws Exception {
+
+        given(generationJobs.submit(GenerationJob.Kind.REBUILD_TIMETABLE)).willReturn(job);
+
+        mvc.perform(post(baseUrl + "rebuild-timetable").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost" + baseUrl + job.getId()))
+                .andExpect(jsonPath("$.id").value(job.getId()))
+                .andExpect(jsonPath("$.state").value("QUEUED"))
+                .andExpect(jsonPath("$._links.self").isNotEmpty())
+                .andExpect(jsonPath("$._links.events").isNotEmpty());
+
+        then(generationJobs).should().submit(GenerationJob.Kind.REBUILD_TIMETABLE);
+    }
+
+    @Test
+    void refreshAllDataShouldSubmitJobAndAcceptRequest() throws Exception {
+
+        GenerationJob refresh = new GenerationJob(GenerationJob.Kind.REFRESH_ALL_DATA);
+        given(generationJobs.submit(GenerationJob.Kind.REFRESH_ALL_DATA)).willReturn(refresh);
+
+        mvc.perform(post(baseUrl + "refresh-all-data").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value(refresh.getId()))
+                .andExpect(jsonPath("$.kind").value("REFRESH_ALL_DATA"));
+
+        then(generationJobs).should().submit(GenerationJob.Kind.REFRESH_ALL_DATA);
+    }
+
+    @Test
+    void findByIdShouldReturnJobStatus() throws Exception {
+
+        job.phase("Solving timetable");
+        job.placed(90);
+        job.conflicts(10);
+        given(generationJobs.find(job.getId())).willReturn(Optional.of(job));
+
+        mvc.perform(get(baseUrl + job.getId()).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.phase").value("Solving timetable"))
+                .andExpect(jsonPath("$.placed").value(90))
+                .andExpect(jsonPath("$.conflicts").value(10))
+                .andExpect(jsonPath("$.finished").isEmpty());
+    }
+
+    @Test
+    void findByIdShouldReturnNotFoundGivenUnknownJob() throws Exception {
+
+        given(generationJobs.find(anyString())).willReturn(Optional.empty());
+
+        mvc.perform(get(baseUrl + "unknown").accept(MediaType.APPLICATION_JSON)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void streamProgressShouldSendStatusUntilJobIsFinished() throws Exception {
+
+        given(generationJobs.find(job.getId())).willReturn(Optional.of(job));
+
+        MvcResult mvcResult = mvc.perform(get(baseUrl + job.getId() + "/events").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        job.phase("Saving timetable");
+        job.complete();
+
+        String content = mvcResult.getResponse().getContentAsString();
+        assertThat(content).containsSubsequence("event:progress", "\"state\":\"QUEUED\"", "event:progress",
+                "\"phase\":\"Saving timetable\"", "event:progress", "\"state\":\"COMPLETED\"");
+    }
+
+}
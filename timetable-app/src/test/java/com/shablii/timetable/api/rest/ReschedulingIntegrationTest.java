@@ -0,0 +1,99 @@
+package com.shablii.timetable.api.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shablii.timetable.model.*;
+import com.shablii.timetable.service.TimetableFacade;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReschedulingIntegrationTest {
+
+    private final String baseUrl = "/api/v1/timetable/schedules/";
+    private final LocalDate date = LocalDate.of(2020, 9, 15);
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private TimetableFacade timetableFacade;
+
+    @Test
+    void rescheduleShouldReturnConflictAndKeepScheduleIfTargetSlotIsTaken() throws Exception {
+
+        List<Schedule> schedules = timetableFacade.getScheduleInRange(date, date);
+        Schedule moving = schedules.get(0);
+        Schedule taken = schedules.stream()
+                .filter(schedule -> schedule.getPeriod() != moving.getPeriod())
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+        Period original = moving.getPeriod();
+        moving.setPeriod(taken.getPeriod());
+        moving.setAuditorium(taken.getAuditorium());
+
+        mvc.perform(put(baseUrl + moving.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(moving)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errors").isNotEmpty());
+
+        assertThat(timetableFacade.getSchedule(moving.getId())).map(Schedule::getPeriod).contains(original);
+    }
+
+    @Test
+    void rescheduleAllShouldSwapSlotsOfTwoSchedules() throws Exception {
+
+        List<Schedule> schedules = timetableFacade.getScheduleInRange(date, date);
+        Schedule[] pair = findSwappable(schedules);
+        Schedule first = new Schedule(pair[0]);
+        Schedule second = new Schedule(pair[1]);
+        first.setPeriod(pair[1].getPeriod());
+        first.setAuditorium(pair[1].getAuditorium());
+        second.setPeriod(pair[0].getPeriod());
+        second.setAuditorium(pair[0].getAuditorium());
+
+        mvc.perform(put(baseUrl + "batch").contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(Arrays.asList(first, second))))
+                .andExpect(status().isOk());
+
+        assertThat(timetableFacade.getSchedule(first.getId())).map(Schedule::getPeriod).contains(pair[1].getPeriod());
+        assertThat(timetableFacade.getSchedule(second.getId())).map(Schedule::getPeriod).contains(pair[0].getPeriod());
+    }
+
+    /* Two lessons whose groups and professors are both free in the period of the other lesson */
+    private static Schedule[] findSwappable(List<Schedule> schedules) {
+
+        for (Schedule first : schedules) {
+            for (Schedule second : schedules) {
+                if (first.getPeriod() != second.getPeriod() && isFree(schedules, first, second) && isFree(schedules,
+                        second, first)) {
+                    return new Schedule[] { first, second };
+                }
+            }
+        }
+        throw new IllegalStateException("Generated timetable has no swappable lessons");
+    }
+
+    private static boolean isFree(List<Schedule> schedules, Schedule moving, Schedule vacated) {
+
+        return schedules.stream()
+                .filter(schedule -> schedule != vacated && schedule.getPeriod() == vacated.getPeriod())
+                .noneMatch(schedule -> schedule.getGroup().equals(moving.getGroup()) || schedule.getProfessor()
+                        .equals(moving.getProfessor()));
+    }
+
+}
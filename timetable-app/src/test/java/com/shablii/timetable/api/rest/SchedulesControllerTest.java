@@ -5,23 +5,29 @@ import com.shablii.timetable.config.ControllersTestConfig;
 import com.shablii.timetable.exceptions.*;
 import com.shablii.timetable.model.Period;
 import com.shablii.timetable.model.*;
-import com.shablii.timetable.service.TimetableFacade;
+import com.shablii.timetable.service.*;
 import com.shablii.timetable.service.utility.predicates.*;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.*;
+import org.springframework.transaction.TransactionSystemException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 
+import javax.persistence.RollbackException;
 import javax.validation.ConstraintViolationException;
+import java.sql.SQLException;
 import java.time.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -32,6 +38,7 @@ class SchedulesControllerTest {
 
     private final String baseUrl = "/api/v1/timetable/schedules/";
     private Schedule schedule;
+    private ScheduleRow row;
 
     @Autowired
     private MockMvc mvc;
@@ -48,8 +55,9 @@ class SchedulesControllerTest {
         Professor professor = new Professor(5L, "professor", "professor");
         ScheduleTemplate template = new ScheduleTemplate(6L, true, DayOfWeek.MONDAY, Period.FIRST, auditorium, course,
                 group, professor);
-        this.schedule = new Schedule(template, LocalDate.MAX);
+        this.schedule = new Schedule(template, LocalDate.of(2020, 9, 7));
         schedule.setId(1L);
+        this.row = new ScheduleRow(schedule);
     }
 
     @Test
@@ -73,8 +81,8 @@ class SchedulesControllerTest {
     @Test
     void findByDateShouldRequestAuditoriumScheduleFromServiceIfAuditoriumIdProvided() throws Exception {
 
-        given(timetableFacade.getScheduleFor(any(SchedulePredicate.class), any(LocalDate.class),
-                any(LocalDate.class))).willReturn(Collections.singletonList(schedule));
+        given(timetableFacade.getScheduleRowsFor(any(SchedulePredicate.class), any(LocalDate.class),
+                any(LocalDate.class))).willReturn(Collections.singletonList(row));
         SchedulePredicate predicate = new SchedulePredicateAuditoriumId(schedule.getAuditorium().getId());
 
         mvc.perform(get(baseUrl + "date").accept(MediaType.APPLICATION_JSON)
@@ -85,25 +93,23 @@ class SchedulesControllerTest {
                 .andExpect(jsonPath("$._embedded.scheduleList[0].date").value(schedule.getDate().toString()))
                 .andExpect(jsonPath("$._embedded.scheduleList[0].day").value(schedule.getDay().toString()))
                 .andExpect(jsonPath("$._embedded.scheduleList[0].period").value(schedule.getPeriod().name()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].auditorium").value(schedule.getAuditorium()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].course").value(schedule.getCourse()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].group").value(schedule.getGroup()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.id").value(schedule.getProfessor().getId()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.firstName").value(
-                        schedule.getProfessor().getFirstName()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.lastName").value(
-                        schedule.getProfessor().getLastName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].auditoriumName").value(row.getAuditoriumName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].courseName").value(row.getCourseName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].groupName").value(row.getGroupName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professorId").value(row.getProfessorId()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professorName").value(row.getProfessorName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professor").doesNotExist())
                 .andExpect(jsonPath("$._embedded.scheduleList[0]._links").isNotEmpty())
                 .andExpect(jsonPath("$._links.self").isNotEmpty());
 
-        then(timetableFacade).should().getScheduleFor(predicate, LocalDate.MAX, LocalDate.MAX);
+        then(timetableFacade).should().getScheduleRowsFor(predicate, LocalDate.MAX, LocalDate.MAX);
     }
 
     @Test
     void findByDateShouldRequestCourseScheduleFromServiceIfCourseIdProvided() throws Exception {
 
-        given(timetableFacade.getScheduleFor(any(SchedulePredicate.class), any(LocalDate.class),
-                any(LocalDate.class))).willReturn(Collections.singletonList(schedule));
+        given(timetableFacade.getScheduleRowsFor(any(SchedulePredicate.class), any(LocalDate.class),
+                any(LocalDate.class))).willReturn(Collections.singletonList(row));
         SchedulePredicate predicate = new SchedulePredicateCourseId(schedule.getCourse().getId());
 
         mvc.perform(get(baseUrl + "date").accept(MediaType.APPLICATION_JSON)
@@ -114,25 +120,23 @@ class SchedulesControllerTest {
                 .andExpect(jsonPath("$._embedded.scheduleList[0].date").value(schedule.getDate().toString()))
                 .andExpect(jsonPath("$._embedded.scheduleList[0].day").value(schedule.getDay().toString()))
                 .andExpect(jsonPath("$._embedded.scheduleList[0].period").value(schedule.getPeriod().name()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].auditorium").value(schedule.getAuditorium()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].course").value(schedule.getCourse()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].group").value(schedule.getGroup()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.id").value(schedule.getProfessor().getId()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.firstName").value(
-                        schedule.getProfessor().getFirstName()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.lastName").value(
-                        schedule.getProfessor().getLastName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].auditoriumName").value(row.getAuditoriumName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].courseName").value(row.getCourseName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].groupName").value(row.getGroupName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professorId").value(row.getProfessorId()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professorName").value(row.getProfessorName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professor").doesNotExist())
                 .andExpect(jsonPath("$._embedded.scheduleList[0]._links").isNotEmpty())
                 .andExpect(jsonPath("$._links.self").isNotEmpty());
 
-        then(timetableFacade).should().getScheduleFor(predicate, LocalDate.MAX, LocalDate.MAX);
+        then(timetableFacade).should().getScheduleRowsFor(predicate, LocalDate.MAX, LocalDate.MAX);
     }
 
     @Test
     void findByDateShouldRequestGroupScheduleFromServiceIfGroupIdProvided() throws Exception {
 
-        given(timetableFacade.getScheduleFor(any(SchedulePredicate.class), any(LocalDate.class),
-                any(LocalDate.class))).willReturn(Collections.singletonList(schedule));
+        given(timetableFacade.getScheduleRowsFor(any(SchedulePredicate.class), any(LocalDate.class),
+                any(LocalDate.class))).willReturn(Collections.singletonList(row));
         SchedulePredicate predicate = new SchedulePredicateGroupId(schedule.getGroup().getId());
 
         mvc.perform(get(baseUrl + "date").accept(MediaType.APPLICATION_JSON)
@@ -143,25 +147,23 @@ class SchedulesControllerTest {
                 .andExpect(jsonPath("$._embedded.scheduleList[0].date").value(schedule.getDate().toString()))
                 .andExpect(jsonPath("$._embedded.scheduleList[0].day").value(schedule.getDay().toString()))
                 .andExpect(jsonPath("$._embedded.scheduleList[0].period").value(schedule.getPeriod().name()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].auditorium").value(schedule.getAuditorium()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].course").value(schedule.getCourse()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].group").value(schedule.getGroup()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.id").value(schedule.getProfessor().getId()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.firstName").value(
-                        schedule.getProfessor().getFirstName()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.lastName").value(
-                        schedule.getProfessor().getLastName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].auditoriumName").value(row.getAuditoriumName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].courseName").value(row.getCourseName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].groupName").value(row.getGroupName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professorId").value(row.getProfessorId()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professorName").value(row.getProfessorName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professor").doesNotExist())
                 .andExpect(jsonPath("$._embedded.scheduleList[0]._links").isNotEmpty())
                 .andExpect(jsonPath("$._links.self").isNotEmpty());
 
-        then(timetableFacade).should().getScheduleFor(predicate, LocalDate.MAX, LocalDate.MAX);
+        then(timetableFacade).should().getScheduleRowsFor(predicate, LocalDate.MAX, LocalDate.MAX);
     }
 
     @Test
     void findByDateShouldRequestProfessorScheduleFromServiceIfProfessorIdProvided() throws Exception {
 
-        given(timetableFacade.getScheduleFor(any(SchedulePredicate.class), any(LocalDate.class),
-                any(LocalDate.class))).willReturn(Collections.singletonList(schedule));
+        given(timetableFacade.getScheduleRowsFor(any(SchedulePredicate.class), any(LocalDate.class),
+                any(LocalDate.class))).willReturn(Collections.singletonList(row));
         SchedulePredicate predicate = new SchedulePredicateProfessorId(schedule.getProfessor().getId());
 
         mvc.perform(get(baseUrl + "date").accept(MediaType.APPLICATION_JSON)
@@ -172,25 +174,23 @@ class SchedulesControllerTest {
                 .andExpect(jsonPath("$._embedded.scheduleList[0].date").value(schedule.getDate().toString()))
                 .andExpect(jsonPath("$._embedded.scheduleList[0].day").value(schedule.getDay().toString()))
                 .andExpect(jsonPath("$._embedded.scheduleList[0].period").value(schedule.getPeriod().name()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].auditorium").value(schedule.getAuditorium()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].course").value(schedule.getCourse()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].group").value(schedule.getGroup()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.id").value(schedule.getProfessor().getId()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.firstName").value(
-                        schedule.getProfessor().getFirstName()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.lastName").value(
-                        schedule.getProfessor().getLastName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].auditoriumName").value(row.getAuditoriumName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].courseName").value(row.getCourseName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].groupName").value(row.getGroupName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professorId").value(row.getProfessorId()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professorName").value(row.getProfessorName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professor").doesNotExist())
                 .andExpect(jsonPath("$._embedded.scheduleList[0]._links").isNotEmpty())
                 .andExpect(jsonPath("$._links.self").isNotEmpty());
 
-        then(timetableFacade).should().getScheduleFor(predicate, LocalDate.MAX, LocalDate.MAX);
+        then(timetableFacade).should().getScheduleRowsFor(predicate, LocalDate.MAX, LocalDate.MAX);
     }
 
     @Test
     void findByDateShouldRequestUnfilteredScheduleFromServiceIfNoIdProvided() throws Exception {
 
-        given(timetableFacade.getScheduleFor(any(SchedulePredicate.class), any(LocalDate.class),
-                any(LocalDate.class))).willReturn(Collections.singletonList(schedule));
+        given(timetableFacade.getScheduleRowsFor(any(SchedulePredicate.class), any(LocalDate.class),
+                any(LocalDate.class))).willReturn(Collections.singletonList(row));
         SchedulePredicate predicate = new SchedulePredicateNoFilter();
 
         mvc.perform(get(baseUrl + "date").accept(MediaType.APPLICATION_JSON).param("date", LocalDate.MAX.toString()))
@@ -199,18 +199,16 @@ class SchedulesControllerTest {
                 .andExpect(jsonPath("$._embedded.scheduleList[0].date").value(schedule.getDate().toString()))
                 .andExpect(jsonPath("$._embedded.scheduleList[0].day").value(schedule.getDay().toString()))
                 .andExpect(jsonPath("$._embedded.scheduleList[0].period").value(schedule.getPeriod().name()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].auditorium").value(schedule.getAuditorium()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].course").value(schedule.getCourse()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].group").value(schedule.getGroup()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.id").value(schedule.getProfessor().getId()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.firstName").value(
-                        schedule.getProfessor().getFirstName()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.lastName").value(
-                        schedule.getProfessor().getLastName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].auditoriumName").value(row.getAuditoriumName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].courseName").value(row.getCourseName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].groupName").value(row.getGroupName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professorId").value(row.getProfessorId()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professorName").value(row.getProfessorName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professor").doesNotExist())
                 .andExpect(jsonPath("$._embedded.scheduleList[0]._links").isNotEmpty())
                 .andExpect(jsonPath("$._links.self").isNotEmpty());
 
-        then(timetableFacade).should().getScheduleFor(predicate, LocalDate.MAX, LocalDate.MAX);
+        then(timetableFacade).should().getScheduleRowsFor(predicate, LocalDate.MAX, LocalDate.MAX);
     }
 
     @Test
@@ -233,8 +231,8 @@ class SchedulesControllerTest {
     @Test
     void findByWeekShouldRequestAuditoriumScheduleFromServiceIfAuditoriumIdProvided() throws Exception {
 
-        given(timetableFacade.getScheduleFor(any(SchedulePredicate.class), any(LocalDate.class),
-                any(LocalDate.class))).willReturn(Collections.singletonList(schedule));
+        given(timetableFacade.getScheduleRowsFor(any(SchedulePredicate.class), any(LocalDate.class),
+                any(LocalDate.class))).willReturn(Collections.singletonList(row));
         SchedulePredicate predicate = new SchedulePredicateAuditoriumId(schedule.getAuditorium().getId());
         LocalDate monday = LocalDate.of(2020, 9, 7);
         LocalDate friday = LocalDate.of(2020, 9, 11);
@@ -247,25 +245,23 @@ class SchedulesControllerTest {
                 .andExpect(jsonPath("$._embedded.scheduleList[0].date").value(schedule.getDate().toString()))
                 .andExpect(jsonPath("$._embedded.scheduleList[0].day").value(schedule.getDay().toString()))
                 .andExpect(jsonPath("$._embedded.scheduleList[0].period").value(schedule.getPeriod().name()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].auditorium").value(schedule.getAuditorium()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].course").value(schedule.getCourse()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].group").value(schedule.getGroup()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.id").value(schedule.getProfessor().getId()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.firstName").value(
-                        schedule.getProfessor().getFirstName()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.lastName").value(
-                        schedule.getProfessor().getLastName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].auditoriumName").value(row.getAuditoriumName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].courseName").value(row.getCourseName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].groupName").value(row.getGroupName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professorId").value(row.getProfessorId()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professorName").value(row.getProfessorName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professor").doesNotExist())
                 .andExpect(jsonPath("$._embedded.scheduleList[0]._links").isNotEmpty())
                 .andExpect(jsonPath("$._links.self").isNotEmpty());
 
-        then(timetableFacade).should().getScheduleFor(predicate, monday, friday);
+        then(timetableFacade).should().getScheduleRowsFor(predicate, monday, friday);
     }
 
     @Test
     void findByWeekShouldRequestCourseScheduleFromServiceIfCourseIdProvided() throws Exception {
 
-        given(timetableFacade.getScheduleFor(any(SchedulePredicate.class), any(LocalDate.class),
-                any(LocalDate.class))).willReturn(Collections.singletonList(schedule));
+        given(timetableFacade.getScheduleRowsFor(any(SchedulePredicate.class), any(LocalDate.class),
+                any(LocalDate.class))).willReturn(Collections.singletonList(row));
         SchedulePredicate predicate = new SchedulePredicateCourseId(schedule.getCourse().getId());
         LocalDate monday = LocalDate.of(2020, 9, 7);
         LocalDate friday = LocalDate.of(2020, 9, 11);
@@ -278,25 +274,23 @@ class SchedulesControllerTest {
                 .andExpect(jsonPath("$._embedded.scheduleList[0].date").value(schedule.getDate().toString()))
                 .andExpect(jsonPath("$._embedded.scheduleList[0].day").value(schedule.getDay().toString()))
                 .andExpect(jsonPath("$._embedded.scheduleList[0].period").value(schedule.getPeriod().name()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].auditorium").value(schedule.getAuditorium()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].course").value(schedule.getCourse()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].group").value(schedule.getGroup()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.id").value(schedule.getProfessor().getId()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.firstName").value(
-                        schedule.getProfessor().getFirstName()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.lastName").value(
-                        schedule.getProfessor().getLastName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].auditoriumName").value(row.getAuditoriumName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].courseName").value(row.getCourseName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].groupName").value(row.getGroupName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professorId").value(row.getProfessorId()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professorName").value(row.getProfessorName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professor").doesNotExist())
                 .andExpect(jsonPath("$._embedded.scheduleList[0]._links").isNotEmpty())
                 .andExpect(jsonPath("$._links.self").isNotEmpty());
 
-        then(timetableFacade).should().getScheduleFor(predicate, monday, friday);
+        then(timetableFacade).should().getScheduleRowsFor(predicate, monday, friday);
     }
 
     @Test
     void findByWeekShouldRequestGroupScheduleFromServiceIfGroupIdProvided() throws Exception {
 
-        given(timetableFacade.getScheduleFor(any(SchedulePredicate.class), any(LocalDate.class),
-                any(LocalDate.class))).willReturn(Collections.singletonList(schedule));
+        given(timetableFacade.getScheduleRowsFor(any(SchedulePredicate.class), any(LocalDate.class),
+                any(LocalDate.class))).willReturn(Collections.singletonList(row));
         SchedulePredicate predicate = new SchedulePredicateGroupId(schedule.getGroup().getId());
         LocalDate monday = LocalDate.of(2020, 9, 7);
         LocalDate friday = LocalDate.of(2020, 9, 11);
@@ -309,25 +303,23 @@ class SchedulesControllerTest {
                 .andExpect(jsonPath("$._embedded.scheduleList[0].date").value(schedule.getDate().toString()))
                 .andExpect(jsonPath("$._embedded.scheduleList[0].day").value(schedule.getDay().toString()))
                 .andExpect(jsonPath("$._embedded.scheduleList[0].period").value(schedule.getPeriod().name()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].auditorium").value(schedule.getAuditorium()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].course").value(schedule.getCourse()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].group").value(schedule.getGroup()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.id").value(schedule.getProfessor().getId()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.firstName").value(
-                        schedule.getProfessor().getFirstName()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.lastName").value(
-                        schedule.getProfessor().getLastName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].auditoriumName").value(row.getAuditoriumName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].courseName").value(row.getCourseName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].groupName").value(row.getGroupName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professorId").value(row.getProfessorId()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professorName").value(row.getProfessorName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professor").doesNotExist())
                 .andExpect(jsonPath("$._embedded.scheduleList[0]._links").isNotEmpty())
                 .andExpect(jsonPath("$._links.self").isNotEmpty());
 
-        then(timetableFacade).should().getScheduleFor(predicate, monday, friday);
+        then(timetableFacade).should().getScheduleRowsFor(predicate, monday, friday);
     }
 
     @Test
     void findByWeekShouldRequestProfessorScheduleFromServiceIfProfessorIdProvided() throws Exception {
 
-        given(timetableFacade.getScheduleFor(any(SchedulePredicate.class), any(LocalDate.class),
-                any(LocalDate.class))).willReturn(Collections.singletonList(schedule));
+        given(timetableFacade.getScheduleRowsFor(any(SchedulePredicate.class), any(LocalDate.class),
+                any(LocalDate.class))).willReturn(Collections.singletonList(row));
         SchedulePredicate predicate = new SchedulePredicateProfessorId(schedule.getProfessor().getId());
         LocalDate monday = LocalDate.of(2020, 9, 7);
         LocalDate friday = LocalDate.of(2020, 9, 11);
@@ -340,25 +332,23 @@ class SchedulesControllerTest {
                 .andExpect(jsonPath("$._embedded.scheduleList[0].date").value(schedule.getDate().toString()))
                 .andExpect(jsonPath("$._embedded.scheduleList[0].day").value(schedule.getDay().toString()))
                 .andExpect(jsonPath("$._embedded.scheduleList[0].period").value(schedule.getPeriod().name()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].auditorium").value(schedule.getAuditorium()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].course").value(schedule.getCourse()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].group").value(schedule.getGroup()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.id").value(schedule.getProfessor().getId()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.firstName").value(
-                        schedule.getProfessor().getFirstName()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.lastName").value(
-                        schedule.getProfessor().getLastName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].auditoriumName").value(row.getAuditoriumName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].courseName").value(row.getCourseName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].groupName").value(row.getGroupName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professorId").value(row.getProfessorId()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professorName").value(row.getProfessorName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professor").doesNotExist())
                 .andExpect(jsonPath("$._embedded.scheduleList[0]._links").isNotEmpty())
                 .andExpect(jsonPath("$._links.self").isNotEmpty());
 
-        then(timetableFacade).should().getScheduleFor(predicate, monday, friday);
+        then(timetableFacade).should().getScheduleRowsFor(predicate, monday, friday);
     }
 
     @Test
     void findByWeekShouldRequestUnfilteredScheduleFromServiceIfNoIdProvided() throws Exception {
 
-        given(timetableFacade.getScheduleFor(any(SchedulePredicate.class), any(LocalDate.class),
-                any(LocalDate.class))).willReturn(Collections.singletonList(schedule));
+        given(timetableFacade.getScheduleRowsFor(any(SchedulePredicate.class), any(LocalDate.class),
+                any(LocalDate.class))).willReturn(Collections.singletonList(row));
         SchedulePredicate predicate = new SchedulePredicateNoFilter();
         LocalDate monday = LocalDate.of(2020, 9, 7);
         LocalDate friday = LocalDate.of(2020, 9, 11);
@@ -369,18 +359,16 @@ class SchedulesControllerTest {
                 .andExpect(jsonPath("$._embedded.scheduleList[0].date").value(schedule.getDate().toString()))
                 .andExpect(jsonPath("$._embedded.scheduleList[0].day").value(schedule.getDay().toString()))
                 .andExpect(jsonPath("$._embedded.scheduleList[0].period").value(schedule.getPeriod().name()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].auditorium").value(schedule.getAuditorium()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].course").value(schedule.getCourse()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].group").value(schedule.getGroup()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.id").value(schedule.getProfessor().getId()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.firstName").value(
-                        schedule.getProfessor().getFirstName()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.lastName").value(
-                        schedule.getProfessor().getLastName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].auditoriumName").value(row.getAuditoriumName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].courseName").value(row.getCourseName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].groupName").value(row.getGroupName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professorId").value(row.getProfessorId()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professorName").value(row.getProfessorName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professor").doesNotExist())
                 .andExpect(jsonPath("$._embedded.scheduleList[0]._links").isNotEmpty())
                 .andExpect(jsonPath("$._links.self").isNotEmpty());
 
-        then(timetableFacade).should().getScheduleFor(predicate, monday, friday);
+        then(timetableFacade).should().getScheduleRowsFor(predicate, monday, friday);
     }
 
     @Test
@@ -404,8 +392,8 @@ class SchedulesControllerTest {
     @Test
     void findByMonthShouldRequestAuditoriumScheduleFromServiceIfAuditoriumIdProvided() throws Exception {
 
-        given(timetableFacade.getScheduleFor(any(SchedulePredicate.class), any(LocalDate.class),
-                any(LocalDate.class))).willReturn(Collections.singletonList(schedule));
+        given(timetableFacade.getScheduleRowsFor(any(SchedulePredicate.class), any(LocalDate.class),
+                any(LocalDate.class))).willReturn(Collections.singletonList(row));
         SchedulePredicate predicate = new SchedulePredicateAuditoriumId(schedule.getAuditorium().getId());
         LocalDate firstSemesterDateOfMonth = LocalDate.of(2020, 9, 7);
         LocalDate lastSemesterDateOfMonth = LocalDate.of(2020, 9, 30);
@@ -418,25 +406,23 @@ class SchedulesControllerTest {
                 .andExpect(jsonPath("$._embedded.scheduleList[0].date").value(schedule.getDate().toString()))
                 .andExpect(jsonPath("$._embedded.scheduleList[0].day").value(schedule.getDay().toString()))
                 .andExpect(jsonPath("$._embedded.scheduleList[0].period").value(schedule.getPeriod().name()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].auditorium").value(schedule.getAuditorium()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].course").value(schedule.getCourse()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].group").value(schedule.getGroup()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.id").value(schedule.getProfessor().getId()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.firstName").value(
-                        schedule.getProfessor().getFirstName()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.lastName").value(
-                        schedule.getProfessor().getLastName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].auditoriumName").value(row.getAuditoriumName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].courseName").value(row.getCourseName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].groupName").value(row.getGroupName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professorId").value(row.getProfessorId()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professorName").value(row.getProfessorName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professor").doesNotExist())
                 .andExpect(jsonPath("$._embedded.scheduleList[0]._links").isNotEmpty())
                 .andExpect(jsonPath("$._links.self").isNotEmpty());
 
-        then(timetableFacade).should().getScheduleFor(predicate, firstSemesterDateOfMonth, lastSemesterDateOfMonth);
+        then(timetableFacade).should().getScheduleRowsFor(predicate, firstSemesterDateOfMonth, lastSemesterDateOfMonth);
     }
 
     @Test
     void findByMonthShouldRequestCourseScheduleFromServiceIfCourseIdProvided() throws Exception {
 
-        given(timetableFacade.getScheduleFor(any(SchedulePredicate.class), any(LocalDate.class),
-                any(LocalDate.class))).willReturn(Collections.singletonList(schedule));
+        given(timetableFacade.getScheduleRowsFor(any(SchedulePredicate.class), any(LocalDate.class),
+                any(LocalDate.class))).willReturn(Collections.singletonList(row));
         SchedulePredicate predicate = new SchedulePredicateCourseId(schedule.getCourse().getId());
         LocalDate firstSemesterDateOfMonth = LocalDate.of(2020, 9, 7);
         LocalDate lastSemesterDateOfMonth = LocalDate.of(2020, 9, 30);
@@ -449,25 +435,23 @@ class SchedulesControllerTest {
                 .andExpect(jsonPath("$._embedded.scheduleList[0].date").value(schedule.getDate().toString()))
                 .andExpect(jsonPath("$._embedded.scheduleList[0].day").value(schedule.getDay().toString()))
                 .andExpect(jsonPath("$._embedded.scheduleList[0].period").value(schedule.getPeriod().name()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].auditorium").value(schedule.getAuditorium()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].course").value(schedule.getCourse()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].group").value(schedule.getGroup()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.id").value(schedule.getProfessor().getId()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.firstName").value(
-                        schedule.getProfessor().getFirstName()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.lastName").value(
-                        schedule.getProfessor().getLastName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].auditoriumName").value(row.getAuditoriumName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].courseName").value(row.getCourseName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].groupName").value(row.getGroupName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professorId").value(row.getProfessorId()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professorName").value(row.getProfessorName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professor").doesNotExist())
                 .andExpect(jsonPath("$._embedded.scheduleList[0]._links").isNotEmpty())
                 .andExpect(jsonPath("$._links.self").isNotEmpty());
 
-        then(timetableFacade).should().getScheduleFor(predicate, firstSemesterDateOfMonth, lastSemesterDateOfMonth);
+        then(timetableFacade).should().getScheduleRowsFor(predicate, firstSemesterDateOfMonth, lastSemesterDateOfMonth);
     }
 
     @Test
     void findByMonthShouldRequestGroupScheduleFromServiceIfGroupIdProvided() throws Exception {
 
-        given(timetableFacade.getScheduleFor(any(SchedulePredicate.class), any(LocalDate.class),
-                any(LocalDate.class))).willReturn(Collections.singletonList(schedule));
+        given(timetableFacade.getScheduleRowsFor(any(SchedulePredicate.class), any(LocalDate.class),
+                any(LocalDate.class))).willReturn(Collections.singletonList(row));
         SchedulePredicate predicate = new SchedulePredicateGroupId(schedule.getGroup().getId());
         LocalDate firstSemesterDateOfMonth = LocalDate.of(2020, 9, 7);
         LocalDate lastSemesterDateOfMonth = LocalDate.of(2020, 9, 30);
@@ -480,25 +464,23 @@ class SchedulesControllerTest {
                 .andExpect(jsonPath("$._embedded.scheduleList[0].date").value(schedule.getDate().toString()))
                 .andExpect(jsonPath("$._embedded.scheduleList[0].day").value(schedule.getDay().toString()))
                 .andExpect(jsonPath("$._embedded.scheduleList[0].period").value(schedule.getPeriod().name()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].auditorium").value(schedule.getAuditorium()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].course").value(schedule.getCourse()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].group").value(schedule.getGroup()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.id").value(schedule.getProfessor().getId()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.firstName").value(
-                        schedule.getProfessor().getFirstName()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.lastName").value(
-                        schedule.getProfessor().getLastName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].auditoriumName").value(row.getAuditoriumName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].courseName").value(row.getCourseName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].groupName").value(row.getGroupName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professorId").value(row.getProfessorId()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professorName").value(row.getProfessorName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professor").doesNotExist())
                 .andExpect(jsonPath("$._embedded.scheduleList[0]._links").isNotEmpty())
                 .andExpect(jsonPath("$._links.self").isNotEmpty());
 
-        then(timetableFacade).should().getScheduleFor(predicate, firstSemesterDateOfMonth, lastSemesterDateOfMonth);
+        then(timetableFacade).should().getScheduleRowsFor(predicate, firstSemesterDateOfMonth, lastSemesterDateOfMonth);
     }
 
     @Test
     void findByMonthShouldRequestProfessorScheduleFromServiceIfProfessorIdProvided() throws Exception {
 
-        given(timetableFacade.getScheduleFor(any(SchedulePredicate.class), any(LocalDate.class),
-                any(LocalDate.class))).willReturn(Collections.singletonList(schedule));
+        given(timetableFacade.getScheduleRowsFor(any(SchedulePredicate.class), any(LocalDate.class),
+                any(LocalDate.class))).willReturn(Collections.singletonList(row));
         SchedulePredicate predicate = new SchedulePredicateProfessorId(schedule.getProfessor().getId());
         LocalDate firstSemesterDateOfMonth = LocalDate.of(2020, 9, 7);
         LocalDate lastSemesterDateOfMonth = LocalDate.of(2020, 9, 30);
@@ -511,25 +493,23 @@ class SchedulesControllerTest {
                 .andExpect(jsonPath("$._embedded.scheduleList[0].date").value(schedule.getDate().toString()))
                 .andExpect(jsonPath("$._embedded.scheduleList[0].day").value(schedule.getDay().toString()))
                 .andExpect(jsonPath("$._embedded.scheduleList[0].period").value(schedule.getPeriod().name()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].auditorium").value(schedule.getAuditorium()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].course").value(schedule.getCourse()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].group").value(schedule.getGroup()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.id").value(schedule.getProfessor().getId()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.firstName").value(
-                        schedule.getProfessor().getFirstName()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.lastName").value(
-                        schedule.getProfessor().getLastName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].auditoriumName").value(row.getAuditoriumName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].courseName").value(row.getCourseName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].groupName").value(row.getGroupName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professorId").value(row.getProfessorId()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professorName").value(row.getProfessorName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professor").doesNotExist())
                 .andExpect(jsonPath("$._embedded.scheduleList[0]._links").isNotEmpty())
                 .andExpect(jsonPath("$._links.self").isNotEmpty());
 
-        then(timetableFacade).should().getScheduleFor(predicate, firstSemesterDateOfMonth, lastSemesterDateOfMonth);
+        then(timetableFacade).should().getScheduleRowsFor(predicate, firstSemesterDateOfMonth, lastSemesterDateOfMonth);
     }
 
     @Test
     void findByMonthShouldRequestUnfilteredScheduleFromServiceIfNoIdProvided() throws Exception {
 
-        given(timetableFacade.getScheduleFor(any(SchedulePredicate.class), any(LocalDate.class),
-                any(LocalDate.class))).willReturn(Collections.singletonList(schedule));
+        given(timetableFacade.getScheduleRowsFor(any(SchedulePredicate.class), any(LocalDate.class),
+                any(LocalDate.class))).willReturn(Collections.singletonList(row));
         SchedulePredicate predicate = new SchedulePredicateNoFilter();
         LocalDate firstSemesterDateOfMonth = LocalDate.of(2020, 9, 7);
         LocalDate lastSemesterDateOfMonth = LocalDate.of(2020, 9, 30);
@@ -540,18 +520,16 @@ class SchedulesControllerTest {
                 .andExpect(jsonPath("$._embedded.scheduleList[0].date").value(schedule.getDate().toString()))
                 .andExpect(jsonPath("$._embedded.scheduleList[0].day").value(schedule.getDay().toString()))
                 .andExpect(jsonPath("$._embedded.scheduleList[0].period").value(schedule.getPeriod().name()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].auditorium").value(schedule.getAuditorium()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].course").value(schedule.getCourse()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].group").value(schedule.getGroup()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.id").value(schedule.getProfessor().getId()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.firstName").value(
-                        schedule.getProfessor().getFirstName()))
-                .andExpect(jsonPath("$._embedded.scheduleList[0].professor.lastName").value(
-                        schedule.getProfessor().getLastName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].auditoriumName").value(row.getAuditoriumName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].courseName").value(row.getCourseName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].groupName").value(row.getGroupName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professorId").value(row.getProfessorId()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professorName").value(row.getProfessorName()))
+                .andExpect(jsonPath("$._embedded.scheduleList[0].professor").doesNotExist())
                 .andExpect(jsonPath("$._embedded.scheduleList[0]._links").isNotEmpty())
                 .andExpect(jsonPath("$._links.self").isNotEmpty());
 
-        then(timetableFacade).should().getScheduleFor(predicate, firstSemesterDateOfMonth, lastSemesterDateOfMonth);
+        then(timetableFacade).should().getScheduleRowsFor(predicate, firstSemesterDateOfMonth, lastSemesterDateOfMonth);
     }
 
     @Test
@@ -612,6 +590,45 @@ class SchedulesControllerTest {
         then(timetableFacade).should().getSchedule(schedule.getId());
     }
 
+    @Test
+    void rescheduleAllShouldValidateAndReturnErrorsIfPayloadEmpty() throws Exception {
+
+        mvc.perform(put(baseUrl + "batch").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").isNotEmpty())
+                .andExpect(jsonPath("$.errors").isNotEmpty());
+
+        then(timetableFacade).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void rescheduleAllShouldRequestServiceToApplyAllMoves() throws Exception {
+
+        String payload = new ObjectMapper().writeValueAsString(Collections.singletonList(schedule));
+        given(timetableFacade.rescheduleAll(anyList())).willReturn(Collections.singletonList(schedule));
+
+        mvc.perform(put(baseUrl + "batch").contentType(MediaType.APPLICATION_JSON).content(payload))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.scheduleList[0].id").value(schedule.getId()))
+                .andExpect(jsonPath("$._links.self").isNotEmpty());
+
+        Schedule submitted = new Schedule(schedule);
+        submitted.setTemplate(null);
+        then(timetableFacade).should().rescheduleAll(Collections.singletonList(submitted));
+    }
+
+    @Test
+    void rescheduleAllShouldReturnErrorsIfServiceRejectsMoves() throws Exception {
+
+        String payload = new ObjectMapper().writeValueAsString(Collections.singletonList(schedule));
+        given(timetableFacade.rescheduleAll(anyList())).willThrow(new ApiException("Rescheduled items failed validation",
+                Collections.singletonMap("Schedule ID 1", "Auditorium is already taken")));
+
+        mvc.perform(put(baseUrl + "batch").contentType(MediaType.APPLICATION_JSON).content(payload))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors['Schedule ID 1']").value("Auditorium is already taken"));
+    }
+
     @Test
     void rescheduleShouldValidatePathVariableAndReturnErrorsIfInvalid() throws Exception {
 
@@ -681,11 +698,12 @@ class SchedulesControllerTest {
     @Test
     void rescheduleShouldValidatePayloadForConsistencyAndReturnErrorsIfInvalid() throws Exception {
 
+        Schedule rescheduled = new Schedule(schedule);
+        rescheduled.setGroup(new Group(7L, "another"));
         ObjectMapper mapper = new ObjectMapper();
-        String payload = mapper.writeValueAsString(schedule);
+        String payload = mapper.writeValueAsString(rescheduled);
 
         given(timetableFacade.getSchedule(anyLong())).willReturn(Optional.of(schedule));
-        given(timetableFacade.isValidToReschedule(any(Schedule.class))).willReturn(false);
 
         MvcResult mvcResult = mvc.perform(
                 put(baseUrl + schedule.getId()).contentType(MediaType.APPLICATION_JSON).content(payload))
@@ -700,6 +718,23 @@ class SchedulesControllerTest {
         then(timetableFacade).should().getSchedule(schedule.getId());
     }
 
+    @Test
+    void rescheduleShouldReturnBadRequestIfDayDoesNotMatchDate() throws Exception {
+
+        Schedule rescheduled = new Schedule(schedule);
+        rescheduled.setDay(DayOfWeek.FRIDAY);
+        ObjectMapper mapper = new ObjectMapper();
+        String payload = mapper.writeValueAsString(rescheduled);
+
+        given(timetableFacade.getSchedule(anyLong())).willReturn(Optional.of(schedule));
+
+        mvc.perform(put(baseUrl + schedule.getId()).contentType(MediaType.APPLICATION_JSON).content(payload))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors['Invalid target date']").isNotEmpty());
+
+        then(timetableFacade).should(never()).saveSchedule(any());
+    }
+
     @Test
     void rescheduleShouldDelegateSaveScheduleToServiceIfNotRecurring() throws Exception {
 
@@ -707,7 +742,6 @@ class SchedulesControllerTest {
         String payload = mapper.writeValueAsString(schedule);
 
         given(timetableFacade.getSchedule(anyLong())).willReturn(Optional.of(schedule));
-        given(timetableFacade.isValidToReschedule(any(Schedule.class))).willReturn(true);
         given(timetableFacade.saveSchedule(any(Schedule.class))).willReturn(schedule);
 
         mvc.perform(put(baseUrl + schedule.getId()).contentType(MediaType.APPLICATION_JSON).content(payload))
@@ -731,6 +765,43 @@ class SchedulesControllerTest {
         then(timetableFacade).should().saveSchedule(any());
     }
 
+    @Test
+    void rescheduleShouldReturnConflictNamingResourceIfDatabaseRejectsDoubleBooking() throws Exception {
+
+        ObjectMapper mapper = new ObjectMapper();
+        String payload = mapper.writeValueAsString(schedule);
+
+        given(timetableFacade.getSchedule(anyLong())).willReturn(Optional.of(schedule));
+        SQLException cause = new SQLException(
+                "Unique index or primary key violation: \"PUBLIC.SCHEDULES_ON_DATE_PERIOD_AUDITORIUM_ID_KEY_INDEX_A\"");
+        given(timetableFacade.saveSchedule(any(Schedule.class))).willThrow(
+                new DataIntegrityViolationException("could not execute statement", cause));
+
+        mvc.perform(put(baseUrl + schedule.getId()).contentType(MediaType.APPLICATION_JSON).content(payload))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").isNotEmpty())
+                .andExpect(jsonPath("$.errors.Auditorium").value("Auditorium is already booked for this period"));
+    }
+
+    @Test
+    void rescheduleShouldReturnConflictIfDoubleBookingIsRejectedOnlyAtCommit() throws Exception {
+
+        ObjectMapper mapper = new ObjectMapper();
+        String payload = mapper.writeValueAsString(schedule);
+
+        given(timetableFacade.getSchedule(anyLong())).willReturn(Optional.of(schedule));
+        String constraint = "schedules_2020_09_on_date_period_group_id_key";
+        SQLException cause = new SQLException("duplicate key value violates unique constraint \"" + constraint + "\"");
+        RollbackException rollback = new RollbackException("Error while committing the transaction",
+                new org.hibernate.exception.ConstraintViolationException("could not execute batch", cause, constraint));
+        given(timetableFacade.saveSchedule(any(Schedule.class))).willThrow(
+                new TransactionSystemException("Could not commit JPA transaction", rollback));
+
+        mvc.perform(put(baseUrl + schedule.getId()).contentType(MediaType.APPLICATION_JSON).content(payload))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errors.Group").value("Group is already booked for this period"));
+    }
+
     @Test
     void rescheduleShouldDelegateRescheduleRecurringToServiceIfRequestedRecurringTrue() throws Exception {
 
@@ -738,7 +809,6 @@ class SchedulesControllerTest {
         String payload = mapper.writeValueAsString(schedule);
 
         given(timetableFacade.getSchedule(anyLong())).willReturn(Optional.of(schedule));
-        given(timetableFacade.isValidToReschedule(any(Schedule.class))).willReturn(true);
         given(timetableFacade.rescheduleRecurring(any(Schedule.class), any(LocalDate.class),
                 any(ReschedulingOption.class))).willReturn(Collections.singletonList(schedule));
 
@@ -992,4 +1062,59 @@ class SchedulesControllerTest {
         then(timetableFacade).should().getOptionsForWeek(schedule, 1);
     }
 
+    @Test
+    void findBestSlotsShouldValidateLimitAndReturnErrorsIfInvalid() throws Exception {
+
+        mvc.perform(get(baseUrl + schedule.getId() + "/options/best").param("limit", "0")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors").isNotEmpty());
+
+        then(timetableFacade).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void findBestSlotsShouldRequestRankedSlotsFromService() throws Exception {
+
+        given(timetableFacade.getSchedule(anyLong())).willReturn(Optional.of(schedule));
+        ReschedulingOption option = new ReschedulingOption(DayOfWeek.FRIDAY, Period.FIFTH,
+                new Auditorium(99L, "another auditorium"));
+        SlotFinder.RankedSlot slot = new SlotFinder.RankedSlot(LocalDate.of(2020, 9, 11), option, 7);
+        given(timetableFacade.getBestSlots(any(Schedule.class), anyInt())).willReturn(Collections.singletonList(slot));
+
+        mvc.perform(get(baseUrl + schedule.getId() + "/options/best").param("limit", "5")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.rankedSlotList[0].date").value("2020-09-11"))
+                .andExpect(jsonPath("$._embedded.rankedSlotList[0].score").value(7))
+                .andExpect(jsonPath("$._embedded.rankedSlotList[0].option.period").value(option.getPeriod().name()))
+                .andExpect(jsonPath("$._links.self").isNotEmpty())
+                .andExpect(jsonPath("$._links.schedule").isNotEmpty());
+
+        then(timetableFacade).should().getBestSlots(schedule, 5);
+    }
+
+    @Test
+    void streamBestSlotsShouldSendFoundSlotsFollowedByResult() throws Exception {
+
+        given(timetableFacade.getSchedule(anyLong())).willReturn(Optional.of(schedule));
+        ReschedulingOption option = new ReschedulingOption(DayOfWeek.FRIDAY, Period.FIFTH,
+                new Auditorium(99L, "another auditorium"));
+        SlotFinder.RankedSlot slot = new SlotFinder.RankedSlot(LocalDate.of(2020, 9, 11), option, 7);
+        given(timetableFacade.getBestSlots(any(Schedule.class), anyInt(), any())).willAnswer(invocation -> {
+            Consumer<SlotFinder.RankedSlot> onFound = invocation.getArgument(2);
+            onFound.accept(slot);
+            return CompletableFuture.completedFuture(Collections.singletonList(slot));
+        });
+
+        MvcResult mvcResult = mvc.perform(get(baseUrl + schedule.getId() + "/options/best").param("limit", "5")
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String content = mvcResult.getResponse().getContentAsString();
+        assertThat(content).containsSubsequence("event:slot", "\"score\":7", "event:result", "\"score\":7");
+        then(timetableFacade).should().getBestSlots(eq(schedule), eq(5), any());
+    }
+
 }
\ No newline at end of file
@@ -1,18 +1,22 @@
 package com.shablii.timetable.api.rest;
 
 import com.shablii.timetable.config.ControllersTestConfig;
-import com.shablii.timetable.service.utility.SemesterCalendar;
+import com.shablii.timetable.service.SemesterArchiver;
+import com.shablii.timetable.service.utility.*;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
-import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.boot.test.mock.mockito.*;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
-import static org.mockito.BDDMockito.then;
+import java.time.LocalDate;
+import java.util.Collections;
+
+import static org.mockito.BDDMockito.*;
 import static org.mockito.Mockito.times;
-import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(SemesterController.class)
@@ -24,6 +28,10 @@ class SemesterControllerTest {
 
     @SpyBean
     private SemesterCalendar semesterCalendar;
+    @MockBean
+    private SemesterMaterializationStatus materializationStatus;
+    @MockBean
+    private SemesterArchiver semesterArchiver;
 
     @Test
     void getSemesterShouldRequestInstanceFromCalendar() throws Exception {
@@ -40,4 +48,50 @@ class SemesterControllerTest {
         then(semesterCalendar).should(times(2)).getSemester();
     }
 
-}
\ No newline at end of file
+    @Test
+    void getSemestersShouldListEverySemesterFromCalendar() throws Exception {
+
+        mvc.perform(get("/api/v1/timetable/semester/all").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.semesterList[0].startDate").value(
+                        semesterCalendar.getStartDate().toString()))
+                .andExpect(jsonPath("$._links.self").isNotEmpty())
+                .andExpect(jsonPath("$._links.current").isNotEmpty());
+
+        then(semesterCalendar).should().getSemesters();
+    }
+
+    @Test
+    void getMaterializationProgressShouldRequestProgressFromStatus() throws Exception {
+
+        SemesterMaterializationStatus.Progress progress = new SemesterMaterializationStatus.Progress(6, 14, false);
+        given(materializationStatus.getProgress()).willReturn(progress);
+
+        mvc.perform(get("/api/v1/timetable/semester/materialization").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.materializedWeeks").value(6))
+                .andExpect(jsonPath("$.totalWeeks").value(14))
+                .andExpect(jsonPath("$.ready").value(false))
+                .andExpect(jsonPath("$._links.self").isNotEmpty())
+                .andExpect(jsonPath("$._links.semester").isNotEmpty());
+
+        then(materializationStatus).should().getProgress();
+    }
+
+    @Test
+    void archiveFinishedSemestersShouldReturnArchivedPartitions() throws Exception {
+
+        SemesterArchiver.Archival archival = new SemesterArchiver.Archival(LocalDate.of(2020, 9, 7),
+                Collections.singletonList("schedules_2020_05"));
+        given(semesterArchiver.archiveFinishedSemesters()).willReturn(archival);
+
+        mvc.perform(post("/api/v1/timetable/semester/archive").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.before").value("2020-09-07"))
+                .andExpect(jsonPath("$.partitions[0]").value("schedules_2020_05"))
+                .andExpect(jsonPath("$._links.semester").isNotEmpty());
+
+        then(semesterArchiver).should().archiveFinishedSemesters();
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.shablii.timetable.api.rest;
+
+import com.shablii.timetable.config.ControllersTestConfig;
+import com.shablii.timetable.service.SnapshotService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.*;
+
+import java.io.OutputStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(SnapshotController.class)
+@Import(ControllersTestConfig.class)
+class SnapshotControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    private SnapshotService snapshotService;
+
+    @Test
+    void exportSnapshotShouldStreamServiceOutputAsAttachment() throws Exception {
+
+        willAnswer(invocation -> {
+            invocation.getArgument(0, OutputStream.class).write(new byte[] { 1, 2, 3 });
+            return null;
+        }).given(snapshotService).exportTo(any());
+
+        MvcResult result = mvc.perform(get("/api/v1/timetable/snapshot").accept(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"timetable.snapshot\""))
+                .andExpect(content().bytes(new byte[] { 1, 2, 3 }));
+    }
+
+}
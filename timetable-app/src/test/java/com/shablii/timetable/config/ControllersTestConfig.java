@@ -44,6 +44,12 @@ public class ControllersTestConfig {
         return new ScheduleModelAssembler();
     }
 
+    @Bean
+    public ScheduleRowModelAssembler scheduleRowModelAssembler() {
+
+        return new ScheduleRowModelAssembler();
+    }
+
     @Bean
     public StudentModelAssembler studentModelAssembler() {
 
@@ -0,0 +1,97 @@
+package com.shablii.timetable.dao;
+
+import com.shablii.timetable.dao.jpa.BulkInsertDaoImpl;
+import com.shablii.timetable.model.Period;
+import com.shablii.timetable.model.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.dao.PersistenceExceptionTranslationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.*;
+import java.util.*;
+import java.util.stream.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@Import(BulkInsertDaoImpl.class)
+@ImportAutoConfiguration(PersistenceExceptionTranslationAutoConfiguration.class)
+@Sql("classpath:sql/bulk_insert_test.sql")
+class BulkInsertDaoTest {
+
+    private final Auditorium auditorium = new Auditorium(1L, "one");
+    private final Course course = new Course(1L, "one");
+    private final Group group = new Group(1L, "one");
+    private final Professor professor = new Professor(1L, "one", "one");
+
+    @Autowired
+    private BulkInsertDao bulkInsertDao;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private ScheduleTemplateRepository templateRepository;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Test
+    public void insertStudentsShouldAssignIdsAndInsertRowsInBatches() {
+
+        List<Student> students = IntStream.range(0, 2500)
+                .mapToObj(i -> new Student("first \"" + i + "\"", "last, " + i, group))
+                .collect(Collectors.toList());
+
+        List<Student> actual = bulkInsertDao.insertStudents(students);
+
+        assertThat(actual).allMatch(student -> student.getId() != null)
+                .extracting(Student::getId)
+                .doesNotHaveDuplicates();
+        assertThat(studentRepository.findAll()).hasSize(2500).containsAll(students);
+    }
+
+    @Test
+    public void insertTemplatesAndSchedulesShouldBeReadBackByRepositories() {
+
+        ScheduleTemplate template = new ScheduleTemplate(false, DayOfWeek.TUESDAY, Period.SECOND, auditorium, course,
+                group, professor);
+
+        bulkInsertDao.insertTemplates(Collections.singletonList(template));
+        Schedule schedule = new Schedule(template, LocalDate.of(2020, 6, 2));
+        bulkInsertDao.insertSchedules(Collections.singletonList(schedule));
+
+        assertThat(templateRepository.findById(template.getId())).contains(template);
+        assertThat(scheduleRepository.findAllByTemplateId(template.getId())).containsExactly(schedule);
+    }
+
+    @Test
+    public void insertSchedulesShouldBeRejectedByDatabaseIfSlotIsDoubleBooked() {
+
+        ScheduleTemplate template = templateRepository.findById(1L).orElseThrow(IllegalStateException::new);
+        Schedule doubleBooked = new Schedule(template, LocalDate.of(2020, 6, 1));
+
+        assertThatThrownBy(() -> bulkInsertDao.insertSchedules(Collections.singletonList(doubleBooked))).isInstanceOf(
+                DataIntegrityViolationException.class);
+    }
+
+    @Test
+    public void insertSchedulesIfAbsentShouldSkipDatesAlreadyMaterializedForTemplate() {
+
+        ScheduleTemplate template = templateRepository.findById(1L).orElseThrow(IllegalStateException::new);
+        Schedule existing = new Schedule(template, LocalDate.of(2020, 6, 1));
+        Schedule absent = new Schedule(template, LocalDate.of(2020, 6, 8));
+
+        List<Schedule> actual = bulkInsertDao.insertSchedulesIfAbsent(Arrays.asList(existing, absent));
+
+        assertThat(actual).containsExactly(absent);
+        assertThat(scheduleRepository.findAllByTemplateId(1L)).extracting(Schedule::getDate)
+                .containsExactlyInAnyOrder(LocalDate.of(2020, 6, 1), LocalDate.of(2020, 6, 8));
+    }
+
+}
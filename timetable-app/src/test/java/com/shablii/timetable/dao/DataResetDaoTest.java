@@ -0,0 +1,59 @@
+package com.shablii.timetable.dao;
+
+import com.shablii.timetable.dao.jpa.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({ DataResetDaoImpl.class, ResetSequencesDaoImpl.class })
+@Sql("classpath:sql/schedule_test.sql")
+class DataResetDaoTest {
+
+    @Autowired
+    private DataResetDao dataResetDao;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private ScheduleTemplateRepository templateRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @Autowired
+    private AuditoriumRepository auditoriumRepository;
+
+    @Test
+    public void truncateAllShouldEmptyReferencedAndReferencingTables() {
+
+        dataResetDao.truncateAll(false);
+
+        assertThat(scheduleRepository.count()).isZero();
+        assertThat(templateRepository.count()).isZero();
+        assertThat(professorRepository.count()).isZero();
+        assertThat(auditoriumRepository.count()).isZero();
+    }
+
+    @Test
+    public void truncateAllShouldRestartSequencesOnlyIfRequested() {
+
+        jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR schedule_id_seq", Long.class);
+        dataResetDao.truncateAll(false);
+        assertThat(jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR schedule_id_seq", Long.class)).isNotEqualTo(1L);
+
+        dataResetDao.truncateAll(true);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR schedule_id_seq", Long.class)).isEqualTo(1L);
+    }
+
+}
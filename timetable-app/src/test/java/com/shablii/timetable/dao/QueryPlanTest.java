@@ -0,0 +1,242 @@
+package com.shablii.timetable.dao;
+
+import com.shablii.timetable.model.Period;
+import com.shablii.timetable.model.*;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.*;
+import java.util.*;
+import java.util.regex.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                          + "com.shablii.timetable.dao.QueryPlanTest$Recorder")
+@Sql("classpath:sql/query_plan_test.sql")
+class QueryPlanTest {
+
+    private static final Pattern TABLE_SCAN = Pattern.compile("PUBLIC\\.(\\w+)\\.tableScan");
+    private static final LocalDate DATE = LocalDate.of(2020, 9, 15);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuditoriumRepository auditoriumRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @Autowired
+    private ReschedulingOptionRepository reschedulingOptionRepository;
+
+    @Autowired
+    private ScheduleOverrideRepository overrideRepository;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    @Autowired
+    private ScheduleTemplateRepository templateRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @BeforeEach
+    public void clearRecordedStatements() {
+
+        Recorder.STATEMENTS.clear();
+    }
+
+    @Test
+    public void findAllByDateShouldNotScanSchedules() {
+
+        assertThat(scheduleRepository.findAllByDate(DATE)).isNotEmpty();
+
+        assertNoTableScans();
+    }
+
+    @Test
+    public void findAllByTemplateIdShouldNotScanSchedules() {
+
+        assertThat(scheduleRepository.findAllByTemplateId(42)).hasSize(7);
+
+        assertNoTableScans();
+    }
+
+    @Test
+    public void findAllByDateBetweenShouldNotScanSchedules() {
+
+        assertThat(scheduleRepository.findAllByDateBetween(DATE, DATE.plusDays(1))).isNotEmpty();
+
+        assertNoTableScans();
+    }
+
+    @Test
+    public void findMaterializedDatesBetweenShouldNotScanSchedules() {
+
+        assertThat(scheduleRepository.findMaterializedDatesBetween(DATE, DATE.plusDays(6))).hasSize(5);
+
+        assertNoTableScans();
+    }
+
+    @Test
+    public void findAllByWeekParityAndDayShouldNotScanTemplates() {
+
+        assertThat(templateRepository.findAllByWeekParityAndDay(true, DayOfWeek.WEDNESDAY)).hasSize(500);
+
+        assertNoTableScans();
+    }
+
+    @Test
+    public void findAllByGroupInShouldNotScanStudents() {
+
+        List<Group> groups = groupRepository.findAllById(Arrays.asList(1L, 2L));
+
+        assertThat(studentRepository.findAllByGroupIn(groups)).hasSize(60);
+
+        assertNoTableScans();
+    }
+
+    @Test
+    public void findAllByProfessorAndCourseShouldNotScanTemplates() {
+
+        assertThat(groupRepository.findAllByProfessorAndCourse(1, 1)).isNotEmpty();
+
+        assertNoTableScans();
+    }
+
+    @Test
+    public void findAllByCoursesShouldNotScanProfessors() {
+
+        Course course = new Course(1L, "course 1");
+
+        assertThat(professorRepository.findAllByCourses(course)).hasSize(10);
+
+        assertNoTableScans();
+    }
+
+    @Test
+    public void findAllAvailableProfessorsShouldNotScanSchedules() {
+
+        assertThat(professorRepository.findAllAvailable(DATE, Period.FIRST)).isEmpty();
+
+        assertNoTableScans("PROFESSORS");
+    }
+
+    @Test
+    public void findAllAvailableAuditoriumsShouldNotScanSchedules() {
+
+        assertThat(auditoriumRepository.findAllAvailable(DATE, Period.FIRST)).isEmpty();
+
+        assertNoTableScans("AUDITORIUMS");
+    }
+
+    @Test
+    public void findAllByDayShouldNotScanReschedulingOptions() {
+
+        assertThat(reschedulingOptionRepository.findAllByDay(DayOfWeek.FRIDAY)).hasSize(500);
+
+        assertNoTableScans();
+    }
+
+    /* H2 cannot combine two indexes for an or, PostgreSQL serves it with a bitmap or of both date indexes */
+    @Test
+    public void findAllAffectingRangeShouldNotScanTablesOtherThanOverrides() {
+
+        assertThat(overrideRepository.findAllAffectingRange(DATE, DATE.plusDays(1))).isNotEmpty();
+
+        assertNoTableScans("SCHEDULE_OVERRIDES");
+    }
+
+    @Test
+    public void findByTemplateIdAndOriginDateShouldNotScanOverrides() {
+
+        assertThat(overrideRepository.findByTemplateIdAndOriginDate(9, DATE)).isPresent();
+
+        assertNoTableScans();
+    }
+
+    @Test
+    public void findAllOverridesByTemplateIdShouldNotScanOverrides() {
+
+        assertThat(overrideRepository.findAllByTemplateId(9)).hasSize(1);
+
+        assertNoTableScans();
+    }
+
+    @Test
+    public void findAllOverridesByDateBetweenShouldNotScanOverrides() {
+
+        assertThat(overrideRepository.findAllByDateBetween(DATE, DATE.plusDays(1))).isNotEmpty();
+
+        assertNoTableScans();
+    }
+
+    /* Courses of all professors met are fetched in batches, not per professor */
+    @Test
+    public void findAllByDateBetweenShouldLoadMonthOfSchedulesInTwoStatements() {
+
+        List<Schedule> month = scheduleRepository.findAllByDateBetween(DATE, DATE.plusMonths(1));
+
+        assertThat(month).hasSizeGreaterThan(1000)
+                .allMatch(schedule -> !schedule.getProfessor().getCourses().isEmpty());
+        assertThat(Recorder.STATEMENTS).hasSize(2);
+        assertNoTableScans();
+    }
+
+    @Test
+    public void findRowsByDateBetweenShouldSelectMonthOfRowsInSingleStatement() {
+
+        List<ScheduleRow> month = scheduleRepository.findRowsByDateBetween(DATE, DATE.plusMonths(1));
+
+        assertThat(month).hasSizeGreaterThan(1000).allMatch(row -> row.getProfessorName() != null);
+        assertThat(Recorder.STATEMENTS).hasSize(1);
+        assertNoTableScans("COURSES");
+    }
+
+    @Test
+    public void findAllByWeekParityShouldLoadTemplatesInTwoStatements() {
+
+        List<ScheduleTemplate> templates = templateRepository.findAllByWeekParity(true);
+
+        assertThat(templates).hasSize(2500).allMatch(template -> template.getAuditorium() != null);
+        assertThat(Recorder.STATEMENTS).hasSize(2);
+        assertNoTableScans();
+    }
+
+    /* Every statement Hibernate issued is explained, only the listed tables may be read in full */
+    private void assertNoTableScans(String... scannedTables) {
+
+        assertThat(Recorder.STATEMENTS).isNotEmpty();
+        for (String sql : new ArrayList<>(Recorder.STATEMENTS)) {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+            Matcher matcher = TABLE_SCAN.matcher(plan);
+            while (matcher.find()) {
+                assertThat(matcher.group(1)).as(plan).isIn((Object[]) scannedTables);
+            }
+        }
+    }
+
+    public static class Recorder implements StatementInspector {
+
+        static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+
+            STATEMENTS.add(sql);
+            return sql;
+        }
+
+    }
+
+}
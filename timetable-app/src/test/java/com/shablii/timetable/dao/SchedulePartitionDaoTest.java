@@ -0,0 +1,75 @@
+package com.shablii.timetable.dao;
+
+import com.shablii.timetable.dao.jpa.*;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.*;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({ SchedulePartitionDaoImpl.class, DataResetDaoImpl.class, ResetSequencesDaoImpl.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Sql("classpath:sql/schedule_test.sql")
+class SchedulePartitionDaoTest {
+
+    private static final String ARCHIVED = "schedules_archive.schedules_2020_06";
+
+    @Autowired
+    private SchedulePartitionDao partitionDao;
+
+    @Autowired
+    private DataResetDao dataResetDao;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /* Schema has no partitions here, so the archived month is set up the way detaching leaves it */
+    @BeforeEach
+    public void archiveJuneWithInheritedKeys() {
+
+        jdbcTemplate.execute("CREATE SCHEMA schedules_archive");
+        jdbcTemplate.execute("CREATE TABLE " + ARCHIVED + " AS SELECT * FROM schedules WHERE on_date < '2020-07-01'");
+        jdbcTemplate.execute("ALTER TABLE " + ARCHIVED + " ADD FOREIGN KEY (auditorium_id)"
+                + " REFERENCES public.auditoriums (id) ON DELETE CASCADE");
+        jdbcTemplate.execute("ALTER TABLE " + ARCHIVED + " ADD FOREIGN KEY (group_id)"
+                + " REFERENCES public.groups (id) ON DELETE CASCADE");
+    }
+
+    @AfterEach
+    public void dropArchive() {
+
+        jdbcTemplate.execute("DROP SCHEMA schedules_archive CASCADE");
+        transactionTemplate.executeWithoutResult(status -> dataResetDao.truncateAll(false));
+    }
+
+    @Test
+    public void archivedSchedulesShouldSurviveDataReset() {
+
+        Integer archived = countArchived();
+
+        partitionDao.archiveMonthPartitionsBefore(LocalDate.of(2020, 9, 7), Collections.emptySet());
+        transactionTemplate.executeWithoutResult(status -> dataResetDao.truncateAll(true));
+
+        assertThat(archived).isEqualTo(3);
+        assertThat(countArchived()).isEqualTo(archived);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM schedules", Integer.class)).isZero();
+    }
+
+    private Integer countArchived() {
+
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + ARCHIVED, Integer.class);
+    }
+
+}
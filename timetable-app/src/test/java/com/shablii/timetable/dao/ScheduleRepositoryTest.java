@@ -0,0 +1,99 @@
+package com.shablii.timetable.dao;
+
+import com.shablii.timetable.model.Period;
+import com.shablii.timetable.model.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.*;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+class ScheduleRepositoryTest {
+
+    @Autowired
+    private ScheduleRepository repository;
+
+    @Test
+    @Sql("classpath:sql/schedule_test.sql")
+    public void saveAndFlushShouldBeRejectedByDatabaseIfAuditoriumGroupOrProfessorIsDoubleBooked() {
+
+        Schedule doubleBooked = repository.findById(2L).orElseThrow(IllegalStateException::new);
+        doubleBooked.setDate(LocalDate.of(2020, 6, 1));
+        doubleBooked.setDay(DayOfWeek.MONDAY);
+
+        assertThatThrownBy(() -> repository.saveAndFlush(doubleBooked)).isInstanceOf(
+                DataIntegrityViolationException.class);
+    }
+
+    @Test
+    @Sql("classpath:sql/schedule_test.sql")
+    public void saveAndFlushShouldAcceptScheduleMovedToFreePeriod() {
+
+        Schedule moved = repository.findById(2L).orElseThrow(IllegalStateException::new);
+        moved.setDate(LocalDate.of(2020, 6, 1));
+        moved.setDay(DayOfWeek.MONDAY);
+        moved.setPeriod(Period.SECOND);
+
+        repository.saveAndFlush(moved);
+
+        assertThat(repository.findAllByDate(LocalDate.of(2020, 6, 1))).hasSize(2);
+    }
+
+    @Test
+    @Sql("classpath:sql/schedule_test.sql")
+    public void vacatePeriodsShouldLetSchedulesSwapSlots() {
+
+        repository.vacatePeriods(Arrays.asList(1L, 2L));
+        Schedule monday = repository.findById(1L).orElseThrow(IllegalStateException::new);
+        Schedule tuesday = repository.findById(2L).orElseThrow(IllegalStateException::new);
+        monday.setDate(LocalDate.of(2020, 6, 2));
+        monday.setDay(DayOfWeek.TUESDAY);
+        monday.setPeriod(Period.FIRST);
+        tuesday.setDate(LocalDate.of(2020, 6, 1));
+        tuesday.setDay(DayOfWeek.MONDAY);
+        tuesday.setPeriod(Period.FIRST);
+
+        repository.saveAll(Arrays.asList(monday, tuesday));
+        repository.flush();
+
+        assertThat(repository.findAllByDate(LocalDate.of(2020, 6, 1))).extracting(Schedule::getId).containsExactly(2L);
+        assertThat(repository.findAllByDate(LocalDate.of(2020, 6, 2))).extracting(Schedule::getId).containsExactly(1L);
+    }
+
+    @Test
+    @Sql("classpath:sql/schedule_test.sql")
+    public void findRowsByDateBetweenShouldSelectFlatRowsOfSchedulesInRange() {
+
+        ScheduleRow expected = new ScheduleRow(2L, LocalDate.of(2020, 6, 2), DayOfWeek.TUESDAY, Period.FIRST, 1L,
+                "one", 1L, "one", 1L, "one", 1L, "one one");
+
+        List<ScheduleRow> actual = repository.findRowsByDateBetween(LocalDate.of(2020, 6, 2),
+                LocalDate.of(2020, 6, 14));
+
+        assertThat(actual).containsExactly(expected);
+    }
+
+    @Test
+    @Sql("classpath:sql/schedule_test.sql")
+    public void findRowsOfResourceByDateBetweenShouldSelectOnlyRowsOfGivenResource() {
+
+        LocalDate startDate = LocalDate.of(2020, 6, 1);
+        LocalDate endDate = LocalDate.of(2020, 6, 2);
+
+        assertThat(repository.findRowsOfAuditoriumByDateBetween(startDate, endDate, 1L)).hasSize(2);
+        assertThat(repository.findRowsOfCourseByDateBetween(startDate, endDate, 1L)).hasSize(2);
+        assertThat(repository.findRowsOfGroupByDateBetween(startDate, endDate, 1L)).hasSize(2);
+        assertThat(repository.findRowsOfProfessorByDateBetween(startDate, endDate, 1L)).hasSize(2);
+        assertThat(repository.findRowsOfAuditoriumByDateBetween(startDate, endDate, 2L)).isEmpty();
+        assertThat(repository.findRowsOfCourseByDateBetween(startDate, endDate, 2L)).isEmpty();
+        assertThat(repository.findRowsOfGroupByDateBetween(startDate, endDate, 2L)).isEmpty();
+        assertThat(repository.findRowsOfProfessorByDateBetween(startDate, endDate, 2L)).isEmpty();
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.shablii.timetable.dao;
+
+import com.shablii.timetable.dao.jpa.*;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.io.*;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@Import({ SnapshotDaoImpl.class, BulkInsertDaoImpl.class, DataResetDaoImpl.class, ResetSequencesDaoImpl.class })
+@Sql("classpath:sql/schedule_test.sql")
+class SnapshotDaoTest {
+
+    @Autowired
+    private SnapshotDao snapshotDao;
+
+    @Autowired
+    private DataResetDao dataResetDao;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void insertRowsWithNulls() {
+
+        jdbcTemplate.update("INSERT INTO professors_courses (professor_id, courses_id) VALUES (1, 1)");
+        jdbcTemplate.update("INSERT INTO students (id, first_name, last_name, group_id) VALUES (1, 'one', 'one', 1)");
+        jdbcTemplate.update("INSERT INTO students (id, first_name, last_name) VALUES (2, 'two', 'two')");
+        jdbcTemplate.update("INSERT INTO schedule_overrides (id, template_id, origin_date, on_date, day, period)"
+                + " VALUES (1, 1, '2020-06-01', '2020-06-03', 'WEDNESDAY', 'SECOND')");
+    }
+
+    @Test
+    public void importFromShouldRestoreExportedRows() throws IOException {
+
+        List<String> tables = Arrays.asList("professors_courses", "students", "schedule_templates", "schedules",
+                "schedule_overrides");
+        Map<String, List<Map<String, Object>>> exported = new HashMap<>();
+        tables.forEach(table -> exported.put(table, rowsOf(table)));
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        snapshotDao.exportTo(snapshot);
+        dataResetDao.truncateAll(false);
+
+        snapshotDao.importFrom(new ByteArrayInputStream(snapshot.toByteArray()));
+
+        tables.forEach(table -> assertThat(rowsOf(table)).isNotEmpty().isEqualTo(exported.get(table)));
+    }
+
+    @Test
+    public void importFromShouldRestartSequencesPastRestoredIds() throws IOException {
+
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        snapshotDao.exportTo(snapshot);
+        dataResetDao.truncateAll(true);
+
+        snapshotDao.importFrom(new ByteArrayInputStream(snapshot.toByteArray()));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR schedule_id_seq", Long.class)).isEqualTo(53L);
+        assertThat(jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR course_id_seq", Long.class)).isEqualTo(51L);
+    }
+
+    @Test
+    public void importFromShouldRejectStreamOfOtherFormat() {
+
+        byte[] notSnapshot = "not a snapshot".getBytes();
+
+        assertThatThrownBy(() -> snapshotDao.importFrom(new ByteArrayInputStream(notSnapshot)))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void isEmptyShouldBeTrueOnlyWithoutAnyRows() {
+
+        assertThat(snapshotDao.isEmpty()).isFalse();
+
+        dataResetDao.truncateAll(false);
+
+        assertThat(snapshotDao.isEmpty()).isTrue();
+    }
+
+    private List<Map<String, Object>> rowsOf(String table) {
+
+        return jdbcTemplate.queryForList("SELECT * FROM " + table + " ORDER BY 1, 2");
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.shablii.timetable.dao.config;
+
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedRegionFactoryTest {
+
+    @Test
+    public void storageShouldEvictLeastRecentlyUsedEntryBeyondMaxEntries() {
+
+        BoundedRegionFactory regionFactory = new BoundedRegionFactory(2, 0);
+        StorageAccess storage = regionFactory.createQueryResultsRegionStorageAccess("region", null);
+
+        storage.putIntoCache(1, "one", null);
+        storage.putIntoCache(2, "two", null);
+        storage.getFromCache(1, null);
+        storage.putIntoCache(3, "three", null);
+
+        assertThat(storage.contains(1)).isTrue();
+        assertThat(storage.contains(2)).isFalse();
+        assertThat(storage.contains(3)).isTrue();
+        assertThat(regionFactory.getStatistics()).singleElement()
+                .extracting(BoundedRegionFactory.RegionStatistics::getEvictions)
+                .isEqualTo(1L);
+    }
+
+    @Test
+    public void storageShouldMissExpiredEntries() throws InterruptedException {
+
+        BoundedRegionFactory regionFactory = new BoundedRegionFactory(10, 1);
+        StorageAccess storage = regionFactory.createQueryResultsRegionStorageAccess("region", null);
+
+        storage.putIntoCache(1, "one", null);
+        Thread.sleep(10);
+
+        assertThat(storage.getFromCache(1, null)).isNull();
+        BoundedRegionFactory.RegionStatistics statistics = regionFactory.getStatistics().get(0);
+        assertThat(statistics.getMisses()).isEqualTo(1);
+        assertThat(statistics.getHitRatio()).isZero();
+    }
+
+    @Test
+    public void timestampsShouldNeverBeEvicted() {
+
+        BoundedRegionFactory regionFactory = new BoundedRegionFactory(1, 1);
+        StorageAccess storage = regionFactory.createTimestampsRegionStorageAccess("timestamps", null);
+
+        storage.putIntoCache("courses", 1L, null);
+        storage.putIntoCache("professors", 2L, null);
+
+        assertThat(storage.getFromCache("courses", null)).isEqualTo(1L);
+        assertThat(storage.getFromCache("professors", null)).isEqualTo(2L);
+    }
+
+    @Test
+    public void storageShouldCountEveryHitOfConcurrentReaders() throws Exception {
+
+        BoundedRegionFactory regionFactory = new BoundedRegionFactory(10, 0);
+        StorageAccess storage = regionFactory.createQueryResultsRegionStorageAccess("region", null);
+        storage.putIntoCache(1, "one", null);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                readers.add(executor.submit(() -> IntStream.range(0, 1000)
+                        .forEach(read -> storage.getFromCache(1, null))));
+            }
+            for (Future<?> reader : readers) {
+                reader.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(regionFactory.getStatistics().get(0).getHits()).isEqualTo(4000);
+    }
+
+    @Test
+    public void evictCachedDataShouldKeepTimestampsAndNotifyWritesOfTimestamps() {
+
+        BoundedRegionFactory regionFactory = new BoundedRegionFactory(10, 0);
+        List<String> written = new ArrayList<>();
+        regionFactory.setWriteListener(written::add);
+        StorageAccess results = regionFactory.createQueryResultsRegionStorageAccess("results", null);
+        StorageAccess timestamps = regionFactory.createTimestampsRegionStorageAccess("timestamps", null);
+        results.putIntoCache(1, "one", null);
+        timestamps.putIntoCache("courses", 1L, null);
+
+        regionFactory.evictCachedData();
+
+        assertThat(results.contains(1)).isFalse();
+        assertThat(timestamps.contains("courses")).isTrue();
+        assertThat(written).containsExactly("courses");
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.shablii.timetable.dao.config;
+
+import com.shablii.timetable.dao.*;
+import com.shablii.timetable.dao.jpa.ReferenceCacheDaoImpl;
+import com.shablii.timetable.model.*;
+import com.shablii.timetable.service.CourseService;
+import com.shablii.timetable.service.utility.OccupancyStore;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.*;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "university.cache.enabled=true")
+@Import({ CacheConfig.class, ReferenceCacheDaoImpl.class, CourseService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Sql("classpath:sql/cache_test.sql")
+class CacheConfigTest {
+
+    private static final String QUERY_RESULTS = "default-query-results-region";
+
+    @Autowired
+    private BoundedRegionFactory regionFactory;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @Autowired
+    private CourseService courseService;
+
+    @MockBean
+    private OccupancyStore occupancyStore;
+
+    @BeforeEach
+    private void evictCache() {
+
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    public void findByIdShouldBeServedFromCacheOnceLoaded() {
+
+        courseRepository.findById(1L);
+        long hits = statisticsOf(Course.class.getName()).getHits();
+
+        assertThat(courseRepository.findById(1L)).contains(new Course(1L, "one"));
+        assertThat(statisticsOf(Course.class.getName()).getHits()).isEqualTo(hits + 1);
+    }
+
+    @Test
+    public void findAllShouldBeServedFromQueryCacheUntilCourseIsSaved() {
+
+        courseRepository.findAll();
+        long hits = statisticsOf(QUERY_RESULTS).getHits();
+        long puts = statisticsOf(QUERY_RESULTS).getPuts();
+
+        assertThat(courseRepository.findAll()).hasSize(2);
+        assertThat(statisticsOf(QUERY_RESULTS).getHits()).isEqualTo(hits + 1);
+
+        courseRepository.save(new Course("three"));
+
+        assertThat(courseRepository.findAll()).hasSize(3);
+        assertThat(statisticsOf(QUERY_RESULTS).getPuts()).isEqualTo(puts + 1);
+    }
+
+    @Test
+    public void deleteShouldEvictCachedCoursesOfProfessors() {
+
+        professorRepository.findById(1L);
+
+        courseService.delete(new Course(2L, "two"));
+
+        Professor professor = professorRepository.findById(1L).orElseThrow(IllegalStateException::new);
+        assertThat(professor.getCourses()).containsExactly(new Course(1L, "one"));
+    }
+
+    private BoundedRegionFactory.RegionStatistics statisticsOf(String region) {
+
+        return regionFactory.getStatistics()
+                .stream()
+                .filter(statistics -> statistics.getRegion().equals(region))
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+    }
+
+}
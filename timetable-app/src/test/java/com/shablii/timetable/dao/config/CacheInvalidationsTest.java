@@ -0,0 +1,100 @@
+package com.shablii.timetable.dao.config;
+
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.*;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CacheInvalidationsTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    public void publishShouldCountWritesOfCachedTablesOnly() {
+
+        CacheInvalidations invalidations = new CacheInvalidations(new BoundedRegionFactory(10, 0), dataSource,
+                Runnable::run);
+        long courses = versionOf("courses");
+
+        invalidations.publish("courses");
+        invalidations.publish("schedules");
+
+        assertThat(versionOf("courses")).isEqualTo(courses + 1);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cache_invalidations WHERE cached_table = ?",
+                Integer.class, "schedules")).isZero();
+    }
+
+    @Test
+    public void pollShouldEvictCachedDataOnceAnotherNodeWroteToCachedTable() {
+
+        BoundedRegionFactory regionFactory = new BoundedRegionFactory(10, 0);
+        CacheInvalidations node = new CacheInvalidations(regionFactory, dataSource, Runnable::run);
+        CacheInvalidations otherNode = new CacheInvalidations(new BoundedRegionFactory(10, 0), dataSource,
+                Runnable::run);
+        StorageAccess storage = regionFactory.createQueryResultsRegionStorageAccess("region", null);
+        node.poll();
+        storage.putIntoCache(1, "one", null);
+        assertThat(node.poll()).isFalse();
+
+        otherNode.publish("professors");
+
+        assertThat(node.poll()).isTrue();
+        assertThat(storage.contains(1)).isFalse();
+    }
+
+    @Test
+    public void writesStampedByHibernateShouldBePublished() {
+
+        BoundedRegionFactory regionFactory = new BoundedRegionFactory(10, 0);
+        new CacheInvalidations(regionFactory, dataSource, Runnable::run);
+        StorageAccess timestamps = regionFactory.createTimestampsRegionStorageAccess("timestamps", null);
+        long groups = versionOf("groups");
+
+        timestamps.putIntoCache("groups", System.currentTimeMillis(), null);
+
+        assertThat(versionOf("groups")).isEqualTo(groups + 1);
+    }
+
+    @Test
+    public void writesInTransactionShouldBePublishedOnceItCommits() {
+
+        CacheInvalidations invalidations = new CacheInvalidations(new BoundedRegionFactory(10, 0), dataSource,
+                Runnable::run);
+        long courses = versionOf("courses");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            invalidations.publish("courses");
+            invalidations.publish("courses");
+            assertThat(versionOf("courses")).isEqualTo(courses);
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            invalidations.publish("courses");
+            status.setRollbackOnly();
+        });
+
+        assertThat(versionOf("courses")).isEqualTo(courses + 1);
+    }
+
+    private long versionOf(String table) {
+
+        return jdbcTemplate.queryForObject("SELECT version FROM cache_invalidations WHERE cached_table = ?",
+                Long.class, table);
+    }
+
+}
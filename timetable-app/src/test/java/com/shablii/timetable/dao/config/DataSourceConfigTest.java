@@ -0,0 +1,75 @@
+package com.shablii.timetable.dao.config;
+
+import com.shablii.timetable.model.*;
+import com.shablii.timetable.service.TimetableFacade;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/* The replica shares the schema but none of the data, so any row read, uncached, proves which database served it */
+@SpringBootTest(properties = { "university.replica.datasource.jdbc-url=" + DataSourceConfigTest.REPLICA_URL,
+        "university.replica.datasource.username=sa", "university.replica.datasource.password=sa",
+        "university.cache.enabled=false" })
+class DataSourceConfigTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+    private static final String PRIMARY_URL = "jdbc:h2:mem:test;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private TimetableFacade timetableFacade;
+
+    @BeforeAll
+    public static void migrateReplica() {
+
+        Flyway.configure()
+                .dataSource(REPLICA_URL, "sa", "sa")
+                .locations("classpath:db/migration", "classpath:db/vendor/h2")
+                .load()
+                .migrate();
+    }
+
+    @Test
+    public void readOnlyFacadeMethodsShouldReadFromReplica() {
+
+        long onPrimary = countAuditoriumsOnPrimary();
+
+        assertThat(onPrimary).isPositive();
+        assertThat(timetableFacade.countAuditoriums()).isZero();
+        assertThat(timetableFacade.getAuditoriums()).isEmpty();
+    }
+
+    @Test
+    public void writingFacadeMethodsShouldWriteToPrimary() {
+
+        long before = countAuditoriumsOnPrimary();
+
+        Auditorium saved = timetableFacade.saveAuditorium(new Auditorium("replica"));
+
+        assertThat(countAuditoriumsOnPrimary()).isEqualTo(before + 1);
+        assertThat(timetableFacade.getAuditorium(saved.getId())).isEmpty();
+        timetableFacade.deleteAuditorium(saved);
+        assertThat(countAuditoriumsOnPrimary()).isEqualTo(before);
+    }
+
+    @Test
+    public void getScheduleInRangeShouldReadSchedulesGeneratedOnPrimary() {
+
+        LocalDate monday = LocalDate.of(2020, 9, 7);
+
+        assertThat(timetableFacade.getScheduleInRange(monday, monday.plusDays(4))).isNotEmpty();
+    }
+
+    private long countAuditoriumsOnPrimary() {
+
+        return new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", "sa")).queryForObject(
+                "SELECT COUNT(*) FROM auditoriums", Long.class);
+    }
+
+}
@@ -34,16 +34,15 @@ class ScheduleFormatterTest {
     @Test
     public void prepareDayScheduleShouldRequestFilteredSchedulesFromServiceWhenFilteredIsTrue() {
 
-        Schedule schedule = mock(Schedule.class);
-        given(schedule.getPeriod()).willReturn(Period.FIRST);
-        List<Schedule> schedules = Collections.singletonList(schedule);
-        given(timetableFacade.getScheduleFor(any(SchedulePredicate.class), any(LocalDate.class),
+        ScheduleRow schedule = row(Period.FIRST);
+        List<ScheduleRow> schedules = Collections.singletonList(schedule);
+        given(timetableFacade.getScheduleRowsFor(any(SchedulePredicate.class), any(LocalDate.class),
                 any(LocalDate.class))).willReturn(schedules);
 
         formatter.prepareDaySchedule(predicate, start, true);
 
-        then(timetableFacade).should().getScheduleFor(predicate, start, start);
-        then(timetableFacade).should(never()).getScheduleInRange(start, start);
+        then(timetableFacade).should().getScheduleRowsFor(predicate, start, start);
+        then(timetableFacade).should(never()).getScheduleRowsInRange(start, start);
     }
 
     @Test
@@ -56,16 +55,14 @@ class ScheduleFormatterTest {
         Period firstPeriod = Period.FIRST;
         Period secondPeriod = Period.SECOND;
 
-        Schedule scheduleFirst = mock(Schedule.class);
-        given(scheduleFirst.getPeriod()).willReturn(firstPeriod);
+        ScheduleRow scheduleFirst = row(firstPeriod);
 
-        Schedule scheduleSecond = mock(Schedule.class);
-        given(scheduleSecond.getPeriod()).willReturn(secondPeriod);
+        ScheduleRow scheduleSecond = row(secondPeriod);
 
-        List<Schedule> schedules = Arrays.asList(scheduleFirst, scheduleSecond);
-        given(timetableFacade.getScheduleInRange(any(LocalDate.class), any(LocalDate.class))).willReturn(schedules);
+        List<ScheduleRow> schedules = Arrays.asList(scheduleFirst, scheduleSecond);
+        given(timetableFacade.getScheduleRowsInRange(any(LocalDate.class), any(LocalDate.class))).willReturn(schedules);
 
-        Map<Period, List<Schedule>> periodSchedules = new HashMap<>();
+        Map<Period, List<ScheduleRow>> periodSchedules = new HashMap<>();
         periodSchedules.put(firstPeriod, Collections.singletonList(scheduleFirst));
         periodSchedules.put(secondPeriod, Collections.singletonList(scheduleSecond));
 
@@ -73,7 +70,7 @@ class ScheduleFormatterTest {
 
         DaySchedule actual = formatter.prepareDaySchedule(predicate, start, filtered);
 
-        then(timetableFacade).should().getScheduleInRange(start, start);
+        then(timetableFacade).should().getScheduleRowsInRange(start, start);
         assertThat(actual).isEqualTo(expected);
     }
 
@@ -92,19 +89,17 @@ class ScheduleFormatterTest {
         Period firstPeriod = Period.FIRST;
         Period secondPeriod = Period.SECOND;
 
-        Schedule scheduleStart = mock(Schedule.class);
-        given(scheduleStart.getPeriod()).willReturn(firstPeriod);
+        ScheduleRow scheduleStart = row(firstPeriod);
 
-        Schedule scheduleEnd = mock(Schedule.class);
-        given(scheduleEnd.getPeriod()).willReturn(secondPeriod);
+        ScheduleRow scheduleEnd = row(secondPeriod);
 
-        given(timetableFacade.getScheduleInRange(start, start)).willReturn(Collections.singletonList(scheduleStart));
-        given(timetableFacade.getScheduleInRange(end, end)).willReturn(Collections.singletonList(scheduleEnd));
+        given(timetableFacade.getScheduleRowsInRange(start, start)).willReturn(Collections.singletonList(scheduleStart));
+        given(timetableFacade.getScheduleRowsInRange(end, end)).willReturn(Collections.singletonList(scheduleEnd));
 
-        Map<Period, List<Schedule>> periodSchedulesStart = new HashMap<>();
+        Map<Period, List<ScheduleRow>> periodSchedulesStart = new HashMap<>();
         periodSchedulesStart.put(firstPeriod, Collections.singletonList(scheduleStart));
         DaySchedule dayScheduleStart = new DaySchedule(periodSchedulesStart, description, shortDescription);
-        Map<Period, List<Schedule>> periodSchedulesEnd = new HashMap<>();
+        Map<Period, List<ScheduleRow>> periodSchedulesEnd = new HashMap<>();
         periodSchedulesEnd.put(secondPeriod, Collections.singletonList(scheduleEnd));
         DaySchedule dayScheduleEnd = new DaySchedule(periodSchedulesEnd, description, shortDescription);
         List<DaySchedule> daySchedules = Arrays.asList(dayScheduleStart, dayScheduleEnd);
@@ -113,8 +108,8 @@ class ScheduleFormatterTest {
 
         WeekSchedule actual = formatter.prepareWeekSchedule(predicate, start, filtered);
 
-        then(timetableFacade).should().getScheduleInRange(start, start);
-        then(timetableFacade).should().getScheduleInRange(end, end);
+        then(timetableFacade).should().getScheduleRowsInRange(start, start);
+        then(timetableFacade).should().getScheduleRowsInRange(end, end);
         assertThat(actual).isEqualTo(expected);
     }
 
@@ -128,7 +123,6 @@ class ScheduleFormatterTest {
         given(semesterCalendar.getFirstSemesterDayOfMonth(any(LocalDate.class))).willReturn(start);
         given(semesterCalendar.getLastSemesterDayOfMonth(any(LocalDate.class))).willReturn(start);
         given(semesterCalendar.getWeekMonday(any(LocalDate.class))).willReturn(start);
-        given(semesterCalendar.getWeekMonday(anyInt())).willReturn(start);
         given(semesterCalendar.getWeekFriday(any(LocalDate.class))).willReturn(end);
         given(semesterCalendar.getDayDescription(any(LocalDate.class))).willReturn(description);
         given(semesterCalendar.getDayShortDescription(any(LocalDate.class))).willReturn(shortDescription);
@@ -137,19 +131,17 @@ class ScheduleFormatterTest {
         Period firstPeriod = Period.FIRST;
         Period secondPeriod = Period.SECOND;
 
-        Schedule scheduleStart = mock(Schedule.class);
-        given(scheduleStart.getPeriod()).willReturn(firstPeriod);
+        ScheduleRow scheduleStart = row(firstPeriod);
 
-        Schedule scheduleEnd = mock(Schedule.class);
-        given(scheduleEnd.getPeriod()).willReturn(secondPeriod);
+        ScheduleRow scheduleEnd = row(secondPeriod);
 
-        given(timetableFacade.getScheduleInRange(start, start)).willReturn(Collections.singletonList(scheduleStart));
-        given(timetableFacade.getScheduleInRange(end, end)).willReturn(Collections.singletonList(scheduleEnd));
+        given(timetableFacade.getScheduleRowsInRange(start, start)).willReturn(Collections.singletonList(scheduleStart));
+        given(timetableFacade.getScheduleRowsInRange(end, end)).willReturn(Collections.singletonList(scheduleEnd));
 
-        Map<Period, List<Schedule>> periodSchedulesStart = new HashMap<>();
+        Map<Period, List<ScheduleRow>> periodSchedulesStart = new HashMap<>();
         periodSchedulesStart.put(firstPeriod, Collections.singletonList(scheduleStart));
         DaySchedule dayScheduleStart = new DaySchedule(periodSchedulesStart, description, shortDescription);
-        Map<Period, List<Schedule>> periodSchedulesEnd = new HashMap<>();
+        Map<Period, List<ScheduleRow>> periodSchedulesEnd = new HashMap<>();
         periodSchedulesEnd.put(secondPeriod, Collections.singletonList(scheduleEnd));
         DaySchedule dayScheduleEnd = new DaySchedule(periodSchedulesEnd, description, shortDescription);
         List<DaySchedule> daySchedules = Arrays.asList(dayScheduleStart, dayScheduleEnd);
@@ -159,12 +151,29 @@ class ScheduleFormatterTest {
 
         MonthSchedule actual = formatter.prepareMonthSchedule(predicate, start, filtered);
 
-        then(timetableFacade).should().getScheduleInRange(start, start);
-        then(timetableFacade).should().getScheduleInRange(end, end);
+        then(timetableFacade).should().getScheduleRowsInRange(start, start);
+        then(timetableFacade).should().getScheduleRowsInRange(end, end);
         assertThat(actual).isEqualTo(expected);
 
     }
 
+    @Test
+    public void prepareMonthScheduleShouldRequestWeeksOfMonthInSemesterOtherThanCurrent() {
+
+        SemesterCalendar calendar = new SemesterCalendar("2020-09-07", "2020-12-11", "2021-02-01/2021-05-28");
+        ScheduleFormatter semestersFormatter = new ScheduleFormatter(calendar, timetableFacade);
+        given(timetableFacade.getScheduleRowsInRange(any(LocalDate.class), any(LocalDate.class))).willReturn(
+                Collections.emptyList());
+
+        MonthSchedule actual = semestersFormatter.prepareMonthSchedule(predicate, LocalDate.of(2021, 3, 10), filtered);
+
+        ArgumentCaptor<LocalDate> dates = ArgumentCaptor.forClass(LocalDate.class);
+        then(timetableFacade).should(atLeastOnce()).getScheduleRowsInRange(dates.capture(), any(LocalDate.class));
+        assertThat(dates.getAllValues()).allMatch(date -> date.getYear() == 2021)
+                .contains(LocalDate.of(2021, 3, 1), LocalDate.of(2021, 3, 31));
+        assertThat(actual.getWeekSchedules()).hasSize(5);
+    }
+
     @Test
     public void prepareTwoWeekScheduleShouldRequestTemplatesFromServiceAndReturnTwoWeekObject() {
 
@@ -189,4 +198,10 @@ class ScheduleFormatterTest {
         assertThat(actual).isEqualTo(expected);
     }
 
-}
\ No newline at end of file
+    private ScheduleRow row(Period period) {
+
+        return new ScheduleRow(1L, start, start.getDayOfWeek(), period, 2L, "auditorium", 3L, "course", 4L, "group",
+                5L, "professor");
+    }
+
+}
@@ -8,7 +8,7 @@ import com.shablii.timetable.forms.utility.formatter.*;
 import com.shablii.timetable.model.Period;
 import com.shablii.timetable.model.*;
 import com.shablii.timetable.service.TimetableFacade;
-import com.shablii.timetable.service.model.generator.DataGenerator;
+import com.shablii.timetable.service.model.generator.*;
 import com.shablii.timetable.service.utility.SemesterCalendar;
 import com.shablii.timetable.service.utility.predicates.*;
 import org.junit.jupiter.api.Test;
@@ -45,7 +45,7 @@ class ManagementControllerTest {
     @MockBean
     private OptionsFormatter optionsFormatter;
     @MockBean
-    private DataGenerator dataGenerator;
+    private GenerationJobs generationJobs;
     @MockBean
     private TimetableFacade timetableFacade;
     @MockBean
@@ -70,25 +70,33 @@ class ManagementControllerTest {
     }
 
     @Test
-    public void postRebuildTimetableShouldTriggerDataGeneratorAndRedirectHome() throws Exception {
+    public void postRebuildTimetableShouldSubmitJobAndRedirectHome() throws Exception {
+
+        GenerationJob job = new GenerationJob(GenerationJob.Kind.REBUILD_TIMETABLE);
+        given(generationJobs.submit(any(GenerationJob.Kind.class))).willReturn(job);
 
         mvc.perform(post("/timetable/management/rebuild-timetable"))
                 .andExpect(flash().attributeExists("successAlert"))
+                .andExpect(flash().attribute("jobId", job.getId()))
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/timetable/management/home"));
 
-        then(dataGenerator).should().refreshTimetableData();
+        then(generationJobs).should().submit(GenerationJob.Kind.REBUILD_TIMETABLE);
     }
 
     @Test
-    public void postRefreshAllDataShouldTriggerDataGeneratorAndRedirectHome() throws Exception {
+    public void postRefreshAllDataShouldSubmitJobAndRedirectHome() throws Exception {
+
+        GenerationJob job = new GenerationJob(GenerationJob.Kind.REFRESH_ALL_DATA);
+        given(generationJobs.submit(any(GenerationJob.Kind.class))).willReturn(job);
 
         mvc.perform(post("/timetable/management/refresh-all-data"))
                 .andExpect(flash().attributeExists("successAlert"))
+                .andExpect(flash().attribute("jobId", job.getId()))
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/timetable/management/home"));
 
-        then(dataGenerator).should().refreshAllData();
+        then(generationJobs).should().submit(GenerationJob.Kind.REFRESH_ALL_DATA);
     }
 
     @ParameterizedTest
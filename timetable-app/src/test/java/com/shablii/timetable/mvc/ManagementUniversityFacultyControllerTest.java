@@ -513,7 +513,7 @@ class ManagementUniversityFacultyControllerTest {
     }
 
     @Test
-    public void postCoursesDropShouldAddCourseToProfessorRequestServiceToSaveAndRedirectToCoursesWithMessage()
+    public void postCoursesDropShouldRequestServiceToDropCourseAndRedirectToCoursesWithMessage()
             throws Exception {
 
         long professorId = 1L;
@@ -538,8 +538,7 @@ class ManagementUniversityFacultyControllerTest {
 
         then(timetableFacade).should().getProfessor(professorId);
         then(timetableFacade).should().getCourse(courseId);
-        then(professor).should().removeCourse(course);
-        then(timetableFacade).should().saveProfessor(professor);
+        then(timetableFacade).should().dropCourse(professor, course);
     }
 
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.shablii.timetable.service;
 
 import com.shablii.timetable.dao.AuditoriumRepository;
 import com.shablii.timetable.model.*;
+import com.shablii.timetable.service.utility.OccupancyStore;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
@@ -20,6 +21,8 @@ class AuditoriumServiceTest {
     private final Auditorium auditorium = new Auditorium(1L, "A-01");
     @Mock
     private AuditoriumRepository repository;
+    @Mock
+    private OccupancyStore occupancyStore;
     @InjectMocks
     private AuditoriumService service;
 
@@ -111,19 +114,40 @@ class AuditoriumServiceTest {
     }
 
     @Test
-    public void deleteShouldDelegateToRepository() {
+    public void findAvailableForShouldFilterOutBusyAuditoriumsUsingOccupancyStore() {
+
+        Auditorium available = new Auditorium(2L, "A-02");
+        LocalDate date = LocalDate.MAX;
+        Period period = Period.FIRST;
+        BitSet busy = new BitSet();
+        busy.set(1);
+        given(occupancyStore.isEnabled()).willReturn(true);
+        given(occupancyStore.findBusyAuditoriums(any(LocalDate.class), any(Period.class))).willReturn(busy);
+        given(repository.findAll()).willReturn(Arrays.asList(auditorium, available));
+
+        List<Auditorium> actual = service.findAvailableFor(date, period);
+
+        then(occupancyStore).should().findBusyAuditoriums(date, period);
+        then(repository).should(never()).findAllAvailable(any(LocalDate.class), any(Period.class));
+        assertThat(actual).containsOnly(available);
+    }
+
+    @Test
+    public void deleteShouldDelegateToRepositoryAndInvalidateOccupancyStore() {
 
         service.delete(auditorium);
 
         then(repository).should().delete(auditorium);
+        then(occupancyStore).should().invalidate();
     }
 
     @Test
-    public void deleteAllShouldDelegateToRepository() {
+    public void deleteAllShouldDelegateToRepositoryAndInvalidateOccupancyStore() {
 
         service.deleteAll();
 
         then(repository).should().deleteAllInBatch();
+        then(occupancyStore).should().invalidate();
     }
 
 }
@@ -1,7 +1,8 @@
 package com.shablii.timetable.service;
 
-import com.shablii.timetable.dao.CourseRepository;
+import com.shablii.timetable.dao.*;
 import com.shablii.timetable.model.Course;
+import com.shablii.timetable.service.utility.OccupancyStore;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
@@ -19,6 +20,10 @@ class CourseServiceTest {
     private final Course course = new Course(1L, "A-01");
     @Mock
     private CourseRepository repository;
+    @Mock
+    private ReferenceCacheDao referenceCacheDao;
+    @Mock
+    private OccupancyStore occupancyStore;
     @InjectMocks
     private CourseService service;
 
@@ -96,19 +101,23 @@ class CourseServiceTest {
     }
 
     @Test
-    public void deleteShouldDelegateToRepository() {
+    public void deleteShouldDelegateToRepositoryAndInvalidateOccupancyStore() {
 
         service.delete(course);
 
         then(repository).should().delete(course);
+        then(occupancyStore).should().invalidate();
+        then(referenceCacheDao).should().evictProfessorCourses();
     }
 
     @Test
-    public void deleteAllShouldDelegateToRepository() {
+    public void deleteAllShouldDelegateToRepositoryAndInvalidateOccupancyStore() {
 
         service.deleteAll();
 
         then(repository).should().deleteAllInBatch();
+        then(occupancyStore).should().invalidate();
+        then(referenceCacheDao).should().evictProfessorCourses();
     }
 
 }
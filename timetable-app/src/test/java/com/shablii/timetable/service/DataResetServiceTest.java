@@ -0,0 +1,41 @@
+package com.shablii.timetable.service;
+
+import com.shablii.timetable.dao.DataResetDao;
+import com.shablii.timetable.service.utility.OccupancyStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DataResetServiceTest {
+
+    @Mock
+    private DataResetDao dataResetDao;
+    @Mock
+    private OccupancyStore occupancyStore;
+    @InjectMocks
+    private DataResetService service;
+
+    @Test
+    public void deleteAllShouldTruncateKeepingSequencesAndInvalidateOccupancy() {
+
+        service.deleteAll();
+
+        InOrder inOrder = inOrder(dataResetDao, occupancyStore);
+        inOrder.verify(dataResetDao).truncateAll(false);
+        inOrder.verify(occupancyStore).invalidate();
+    }
+
+    @Test
+    public void resetAllShouldTruncateAndRestartSequences() {
+
+        service.resetAll();
+
+        then(dataResetDao).should().truncateAll(true);
+        then(occupancyStore).should().invalidate();
+    }
+
+}
@@ -2,6 +2,7 @@ package com.shablii.timetable.service;
 
 import com.shablii.timetable.dao.GroupRepository;
 import com.shablii.timetable.model.*;
+import com.shablii.timetable.service.utility.OccupancyStore;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
@@ -20,6 +21,8 @@ class GroupServiceTest {
     private final Group group = new Group(1L, "A-01");
     @Mock
     private GroupRepository repository;
+    @Mock
+    private OccupancyStore occupancyStore;
     @InjectMocks
     private GroupService service;
 
@@ -115,19 +118,21 @@ class GroupServiceTest {
     }
 
     @Test
-    public void deleteShouldDelegateToRepository() {
+    public void deleteShouldDelegateToRepositoryAndInvalidateOccupancyStore() {
 
         service.delete(group);
 
         then(repository).should().delete(group);
+        then(occupancyStore).should().invalidate();
     }
 
     @Test
-    public void deleteAllShouldDelegateToRepository() {
+    public void deleteAllShouldDelegateToRepositoryAndInvalidateOccupancyStore() {
 
         service.deleteAll();
 
         then(repository).should().deleteAllInBatch();
+        then(occupancyStore).should().invalidate();
     }
 
 }
@@ -2,6 +2,7 @@ package com.shablii.timetable.service;
 
 import com.shablii.timetable.dao.ProfessorRepository;
 import com.shablii.timetable.model.*;
+import com.shablii.timetable.service.utility.OccupancyStore;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
@@ -20,6 +21,8 @@ class ProfessorServiceTest {
     private final Professor professor = new Professor(1L, "one", "one");
     @Mock
     private ProfessorRepository repository;
+    @Mock
+    private OccupancyStore occupancyStore;
     @InjectMocks
     private ProfessorService service;
 
@@ -110,19 +113,40 @@ class ProfessorServiceTest {
     }
 
     @Test
-    public void deleteShouldDelegateToRepository() {
+    public void findAvailableForShouldFilterOutBusyProfessorsUsingOccupancyStore() {
+
+        Professor available = new Professor(2L, "two", "two");
+        LocalDate date = LocalDate.MAX;
+        Period period = Period.FIRST;
+        BitSet busy = new BitSet();
+        busy.set(1);
+        given(occupancyStore.isEnabled()).willReturn(true);
+        given(occupancyStore.findBusyProfessors(any(LocalDate.class), any(Period.class))).willReturn(busy);
+        given(repository.findAll()).willReturn(Arrays.asList(professor, available));
+
+        List<Professor> actual = service.findAvailableFor(date, period);
+
+        then(occupancyStore).should().findBusyProfessors(date, period);
+        then(repository).should(never()).findAllAvailable(any(LocalDate.class), any(Period.class));
+        assertThat(actual).containsOnly(available);
+    }
+
+    @Test
+    public void deleteShouldDelegateToRepositoryAndInvalidateOccupancyStore() {
 
         service.delete(professor);
 
         then(repository).should().delete(professor);
+        then(occupancyStore).should().invalidate();
     }
 
     @Test
-    public void deleteAllShouldDelegateToRepository() {
+    public void deleteAllShouldDelegateToRepositoryAndInvalidateOccupancyStore() {
 
         service.deleteAll();
 
         then(repository).should().deleteAllInBatch();
+        then(occupancyStore).should().invalidate();
     }
 
 }
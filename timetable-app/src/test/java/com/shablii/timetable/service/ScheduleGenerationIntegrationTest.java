@@ -0,0 +1,98 @@
+package com.shablii.timetable.service;
+
+import com.shablii.timetable.model.ScheduleRow;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest(properties = { "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=5000" })
+@AutoConfigureMockMvc
+class ScheduleGenerationIntegrationTest {
+
+    private static final int CALLERS = 8;
+
+    private final LocalDate monday = LocalDate.of(2020, 9, 14);
+    private final LocalDate friday = LocalDate.of(2020, 9, 18);
+
+    @Autowired
+    private TimetableFacade timetableFacade;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    public void getScheduleRowsInRangeShouldGenerateWeekOnceForMoreCallersThanPoolConnections() throws Exception {
+
+        int expected = timetableFacade.getScheduleRowsInRange(monday, friday).size();
+        jdbcTemplate.update("DELETE FROM schedules WHERE on_date BETWEEN ? AND ?", monday, friday);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        List<Future<List<ScheduleRow>>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return timetableFacade.getScheduleRowsInRange(monday, friday);
+                }));
+            }
+            start.countDown();
+
+            List<ScheduleRow> first = results.get(0).get(30, TimeUnit.SECONDS);
+            assertThat(first).hasSize(expected).isNotEmpty();
+            for (Future<List<ScheduleRow>> result : results) {
+                assertThat(result.get(30, TimeUnit.SECONDS)).isEqualTo(first);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM schedules WHERE on_date BETWEEN ? AND ?",
+                Integer.class, monday, friday)).isEqualTo(expected);
+    }
+
+    /* Requests hold a session open for the view, which must not keep a connection while waiting */
+    @Test
+    public void findByDateShouldGenerateDateOnceForMoreRequestsThanPoolConnections() throws Exception {
+
+        String url = "/api/v1/timetable/schedules/date?date=" + monday;
+        mvc.perform(get(url));
+        String count = "SELECT COUNT(*) FROM schedules WHERE on_date = ?";
+        int expected = jdbcTemplate.queryForObject(count, Integer.class, monday);
+        jdbcTemplate.update("DELETE FROM schedules WHERE on_date = ?", monday);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        List<Future<String>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return mvc.perform(get(url)).andReturn().getResponse().getContentAsString();
+                }));
+            }
+            start.countDown();
+
+            String first = results.get(0).get(30, TimeUnit.SECONDS);
+            assertThat(first).contains("scheduleList");
+            for (Future<String> result : results) {
+                assertThat(result.get(30, TimeUnit.SECONDS)).isEqualTo(first);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(jdbcTemplate.queryForObject(count, Integer.class, monday)).isEqualTo(expected);
+    }
+
+}
@@ -0,0 +1,157 @@
+package com.shablii.timetable.service;
+
+import com.shablii.timetable.dao.*;
+import com.shablii.timetable.model.Period;
+import com.shablii.timetable.model.*;
+import com.shablii.timetable.service.utility.SemesterCalendar;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.*;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduleProjectorTest {
+
+    private final SemesterCalendar semesterCalendar = new SemesterCalendar("2020-09-07", "2020-12-11");
+    private final LocalDate monday = LocalDate.of(2020, 9, 7);
+    private final LocalDate tuesday = LocalDate.of(2020, 9, 8);
+    private final Auditorium auditorium = new Auditorium(1L, "A-01");
+    private final Auditorium otherAuditorium = new Auditorium(2L, "A-02");
+    private final Course course = new Course(1L, "course");
+    private final Group group = new Group(1L, "G-01");
+    private final Professor professor = new Professor(1L, "one", "one");
+    private final Professor substitute = new Professor(2L, "two", "two");
+    private ScheduleTemplate mondayTemplate;
+    private ScheduleTemplate tuesdayTemplate;
+
+    @Mock
+    private ScheduleTemplateRepository templateRepository;
+    @Mock
+    private ScheduleOverrideRepository overrideRepository;
+
+    private ScheduleProjector projector;
+
+    @BeforeEach
+    private void createProjector() {
+
+        boolean parity = semesterCalendar.getWeekParityOf(monday);
+        mondayTemplate = new ScheduleTemplate(1L, parity, DayOfWeek.MONDAY, Period.FIRST, auditorium, course, group,
+                professor);
+        tuesdayTemplate = new ScheduleTemplate(2L, parity, DayOfWeek.TUESDAY, Period.SECOND, auditorium, course, group,
+                professor);
+        projector = new ScheduleProjector(semesterCalendar, templateRepository, overrideRepository, true);
+    }
+
+    @Test
+    void projectShouldBuildSchedulesFromTemplatesWithoutWriting() {
+
+        given(templateRepository.findAll()).willReturn(Arrays.asList(mondayTemplate, tuesdayTemplate));
+
+        List<Schedule> actual = projector.project(monday, tuesday);
+
+        assertThat(actual).containsExactly(projected(mondayTemplate, monday), projected(tuesdayTemplate, tuesday));
+        then(overrideRepository).should().findAllAffectingRange(monday, tuesday);
+        then(overrideRepository).shouldHaveNoMoreInteractions();
+    }
+
+    @Test
+    void projectShouldReplaceOverriddenOccurrenceWithItsOverride() {
+
+        ScheduleOverride override = new ScheduleOverride(1L, mondayTemplate, monday, tuesday, DayOfWeek.TUESDAY,
+                Period.FIFTH, otherAuditorium, substitute);
+        given(templateRepository.findAll()).willReturn(Arrays.asList(mondayTemplate, tuesdayTemplate));
+        given(overrideRepository.findAllAffectingRange(monday, tuesday)).willReturn(
+                Collections.singletonList(override));
+
+        List<Schedule> actual = projector.project(monday, tuesday);
+
+        Schedule moved = new Schedule(ScheduleProjector.idOf(1L, monday), mondayTemplate, tuesday,
+                DayOfWeek.TUESDAY, Period.FIFTH, otherAuditorium, course, group, substitute);
+        assertThat(actual).containsExactlyInAnyOrder(projected(tuesdayTemplate, tuesday), moved);
+    }
+
+    @Test
+    void projectShouldSkipOverriddenOccurrenceMovedOutOfRange() {
+
+        ScheduleOverride override = new ScheduleOverride(1L, mondayTemplate, monday, monday.plusDays(2),
+                DayOfWeek.WEDNESDAY, Period.FIFTH, auditorium, professor);
+        given(templateRepository.findAll()).willReturn(Collections.singletonList(mondayTemplate));
+        given(overrideRepository.findAllAffectingRange(monday, monday)).willReturn(
+                Collections.singletonList(override));
+
+        List<Schedule> actual = projector.project(monday, monday);
+
+        assertThat(actual).isEmpty();
+    }
+
+    @Test
+    void findByIdShouldProjectTemplateOccurrence() {
+
+        given(templateRepository.findById(1L)).willReturn(Optional.of(mondayTemplate));
+
+        Optional<Schedule> actual = projector.findById(ScheduleProjector.idOf(1L, monday));
+
+        assertThat(actual).contains(projected(mondayTemplate, monday));
+    }
+
+    @Test
+    void findByIdShouldReturnEmptyWhenTemplateDoesNotOccurOnEncodedDate() {
+
+        given(templateRepository.findById(1L)).willReturn(Optional.of(mondayTemplate));
+
+        Optional<Schedule> actual = projector.findById(ScheduleProjector.idOf(1L, tuesday));
+
+        assertThat(actual).isEmpty();
+    }
+
+    @Test
+    void saveShouldPersistOnlyOverrideForProjectedSchedule() {
+
+        Schedule schedule = projected(mondayTemplate, monday);
+        schedule.setProfessor(substitute);
+        given(templateRepository.findById(1L)).willReturn(Optional.of(mondayTemplate));
+        given(overrideRepository.save(any(ScheduleOverride.class))).willAnswer(invocation -> invocation.getArgument(0));
+
+        Schedule actual = projector.save(schedule);
+
+        then(overrideRepository).should().save(
+                new ScheduleOverride(null, mondayTemplate, monday, monday, DayOfWeek.MONDAY, Period.FIRST, auditorium,
+                        substitute));
+        assertThat(actual).isEqualTo(schedule);
+    }
+
+    @Test
+    void saveShouldRemoveOverrideWhenScheduleIsRevertedToTemplate() {
+
+        ScheduleOverride override = new ScheduleOverride(1L, mondayTemplate, monday, monday, DayOfWeek.MONDAY,
+                Period.FIRST, auditorium, substitute);
+        given(overrideRepository.findByTemplateIdAndOriginDate(1L, monday)).willReturn(Optional.of(override));
+
+        Schedule actual = projector.save(projected(mondayTemplate, monday));
+
+        then(overrideRepository).should().delete(override);
+        then(overrideRepository).should(never()).save(any(ScheduleOverride.class));
+        assertThat(actual).isEqualTo(projected(mondayTemplate, monday));
+    }
+
+    @Test
+    void saveShouldRejectScheduleWithoutId() {
+
+        assertThatIllegalArgumentException().isThrownBy(() -> projector.save(new Schedule(mondayTemplate, monday)));
+    }
+
+    private Schedule projected(ScheduleTemplate template, LocalDate date) {
+
+        Schedule schedule = new Schedule(template, date);
+        schedule.setId(ScheduleProjector.idOf(template.getId(), date));
+        return schedule;
+    }
+
+}
@@ -3,12 +3,15 @@ package com.shablii.timetable.service;
 import com.shablii.timetable.dao.*;
 import com.shablii.timetable.model.Period;
 import com.shablii.timetable.model.*;
-import com.shablii.timetable.service.utility.SemesterCalendar;
+import com.shablii.timetable.service.utility.*;
 import com.shablii.timetable.service.utility.predicates.*;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.*;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.*;
 import java.util.*;
@@ -33,9 +36,19 @@ class ScheduleServiceTest {
     @Mock
     private ScheduleRepository repository;
     @Mock
+    private BulkInsertDao bulkInsertDao;
+    @Mock
     private SemesterCalendar semesterCalendar;
     @Mock
+    private SemesterMaterializationStatus materializationStatus;
+    @Mock
     private ScheduleTemplateRepository templateRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private ScheduleProjector projector;
+    @Mock
+    private OccupancyStore occupancyStore;
     @InjectMocks
     private ScheduleService service;
 
@@ -50,11 +63,11 @@ class ScheduleServiceTest {
     @Test
     public void saveShouldDelegateToRepository() {
 
-        given(repository.save(any(Schedule.class))).willReturn(schedule);
+        given(repository.saveAndFlush(any(Schedule.class))).willReturn(schedule);
 
         Schedule actual = service.save(schedule);
 
-        then(repository).should().save(schedule);
+        then(repository).should().saveAndFlush(schedule);
         assertThat(actual).isEqualTo(schedule);
     }
 
@@ -67,6 +80,29 @@ class ScheduleServiceTest {
         List<Schedule> actual = service.saveAll(schedules);
 
         then(repository).should().saveAll(schedules);
+        then(repository).should().flush();
+        assertThat(actual).hasSameElementsAs(schedules);
+    }
+
+    @Test
+    public void vacatePeriodsShouldNullPeriodsOfGivenSchedulesInRepository() {
+
+        service.vacatePeriods(Collections.singletonList(schedule));
+
+        then(repository).should().vacatePeriods(Collections.singletonList(schedule.getId()));
+    }
+
+    @Test
+    public void saveAllShouldBulkInsertNewSchedulesAndOccupyThemAfterCommit() {
+
+        List<Schedule> schedules = Collections.singletonList(new Schedule(schedule.getTemplate(), date));
+        given(bulkInsertDao.insertSchedules(anyList())).willReturn(schedules);
+
+        List<Schedule> actual = service.saveAll(schedules);
+
+        then(bulkInsertDao).should().insertSchedules(schedules);
+        then(occupancyStore).should().occupySchedulesAfterCommit(schedules);
+        then(repository).shouldHaveNoInteractions();
         assertThat(actual).hasSameElementsAs(schedules);
     }
 
@@ -118,6 +154,9 @@ class ScheduleServiceTest {
 
         assertThat(actual).isEqualTo(expected);
         then(repository).should().findAllByTemplateId(id);
+        InOrder inOrder = inOrder(repository);
+        inOrder.verify(repository).saveAndFlush(scheduleTwo);
+        inOrder.verify(repository).saveAndFlush(scheduleOne);
     }
 
     @Test
@@ -132,6 +171,19 @@ class ScheduleServiceTest {
         assertThat(actual).isEqualTo(expected);
     }
 
+    @Test
+    public void findAllByIdShouldDelegateToRepository() {
+
+        List<Schedule> expected = Collections.singletonList(schedule);
+        Set<Long> ids = Collections.singleton(id);
+        given(repository.findAllById(anyIterable())).willReturn(expected);
+
+        List<Schedule> actual = service.findAllById(ids);
+
+        then(repository).should().findAllById(ids);
+        assertThat(actual).isEqualTo(expected);
+    }
+
     @Test
     public void findAllShouldDelegateToRepository() {
 
@@ -163,9 +215,8 @@ class ScheduleServiceTest {
         SchedulePredicate predicate = mock(SchedulePredicateGroupId.class);
         given(predicate.test(expected)).willReturn(true);
         given(predicate.test(schedule)).willReturn(false);
-        given(semesterCalendar.isSemesterDate(any(LocalDate.class))).willReturn(true);
         List<Schedule> unfiltered = Arrays.asList(schedule, expected);
-        given(repository.findAllByDate(any(LocalDate.class))).willReturn(unfiltered);
+        given(repository.findAllByDateBetween(any(LocalDate.class), any(LocalDate.class))).willReturn(unfiltered);
 
         List<Schedule> actual = service.findAllFor(predicate, date, date);
 
@@ -173,7 +224,51 @@ class ScheduleServiceTest {
     }
 
     @Test
-    public void findAllInRangeShouldRequestSchedulesFromRepositoryForEachSemesterDateInRange() {
+    public void findRowsForShouldSelectRowsFilteredByGivenPredicateFromRepository() {
+
+        given(materializationStatus.isReady()).willReturn(true);
+        ScheduleRow expected = new ScheduleRow(schedule);
+        given(repository.findRowsOfGroupByDateBetween(date, date, group.getId())).willReturn(
+                Collections.singletonList(expected));
+
+        List<ScheduleRow> actual = service.findRowsFor(new SchedulePredicateGroupId(group.getId()), date, date);
+
+        then(repository).should(never()).findRowsByDateBetween(any(LocalDate.class), any(LocalDate.class));
+        then(repository).should(never()).findAllByDateBetween(any(LocalDate.class), any(LocalDate.class));
+        assertThat(actual).containsExactly(expected);
+    }
+
+    @Test
+    public void findRowsForShouldGenerateMissingDatesBeforeSelectingRows() {
+
+        ScheduleRow generated = new ScheduleRow(schedule);
+        given(semesterCalendar.isSemesterDate(any(LocalDate.class))).willReturn(true);
+        given(semesterCalendar.getWeekParityOf(any(LocalDate.class))).willReturn(false);
+        given(repository.findRowsByDateBetween(date, date)).willReturn(Collections.singletonList(generated));
+        given(templateRepository.findAll()).willReturn(Collections.singletonList(schedule.getTemplate()));
+
+        List<ScheduleRow> actual = service.findRowsFor(new SchedulePredicateNoFilter(), date, date);
+
+        then(bulkInsertDao).should().insertSchedulesIfAbsent(anyList());
+        then(repository).should().findRowsByDateBetween(date, date);
+        assertThat(actual).containsExactly(generated);
+    }
+
+    @Test
+    public void findRowsForShouldConvertProjectedSchedulesIfProjectorIsEnabled() {
+
+        given(projector.isEnabled()).willReturn(true);
+        given(projector.project(any(LocalDate.class), any(LocalDate.class))).willReturn(
+                Collections.singletonList(schedule));
+
+        List<ScheduleRow> actual = service.findRowsFor(new SchedulePredicateNoFilter(), date, date);
+
+        then(repository).shouldHaveNoInteractions();
+        assertThat(actual).containsExactly(new ScheduleRow(schedule));
+    }
+
+    @Test
+    public void findAllInRangeShouldRequestSchedulesFromRepositoryOnceForWholeRange() {
 
         LocalDate startDate = date;
         given(semesterCalendar.isSemesterDate(startDate)).willReturn(true);
@@ -183,39 +278,214 @@ class ScheduleServiceTest {
         given(semesterCalendar.isSemesterDate(endDate)).willReturn(true);
 
         Schedule startDateSchedule = mock(Schedule.class);
-        List<Schedule> dayOneSchedules = Collections.singletonList(startDateSchedule);
-        given(repository.findAllByDate(startDate)).willReturn(dayOneSchedules);
-
         Schedule endDateSchedule = mock(Schedule.class);
-        List<Schedule> dayTwoSchedules = Collections.singletonList(endDateSchedule);
-        given(repository.findAllByDate(endDate)).willReturn(dayTwoSchedules);
+        given(repository.findAllByDateBetween(startDate, endDate)).willReturn(
+                Arrays.asList(startDateSchedule, endDateSchedule));
+        given(repository.findMaterializedDatesBetween(startDate, endDate)).willReturn(
+                Arrays.asList(startDate, endDate));
 
         List<Schedule> actual = service.findAllInRange(startDate, endDate);
 
-        then(repository).should().findAllByDate(startDate);
-        then(repository).should().findAllByDate(endDate);
+        then(repository).should().findMaterializedDatesBetween(startDate, endDate);
+        then(repository).should().findAllByDateBetween(startDate, endDate);
         then(repository).shouldHaveNoMoreInteractions();
+        then(templateRepository).shouldHaveNoInteractions();
         assertThat(actual).containsExactly(startDateSchedule, endDateSchedule);
     }
 
     @Test
     public void findAllInRangeShouldGenerateAndSaveSchedulesWhenNoneFoundInRepository() {
 
-        LocalDate from = LocalDate.of(2020, 1, 1);
-        LocalDate until = LocalDate.of(2020, 1, 3);
+        LocalDate from = LocalDate.of(2020, 6, 1);
+        LocalDate until = LocalDate.of(2020, 6, 3);
+        Schedule generated = new Schedule(schedule.getTemplate(), from);
+
+        given(semesterCalendar.isSemesterDate(any(LocalDate.class))).willReturn(true);
+        given(semesterCalendar.getWeekParityOf(any(LocalDate.class))).willReturn(false);
+        given(repository.findAllByDateBetween(from, until)).willReturn(Collections.singletonList(generated));
+        given(templateRepository.findAll()).willReturn(Collections.singletonList(schedule.getTemplate()));
+
+        List<Schedule> actual = service.findAllInRange(from, until);
+
+        then(repository).should(times(2)).findMaterializedDatesBetween(from, until);
+        then(templateRepository).should().findAll();
+        then(bulkInsertDao).should().insertSchedulesIfAbsent(Collections.singletonList(generated));
+        then(transactionManager).should(atLeastOnce()).commit(any());
+        assertThat(actual).containsExactly(generated);
+    }
+
+    @Test
+    public void findAllInRangeShouldGenerateOnlyDatesMissingInRepositoryInSingleBatch() {
+
+        LocalDate monday = LocalDate.of(2020, 6, 1);
+        LocalDate tuesday = LocalDate.of(2020, 6, 2);
+        ScheduleTemplate tuesdayTemplate = new ScheduleTemplate(2L, false, DayOfWeek.TUESDAY, period, auditorium,
+                course, group, professor);
+        Schedule generated = new Schedule(tuesdayTemplate, tuesday);
 
         given(semesterCalendar.isSemesterDate(any(LocalDate.class))).willReturn(true);
         given(semesterCalendar.getWeekParityOf(any(LocalDate.class))).willReturn(false);
-        given(repository.findAllByDate(any(LocalDate.class))).willReturn(Collections.emptyList());
-        given(templateRepository.findAllByWeekParityAndDay(anyBoolean(), any(DayOfWeek.class))).willReturn(
+        given(repository.findMaterializedDatesBetween(monday, tuesday)).willReturn(Collections.singletonList(monday));
+        given(repository.findAllByDateBetween(monday, tuesday)).willReturn(Arrays.asList(schedule, generated));
+        given(templateRepository.findAll()).willReturn(Arrays.asList(schedule.getTemplate(), tuesdayTemplate));
+
+        List<Schedule> actual = service.findAllInRange(monday, tuesday);
+
+        then(templateRepository).should().findAll();
+        then(bulkInsertDao).should().insertSchedulesIfAbsent(Collections.singletonList(generated));
+        then(repository).should(never()).findAllByDate(any(LocalDate.class));
+        assertThat(actual).containsExactly(schedule, generated);
+    }
+
+    @Test
+    public void findAllInRangeShouldNotGenerateDatesMaterializedConcurrently() {
+
+        given(semesterCalendar.isSemesterDate(any(LocalDate.class))).willReturn(true);
+        given(repository.findAllByDateBetween(date, date)).willReturn(Collections.singletonList(schedule));
+        given(repository.findMaterializedDatesBetween(date, date)).willReturn(Collections.emptyList(),
+                Collections.singletonList(date));
+
+        List<Schedule> actual = service.findAllInRange(date, date);
+
+        then(bulkInsertDao).shouldHaveNoInteractions();
+        assertThat(actual).containsExactly(schedule);
+    }
+
+    @Test
+    public void findAllInRangeShouldReadSchedulesWhenConcurrentInsertViolatesUniqueness() {
+
+        given(semesterCalendar.isSemesterDate(any(LocalDate.class))).willReturn(true);
+        given(semesterCalendar.getWeekParityOf(any(LocalDate.class))).willReturn(false);
+        given(repository.findAllByDateBetween(date, date)).willReturn(Collections.singletonList(schedule));
+        given(templateRepository.findAll()).willReturn(Collections.singletonList(schedule.getTemplate()));
+        given(bulkInsertDao.insertSchedulesIfAbsent(anyList())).willThrow(
+                new DataIntegrityViolationException("test"));
+
+        List<Schedule> actual = service.findAllInRange(date, date);
+
+        then(transactionManager).should().rollback(any());
+        assertThat(actual).containsExactly(schedule);
+    }
+
+    @Test
+    public void findAllInRangeShouldGenerateInCallersReadWriteTransactionWithoutAnotherOne() {
+
+        Schedule generated = new Schedule(schedule.getTemplate(), date);
+        given(semesterCalendar.isSemesterDate(any(LocalDate.class))).willReturn(true);
+        given(semesterCalendar.getWeekParityOf(any(LocalDate.class))).willReturn(false);
+        given(repository.findAllByDateBetween(date, date)).willReturn(Collections.singletonList(generated));
+        given(templateRepository.findAll()).willReturn(Collections.singletonList(schedule.getTemplate()));
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        List<Schedule> actual;
+        try {
+            actual = service.findAllInRange(date, date);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        ArgumentCaptor<TransactionDefinition> definitions = ArgumentCaptor.forClass(TransactionDefinition.class);
+        then(transactionManager).should(atLeastOnce()).getTransaction(definitions.capture());
+        then(bulkInsertDao).should().insertSchedulesIfAbsent(Collections.singletonList(generated));
+        assertThat(definitions.getAllValues()).extracting(TransactionDefinition::getPropagationBehavior)
+                .containsOnly(TransactionDefinition.PROPAGATION_REQUIRED);
+        assertThat(actual).containsExactly(generated);
+    }
+
+    @Test
+    public void findAllInRangeShouldNotGenerateSchedulesWhenSemesterIsMaterialized() {
+
+        given(materializationStatus.isReady()).willReturn(true);
+        given(repository.findAllByDateBetween(any(LocalDate.class), any(LocalDate.class))).willReturn(
                 Collections.emptyList());
-        given(repository.saveAll(anyList())).willReturn(Collections.emptyList());
 
-        service.findAllInRange(from, until);
+        List<Schedule> actual = service.findAllInRange(date, date.plusDays(4));
+
+        then(repository).should().findAllByDateBetween(date, date.plusDays(4));
+        then(repository).shouldHaveNoMoreInteractions();
+        then(templateRepository).shouldHaveNoInteractions();
+        assertThat(actual).isEmpty();
+    }
+
+    @Test
+    public void materializeRangeShouldGenerateMissingDatesRegardlessOfMaterializationStatus() {
+
+        Schedule generated = new Schedule(schedule.getTemplate(), date);
+        given(semesterCalendar.isSemesterDate(any(LocalDate.class))).willReturn(true);
+        given(semesterCalendar.getWeekParityOf(any(LocalDate.class))).willReturn(false);
+        given(templateRepository.findAll()).willReturn(Collections.singletonList(schedule.getTemplate()));
+
+        int actual = service.materializeRange(date, date.plusDays(4));
+
+        then(materializationStatus).shouldHaveNoInteractions();
+        then(bulkInsertDao).should().insertSchedulesIfAbsent(Collections.singletonList(generated));
+        assertThat(actual).isEqualTo(5);
+    }
+
+    @Test
+    public void findAllInRangeShouldDelegateToProjectorInProjectionMode() {
+
+        List<Schedule> expected = Collections.singletonList(schedule);
+        given(projector.isEnabled()).willReturn(true);
+        given(projector.project(any(LocalDate.class), any(LocalDate.class))).willReturn(expected);
 
-        then(repository).should(atLeastOnce()).findAllByDate(any(LocalDate.class));
-        then(templateRepository).should(atLeastOnce()).findAllByWeekParityAndDay(anyBoolean(), any(DayOfWeek.class));
-        then(repository).should(atLeastOnce()).saveAll(anyList());
+        List<Schedule> actual = service.findAllInRange(date, date);
+
+        then(projector).should().project(date, date);
+        then(repository).shouldHaveNoInteractions();
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    public void saveShouldSaveOverrideInProjectionMode() {
+
+        given(projector.isEnabled()).willReturn(true);
+        given(projector.save(any(Schedule.class))).willReturn(schedule);
+
+        Schedule actual = service.save(schedule);
+
+        then(projector).should().save(schedule);
+        then(repository).shouldHaveNoInteractions();
+        assertThat(actual).isEqualTo(schedule);
+    }
+
+    @Test
+    public void findByIdShouldDelegateToProjectorInProjectionMode() {
+
+        Optional<Schedule> expected = Optional.of(schedule);
+        given(projector.isEnabled()).willReturn(true);
+        given(projector.findById(anyLong())).willReturn(expected);
+
+        Optional<Schedule> actual = service.findById(id);
+
+        then(projector).should().findById(id);
+        then(repository).shouldHaveNoInteractions();
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    public void updateAllWithSameTemplateIdShouldShiftOverridesInProjectionMode() {
+
+        List<Schedule> expected = Collections.singletonList(schedule);
+        given(projector.isEnabled()).willReturn(true);
+        given(projector.shiftOverrides(any(Schedule.class), anyLong())).willReturn(expected);
+
+        List<Schedule> actual = service.updateAllWithSameTemplateId(schedule, date.plusDays(14));
+
+        then(projector).should().shiftOverrides(schedule, 14L);
+        then(repository).shouldHaveNoInteractions();
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    public void materializeRangeShouldNotWriteInProjectionMode() {
+
+        given(projector.isEnabled()).willReturn(true);
+
+        int actual = service.materializeRange(date, date);
+
+        then(repository).shouldHaveNoInteractions();
+        assertThat(actual).isZero();
     }
 
     @Test
@@ -223,7 +493,34 @@ class ScheduleServiceTest {
 
         service.deleteAll();
 
+        then(projector).should().deleteAll();
         then(repository).should().deleteAllInBatch();
+        then(occupancyStore).should().invalidate();
+    }
+
+    @Test
+    public void materializeTemplatesShouldSkipSlotsTakenOnMaterializedDates() {
+
+        Auditorium other = new Auditorium(2L, "A-02");
+        ScheduleTemplate taken = new ScheduleTemplate(2L, false, day, period, auditorium, course, new Group(2L, "G-02"),
+                new Professor(2L, "two", "two"));
+        ScheduleTemplate free = new ScheduleTemplate(3L, false, day, Period.SECOND, other, course, group, professor);
+        ScheduleTemplate otherWeek = new ScheduleTemplate(4L, true, day, period, other, course, group, professor);
+        given(semesterCalendar.getStartDate()).willReturn(date);
+        given(semesterCalendar.getEndDate()).willReturn(date.plusDays(4));
+        given(semesterCalendar.getWeekParityOf(date)).willReturn(false);
+        given(repository.findMaterializedDatesBetween(date, date.plusDays(4))).willReturn(
+                Collections.singletonList(date));
+        given(repository.findAllByDateInAndPeriodIn(anyCollection(), anyCollection())).willReturn(
+                Collections.singletonList(schedule));
+        given(bulkInsertDao.insertSchedules(anyList())).willAnswer(invocation -> invocation.getArgument(0));
+
+        List<Schedule> actual = service.materializeTemplates(Arrays.asList(taken, free, otherWeek));
+
+        assertThat(actual).containsExactly(new Schedule(free, date));
+        then(repository).should().findAllByDateInAndPeriodIn(Collections.singleton(date), new HashSet<>(
+                Arrays.asList(period, Period.SECOND)));
+        then(repository).should(never()).findAllByDateBetween(any(LocalDate.class), any(LocalDate.class));
     }
 
 }
@@ -1,7 +1,8 @@
 package com.shablii.timetable.service;
 
-import com.shablii.timetable.dao.ScheduleTemplateRepository;
+import com.shablii.timetable.dao.*;
 import com.shablii.timetable.model.*;
+import com.shablii.timetable.service.utility.OccupancyStore;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
@@ -29,6 +30,10 @@ class ScheduleTemplateServiceTest {
             group, professor);
     @Mock
     private ScheduleTemplateRepository repository;
+    @Mock
+    private BulkInsertDao bulkInsertDao;
+    @Mock
+    private OccupancyStore occupancyStore;
     @InjectMocks
     private ScheduleTemplateService service;
 
@@ -69,6 +74,21 @@ class ScheduleTemplateServiceTest {
         assertThat(actual).hasSameElementsAs(templates);
     }
 
+    @Test
+    public void saveAllShouldBulkInsertNewTemplatesAndOccupyThemAfterCommit() {
+
+        List<ScheduleTemplate> templates = Collections.singletonList(
+                new ScheduleTemplate(weekParity, day, period, auditorium, course, group, professor));
+        given(bulkInsertDao.insertTemplates(anyList())).willReturn(templates);
+
+        List<ScheduleTemplate> actual = service.saveAll(templates);
+
+        then(bulkInsertDao).should().insertTemplates(templates);
+        then(occupancyStore).should().occupyTemplatesAfterCommit(templates);
+        then(repository).shouldHaveNoInteractions();
+        assertThat(actual).hasSameElementsAs(templates);
+    }
+
     @Test
     public void saveAllShouldReturnListBackGivenEmptyList() {
 
@@ -136,6 +156,7 @@ class ScheduleTemplateServiceTest {
         service.deleteAll();
 
         then(repository).should().deleteAllInBatch();
+        then(occupancyStore).should().invalidate();
     }
 
 }
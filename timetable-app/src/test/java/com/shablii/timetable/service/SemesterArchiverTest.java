@@ -0,0 +1,97 @@
+package com.shablii.timetable.service;
+
+import com.shablii.timetable.dao.SchedulePartitionDao;
+import com.shablii.timetable.service.utility.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.*;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SemesterArchiverTest {
+
+    private final SemesterCalendar semesterCalendar = new SemesterCalendar("2020-09-07", "2020-12-11");
+
+    @Mock
+    private SchedulePartitionDao partitionDao;
+    @Mock
+    private OccupancyStore occupancyStore;
+
+    private SemesterArchiver semesterArchiver;
+
+    @BeforeEach
+    private void createArchiver() {
+
+        semesterArchiver = new SemesterArchiver(semesterCalendar, partitionDao, occupancyStore);
+    }
+
+    @Test
+    public void preparePartitionsShouldCreatePartitionForEverySemesterMonth() {
+
+        given(partitionDao.isPartitioned()).willReturn(true);
+        given(partitionDao.createMonthPartition(any())).willReturn(true);
+        given(partitionDao.createMonthPartition(YearMonth.of(2020, 10))).willReturn(false);
+
+        int created = semesterArchiver.preparePartitions();
+
+        assertThat(created).isEqualTo(3);
+        then(partitionDao).should().createMonthPartition(YearMonth.of(2020, 9));
+        then(partitionDao).should().createMonthPartition(YearMonth.of(2020, 10));
+        then(partitionDao).should().createMonthPartition(YearMonth.of(2020, 11));
+        then(partitionDao).should().createMonthPartition(YearMonth.of(2020, 12));
+    }
+
+    @Test
+    public void preparePartitionsShouldDoNothingIfSchedulesAreNotPartitioned() {
+
+        given(partitionDao.isPartitioned()).willReturn(false);
+
+        assertThat(semesterArchiver.preparePartitions()).isZero();
+        then(partitionDao).should(never()).createMonthPartition(any());
+    }
+
+    @Test
+    public void archiveFinishedSemestersShouldArchiveMonthsBeforeSemesterStartAndInvalidateOccupancy() {
+
+        List<String> archived = Arrays.asList("schedules_2020_04", "schedules_2020_05");
+        given(partitionDao.archiveMonthPartitionsBefore(eq(LocalDate.of(2020, 9, 7)), any())).willReturn(archived);
+
+        SemesterArchiver.Archival archival = semesterArchiver.archiveFinishedSemesters();
+
+        assertThat(archival.getBefore()).isEqualTo(LocalDate.of(2020, 9, 7));
+        assertThat(archival.getPartitions()).isEqualTo(archived);
+        then(occupancyStore).should().invalidate();
+    }
+
+    @Test
+    public void archiveFinishedSemestersShouldKeepMonthsOfEveryRegisteredSemester() {
+
+        SemesterCalendar calendar = new SemesterCalendar("2020-09-07", "2020-12-11", "2020-02-03/2020-05-29");
+        semesterArchiver = new SemesterArchiver(calendar, partitionDao, occupancyStore);
+        given(partitionDao.archiveMonthPartitionsBefore(any(), any())).willReturn(Collections.emptyList());
+
+        semesterArchiver.archiveFinishedSemesters();
+
+        then(partitionDao).should().archiveMonthPartitionsBefore(LocalDate.of(2020, 9, 7), new HashSet<>(
+                Arrays.asList(YearMonth.of(2020, 2), YearMonth.of(2020, 3), YearMonth.of(2020, 4),
+                        YearMonth.of(2020, 5), YearMonth.of(2020, 9), YearMonth.of(2020, 10), YearMonth.of(2020, 11),
+                        YearMonth.of(2020, 12))));
+    }
+
+    @Test
+    public void archiveFinishedSemestersShouldKeepOccupancyIfNothingWasArchived() {
+
+        given(partitionDao.archiveMonthPartitionsBefore(any(), any())).willReturn(Collections.emptyList());
+
+        assertThat(semesterArchiver.archiveFinishedSemesters().getPartitions()).isEmpty();
+        then(occupancyStore).shouldHaveNoInteractions();
+    }
+
+}
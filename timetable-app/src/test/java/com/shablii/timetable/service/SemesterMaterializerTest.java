@@ -0,0 +1,98 @@
+package com.shablii.timetable.service;
+
+import com.shablii.timetable.service.utility.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SemesterMaterializerTest {
+
+    private final SemesterCalendar semesterCalendar = new SemesterCalendar("2020-09-07", "2020-12-11");
+    private final SemesterMaterializationStatus status = new SemesterMaterializationStatus();
+
+    @Mock
+    private ScheduleService scheduleService;
+
+    private SemesterMaterializer materializer;
+
+    @AfterEach
+    private void shutdownMaterializer() {
+
+        materializer.shutdown();
+    }
+
+    @Test
+    public void materializeSemesterShouldMaterializeEveryWeekInBatchesAndBecomeReady() {
+
+        materializer = new SemesterMaterializer(semesterCalendar, scheduleService, status, true, 2, 4);
+
+        materializer.materializeSemester().join();
+
+        then(scheduleService).should().materializeRange(LocalDate.of(2020, 9, 7), LocalDate.of(2020, 10, 2));
+        then(scheduleService).should().materializeRange(LocalDate.of(2020, 10, 5), LocalDate.of(2020, 10, 30));
+        then(scheduleService).should().materializeRange(LocalDate.of(2020, 11, 2), LocalDate.of(2020, 11, 27));
+        then(scheduleService).should().materializeRange(LocalDate.of(2020, 11, 30), LocalDate.of(2020, 12, 11));
+        then(scheduleService).should().isProjected();
+        then(scheduleService).shouldHaveNoMoreInteractions();
+        assertThat(status.isReady()).isTrue();
+        assertThat(status.getProgress().getMaterializedWeeks()).isEqualTo(14);
+        assertThat(status.getProgress().getTotalWeeks()).isEqualTo(14);
+    }
+
+    @Test
+    public void materializeSemesterShouldNotBecomeReadyWhenBatchFails() {
+
+        materializer = new SemesterMaterializer(semesterCalendar, scheduleService, status, true, 1, 14);
+        given(scheduleService.materializeRange(any(LocalDate.class), any(LocalDate.class))).willThrow(
+                new IllegalStateException("test"));
+
+        Assertions.assertThrows(Exception.class, () -> materializer.materializeSemester().join());
+
+        assertThat(status.isReady()).isFalse();
+    }
+
+    @Test
+    public void materializeSemesterShouldDoNothingWhenDisabled() {
+
+        materializer = new SemesterMaterializer(semesterCalendar, scheduleService, status, false, 1, 2);
+
+        materializer.materializeSemester().join();
+
+        then(scheduleService).shouldHaveNoInteractions();
+        assertThat(status.isReady()).isFalse();
+    }
+
+    @Test
+    public void materializeSemesterShouldDoNothingInProjectionMode() {
+
+        materializer = new SemesterMaterializer(semesterCalendar, scheduleService, status, true, 1, 2);
+        given(scheduleService.isProjected()).willReturn(true);
+
+        materializer.materializeSemester().join();
+
+        then(scheduleService).should().isProjected();
+        then(scheduleService).shouldHaveNoMoreInteractions();
+        assertThat(status.isReady()).isFalse();
+    }
+
+    @Test
+    public void invalidateShouldDropReadinessAndIgnoreCompletionOfSupersededRun() {
+
+        long generation = status.start(14);
+        materializer = new SemesterMaterializer(semesterCalendar, scheduleService, status, true, 1, 2);
+
+        materializer.invalidate();
+        status.complete(generation);
+
+        assertThat(status.isReady()).isFalse();
+    }
+
+}
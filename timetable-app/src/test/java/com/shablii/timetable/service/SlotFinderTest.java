@@ -0,0 +1,99 @@
+package com.shablii.timetable.service;
+
+import com.shablii.timetable.model.Period;
+import com.shablii.timetable.model.*;
+import com.shablii.timetable.service.model.generator.TimetableWeights;
+import com.shablii.timetable.service.utility.SemesterCalendar;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.*;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlotFinderTest {
+
+    private final LocalDate monday = LocalDate.of(2020, 9, 7);
+    private final Auditorium auditorium = new Auditorium(1L, "A-01");
+    private final Auditorium anotherAuditorium = new Auditorium(2L, "A-02");
+    private final Course course = new Course(1L, "course");
+    private final Group group = new Group(1L, "G-01");
+    private final Professor professor = new Professor(1L, "one", "one");
+    private final Professor anotherProfessor = new Professor(2L, "two", "two");
+    private final ScheduleTemplate template = new ScheduleTemplate(1L, false, DayOfWeek.MONDAY, Period.FIRST,
+            auditorium, course, group, professor);
+    private final ScheduleTemplate sameDayTemplate = new ScheduleTemplate(2L, false, DayOfWeek.MONDAY, Period.THIRD,
+            anotherAuditorium, course, group, anotherProfessor);
+    private final Schedule candidate = new Schedule(template, monday);
+    private final ReschedulingOption mondayFirst = new ReschedulingOption(1L, DayOfWeek.MONDAY, Period.FIRST,
+            auditorium);
+    private final ReschedulingOption mondaySecond = new ReschedulingOption(2L, DayOfWeek.MONDAY, Period.SECOND,
+            auditorium);
+    private final ReschedulingOption mondaySecondElsewhere = new ReschedulingOption(3L, DayOfWeek.MONDAY,
+            Period.SECOND, anotherAuditorium);
+    private final ReschedulingOption tuesdayFirst = new ReschedulingOption(4L, DayOfWeek.TUESDAY, Period.FIRST,
+            auditorium);
+    private final ReschedulingOption wednesdayFirst = new ReschedulingOption(5L, DayOfWeek.WEDNESDAY, Period.FIRST,
+            auditorium);
+
+    @Mock
+    private ScheduleService scheduleService;
+    @Mock
+    private ScheduleTemplateService templateService;
+    @Mock
+    private ReschedulingOptionService optionService;
+
+    private SlotFinder slotFinder;
+
+    @BeforeEach
+    private void setUp() {
+
+        candidate.setId(1L);
+        SemesterCalendar semesterCalendar = new SemesterCalendar("2020-09-07", "2020-09-15");
+        slotFinder = new SlotFinder(semesterCalendar, scheduleService, templateService, optionService,
+                new TimetableWeights(3, 1), 2);
+        given(templateService.findAll()).willReturn(Arrays.asList(template, sameDayTemplate));
+        given(scheduleService.findGeneratedInRange(any(LocalDate.class), any(LocalDate.class))).willReturn(
+                Collections.emptyList());
+    }
+
+    @AfterEach
+    private void tearDown() {
+
+        slotFinder.shutdown();
+    }
+
+    @Test
+    void findBestSlotsShouldRankFreeSlotsByDistanceGapsAndAuditoriumChange() {
+
+        given(optionService.findAll()).willReturn(
+                Arrays.asList(mondayFirst, mondaySecond, mondaySecondElsewhere, tuesdayFirst));
+        List<SlotFinder.RankedSlot> found = Collections.synchronizedList(new ArrayList<>());
+
+        List<SlotFinder.RankedSlot> actual = slotFinder.findBestSlots(candidate, 3, found::add).join();
+
+        assertThat(actual).containsExactly(new SlotFinder.RankedSlot(monday, mondaySecond, 0),
+                new SlotFinder.RankedSlot(monday, mondaySecondElsewhere, 2),
+                new SlotFinder.RankedSlot(monday.plusDays(1), tuesdayFirst, 6));
+        assertThat(found).containsAll(actual);
+    }
+
+    @Test
+    void findBestSlotsShouldSkipBusySlotsAndDatesOutsideSemester() {
+
+        given(optionService.findAll()).willReturn(Arrays.asList(mondayFirst, wednesdayFirst));
+
+        List<SlotFinder.RankedSlot> actual = slotFinder.findBestSlots(candidate, 10, slot -> {
+        }).join();
+
+        assertThat(actual).extracting(SlotFinder.RankedSlot::getDate)
+                .containsExactly(monday.plusDays(2), monday.plusDays(7));
+    }
+
+}
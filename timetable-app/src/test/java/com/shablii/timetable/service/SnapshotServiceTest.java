@@ -0,0 +1,61 @@
+package com.shablii.timetable.service;
+
+import com.shablii.timetable.dao.SnapshotDao;
+import com.shablii.timetable.service.utility.OccupancyStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SnapshotServiceTest {
+
+    @Mock
+    private SnapshotDao snapshotDao;
+    @Mock
+    private DataResetService dataResetService;
+    @Mock
+    private OccupancyStore occupancyStore;
+    @Mock
+    private SemesterMaterializer semesterMaterializer;
+    @InjectMocks
+    private SnapshotService service;
+
+    @Test
+    public void exportToShouldDelegateToDao() throws IOException {
+
+        OutputStream out = new ByteArrayOutputStream();
+
+        service.exportTo(out);
+
+        then(snapshotDao).should().exportTo(out);
+    }
+
+    @Test
+    public void restoreFromShouldImportIntoResetDatabaseAndMaterializeIt() throws IOException {
+
+        InputStream in = new ByteArrayInputStream(new byte[0]);
+
+        service.restoreFrom(in);
+
+        InOrder inOrder = inOrder(dataResetService, snapshotDao, occupancyStore, semesterMaterializer);
+        inOrder.verify(dataResetService).resetAll();
+        inOrder.verify(snapshotDao).importFrom(in);
+        inOrder.verify(occupancyStore).invalidate();
+        inOrder.verify(semesterMaterializer).materializeSemesterAfterCommit();
+    }
+
+    @Test
+    public void isEmptyShouldDelegateToDao() {
+
+        given(snapshotDao.isEmpty()).willReturn(true);
+
+        assertThat(service.isEmpty()).isTrue();
+    }
+
+}
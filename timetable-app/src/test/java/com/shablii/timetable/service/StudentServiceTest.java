@@ -1,6 +1,6 @@
 package com.shablii.timetable.service;
 
-import com.shablii.timetable.dao.StudentRepository;
+import com.shablii.timetable.dao.*;
 import com.shablii.timetable.model.*;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,6 +20,8 @@ class StudentServiceTest {
     private final Student student = new Student(1L, "one", "one", group);
     @Mock
     private StudentRepository repository;
+    @Mock
+    private BulkInsertDao bulkInsertDao;
     @InjectMocks
     private StudentService service;
 
@@ -72,6 +74,19 @@ class StudentServiceTest {
         assertThat(actual).hasSameElementsAs(students);
     }
 
+    @Test
+    public void saveAllShouldBulkInsertNewStudents() {
+
+        List<Student> students = Collections.singletonList(new Student("new", "new", group));
+        given(bulkInsertDao.insertStudents(anyList())).willReturn(students);
+
+        List<Student> actual = service.saveAll(students);
+
+        then(bulkInsertDao).should().insertStudents(students);
+        then(repository).shouldHaveNoInteractions();
+        assertThat(actual).hasSameElementsAs(students);
+    }
+
     @Test
     public void saveAllShouldReturnListBackGivenEmptyList() {
 
@@ -1,12 +1,14 @@
 package com.shablii.timetable.service;
 
-import com.shablii.timetable.exceptions.NotFoundException;
+import com.shablii.timetable.exceptions.*;
 import com.shablii.timetable.model.Period;
 import com.shablii.timetable.model.*;
+import com.shablii.timetable.service.model.generator.TimetableRepairer;
 import com.shablii.timetable.service.utility.SemesterCalendar;
 import com.shablii.timetable.service.utility.predicates.*;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -14,6 +16,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import javax.validation.ConstraintViolationException;
 import java.time.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatExceptionOfType;
@@ -65,6 +68,12 @@ public class TimetableFacadeTest {
     private ScheduleService scheduleService;
     @MockBean
     private ReschedulingOptionService optionService;
+    @MockBean
+    private SlotFinder slotFinder;
+    @MockBean
+    private DataResetService dataResetService;
+    @MockBean
+    private TimetableRepairer repairer;
 
     @Autowired
     private TimetableFacade timetableFacade;
@@ -177,11 +186,13 @@ public class TimetableFacadeTest {
     }
 
     @Test
-    public void deleteAuditoriumShouldDelegateToAuditoriumService() {
+    public void deleteAuditoriumShouldDelegateToAuditoriumServiceAndRepairTimetable() {
 
         timetableFacade.deleteAuditorium(auditorium);
 
-        then(auditoriumService).should().delete(auditorium);
+        InOrder inOrder = inOrder(auditoriumService, repairer);
+        inOrder.verify(auditoriumService).delete(auditorium);
+        inOrder.verify(repairer).repair();
     }
 
     @Test
@@ -535,11 +546,27 @@ public class TimetableFacadeTest {
     }
 
     @Test
-    public void deleteProfessorShouldDelegateToProfessorService() {
+    public void deleteProfessorShouldDelegateToProfessorServiceAndRepairTimetable() {
 
         timetableFacade.deleteProfessor(professor);
 
-        then(professorService).should().delete(professor);
+        InOrder inOrder = inOrder(professorService, repairer);
+        inOrder.verify(professorService).delete(professor);
+        inOrder.verify(repairer).repair();
+    }
+
+    @Test
+    public void dropCourseShouldSaveProfessorWithoutCourseAndRepairTimetable() {
+
+        Professor teaching = new Professor(id, "test", "test");
+        teaching.addCourse(course);
+
+        timetableFacade.dropCourse(teaching, course);
+
+        InOrder inOrder = inOrder(professorService, repairer);
+        inOrder.verify(professorService).save(teaching);
+        inOrder.verify(repairer).repair();
+        assertThat(teaching.getCourses()).doesNotContain(course);
     }
 
     @Test
@@ -813,6 +840,121 @@ public class TimetableFacadeTest {
         assertThat(actual).isEmpty();
     }
 
+    @Test
+    public void rescheduleAllShouldValidate() {
+
+        assertThatExceptionOfType(ConstraintViolationException.class).isThrownBy(
+                () -> timetableFacade.rescheduleAll(Collections.emptyList()));
+        assertThatExceptionOfType(ConstraintViolationException.class).isThrownBy(
+                () -> timetableFacade.rescheduleAll(Collections.singletonList(invalidSchedule)));
+    }
+
+    @Test
+    public void rescheduleAllShouldRejectUnknownSchedulesAndSaveNothing() {
+
+        Schedule move = new Schedule(schedule);
+        move.setId(99L);
+        given(scheduleService.findAllById(anyCollection())).willReturn(Collections.emptyList());
+
+        assertThatExceptionOfType(ApiException.class).isThrownBy(
+                () -> timetableFacade.rescheduleAll(Collections.singletonList(move)))
+                .satisfies(e -> assertThat(e.getErrors()).containsKey("Schedule ID 99"));
+        then(scheduleService).should(never()).saveAll(anyList());
+    }
+
+    @Test
+    public void rescheduleAllShouldRejectMovesCollidingWithTimetableAndSaveNothing() {
+
+        LocalDate date = LocalDate.of(2020, 9, 7);
+        Schedule original = batchSchedule(1L, date, Period.FIRST, new Auditorium(1L, "one"), new Group(1L, "one"));
+        Schedule blocking = batchSchedule(2L, date, Period.SECOND, new Auditorium(2L, "two"), new Group(2L, "two"));
+        Schedule move = new Schedule(original);
+        move.setPeriod(Period.SECOND);
+        move.setAuditorium(blocking.getAuditorium());
+        given(scheduleService.findAllById(anyCollection())).willReturn(Collections.singletonList(original));
+        given(scheduleService.findAllInRange(any(LocalDate.class), any(LocalDate.class))).willReturn(
+                Arrays.asList(original, blocking));
+
+        assertThatExceptionOfType(ApiException.class).isThrownBy(
+                () -> timetableFacade.rescheduleAll(Collections.singletonList(move)))
+                .satisfies(e -> assertThat(e.getErrors().get("Schedule ID 1")).contains("Auditorium",
+                        "schedule ID 2"));
+        then(scheduleService).should(never()).saveAll(anyList());
+        assertThat(original.getPeriod()).isEqualTo(Period.FIRST);
+    }
+
+    @Test
+    public void rescheduleAllShouldRejectMovesToInvalidDatesAndSaveNothing() {
+
+        LocalDate date = LocalDate.of(2020, 9, 7);
+        Schedule original = batchSchedule(1L, date, Period.FIRST, new Auditorium(1L, "one"), new Group(1L, "one"));
+        Schedule move = new Schedule(original);
+        move.setDate(LocalDate.of(2020, 9, 8));
+        given(scheduleService.findAllById(anyCollection())).willReturn(Collections.singletonList(original));
+        given(semesterCalendar.findMoveError(move.getDate(), move.getDay())).willReturn(Optional.of("day mismatch"));
+
+        assertThatExceptionOfType(ApiException.class).isThrownBy(
+                () -> timetableFacade.rescheduleAll(Collections.singletonList(move)))
+                .satisfies(e -> assertThat(e.getErrors()).containsEntry("Schedule ID 1", "day mismatch"));
+        then(scheduleService).should(never()).findAllInRange(any(LocalDate.class), any(LocalDate.class));
+        then(scheduleService).should(never()).saveAll(anyList());
+    }
+
+    @Test
+    public void rescheduleAllShouldAllowMovesIntoSlotsVacatedByOtherMoves() {
+
+        LocalDate date = LocalDate.of(2020, 9, 7);
+        Group sameGroup = new Group(1L, "one");
+        Schedule first = batchSchedule(1L, date, Period.FIRST, new Auditorium(1L, "one"), sameGroup);
+        Schedule second = batchSchedule(2L, date, Period.SECOND, new Auditorium(2L, "two"), sameGroup);
+        Schedule firstMove = new Schedule(first);
+        firstMove.setPeriod(Period.SECOND);
+        Schedule secondMove = new Schedule(second);
+        secondMove.setPeriod(Period.FIRST);
+        given(scheduleService.findAllById(anyCollection())).willReturn(Arrays.asList(first, second));
+        given(scheduleService.findAllInRange(any(LocalDate.class), any(LocalDate.class))).willReturn(
+                Arrays.asList(first, second));
+        given(scheduleService.saveAll(anyList())).willAnswer(invocation -> invocation.getArgument(0));
+
+        List<Schedule> actual = timetableFacade.rescheduleAll(Arrays.asList(firstMove, secondMove));
+
+        then(scheduleService).should().findAllInRange(date, date);
+        InOrder inOrder = inOrder(scheduleService);
+        inOrder.verify(scheduleService).vacatePeriods(argThat(vacated -> vacated.containsAll(Arrays.asList(first,
+                second))));
+        inOrder.verify(scheduleService).saveAll(anyList());
+        assertThat(actual).containsExactly(first, second);
+        assertThat(first.getPeriod()).isEqualTo(Period.SECOND);
+        assertThat(second.getPeriod()).isEqualTo(Period.FIRST);
+    }
+
+    private Schedule batchSchedule(long id, LocalDate date, Period period, Auditorium auditorium, Group group) {
+
+        Professor professor = new Professor(id, "professor", "professor");
+        return new Schedule(id, template, date, date.getDayOfWeek(), period, auditorium, course, group, professor);
+    }
+
+    @Test
+    public void getBestSlotsShouldValidate() {
+
+        assertThatExceptionOfType(ConstraintViolationException.class).isThrownBy(
+                () -> timetableFacade.getBestSlots(invalidSchedule, 0));
+    }
+
+    @Test
+    public void getBestSlotsShouldDelegateToSlotFinder() {
+
+        List<SlotFinder.RankedSlot> expected = Collections.singletonList(
+                new SlotFinder.RankedSlot(LocalDate.MIN, option, 0));
+        given(slotFinder.findBestSlots(any(Schedule.class), anyInt(), any())).willReturn(
+                CompletableFuture.completedFuture(expected));
+
+        List<SlotFinder.RankedSlot> actual = timetableFacade.getBestSlots(schedule, 3);
+
+        then(slotFinder).should().findBestSlots(eq(schedule), eq(3), any());
+        assertThat(actual).isEqualTo(expected);
+    }
+
     @Test
     public void deleteAllOptionsShouldDelegateToOptionService() {
 
@@ -931,6 +1073,35 @@ public class TimetableFacadeTest {
         assertThat(actual).isEqualTo(expected);
     }
 
+    @Test
+    public void getScheduleRowsForShouldDelegateToScheduleService() {
+
+        SchedulePredicate predicate = new SchedulePredicateGroupId(1L);
+        LocalDate date = LocalDate.MAX;
+        List<ScheduleRow> expected = Collections.emptyList();
+        given(scheduleService.findRowsFor(any(SchedulePredicate.class), any(LocalDate.class),
+                any(LocalDate.class))).willReturn(expected);
+
+        List<ScheduleRow> actual = timetableFacade.getScheduleRowsFor(predicate, date, date);
+
+        assertThat(actual).isEqualTo(expected);
+        then(scheduleService).should().findRowsFor(predicate, date, date);
+    }
+
+    @Test
+    public void getScheduleRowsInRangeShouldRequestUnfilteredRowsFromScheduleService() {
+
+        LocalDate date = LocalDate.MAX;
+        List<ScheduleRow> expected = Collections.emptyList();
+        given(scheduleService.findRowsFor(any(SchedulePredicate.class), any(LocalDate.class),
+                any(LocalDate.class))).willReturn(expected);
+
+        List<ScheduleRow> actual = timetableFacade.getScheduleRowsInRange(date, date);
+
+        then(scheduleService).should().findRowsFor(new SchedulePredicateNoFilter(), date, date);
+        assertThat(actual).isEqualTo(expected);
+    }
+
     @Test
     public void deleteAllSchedulesShouldDelegateToScheduleService() {
 
@@ -1203,6 +1374,18 @@ public class TimetableFacadeTest {
         assertThat(expected.getAuditorium()).isEqualTo(newAuditorium);
     }
 
+    @Test
+    public void rescheduleOnceShouldRejectInvalidTargetAndSaveNothing() {
+
+        LocalDate date = LocalDate.of(2020, 12, 14);
+        ReschedulingOption option = new ReschedulingOption(id, DayOfWeek.MONDAY, Period.FIRST, auditorium);
+        given(semesterCalendar.findMoveError(date, DayOfWeek.MONDAY)).willReturn(Optional.of("not a teaching day"));
+
+        assertThatExceptionOfType(ApiException.class).isThrownBy(
+                () -> timetableFacade.rescheduleSingle(new Schedule(schedule), date, option));
+        then(scheduleService).should(never()).save(any(Schedule.class));
+    }
+
     @Test
     public void reschedulePermanentlyShouldValidate() {
 
@@ -1276,18 +1459,13 @@ public class TimetableFacadeTest {
     }
 
     @Test
-    public void deleteAllDataShouldDelegateDeleteAllToUnderlyingServices() {
+    public void deleteAllDataShouldDelegateToDataResetService() {
 
         timetableFacade.deleteAllData();
 
-        then(optionService).should().deleteAll();
-        then(scheduleService).should().deleteAll();
-        then(templateService).should().deleteAll();
-        then(auditoriumService).should().deleteAll();
-        then(courseService).should().deleteAll();
-        then(groupService).should().deleteAll();
-        then(professorService).should().deleteAll();
-        then(studentService).should().deleteAll();
+        then(dataResetService).should().deleteAll();
+        then(scheduleService).should(never()).deleteAll();
+        then(professorService).should(never()).deleteAll();
     }
 
 }
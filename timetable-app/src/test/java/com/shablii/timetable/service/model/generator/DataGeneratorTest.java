@@ -1,7 +1,6 @@
 package com.shablii.timetable.service.model.generator;
 
-import com.shablii.timetable.dao.ResetSequencesDao;
-import com.shablii.timetable.service.TimetableFacade;
+import com.shablii.timetable.service.*;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
@@ -19,7 +18,9 @@ class DataGeneratorTest {
     @Mock
     private UniversityModelGenerator universityModelGenerator;
     @Mock
-    private ResetSequencesDao resetSequencesDao;
+    private DataResetService dataResetService;
+    @Mock
+    private SemesterMaterializer semesterMaterializer;
 
     @InjectMocks
     private DataGenerator dataGenerator;
@@ -29,8 +30,10 @@ class DataGeneratorTest {
 
         dataGenerator.refreshTimetableData();
 
+        then(semesterMaterializer).should().invalidate();
         then(timetableFacade).should().deleteTimetableData();
-        then(timetableModelGenerator).should().generateAndSave();
+        then(timetableModelGenerator).should().generateAndSave(GenerationProgress.NONE);
+        then(semesterMaterializer).should().materializeSemesterAfterCommit();
         then(timetableFacade).shouldHaveNoMoreInteractions();
         then(timetableModelGenerator).shouldHaveNoMoreInteractions();
         then(universityModelGenerator).shouldHaveNoInteractions();
@@ -41,24 +44,27 @@ class DataGeneratorTest {
 
         dataGenerator.refreshAllData();
 
+        then(semesterMaterializer).should().invalidate();
         then(timetableFacade).should().deleteAllData();
         then(universityModelGenerator).should().generateAndSave();
-        then(timetableModelGenerator).should().generateAndSave();
+        then(timetableModelGenerator).should().generateAndSave(GenerationProgress.NONE);
+        then(semesterMaterializer).should().materializeSemesterAfterCommit();
         then(timetableFacade).shouldHaveNoMoreInteractions();
         then(universityModelGenerator).shouldHaveNoMoreInteractions();
         then(timetableModelGenerator).shouldHaveNoMoreInteractions();
     }
 
     @Test
-    public void resetSequenceShouldDelegateDao() {
+    public void resetAllDataShouldDelegateToDataResetService() {
 
-        dataGenerator.resetSequences();
+        dataGenerator.resetAllData();
 
-        then(resetSequencesDao).should().resetSequences();
-        then(resetSequencesDao).shouldHaveNoMoreInteractions();
+        then(dataResetService).should().resetAll();
+        then(dataResetService).shouldHaveNoMoreInteractions();
         then(timetableFacade).shouldHaveNoInteractions();
         then(universityModelGenerator).shouldHaveNoInteractions();
         then(timetableModelGenerator).shouldHaveNoInteractions();
+        then(semesterMaterializer).shouldHaveNoInteractions();
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,151 @@
+package com.shablii.timetable.service.model.generator;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GenerationJobsTest {
+
+    @Mock
+    private DataGenerator dataGenerator;
+    private GenerationJobs generationJobs;
+
+    @BeforeEach
+    private void createJobs() {
+
+        generationJobs = new GenerationJobs(dataGenerator, 2);
+    }
+
+    @AfterEach
+    private void shutdownJobs() {
+
+        generationJobs.shutdown();
+    }
+
+    @Test
+    public void submitShouldRunJobAndPublishProgressInOrder() throws Exception {
+
+        CountDownLatch subscribed = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            subscribed.await(10, TimeUnit.SECONDS);
+            GenerationProgress progress = invocation.getArgument(0);
+            progress.phase("Solving timetable");
+            progress.placed(95);
+            progress.conflicts(5);
+            return null;
+        }).given(dataGenerator).refreshTimetableData(any(GenerationProgress.class));
+
+        List<GenerationJob.Status> published = await(generationJobs.submit(GenerationJob.Kind.REBUILD_TIMETABLE),
+                subscribed);
+
+        assertThat(published).extracting(GenerationJob.Status::getPhase)
+                .containsSubsequence("Started", "Solving timetable", "Completed");
+        GenerationJob.Status last = published.get(published.size() - 1);
+        assertThat(last.getState()).isEqualTo(GenerationJob.State.COMPLETED);
+        assertThat(last.getPlaced()).isEqualTo(95);
+        assertThat(last.getConflicts()).isEqualTo(5);
+        assertThat(last.getFinished()).isNotNull();
+        then(dataGenerator).should(never()).refreshAllData(any(GenerationProgress.class));
+    }
+
+    @Test
+    public void submitShouldMarkJobFailedGivenGenerationFails() throws Exception {
+
+        willThrow(new IllegalStateException("broken")).given(dataGenerator)
+                .refreshAllData(any(GenerationProgress.class));
+
+        List<GenerationJob.Status> published = await(generationJobs.submit(GenerationJob.Kind.REFRESH_ALL_DATA));
+
+        GenerationJob.Status last = published.get(published.size() - 1);
+        assertThat(last.getState()).isEqualTo(GenerationJob.State.FAILED);
+        assertThat(last.getError()).isEqualTo("broken");
+    }
+
+    @Test
+    public void submitShouldFinishJobWhileListenerIsStalled() throws Exception {
+
+        CountDownLatch subscribed = new CountDownLatch(1);
+        CountDownLatch stall = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            subscribed.await(10, TimeUnit.SECONDS);
+            invocation.<GenerationProgress>getArgument(0).phase("Solving timetable");
+            return null;
+        }).given(dataGenerator).refreshTimetableData(any(GenerationProgress.class));
+        GenerationJob job = generationJobs.submit(GenerationJob.Kind.REBUILD_TIMETABLE);
+        List<GenerationJob.Status> published = new CopyOnWriteArrayList<>();
+        job.subscribe(status -> {
+            awaitQuietly(stall);
+            published.add(status);
+        });
+        subscribed.countDown();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!job.isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(job.getStatus().getState()).isEqualTo(GenerationJob.State.COMPLETED);
+        assertThat(published).isEmpty();
+
+        stall.countDown();
+        deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while ((published.isEmpty() || !published.get(published.size() - 1).isFinished())
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(published).extracting(GenerationJob.Status::getPhase).endsWith("Completed");
+    }
+
+    @Test
+    public void findShouldForgetOldestFinishedJobsBeyondHistory() throws Exception {
+
+        List<GenerationJob> jobs = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            GenerationJob job = generationJobs.submit(GenerationJob.Kind.REBUILD_TIMETABLE);
+            await(job);
+            jobs.add(job);
+        }
+
+        assertThat(generationJobs.find(jobs.get(0).getId())).isEmpty();
+        assertThat(generationJobs.find(jobs.get(2).getId())).contains(jobs.get(2));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<GenerationJob.Status> await(GenerationJob job) throws Exception {
+
+        return await(job, new CountDownLatch(0));
+    }
+
+    /* Job is held back by the latch until the test has subscribed, otherwise it may finish first */
+    private List<GenerationJob.Status> await(GenerationJob job, CountDownLatch subscribed) throws Exception {
+
+        List<GenerationJob.Status> published = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> finished = new CompletableFuture<>();
+        job.subscribe(status -> {
+            published.add(status);
+            if (status.isFinished()) {
+                finished.complete(null);
+            }
+        });
+        subscribed.countDown();
+        finished.get(10, TimeUnit.SECONDS);
+        return published;
+    }
+
+}
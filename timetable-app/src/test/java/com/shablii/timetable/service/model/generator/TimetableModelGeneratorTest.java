@@ -8,6 +8,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.annotation.DirtiesContext.MethodMode;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.DayOfWeek;
 import java.util.*;
@@ -27,16 +28,35 @@ class TimetableModelGeneratorTest {
     @Autowired
     private TimetableModelGenerator timetableModelGenerator;
 
+    @Autowired
+    private TimetableWeights weights;
+
     @Test
     @DirtiesContext(methodMode = MethodMode.AFTER_METHOD)
     public void generateAndSaveShouldSaveGeneratedDataToRepository() {
 
+        timetableFacade.deleteTimetableData();
         timetableModelGenerator.generateAndSave();
 
         then(timetableFacade).should(atLeastOnce()).saveOptions(anyList());
         then(timetableFacade).should(atLeastOnce()).saveTemplates(anyList());
     }
 
+    @Test
+    public void attemptSeedsShouldBeDerivedFromUniversitySeed() {
+
+        TimetableModelGenerator first = new TimetableModelGenerator(timetableFacade, weights);
+        TimetableModelGenerator second = new TimetableModelGenerator(timetableFacade, weights);
+        Arrays.asList(first, second).forEach(generator -> {
+            ReflectionTestUtils.setField(generator, "seed", 20200907L);
+            ReflectionTestUtils.setField(generator, "attempts", 4);
+        });
+
+        assertThat(first.attemptSeeds().toArray()).hasSize(4).containsExactly(second.attemptSeeds().toArray());
+        first.shutdown();
+        second.shutdown();
+    }
+
     @Test
     public void repositoryShouldHaveHundredTwentyFiveReschedulingOptions() {
 
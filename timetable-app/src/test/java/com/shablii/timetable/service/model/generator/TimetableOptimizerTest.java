@@ -0,0 +1,90 @@
+package com.shablii.timetable.service.model.generator;
+
+import com.shablii.timetable.model.Period;
+import com.shablii.timetable.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimetableOptimizerTest {
+
+    private final List<Auditorium> auditoriums = Arrays.asList(new Auditorium(1L, "one"), new Auditorium(2L, "two"));
+    private final Course course = new Course(1L, "course");
+    private final Group group = new Group(1L, "group");
+    private final Professor professor = new Professor(1L, "professor", "professor");
+
+    @Test
+    public void optimizeShouldCloseGapsBetweenLessonsOfGroup() {
+
+        List<ScheduleTemplate> templates = Arrays.asList(template(DayOfWeek.MONDAY, Period.FIRST),
+                template(DayOfWeek.MONDAY, Period.FIFTH));
+
+        TimetableOptimizer.Result result = new TimetableOptimizer(auditoriums, new TimetableWeights(3, 0), 1).optimize(templates, 1000);
+
+        assertThat(result.getInitialScore()).isEqualTo(9);
+        assertThat(result.getBestScore()).isZero();
+        assertThat(TimetableScore.of(new TimetableSolver.Solution(result.getTemplates(), Collections.emptyList(), 0),
+                new TimetableWeights(3, 0)).getGroupGaps()).isZero();
+    }
+
+    @Test
+    public void optimizeShouldKeepLessonsFeasibleAndNeverWorsenScore() {
+
+        List<Group> groups = LongStream.rangeClosed(1, 40)
+                .mapToObj(id -> new Group(id, "group " + id))
+                .collect(Collectors.toList());
+        List<Course> courses = LongStream.rangeClosed(1, 10)
+                .mapToObj(id -> new Course(id, "course " + id))
+                .collect(Collectors.toList());
+        List<Professor> professors = LongStream.rangeClosed(1, 20)
+                .mapToObj(id -> new Professor(id, "professor", String.valueOf(id)))
+                .collect(Collectors.toList());
+        List<Auditorium> rooms = LongStream.rangeClosed(1, 12)
+                .mapToObj(id -> new Auditorium(id, "auditorium " + id))
+                .collect(Collectors.toList());
+        for (int i = 0; i < professors.size(); i++) {
+            professors.get(i).addCourse(courses.get(i % courses.size()));
+        }
+        List<ScheduleTemplate> generated = new TimetableSolver(groups, courses, professors, rooms, new Random(3),
+                1000).solve().getTemplates();
+
+        TimetableOptimizer.Result result = new TimetableOptimizer(rooms, new TimetableWeights(3, 1), 3).optimize(generated, 300);
+
+        assertThat(result.getBestScore()).isLessThan(result.getInitialScore());
+        assertThat(result.getMoves()).isPositive();
+        assertThat(result.getTrajectory()).isNotEmpty()
+                .allMatch(point -> point.getBestScore() <= result.getInitialScore());
+        assertThat(result.getTemplates()).hasSameSizeAs(generated);
+        assertThat(lessonsOf(result.getTemplates())).isEqualTo(lessonsOf(generated));
+        assertUnique(result.getTemplates(), ScheduleTemplate::getAuditorium);
+        assertUnique(result.getTemplates(), ScheduleTemplate::getGroup);
+        assertUnique(result.getTemplates(), ScheduleTemplate::getProfessor);
+    }
+
+    private ScheduleTemplate template(DayOfWeek day, Period period) {
+
+        return new ScheduleTemplate(false, day, period, auditoriums.get(0), course, group, professor);
+    }
+
+    private Map<List<Object>, Long> lessonsOf(List<ScheduleTemplate> templates) {
+
+        return templates.stream()
+                .collect(Collectors.groupingBy(
+                        template -> Arrays.asList(template.getGroup(), template.getCourse(), template.getProfessor()),
+                        Collectors.counting()));
+    }
+
+    private void assertUnique(List<ScheduleTemplate> templates, Function<ScheduleTemplate, Object> resource) {
+
+        Set<List<Object>> taken = new HashSet<>();
+        templates.forEach(template -> assertThat(taken.add(
+                Arrays.asList(template.getWeekParity(), template.getDay(), template.getPeriod(),
+                        resource.apply(template)))).isTrue());
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.shablii.timetable.service.model.generator;
+
+import com.shablii.timetable.model.*;
+import com.shablii.timetable.service.TimetableFacade;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.MethodMode;
+
+import java.util.*;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class TimetableRepairerTest {
+
+    @Autowired
+    private TimetableFacade timetableFacade;
+
+    @Autowired
+    private TimetableModelGenerator timetableModelGenerator;
+
+    @Autowired
+    private TimetableRepairer timetableRepairer;
+
+    @Test
+    @DirtiesContext(methodMode = MethodMode.AFTER_METHOD)
+    public void repairShouldReplaceOnlyTemplatesOfDroppedCourse() {
+
+        timetableFacade.deleteTimetableData();
+        timetableModelGenerator.generateAndSave();
+        List<ScheduleTemplate> generated = timetableFacade.getTwoWeekSchedule();
+        ScheduleTemplate dropped = generated.get(0);
+        Professor professor = dropped.getProfessor();
+        professor.removeCourse(dropped.getCourse());
+        timetableFacade.saveProfessor(professor);
+        List<ScheduleTemplate> untouched = generated.stream()
+                .filter(template -> !template.getProfessor().equals(professor) || !template.getCourse()
+                        .equals(dropped.getCourse()))
+                .collect(toList());
+
+        TimetableRepairer.Result result = timetableRepairer.repair();
+
+        List<ScheduleTemplate> repaired = timetableFacade.getTwoWeekSchedule();
+        assertThat(result.getRemoved()).isEqualTo(generated.size() - untouched.size());
+        assertThat(repaired).containsAll(untouched)
+                .hasSize(untouched.size() + result.getPlaced().size())
+                .allMatch(template -> template.getProfessor().getCourses().contains(template.getCourse()));
+
+        Professor restored = timetableFacade.getProfessor(professor.getId()).orElseThrow(IllegalStateException::new);
+        restored.addCourse(dropped.getCourse());
+        timetableFacade.saveProfessor(restored);
+    }
+
+    @Test
+    @DirtiesContext(methodMode = MethodMode.AFTER_METHOD)
+    public void deleteProfessorShouldReplacePairsOfProfessorAroundUntouchedTemplates() {
+
+        List<ScheduleTemplate> generated = timetableFacade.getTwoWeekSchedule();
+        Professor deleted = generated.get(0).getProfessor();
+        List<ScheduleTemplate> untouched = generated.stream()
+                .filter(template -> !template.getProfessor().equals(deleted))
+                .collect(toList());
+
+        timetableFacade.deleteProfessor(deleted);
+
+        List<ScheduleTemplate> repaired = timetableFacade.getTwoWeekSchedule();
+        assertThat(repaired).containsAll(untouched)
+                .noneMatch(template -> template.getProfessor().equals(deleted))
+                .allMatch(template -> template.getProfessor().getCourses().contains(template.getCourse()));
+        assertThat(timetableFacade.getProfessor(deleted.getId())).isEmpty();
+    }
+
+    @Test
+    @DirtiesContext(methodMode = MethodMode.AFTER_METHOD)
+    public void repairShouldKeepValidTemplatesIntact() {
+
+        timetableFacade.deleteTimetableData();
+        timetableModelGenerator.generateAndSave();
+        List<ScheduleTemplate> generated = timetableFacade.getTwoWeekSchedule();
+
+        TimetableRepairer.Result result = timetableRepairer.repair();
+
+        assertThat(result.getRemoved()).isZero();
+        assertThat(timetableFacade.getTwoWeekSchedule()).containsAll(generated);
+    }
+
+}
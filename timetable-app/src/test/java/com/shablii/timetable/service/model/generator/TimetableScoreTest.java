@@ -0,0 +1,72 @@
+package com.shablii.timetable.service.model.generator;
+
+import com.shablii.timetable.model.Period;
+import com.shablii.timetable.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimetableScoreTest {
+
+    private final Auditorium auditorium = new Auditorium(1L, "auditorium");
+    private final Course course = new Course(1L, "course");
+    private final Group group = new Group(1L, "group");
+    private final Professor professor = new Professor(1L, "professor", "professor");
+    private final TimetableWeights weights = new TimetableWeights(3, 1);
+
+    @Test
+    public void gapsOfShouldCountEmptyPeriodsBetweenLessonsOfEachDay() {
+
+        long mondayFirstAndFourth = 0b01001L;
+        long tuesdaySecondAndThird = 0b00110L << 5;
+        long nextFridayFirstAndFifth = 0b10001L << 45;
+
+        int actual = TimetableScore.gapsOf(mondayFirstAndFourth | tuesdaySecondAndThird | nextFridayFirstAndFifth);
+
+        assertThat(actual).isEqualTo(5);
+    }
+
+    @Test
+    public void imbalanceOfShouldSumDifferenceBetweenBusiestAndQuietestDayOfEachWeek() {
+
+        long mondayThreeLessons = 0b00111L;
+        long nextWeekEveryDayOneLesson = 0b00001_00001_00001_00001_00001L << 25;
+
+        int actual = TimetableScore.imbalanceOf(mondayThreeLessons | nextWeekEveryDayOneLesson);
+
+        assertThat(actual).isEqualTo(3);
+    }
+
+    @Test
+    public void ofShouldScoreGapsImbalanceAndUnplacedPairs() {
+
+        List<ScheduleTemplate> templates = Arrays.asList(template(DayOfWeek.MONDAY, Period.FIRST),
+                template(DayOfWeek.MONDAY, Period.THIRD));
+        List<TimetableSolver.Unplaced> unplaced = Collections.singletonList(
+                new TimetableSolver.Unplaced(group, new Course(2L, "another")));
+
+        TimetableScore actual = TimetableScore.of(new TimetableSolver.Solution(templates, unplaced, 0), weights);
+
+        assertThat(actual).isEqualTo(new TimetableScore(1, 1, 2, weights));
+        assertThat(actual.getTotal()).isEqualTo(
+                TimetableScore.UNPLACED_WEIGHT + weights.getGap() + 2 * weights.getImbalance());
+    }
+
+    @Test
+    public void compareToShouldRankAnyUnplacedPairBelowSoftPenalties() {
+
+        TimetableScore complete = new TimetableScore(0, 100, 100, weights);
+        TimetableScore incomplete = new TimetableScore(1, 0, 0, weights);
+
+        assertThat(complete).isLessThan(incomplete);
+    }
+
+    private ScheduleTemplate template(DayOfWeek day, Period period) {
+
+        return new ScheduleTemplate(false, day, period, auditorium, course, group, professor);
+    }
+
+}
@@ -0,0 +1,156 @@
+package com.shablii.timetable.service.model.generator;
+
+import com.shablii.timetable.model.*;
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimetableSolverTest {
+
+    @Test
+    public void solveShouldPlaceEveryPairWithoutCollisions() {
+
+        University university = new University(30, 8, 16, 8);
+
+        TimetableSolver.Solution solution = university.solve(new Random(1), 1000);
+
+        assertThat(solution.getUnplaced()).isEmpty();
+        assertThat(solution.getTemplates()).hasSize(30 * 8);
+        assertNoCollisions(solution.getTemplates());
+    }
+
+    @Test
+    public void solveShouldPlaceEveryPairInFullyBookedCycle() {
+
+        University university = new University(4, 25, 2, 25);
+
+        TimetableSolver.Solution solution = university.solve(new Random(7), 100000);
+
+        assertThat(solution.getUnplaced()).isEmpty();
+        assertThat(solution.getTemplates()).hasSize(2 * TimetableSolver.SLOTS);
+        assertNoCollisions(solution.getTemplates());
+    }
+
+    @Test
+    public void solveShouldReportPairsThatCannotBePlaced() {
+
+        University university = new University(3, 2, 2, 1);
+        university.professors.forEach(professor -> professor.getCourses().clear());
+        university.professors.get(0).addCourse(university.courses.get(0));
+
+        TimetableSolver.Solution solution = university.solve(new Random(3), 100);
+
+        assertThat(solution.getTemplates()).hasSize(3);
+        assertThat(solution.getUnplaced()).hasSize(3)
+                .allMatch(pair -> pair.getCourse().equals(university.courses.get(1)));
+    }
+
+    @Test
+    public void solveShouldProduceSameTimetableGivenSameSeed() {
+
+        University university = new University(20, 5, 10, 4);
+
+        List<ScheduleTemplate> first = university.solve(new Random(42), 1000).getTemplates();
+        List<ScheduleTemplate> second = university.solve(new Random(42), 1000).getTemplates();
+
+        assertThat(first).isEqualTo(second);
+    }
+
+    @Test
+    @Timeout(30)
+    public void solveShouldPlaceLargeUniversityInSeconds() {
+
+        University university = new University(1000, 8, 200, 200);
+
+        TimetableSolver.Solution solution = university.solve(new Random(5), 100000);
+
+        assertThat(solution.getUnplaced()).isEmpty();
+        assertNoCollisions(solution.getTemplates());
+    }
+
+    @Test
+    public void solveShouldReportEveryPairUnplacedIfDeadlineHasPassed() {
+
+        University university = new University(3, 2, 2, 2);
+
+        TimetableSolver.Solution solution = new TimetableSolver(university.groups, university.courses,
+                university.professors, university.auditoriums, new Random(1), 100).withDeadline(0).solve();
+
+        assertThat(solution.getTemplates()).isEmpty();
+        assertThat(solution.getUnplaced()).hasSize(6);
+    }
+
+    @Test
+    public void solveShouldPlaceOnlyMissingPairsAroundFixedTemplates() {
+
+        University university = new University(10, 5, 4, 5);
+        List<ScheduleTemplate> complete = university.solve(new Random(9), 1000).getTemplates();
+        List<ScheduleTemplate> fixed = complete.stream()
+                .filter(template -> !template.getCourse().equals(university.courses.get(0)))
+                .collect(Collectors.toList());
+
+        TimetableSolver.Solution solution = new TimetableSolver(university.groups, university.courses,
+                university.professors, university.auditoriums, new Random(2), 1000).withFixed(fixed).solve();
+
+        assertThat(solution.getUnplaced()).isEmpty();
+        assertThat(solution.getTemplates()).hasSize(10)
+                .allMatch(template -> template.getCourse().equals(university.courses.get(0)));
+        List<ScheduleTemplate> repaired = new ArrayList<>(fixed);
+        repaired.addAll(solution.getTemplates());
+        assertNoCollisions(repaired);
+    }
+
+    private void assertNoCollisions(List<ScheduleTemplate> templates) {
+
+        assertUnique(templates, ScheduleTemplate::getAuditorium);
+        assertUnique(templates, ScheduleTemplate::getGroup);
+        assertUnique(templates, ScheduleTemplate::getProfessor);
+    }
+
+    private void assertUnique(List<ScheduleTemplate> templates, Function<ScheduleTemplate, Object> resource) {
+
+        Set<List<Object>> taken = new HashSet<>();
+        templates.forEach(template -> assertThat(taken.add(
+                Arrays.asList(template.getWeekParity(), template.getDay(), template.getPeriod(),
+                        resource.apply(template)))).isTrue());
+    }
+
+    /* Courses are spread over professors round robin, every professor teaching a single course */
+    private static class University {
+
+        private final List<Group> groups;
+        private final List<Course> courses;
+        private final List<Auditorium> auditoriums;
+        private final List<Professor> professors;
+
+        University(int groups, int courses, int auditoriums, int professors) {
+
+            this.groups = LongStream.rangeClosed(1, groups)
+                    .mapToObj(id -> new Group(id, "group " + id))
+                    .collect(Collectors.toList());
+            this.courses = LongStream.rangeClosed(1, courses)
+                    .mapToObj(id -> new Course(id, "course " + id))
+                    .collect(Collectors.toList());
+            this.auditoriums = LongStream.rangeClosed(1, auditoriums)
+                    .mapToObj(id -> new Auditorium(id, "auditorium " + id))
+                    .collect(Collectors.toList());
+            this.professors = LongStream.rangeClosed(1, professors)
+                    .mapToObj(id -> new Professor(id, "professor", String.valueOf(id)))
+                    .collect(Collectors.toList());
+            for (int i = 0; i < Math.max(courses, professors); i++) {
+                this.professors.get(i % professors).addCourse(this.courses.get(i % courses));
+            }
+        }
+
+        TimetableSolver.Solution solve(Random random, int maxBacktracks) {
+
+            return new TimetableSolver(groups, courses, professors, auditoriums, random, maxBacktracks).solve();
+        }
+
+    }
+
+}
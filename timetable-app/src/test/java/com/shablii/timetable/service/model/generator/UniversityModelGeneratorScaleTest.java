@@ -0,0 +1,112 @@
+package com.shablii.timetable.service.model.generator;
+
+import com.shablii.timetable.model.*;
+import com.shablii.timetable.service.TimetableFacade;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.*;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.*;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class UniversityModelGeneratorScaleTest {
+
+    private final List<Student> savedStudents = new ArrayList<>();
+
+    @Mock
+    private TimetableFacade timetableFacade;
+    @InjectMocks
+    private UniversityModelGenerator universityModelGenerator;
+
+    @BeforeEach
+    private void configureGenerator() {
+
+        universityModelGenerator.setFirstNamesFilePath("first_names.txt");
+        universityModelGenerator.setLastNamesFilePath("last_names.txt");
+        universityModelGenerator.setCoursesFilePath("courses.txt");
+        universityModelGenerator.setTotalAuditoriums(50);
+        universityModelGenerator.setTotalCourses(30);
+        universityModelGenerator.setTotalProfessors(40);
+        universityModelGenerator.setTotalStudents(10000);
+        universityModelGenerator.setGroupSize(30);
+        universityModelGenerator.setBatchSize(1000);
+        universityModelGenerator.setSeed(42L);
+        given(timetableFacade.saveCourses(anyList())).willAnswer(invocation -> invocation.getArgument(0));
+        given(timetableFacade.saveGroups(anyList())).willAnswer(invocation -> invocation.getArgument(0));
+        given(timetableFacade.saveStudents(anyList())).willAnswer(invocation -> {
+            List<Student> students = invocation.getArgument(0);
+            savedStudents.addAll(students);
+            return students;
+        });
+    }
+
+    @Test
+    public void generateAndSaveShouldSaveStudentsInBatchesSortedByLastName() {
+
+        universityModelGenerator.generateAndSave();
+
+        then(timetableFacade).should(times(10)).saveStudents(anyList());
+        assertThat(savedStudents).hasSize(10000)
+                .extracting(Student::getLastName)
+                .isSorted();
+        assertThat(savedStudents.stream().collect(groupingBy(Student::getGroup, counting())).values()).hasSize(334)
+                .allMatch(groupSize -> groupSize <= 30);
+    }
+
+    @Test
+    public void generateAndSaveShouldRepeatCourseNamesWhenFileListsFewer() {
+
+        universityModelGenerator.generateAndSave();
+
+        ArgumentCaptor<List<Course>> courses = ArgumentCaptor.forClass(List.class);
+        then(timetableFacade).should().saveCourses(courses.capture());
+        assertThat(courses.getValue()).hasSize(30)
+                .extracting(Course::getName)
+                .doesNotHaveDuplicates()
+                .contains("Dark Magic", "Dark Magic 2", "Dark Magic 3");
+    }
+
+    @Test
+    public void generateAndSaveShouldAssignEveryCourseToOneOrTwoProfessors() {
+
+        universityModelGenerator.generateAndSave();
+
+        ArgumentCaptor<List<Professor>> professors = ArgumentCaptor.forClass(List.class);
+        then(timetableFacade).should().saveProfessors(professors.capture());
+        Map<Course, Long> assignments = professors.getValue()
+                .stream()
+                .flatMap(professor -> professor.getCourses().stream())
+                .collect(groupingBy(Function.identity(), counting()));
+        assertThat(assignments).hasSize(30);
+        assertThat(assignments.values()).allMatch(count -> count >= 1 && count <= 2);
+        assertThat(professors.getValue()).allMatch(professor -> professor.getCourses().size() <= 4);
+    }
+
+    @Test
+    public void generateAndSaveShouldReproduceUniversityGivenSameSeed() {
+
+        universityModelGenerator.generateAndSave();
+        List<String> first = namesOf(savedStudents);
+        savedStudents.clear();
+        universityModelGenerator.generateAndSave();
+
+        assertThat(namesOf(savedStudents)).isEqualTo(first);
+    }
+
+    private List<String> namesOf(List<Student> students) {
+
+        return students.stream()
+                .map(student -> student.getFirstName() + " " + student.getLastName() + " " + student.getGroup()
+                        .getName())
+                .collect(toList());
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.shablii.timetable.service.model.generator;
 
+import com.shablii.timetable.dao.DataResetDao;
 import com.shablii.timetable.model.*;
 import com.shablii.timetable.service.TimetableFacade;
 import org.junit.jupiter.api.Test;
@@ -26,11 +27,14 @@ class UniversityModelGeneratorTest {
     @Autowired
     private UniversityModelGenerator universityModelGenerator;
 
+    @Autowired
+    private DataResetDao dataResetDao;
+
     @Test
     @Transactional
     public void generateAndSaveShouldSaveGeneratedDataToRepository() {
 
-        timetableFacade.deleteAllData();
+        dataResetDao.truncateAll(false);
 
         universityModelGenerator.generateAndSave();
 
@@ -0,0 +1,54 @@
+package com.shablii.timetable.service.utility;
+
+import com.shablii.timetable.dao.*;
+import com.shablii.timetable.model.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class OccupancyEventListenerIntegrationTest {
+
+    private final LocalDate date = LocalDate.of(2030, 1, 7);
+
+    @Autowired
+    private OccupancyStore occupancyStore;
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+    @Autowired
+    private ScheduleTemplateRepository templateRepository;
+    @Autowired
+    private AuditoriumRepository auditoriumRepository;
+
+    @Test
+    public void committedScheduleChangesShouldBeReflectedInOccupancyStore() {
+
+        ScheduleTemplate template = templateRepository.findAll().get(0);
+        List<Auditorium> auditoriums = auditoriumRepository.findAll();
+        Auditorium original = template.getAuditorium();
+        Auditorium another = auditoriums.stream()
+                .filter(auditorium -> !auditorium.equals(original))
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+        int originalBit = Math.toIntExact(original.getId());
+        int anotherBit = Math.toIntExact(another.getId());
+        occupancyStore.rebuild();
+
+        Schedule schedule = scheduleRepository.save(new Schedule(template, date));
+        assertThat(occupancyStore.findBusyAuditoriums(date, template.getPeriod()).get(originalBit)).isTrue();
+
+        schedule.setAuditorium(another);
+        schedule = scheduleRepository.save(schedule);
+        assertThat(occupancyStore.findBusyAuditoriums(date, template.getPeriod()).get(originalBit)).isFalse();
+        assertThat(occupancyStore.findBusyAuditoriums(date, template.getPeriod()).get(anotherBit)).isTrue();
+
+        scheduleRepository.delete(schedule);
+        assertThat(occupancyStore.checkConsistency()).isTrue();
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.shablii.timetable.service.utility;
+
+import com.shablii.timetable.model.Period;
+import com.shablii.timetable.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.*;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OccupancyIndexTest {
+
+    private final DayOfWeek day = DayOfWeek.MONDAY;
+    private final Auditorium auditorium = new Auditorium(1L, "one");
+    private final Auditorium anotherAuditorium = new Auditorium(2L, "two");
+    private final Course course = new Course(1L, "course");
+    private final Group group = new Group(1L, "one");
+    private final Group anotherGroup = new Group(2L, "two");
+    private final Professor professor = new Professor(1L, "one", "one");
+    private final Professor anotherProfessor = new Professor(2L, "two", "two");
+    private final Schedule candidate = new Schedule(
+            new ScheduleTemplate(1L, false, day, Period.FIRST, auditorium, course, group, professor),
+            LocalDate.of(2020, 9, 7));
+
+    @Test
+    public void availableForShouldRejectOptionsWithBusyAuditorium() {
+
+        ScheduleTemplate busy = new ScheduleTemplate(2L, false, day, Period.SECOND, auditorium, course, anotherGroup,
+                anotherProfessor);
+        OccupancyIndex index = OccupancyIndex.of(Collections.singletonList(busy), Collections.emptyList());
+
+        Predicate<ReschedulingOption> available = index.availableFor(candidate);
+
+        assertThat(available.test(new ReschedulingOption(day, Period.SECOND, auditorium))).isFalse();
+        assertThat(available.test(new ReschedulingOption(day, Period.SECOND, anotherAuditorium))).isTrue();
+        assertThat(available.test(new ReschedulingOption(day, Period.THIRD, auditorium))).isTrue();
+        assertThat(available.test(new ReschedulingOption(DayOfWeek.TUESDAY, Period.SECOND, auditorium))).isTrue();
+    }
+
+    @Test
+    public void availableForShouldRejectPeriodsWithBusyGroupOrProfessor() {
+
+        Schedule busyGroup = new Schedule(
+                new ScheduleTemplate(2L, false, day, Period.SECOND, anotherAuditorium, course, group, anotherProfessor),
+                LocalDate.of(2020, 9, 7));
+        ScheduleTemplate busyProfessor = new ScheduleTemplate(3L, false, day, Period.THIRD, anotherAuditorium, course,
+                anotherGroup, professor);
+        OccupancyIndex index = OccupancyIndex.of(Collections.singletonList(busyProfessor),
+                Collections.singletonList(busyGroup));
+
+        Predicate<ReschedulingOption> available = index.availableFor(candidate);
+
+        assertThat(available.test(new ReschedulingOption(day, Period.FIRST, auditorium))).isTrue();
+        assertThat(available.test(new ReschedulingOption(day, Period.SECOND, auditorium))).isFalse();
+        assertThat(available.test(new ReschedulingOption(day, Period.THIRD, auditorium))).isFalse();
+    }
+
+    @Test
+    public void availableForShouldAcceptEverythingGivenEmptyIndex() {
+
+        OccupancyIndex index = new OccupancyIndex();
+
+        Predicate<ReschedulingOption> available = index.availableFor(candidate);
+
+        assertThat(available.test(new ReschedulingOption(day, Period.FIRST, auditorium))).isTrue();
+    }
+
+}
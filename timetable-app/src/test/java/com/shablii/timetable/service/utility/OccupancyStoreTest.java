@@ -0,0 +1,193 @@
+package com.shablii.timetable.service.utility;
+
+import com.shablii.timetable.dao.*;
+import com.shablii.timetable.model.Period;
+import com.shablii.timetable.model.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OccupancyStoreTest {
+
+    private final SemesterCalendar semesterCalendar = new SemesterCalendar("2020-09-07", "2020-12-11");
+    private final LocalDate start = semesterCalendar.getStartDate();
+    private final LocalDate end = semesterCalendar.getEndDate();
+    private final LocalDate monday = LocalDate.of(2020, 9, 7);
+    private final Auditorium auditorium = new Auditorium(1L, "A-01");
+    private final Auditorium anotherAuditorium = new Auditorium(2L, "A-02");
+    private final Course course = new Course(1L, "course");
+    private final Group group = new Group(3L, "G-03");
+    private final Professor professor = new Professor(4L, "four", "four");
+    private final ScheduleTemplate template = new ScheduleTemplate(1L, semesterCalendar.getWeekParityOf(monday),
+            DayOfWeek.MONDAY, Period.FIRST, auditorium, course, group, professor);
+
+    @Mock
+    private ScheduleRepository scheduleRepository;
+    @Mock
+    private ScheduleTemplateRepository templateRepository;
+
+    private OccupancyStore store;
+
+    @BeforeEach
+    private void createStore() {
+
+        store = new OccupancyStore(semesterCalendar, scheduleRepository, templateRepository, true);
+    }
+
+    @Test
+    void findBusyShouldFallBackToTemplatesForDatesWithoutSchedules() {
+
+        given(templateRepository.findAll()).willReturn(Collections.singletonList(template));
+
+        assertThat(store.findBusyAuditoriums(monday, Period.FIRST).get(1)).isTrue();
+        assertThat(store.findBusyGroups(monday, Period.FIRST).get(3)).isTrue();
+        assertThat(store.findBusyProfessors(monday, Period.FIRST).get(4)).isTrue();
+        assertThat(store.findBusyAuditoriums(monday, Period.SECOND).isEmpty()).isTrue();
+        assertThat(store.findBusyAuditoriums(monday.plusWeeks(1), Period.FIRST).isEmpty()).isTrue();
+    }
+
+    @Test
+    void findBusyShouldPreferMaterializedSchedulesOfDate() {
+
+        Schedule moved = new Schedule(template, monday);
+        moved.setId(1L);
+        moved.setPeriod(Period.SECOND);
+        given(templateRepository.findAll()).willReturn(Collections.singletonList(template));
+        given(scheduleRepository.findAllByDateBetween(start, end)).willReturn(Collections.singletonList(moved));
+
+        assertThat(store.findBusyAuditoriums(monday, Period.FIRST).isEmpty()).isTrue();
+        assertThat(store.findBusyAuditoriums(monday, Period.SECOND).get(1)).isTrue();
+    }
+
+    @Test
+    void findBusyShouldReadSchedulesOfDateOutsideSemesterFromRepository() {
+
+        LocalDate archived = LocalDate.of(2020, 6, 1);
+        Schedule schedule = new Schedule(template, archived);
+        schedule.setId(1L);
+        given(scheduleRepository.findAllByDate(archived)).willReturn(Collections.singletonList(schedule));
+
+        assertThat(store.findBusyAuditoriums(archived, Period.FIRST).get(1)).isTrue();
+        assertThat(store.findBusyGroups(archived, Period.FIRST).get(3)).isTrue();
+        then(scheduleRepository).should(times(2)).findAllByDate(archived);
+        then(scheduleRepository).should(never()).findAll();
+        then(scheduleRepository).should().findAllByDateBetween(start, end);
+    }
+
+    @Test
+    void occupyShouldMoveScheduleBetweenSlots() {
+
+        Schedule schedule = new Schedule(template, monday);
+        schedule.setId(1L);
+        store.rebuild();
+        store.occupy(schedule);
+
+        Schedule updated = new Schedule(schedule);
+        updated.setAuditorium(anotherAuditorium);
+        store.occupy(updated);
+
+        assertThat(store.findBusyAuditoriums(monday, Period.FIRST).get(1)).isFalse();
+        assertThat(store.findBusyAuditoriums(monday, Period.FIRST).get(2)).isTrue();
+    }
+
+    @Test
+    void releaseShouldKeepBitsOfRemainingOccupants() {
+
+        Schedule first = new Schedule(template, monday);
+        first.setId(1L);
+        Schedule second = new Schedule(template, monday);
+        second.setId(2L);
+        second.setAuditorium(anotherAuditorium);
+        Schedule unrelated = new Schedule(template, monday);
+        unrelated.setId(3L);
+        unrelated.setPeriod(Period.FIFTH);
+        store.rebuild();
+        store.occupy(first);
+        store.occupy(second);
+        store.occupy(unrelated);
+
+        store.release(second);
+
+        BitSet busy = store.findBusyAuditoriums(monday, Period.FIRST);
+        assertThat(busy.get(1)).isTrue();
+        assertThat(busy.get(2)).isFalse();
+        assertThat(store.findBusyGroups(monday, Period.FIRST).get(3)).isTrue();
+    }
+
+    @Test
+    void eventsShouldBeIgnoredUntilStoreIsBuilt() {
+
+        Schedule schedule = new Schedule(template, monday);
+        schedule.setId(1L);
+
+        store.occupy(schedule);
+
+        assertThat(store.isBuilt()).isFalse();
+        then(scheduleRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void occupyDuringLoadShouldNotWaitAndShouldBeReplayedOnLoadedState() throws Exception {
+
+        Schedule schedule = new Schedule(template, monday);
+        schedule.setId(1L);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(templateRepository.findAll()).willAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return Collections.emptyList();
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<BitSet> busy = executor.submit(() -> store.findBusyAuditoriums(monday, Period.FIRST));
+            loading.await();
+            executor.submit(() -> store.occupy(schedule)).get(5, TimeUnit.SECONDS);
+            release.countDown();
+
+            assertThat(busy.get(5, TimeUnit.SECONDS).get(1)).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(store.findBusyAuditoriums(monday, Period.FIRST).get(1)).isTrue();
+        then(templateRepository).should().findAll();
+    }
+
+    @Test
+    void invalidateShouldCauseRebuildOnNextQuery() {
+
+        store.rebuild();
+
+        store.invalidate();
+        store.findBusyAuditoriums(monday, Period.FIRST);
+
+        then(scheduleRepository).should(times(2)).findAllByDateBetween(start, end);
+        assertThat(store.isBuilt()).isTrue();
+    }
+
+    @Test
+    void checkConsistencyShouldReplaceDivergedState() {
+
+        Schedule schedule = new Schedule(template, monday);
+        schedule.setId(1L);
+        store.rebuild();
+        given(scheduleRepository.findAllByDateBetween(start, end)).willReturn(Collections.singletonList(schedule));
+
+        boolean consistent = store.checkConsistency();
+
+        assertThat(consistent).isFalse();
+        assertThat(store.findBusyAuditoriums(monday, Period.FIRST).get(1)).isTrue();
+        assertThat(store.checkConsistency()).isTrue();
+    }
+
+}
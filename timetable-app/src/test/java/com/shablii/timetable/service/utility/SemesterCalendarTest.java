@@ -6,7 +6,7 @@ import org.junit.jupiter.params.provider.*;
 
 import java.time.*;
 
-import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.*;
 
 public class SemesterCalendarTest {
 
@@ -68,6 +68,25 @@ public class SemesterCalendarTest {
         assertThat(semesterDate).isTrue();
     }
 
+    @Test
+    public void findMoveErrorShouldBeEmptyGivenTeachingDateAndItsDay() {
+
+        assertThat(semesterCalendar.findMoveError(LocalDate.of(2020, 10, 13), DayOfWeek.TUESDAY)).isEmpty();
+    }
+
+    @Test
+    public void findMoveErrorShouldRejectDateOutsideSemester() {
+
+        assertThat(semesterCalendar.findMoveError(LocalDate.of(2020, 12, 14), DayOfWeek.MONDAY)).isNotEmpty();
+    }
+
+    @Test
+    public void findMoveErrorShouldRejectDayOtherThanDayOfDate() {
+
+        assertThat(semesterCalendar.findMoveError(LocalDate.of(2020, 10, 13), DayOfWeek.FRIDAY)).hasValueSatisfying(
+                error -> assertThat(error).contains("FRIDAY", "TUESDAY"));
+    }
+
     @ParameterizedTest
     @ValueSource(ints = { -1, 0, 15 })
     public void isSemesterWeekShouldReturnFalseGivenInvalidSemesterWeekNumbers(int weekNumber) {
@@ -261,4 +280,49 @@ public class SemesterCalendarTest {
         assertThat(actual).isEqualTo(expected);
     }
 
+    @ParameterizedTest
+    @CsvSource(value = { "2020-12-28:17:false", "2021-01-04:18:true", "2021-01-29:21:false" }, delimiter = ':')
+    public void getSemesterWeekNumberShouldCountWeeksAcrossYearBoundary(String anyWeekDate, String weekNumber,
+            String weekParity) {
+
+        SemesterCalendar winterSemester = new SemesterCalendar("2020-09-07", "2021-01-29");
+        LocalDate date = LocalDate.parse(anyWeekDate);
+
+        assertThat(winterSemester.getSemesterWeekNumber(date)).isEqualTo(Integer.parseInt(weekNumber));
+        assertThat(winterSemester.getWeekParityOf(date)).isEqualTo(Boolean.parseBoolean(weekParity));
+    }
+
+    @ParameterizedTest
+    @CsvSource(value = { "2020-02-10:2:true", "2021-02-01:1:false", "2021-03-03:5:false" }, delimiter = ':')
+    public void getSemesterWeekNumberShouldCountWeeksFromStartOfFurtherSemesterContainingDate(String anyWeekDate,
+            String weekNumber, String weekParity) {
+
+        SemesterCalendar calendar = new SemesterCalendar("2020-09-07", "2020-12-11",
+                "2021-02-01/2021-05-28, 2020-02-03/2020-05-29");
+        LocalDate date = LocalDate.parse(anyWeekDate);
+
+        assertThat(calendar.isSemesterDate(date)).isTrue();
+        assertThat(calendar.getSemesterWeekNumber(date)).isEqualTo(Integer.parseInt(weekNumber));
+        assertThat(calendar.getWeekParityOf(date)).isEqualTo(Boolean.parseBoolean(weekParity));
+        assertThat(calendar.getWeekMonday(date).getDayOfWeek()).isEqualTo(DayOfWeek.MONDAY);
+    }
+
+    @Test
+    public void getSemestersShouldReturnEverySemesterOrderedByStartDate() {
+
+        SemesterCalendar calendar = new SemesterCalendar("2020-09-07", "2020-12-11",
+                "2021-02-01/2021-05-28, 2020-02-03/2020-05-29");
+
+        assertThat(calendar.getSemesters()).extracting(SemesterCalendar.Semester::getStartDate)
+                .containsExactly(LocalDate.of(2020, 2, 3), LocalDate.of(2020, 9, 7), LocalDate.of(2021, 2, 1));
+        assertThat(calendar.isSemesterDate(LocalDate.of(2021, 1, 4))).isFalse();
+    }
+
+    @Test
+    public void constructorShouldRejectOverlappingSemesters() {
+
+        assertThatThrownBy(() -> new SemesterCalendar("2020-09-07", "2020-12-11", "2020-12-01/2021-01-29"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
 }
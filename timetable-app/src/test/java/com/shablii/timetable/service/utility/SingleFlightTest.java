@@ -0,0 +1,117 @@
+package com.shablii.timetable.service.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<Integer> singleFlight = new SingleFlight<>();
+
+    @Test
+    void executeShouldPassAllKeysToActionWhenNoneInFlight() {
+
+        List<Integer> actual = new ArrayList<>();
+
+        singleFlight.execute(Arrays.asList(1, 2, 3), actual::addAll);
+
+        assertThat(actual).containsExactly(1, 2, 3);
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void executeShouldRunActionOncePerKeyAndWaitForConcurrentCallers() throws Exception {
+
+        int callers = 8;
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        try {
+            Future<?> leader = executor.submit(() -> singleFlight.execute(Collections.singletonList(1), keys -> {
+                executions.incrementAndGet();
+                started.countDown();
+                await(release);
+            }));
+            started.await();
+
+            CountDownLatch arrived = new CountDownLatch(callers - 1);
+            List<Future<?>> followers = new ArrayList<>();
+            for (int i = 1; i < callers; i++) {
+                followers.add(executor.submit(() -> {
+                    arrived.countDown();
+                    singleFlight.execute(Collections.singletonList(1), keys -> executions.incrementAndGet());
+                }));
+            }
+            arrived.await();
+            Thread.sleep(100);
+            assertThat(followers).noneMatch(Future::isDone);
+
+            release.countDown();
+            leader.get(5, TimeUnit.SECONDS);
+            for (Future<?> follower : followers) {
+                follower.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void executeShouldReleaseKeysWhenActionFails() {
+
+        assertThatIllegalStateException().isThrownBy(() -> singleFlight.execute(Collections.singletonList(1), keys -> {
+            throw new IllegalStateException("test");
+        }));
+
+        List<Integer> actual = new ArrayList<>();
+        singleFlight.execute(Collections.singletonList(1), actual::addAll);
+
+        assertThat(actual).containsExactly(1);
+    }
+
+    @Test
+    void executeShouldFailWaitingCallersWhenActionFails() throws Exception {
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<?> leader = executor.submit(() -> singleFlight.execute(Collections.singletonList(1), keys -> {
+                started.countDown();
+                await(release);
+                throw new IllegalStateException("test");
+            }));
+            started.await();
+            Future<?> follower = executor.submit(() -> singleFlight.execute(Collections.singletonList(1), keys -> {
+            }));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalStateException.class);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -1,11 +1,16 @@
 package com.shablii.timetable.service.utility.predicates;
 
-import com.shablii.timetable.model.Schedule;
+import com.shablii.timetable.dao.ScheduleRepository;
+import com.shablii.timetable.model.*;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDate;
+import java.util.*;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +34,18 @@ class SchedulePredicateNoFilterTest {
         assertThat(predicate.test(scheduleTwo)).isTrue();
     }
 
+    @Test
+    public void findRowsShouldSelectAllRowsInRange() {
+
+        ScheduleRepository repository = mock(ScheduleRepository.class);
+        LocalDate date = LocalDate.of(2020, 9, 7);
+        List<ScheduleRow> expected = Collections.singletonList(
+                new ScheduleRow(1L, date, null, null, 1L, "a", 1L, "c", 1L, "g", 1L, "p"));
+        given(repository.findRowsByDateBetween(date, date)).willReturn(expected);
+
+        assertThat(predicate.findRows(repository, date, date)).isEqualTo(expected);
+    }
+
     @Test
     public void getCriteriaShouldReturnStringFormattedForLogging() {
 
@@ -1,10 +1,14 @@
 package com.shablii.timetable.service.utility.predicates;
 
+import com.shablii.timetable.dao.ScheduleRepository;
 import com.shablii.timetable.model.*;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDate;
+import java.util.*;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
@@ -39,6 +43,18 @@ class SchedulePredicateProfessorIdTest {
         assertThat(predicate.test(unexpectedSchedule)).isFalse();
     }
 
+    @Test
+    public void findRowsShouldSelectRowsOfProfessorOnly() {
+
+        ScheduleRepository repository = mock(ScheduleRepository.class);
+        LocalDate date = LocalDate.of(2020, 9, 7);
+        List<ScheduleRow> expected = Collections.singletonList(
+                new ScheduleRow(1L, date, null, null, id, "a", id, "c", id, "g", id, "p"));
+        given(repository.findRowsOfProfessorByDateBetween(date, date, id)).willReturn(expected);
+
+        assertThat(predicate.findRows(repository, date, date)).isEqualTo(expected);
+    }
+
     @Test
     public void getCriteriaShouldReturnStringFormattedForLogging() {
 
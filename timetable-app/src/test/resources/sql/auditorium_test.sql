@@ -20,7 +20,7 @@ VALUES (1, '2020-09-07', 'MONDAY', 'FIRST', 1, 1, 1, 1);
 
 INSERT INTO schedules (id, on_date, day, period, auditorium_id,
                        course_id, group_id, professor_id)
-VALUES (2, '2020-09-07', 'MONDAY', 'FIRST', 2, 1, 1, 1);
+VALUES (2, '2020-09-07', 'MONDAY', 'THIRD', 2, 1, 1, 1);
 
 INSERT INTO schedules (id, on_date, day, period, auditorium_id,
                        course_id, group_id, professor_id)
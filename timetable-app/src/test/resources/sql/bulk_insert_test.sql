@@ -0,0 +1,20 @@
+--insert*()
+ALTER SEQUENCE student_id_seq RESTART WITH 1001;
+ALTER SEQUENCE schedule_template_id_seq RESTART WITH 1001;
+ALTER SEQUENCE schedule_id_seq RESTART WITH 1001;
+
+INSERT INTO auditoriums (id, name)
+VALUES (1, 'one');
+INSERT INTO courses (id, name)
+VALUES (1, 'one');
+INSERT INTO groups (id, name)
+VALUES (1, 'one');
+INSERT INTO professors (id, first_name, last_name)
+VALUES (1, 'one', 'one');
+
+INSERT INTO schedule_templates (id, week_parity, day, period, auditorium_id,
+                                course_id, group_id, professor_id)
+VALUES (1, false, 'MONDAY', 'FIRST', 1, 1, 1, 1);
+INSERT INTO schedules (id, template_id, on_date, day, period, auditorium_id,
+                       course_id, group_id, professor_id)
+VALUES (1, 1, '2020-06-01', 'MONDAY', 'FIRST', 1, 1, 1, 1);
@@ -0,0 +1,14 @@
+--reference entities read through the cache, every test starts from the same rows
+DELETE FROM professors_courses;
+DELETE FROM professors;
+DELETE FROM courses;
+ALTER SEQUENCE course_id_seq RESTART WITH 1001;
+
+INSERT INTO courses (id, name)
+VALUES (1, 'one'),
+       (2, 'two');
+INSERT INTO professors (id, first_name, last_name)
+VALUES (1, 'one', 'one');
+INSERT INTO professors_courses (professor_id, courses_id)
+VALUES (1, 1),
+       (1, 2);
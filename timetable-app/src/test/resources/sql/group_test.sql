@@ -11,6 +11,8 @@ INSERT INTO courses (id, name)
 VALUES (1, 'course');
 INSERT INTO auditoriums (id, name)
 VALUES (1, 'auditorium');
+INSERT INTO auditoriums (id, name)
+VALUES (2, 'another');
 INSERT INTO professors (id, first_name, last_name)
 VALUES (1, 'professor', 'one');
 INSERT INTO professors (id, first_name, last_name)
@@ -22,7 +24,7 @@ VALUES (1, false, 'MONDAY', 'FIRST', 1, 1, 1, 1);
 
 INSERT INTO schedule_templates (id, week_parity, day, period, auditorium_id,
                                 course_id, group_id, professor_id)
-VALUES (2, false, 'MONDAY', 'FIRST', 1, 1, 2, 2);
+VALUES (2, false, 'MONDAY', 'FIRST', 2, 1, 2, 2);
 
 INSERT INTO schedule_templates (id, week_parity, day, period, auditorium_id,
                                 course_id, group_id, professor_id)
@@ -0,0 +1,44 @@
+--a semester of a large university, the plans of indexed lookups must not depend on the table size
+INSERT INTO auditoriums (id, name)
+SELECT X, 'auditorium ' || X FROM SYSTEM_RANGE(1, 100);
+INSERT INTO courses (id, name)
+SELECT X, 'course ' || X FROM SYSTEM_RANGE(1, 20);
+INSERT INTO groups (id, name)
+SELECT X, 'group ' || X FROM SYSTEM_RANGE(1, 200);
+INSERT INTO professors (id, first_name, last_name)
+SELECT X, 'professor', 'professor ' || X FROM SYSTEM_RANGE(1, 100);
+INSERT INTO professors_courses (professor_id, courses_id)
+SELECT MOD(X, 100) + 1, MOD(X + X / 100 * 10, 20) + 1 FROM SYSTEM_RANGE(0, 199);
+INSERT INTO students (id, first_name, last_name, group_id)
+SELECT X + 1, 'student', 'student ' || X, MOD(X, 200) + 1 FROM SYSTEM_RANGE(0, 5999);
+
+INSERT INTO schedule_templates (id, week_parity, day, period, auditorium_id,
+                                course_id, group_id, professor_id)
+SELECT X + 1, X / 2500 = 1,
+       CASE MOD(X, 2500) / 500 WHEN 0 THEN 'MONDAY' WHEN 1 THEN 'TUESDAY' WHEN 2 THEN 'WEDNESDAY'
+           WHEN 3 THEN 'THURSDAY' ELSE 'FRIDAY' END,
+       CASE MOD(X, 500) / 100 WHEN 0 THEN 'FIRST' WHEN 1 THEN 'SECOND' WHEN 2 THEN 'THIRD'
+           WHEN 3 THEN 'FOURTH' ELSE 'FIFTH' END,
+       MOD(X, 100) + 1, MOD(X, 20) + 1, MOD(X, 100) + 1 + MOD(X / 100, 2) * 100, MOD(X, 100) + 1
+FROM SYSTEM_RANGE(0, 4999);
+
+INSERT INTO schedules (id, template_id, on_date, day, period, auditorium_id,
+                       course_id, group_id, professor_id)
+SELECT (t.id - 1) * 7 + w.X + 1, t.id,
+       DATEADD('DAY', (2 * w.X + (t.id - 1) / 2500) * 7 + MOD(t.id - 1, 2500) / 500, DATE '2020-09-07'),
+       t.day, t.period, t.auditorium_id, t.course_id, t.group_id, t.professor_id
+FROM schedule_templates t, SYSTEM_RANGE(0, 6) w;
+
+INSERT INTO rescheduling_options (id, day, period, auditorium_id)
+SELECT X + 1,
+       CASE X / 500 WHEN 0 THEN 'MONDAY' WHEN 1 THEN 'TUESDAY' WHEN 2 THEN 'WEDNESDAY'
+           WHEN 3 THEN 'THURSDAY' ELSE 'FRIDAY' END,
+       CASE MOD(X, 500) / 100 WHEN 0 THEN 'FIRST' WHEN 1 THEN 'SECOND' WHEN 2 THEN 'THIRD'
+           WHEN 3 THEN 'FOURTH' ELSE 'FIFTH' END,
+       MOD(X, 100) + 1
+FROM SYSTEM_RANGE(0, 2499);
+
+INSERT INTO schedule_overrides (id, template_id, origin_date, on_date, day, period, auditorium_id, professor_id)
+SELECT X + 1, X + 1, DATEADD('DAY', MOD(X, 98), DATE '2020-09-07'), DATEADD('DAY', MOD(X, 98) + 1, DATE '2020-09-07'),
+       'MONDAY', 'FIRST', 1, 1
+FROM SYSTEM_RANGE(0, 499);